@@ -10,6 +10,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.pe.laboratorio.security.util.UsuarioActual;
+import com.pe.laboratorio.users.entity.DatosPersonales;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -49,8 +52,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // El principal guarda solo id, login y roles: los servicios lo leen
+            // sin volver a consultar al usuario (ver UsuarioActual)
+            Object principal = userDetails instanceof DatosPersonales usuario
+                    ? UsuarioActual.de(usuario)
+                    : userDetails;
             UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails,
+                    principal,
                     null,
                     userDetails.getAuthorities());
 
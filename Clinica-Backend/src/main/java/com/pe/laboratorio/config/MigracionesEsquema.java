@@ -0,0 +1,111 @@
+package com.pe.laboratorio.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica los scripts SQL de classpath:db/migracion en orden de versión
+ * (V{n}__descripcion.sql) y registra los aplicados en lab_migracion_esquema.
+ *
+ * Cubre lo que ddl-auto=update no puede hacer (particionar tablas, cambiar
+ * claves primarias). Corre antes que los demás runners, cuando Hibernate ya
+ * actualizó el esquema; todas las migraciones pendientes se aplican en una
+ * sola transacción con un advisory lock, por lo que varios nodos que arrancan
+ * a la vez no las ejecutan dos veces.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class MigracionesEsquema implements ApplicationRunner {
+
+    private static final String UBICACION = "classpath:db/migracion/V*__*.sql";
+    private static final Pattern NOMBRE = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long CLAVE_BLOQUEO = 0x4C41424D4947L; // "LABMIG"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+
+    public MigracionesEsquema(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Migracion> migraciones = cargarMigraciones();
+        if (migraciones.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS lab_migracion_esquema (" +
+                "version integer PRIMARY KEY, descripcion varchar(200) NOT NULL, " +
+                "aplicada_en timestamp(6) NOT NULL DEFAULT now())");
+
+        transaccion.executeWithoutResult(estado -> {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, CLAVE_BLOQUEO);
+            Set<Integer> aplicadas = new HashSet<>(
+                    jdbcTemplate.queryForList("SELECT version FROM lab_migracion_esquema", Integer.class));
+
+            for (Migracion migracion : migraciones) {
+                if (aplicadas.contains(migracion.version())) {
+                    continue;
+                }
+                log.info("Aplicando migración V{}: {}", migracion.version(), migracion.descripcion());
+                jdbcTemplate.execute(migracion.sql());
+                jdbcTemplate.update("INSERT INTO lab_migracion_esquema (version, descripcion) VALUES (?, ?)",
+                        migracion.version(), migracion.descripcion());
+            }
+        });
+    }
+
+    private List<Migracion> cargarMigraciones() {
+        try {
+            Resource[] recursos = new PathMatchingResourcePatternResolver().getResources(UBICACION);
+            return Arrays.stream(recursos)
+                    .map(MigracionesEsquema::leer)
+                    .sorted(Comparator.comparingInt(Migracion::version))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las migraciones de " + UBICACION, e);
+        }
+    }
+
+    private static Migracion leer(Resource recurso) {
+        Matcher matcher = NOMBRE.matcher(recurso.getFilename());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("Nombre de migración inválido: " + recurso.getFilename());
+        }
+        try {
+            return new Migracion(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    recurso.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la migración " + recurso.getFilename(), e);
+        }
+    }
+
+    private record Migracion(int version, String descripcion, String sql) {
+    }
+}
@@ -20,11 +20,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.pe.laboratorio.exam.dto.ExamRequest;
 import com.pe.laboratorio.exam.dto.ExamResponse;
+import com.pe.laboratorio.exam.dto.ExamSuggestionResponse;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.exam.service.ExamService;
 import com.pe.laboratorio.shared.dto.ApiResponse;
+import com.pe.laboratorio.shared.util.RespuestaCondicional;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +40,7 @@ import lombok.RequiredArgsConstructor;
 public class ExamController {
 
         private final ExamService examService;
+        private final CatalogoExamenes catalogoExamenes;
 
         @PostMapping
         @PreAuthorize("hasAuthority('EXAM_CREATE')")
@@ -69,13 +74,15 @@ public class ExamController {
 
         @GetMapping("/{id}")
         @PreAuthorize("hasAuthority('EXAM_READ')")
-        public ResponseEntity<ApiResponse<ExamResponse>> getById(@PathVariable Long id) {
-                ExamResponse response = examService.getById(id);
-
-                return ResponseEntity.ok(ApiResponse.<ExamResponse>builder()
-                                .success(true)
-                                .data(response)
-                                .build());
+        public ResponseEntity<ApiResponse<ExamResponse>> getById(@PathVariable Long id, WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        ExamResponse response = examService.getById(id);
+
+                        return ApiResponse.<ExamResponse>builder()
+                                        .success(true)
+                                        .data(response)
+                                        .build();
+                });
         }
 
         @GetMapping
@@ -84,20 +91,22 @@ public class ExamController {
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "nombre") String sort,
-                        @RequestParam(defaultValue = "asc") String direction) {
-
-                Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
-                                ? Sort.Direction.DESC
-                                : Sort.Direction.ASC;
-
-                Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
-                Page<ExamResponse> exams = examService.getAll(pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<ExamResponse>>builder()
-                                .success(true)
-                                .message("Exámenes obtenidos exitosamente")
-                                .data(exams)
-                                .build());
+                        @RequestParam(defaultValue = "asc") String direction,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                                        ? Sort.Direction.DESC
+                                        : Sort.Direction.ASC;
+
+                        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+                        Page<ExamResponse> exams = examService.getAll(pageable);
+
+                        return ApiResponse.<Page<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Exámenes obtenidos exitosamente")
+                                        .data(exams)
+                                        .build();
+                });
         }
 
         @GetMapping("/area/{areaId}")
@@ -105,16 +114,18 @@ public class ExamController {
         public ResponseEntity<ApiResponse<Page<ExamResponse>>> getByAreaId(
                         @PathVariable Long areaId,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
-
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "nombre"));
-                Page<ExamResponse> exams = examService.getByAreaId(areaId, pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<ExamResponse>>builder()
-                                .success(true)
-                                .message("Exámenes del área obtenidos exitosamente")
-                                .data(exams)
-                                .build());
+                        @RequestParam(defaultValue = "10") int size,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "nombre"));
+                        Page<ExamResponse> exams = examService.getByAreaId(areaId, pageable);
+
+                        return ApiResponse.<Page<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Exámenes del área obtenidos exitosamente")
+                                        .data(exams)
+                                        .build();
+                });
         }
 
         @GetMapping("/search")
@@ -122,16 +133,34 @@ public class ExamController {
         public ResponseEntity<ApiResponse<Page<ExamResponse>>> search(
                         @RequestParam String q,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
-
-                Pageable pageable = PageRequest.of(page, size);
-                Page<ExamResponse> exams = examService.searchByNombreOrCodigo(q, pageable);
+                        @RequestParam(defaultValue = "10") int size,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Pageable pageable = PageRequest.of(page, size);
+                        Page<ExamResponse> exams = examService.searchByNombreOrCodigo(q, pageable);
+
+                        return ApiResponse.<Page<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Búsqueda realizada exitosamente")
+                                        .data(exams)
+                                        .build();
+                });
+        }
 
-                return ResponseEntity.ok(ApiResponse.<Page<ExamResponse>>builder()
-                                .success(true)
-                                .message("Búsqueda realizada exitosamente")
-                                .data(exams)
-                                .build());
+        @GetMapping("/suggest")
+        @PreAuthorize("hasAuthority('EXAM_READ')")
+        public ResponseEntity<ApiResponse<List<ExamSuggestionResponse>>> suggest(
+                        @RequestParam String q,
+                        @RequestParam(defaultValue = "10") int limit,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<ExamSuggestionResponse> suggestions = examService.suggest(q, limit);
+
+                        return ApiResponse.<List<ExamSuggestionResponse>>builder()
+                                        .success(true)
+                                        .data(suggestions)
+                                        .build();
+                });
         }
 
         @GetMapping("/tipo/{tipoExamenId}")
@@ -139,40 +168,46 @@ public class ExamController {
         public ResponseEntity<ApiResponse<Page<ExamResponse>>> getByTipoExamen(
                         @PathVariable Long tipoExamenId,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
-
-                Pageable pageable = PageRequest.of(page, size);
-                Page<ExamResponse> exams = examService.getByTipoExamen(tipoExamenId, pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<ExamResponse>>builder()
-                                .success(true)
-                                .message("Exámenes por tipo obtenidos exitosamente")
-                                .data(exams)
-                                .build());
+                        @RequestParam(defaultValue = "10") int size,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Pageable pageable = PageRequest.of(page, size);
+                        Page<ExamResponse> exams = examService.getByTipoExamen(tipoExamenId, pageable);
+
+                        return ApiResponse.<Page<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Exámenes por tipo obtenidos exitosamente")
+                                        .data(exams)
+                                        .build();
+                });
         }
 
         @GetMapping("/perfiles")
         @PreAuthorize("hasAuthority('EXAM_READ')")
-        public ResponseEntity<ApiResponse<List<ExamResponse>>> getPerfiles() {
-                List<ExamResponse> perfiles = examService.getPerfiles();
-
-                return ResponseEntity.ok(ApiResponse.<List<ExamResponse>>builder()
-                                .success(true)
-                                .message("Perfiles obtenidos exitosamente")
-                                .data(perfiles)
-                                .build());
+        public ResponseEntity<ApiResponse<List<ExamResponse>>> getPerfiles(WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<ExamResponse> perfiles = examService.getPerfiles();
+
+                        return ApiResponse.<List<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Perfiles obtenidos exitosamente")
+                                        .data(perfiles)
+                                        .build();
+                });
         }
 
         @GetMapping("/active")
         @PreAuthorize("hasAuthority('EXAM_READ')")
-        public ResponseEntity<ApiResponse<List<ExamResponse>>> getAllActive() {
-                List<ExamResponse> exams = examService.getAllActive();
-
-                return ResponseEntity.ok(ApiResponse.<List<ExamResponse>>builder()
-                                .success(true)
-                                .message("Exámenes activos obtenidos exitosamente")
-                                .data(exams)
-                                .build());
+        public ResponseEntity<ApiResponse<List<ExamResponse>>> getAllActive(WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<ExamResponse> exams = examService.getAllActive();
+
+                        return ApiResponse.<List<ExamResponse>>builder()
+                                        .success(true)
+                                        .message("Exámenes activos obtenidos exitosamente")
+                                        .data(exams)
+                                        .build();
+                });
         }
 
         @DeleteMapping("/{id}")
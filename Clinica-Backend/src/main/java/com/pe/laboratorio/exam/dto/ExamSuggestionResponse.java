@@ -0,0 +1,27 @@
+package com.pe.laboratorio.exam.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Examen sugerido al escribir en el registro de órdenes. subExamenNombre
+ * indica el subexamen que coincidió con el texto cuando la sugerencia es
+ * su perfil.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamSuggestionResponse {
+    private Long id;
+    private String codigo;
+    private String nombre;
+    private String areaNombre;
+    private BigDecimal precio;
+    private Boolean esPerfil;
+    private String subExamenNombre;
+}
@@ -17,12 +17,21 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "lab_examenes")
+@NamedEntityGraph(name = Exam.GRAFO_AREA_Y_TIPO, attributeNodes = {
+        @NamedAttributeNode("area"),
+        @NamedAttributeNode("tipoExamen") })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Exam {
 
+    /**
+     * Carga el área y el tipo de examen en la misma consulta; lo usan los
+     * listados que arman ExamResponse
+     */
+    public static final String GRAFO_AREA_Y_TIPO = "Exam.areaYTipo";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,17 @@
+package com.pe.laboratorio.exam.event;
+
+import java.util.Collection;
+
+/**
+ * Se publica al crear, modificar, reordenar, desactivar o reactivar
+ * subexámenes, áreas o tipos de examen, para que la instantánea del catálogo
+ * se recargue. Los cambios de exámenes usan {@link CatalogoExamenCambiadoEvent}.
+ */
+public record CatalogoCambiadoEvent(Entidad entidad, Collection<Long> ids) {
+
+    public enum Entidad {
+        SUBEXAMEN,
+        AREA,
+        TIPO_EXAMEN
+    }
+}
@@ -0,0 +1,8 @@
+package com.pe.laboratorio.exam.event;
+
+/**
+ * Se publica al crear, modificar, desactivar o reactivar un examen del
+ * catálogo, para que las cachés derivadas se reconstruyan
+ */
+public record CatalogoExamenCambiadoEvent(Long examId) {
+}
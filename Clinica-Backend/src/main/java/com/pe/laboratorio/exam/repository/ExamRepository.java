@@ -1,10 +1,12 @@
 package com.pe.laboratorio.exam.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,6 +14,13 @@ import org.springframework.stereotype.Repository;
 
 import com.pe.laboratorio.exam.entity.Exam;
 
+import jakarta.persistence.Tuple;
+
+/**
+ * Los listados y búsquedas cargan el área y el tipo con
+ * {@link Exam#GRAFO_AREA_Y_TIPO}: una página cuesta la consulta de datos y la
+ * de conteo, sin una consulta extra por examen.
+ */
 @Repository
 public interface ExamRepository extends JpaRepository<Exam, Long> {
 
@@ -21,21 +30,46 @@ public interface ExamRepository extends JpaRepository<Exam, Long> {
 
     boolean existsByCodigoAndIdNot(String codigo, Long id);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     Page<Exam> findByActiveTrue(Pageable pageable);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     Page<Exam> findByAreaIdAndActiveTrue(Long areaId, Pageable pageable);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     @Query("SELECT e FROM Exam e WHERE e.area.id = :areaId AND e.active = true")
     List<Exam> findByAreaId(@Param("areaId") Long areaId);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     @Query("SELECT e FROM Exam e WHERE " +
             "(LOWER(e.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(e.codigo) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
             "e.active = true")
     Page<Exam> searchByNombreOrCodigo(@Param("search") String search, Pageable pageable);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     @Query("SELECT e FROM Exam e WHERE e.tipoExamen.id = :tipoExamenId AND e.active = true")
     Page<Exam> findByTipoExamenId(@Param("tipoExamenId") Long tipoExamenId, Pageable pageable);
 
+    @EntityGraph(Exam.GRAFO_AREA_Y_TIPO)
     List<Exam> findByEsPerfilTrueAndActiveTrue();
-}
\ No newline at end of file
+
+    @Query("SELECT e.id FROM Exam e WHERE e.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Nombre y unidad de los exámenes indicados
+     */
+    @Query("SELECT e.id AS id, e.nombre AS nombre, e.unidadMedida AS unidadMedida FROM Exam e WHERE e.id IN :ids")
+    List<Tuple> findNombresByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Rangos de referencia y críticos de todos los exámenes (incluidos los
+     * inactivos, que pueden seguir en órdenes abiertas)
+     */
+    @Query("SELECT e.id AS id, e.valorMinimo AS valorMinimo, e.valorMaximo AS valorMaximo, " +
+            "e.valorCriticoMin AS valorCriticoMin, e.valorCriticoMax AS valorCriticoMax, " +
+            "e.unidadMedida AS unidadMedida " +
+            "FROM Exam e ORDER BY e.id")
+    List<Tuple> findRangosReferencia();
+}
@@ -0,0 +1,378 @@
+package com.pe.laboratorio.exam.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.exam.enums.TipoMuestra;
+import com.pe.laboratorio.exam.enums.TipoResultado;
+import com.pe.laboratorio.exam.event.CatalogoCambiadoEvent;
+import com.pe.laboratorio.exam.event.CatalogoExamenCambiadoEvent;
+import com.pe.laboratorio.exam.repository.ExamRepository;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.examtype.repository.ExamTypeRepository;
+import com.pe.laboratorio.labarea.entity.LabArea;
+import com.pe.laboratorio.labarea.repository.LabAreaRepository;
+import com.pe.laboratorio.orders.repository.LABContadorCambiosRepository;
+import com.pe.laboratorio.shared.util.PaginacionMemoria;
+import com.pe.laboratorio.subexam.entity.SubExam;
+import com.pe.laboratorio.subexam.repository.SubExamRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Instantánea inmutable del catálogo de laboratorio (exámenes, subexámenes,
+ * áreas y tipos de examen) con sus índices y un número de versión.
+ *
+ * Las lecturas del catálogo se sirven de la instantánea vigente, sin ir a la
+ * base. Después del commit de cualquier escritura del catálogo se carga una
+ * instantánea nueva y se publica con una sola asignación: un lector ve la
+ * anterior o la nueva completa, nunca una mezcla.
+ *
+ * La versión es el contador "catalogo" de lab_contador_cambios, que cada
+ * escritura incrementa en su propia transacción. Es el ETag de los endpoints
+ * de lectura y coincide entre nodos; cada nodo lo compara periódicamente con
+ * el de su instantánea para recoger los cambios hechos en otro.
+ */
+@Component
+@Slf4j
+public class CatalogoExamenes {
+
+    public static final String TABLA_CATALOGO = "catalogo";
+
+    private static final Comparator<Examen> POR_NOMBRE = Comparator
+            .comparing(Examen::nombre, Comparator.nullsLast(PaginacionMemoria.TEXTO))
+            .thenComparing(Examen::id);
+
+    private final LabAreaRepository labAreaRepository;
+    private final ExamTypeRepository examTypeRepository;
+    private final ExamRepository examRepository;
+    private final SubExamRepository subExamRepository;
+    private final LABContadorCambiosRepository contadorCambiosRepository;
+    private final TransactionTemplate transaccionLectura;
+
+    private volatile Catalogo catalogo;
+
+    public CatalogoExamenes(LabAreaRepository labAreaRepository, ExamTypeRepository examTypeRepository,
+            ExamRepository examRepository, SubExamRepository subExamRepository,
+            LABContadorCambiosRepository contadorCambiosRepository,
+            PlatformTransactionManager transactionManager) {
+        this.labAreaRepository = labAreaRepository;
+        this.examTypeRepository = examTypeRepository;
+        this.examRepository = examRepository;
+        this.subExamRepository = subExamRepository;
+        this.contadorCambiosRepository = contadorCambiosRepository;
+        // Transacción propia: la recarga corre después del commit de la
+        // escritura y no debe ver el contexto de persistencia de esta
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    public record Area(Long id, String codigo, String descripcion, Boolean active,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record Tipo(Long id, String nombre, String descripcion, Boolean active,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record Examen(Long id, String codigo, String nombre, Area area, Tipo tipo, String metodo,
+            String unidadMedida, TipoMuestra tipoMuestra, TipoResultado tipoResultado, BigDecimal precio,
+            BigDecimal valorMinimo, BigDecimal valorMaximo, BigDecimal valorCriticoMin,
+            BigDecimal valorCriticoMax, Integer tiempoEntrega, String indicaciones, Boolean active,
+            Boolean esPerfil, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record SubExamen(Long id, Examen examen, String codigo, String nombre, TipoResultado tipoResultado,
+            String unidadMedida, BigDecimal valorMinimo, BigDecimal valorMaximo, BigDecimal valorCriticoMin,
+            BigDecimal valorCriticoMax, Integer ordenVisualizacion, String observaciones, Boolean active,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Instantánea vigente; los llamadores que combinan varias lecturas deben
+     * tomarla una vez y consultar siempre la misma
+     */
+    public Catalogo actual() {
+        Catalogo actual = catalogo;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (this) {
+            return catalogo != null ? catalogo : recargar();
+        }
+    }
+
+    /**
+     * ETag fuerte de la instantánea vigente. Se obtiene antes de leer los
+     * datos: si la instantánea cambia entre ambos pasos, el cliente guarda
+     * datos más nuevos que su ETag y solo repite la descarga.
+     */
+    public String etag() {
+        return "\"catalogo-" + actual().version() + "\"";
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recargar();
+    }
+
+    /**
+     * La versión sube en la misma transacción que la escritura: otro nodo
+     * que ve la versión nueva también ve los datos
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onExamenCambiando(CatalogoExamenCambiadoEvent event) {
+        contadorCambiosRepository.incrementar(TABLA_CATALOGO);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogoCambiando(CatalogoCambiadoEvent event) {
+        contadorCambiosRepository.incrementar(TABLA_CATALOGO);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExamenCambiado(CatalogoExamenCambiadoEvent event) {
+        recargar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoCambiado(CatalogoCambiadoEvent event) {
+        recargar();
+    }
+
+    /**
+     * Recarga la instantánea si otro nodo cambió el catálogo
+     */
+    @Scheduled(fixedDelayString = "${catalogo.verificacion-ms:30000}",
+            initialDelayString = "${catalogo.verificacion-ms:30000}")
+    public void verificarVersion() {
+        Catalogo actual = catalogo;
+        if (actual != null && contadorCambiosRepository.obtener(TABLA_CATALOGO) != actual.version()) {
+            recargar();
+        }
+    }
+
+    synchronized Catalogo recargar() {
+        long inicio = System.currentTimeMillis();
+        // La versión se lee antes que las tablas: los datos son al menos tan
+        // nuevos como ella
+        Catalogo nuevo = transaccionLectura.execute(
+                status -> cargar(contadorCambiosRepository.obtener(TABLA_CATALOGO)));
+        long version = nuevo.version();
+        catalogo = nuevo;
+        log.info("Catálogo cargado (versión {}): {} exámenes, {} subexámenes, {} áreas, {} tipos ({} ms)",
+                version, nuevo.examenes.size(), nuevo.subExamenes.size(), nuevo.areas.size(),
+                nuevo.tipos.size(), System.currentTimeMillis() - inicio);
+        return nuevo;
+    }
+
+    // ========================================
+    // Carga
+    // ========================================
+
+    /**
+     * Lee las cuatro tablas completas. Áreas y tipos se leen primero: las
+     * referencias de los exámenes se resuelven con sus ids, sin consultas
+     * adicionales.
+     */
+    private Catalogo cargar(long version) {
+        Map<Long, Area> areas = new HashMap<>();
+        for (LabArea area : labAreaRepository.findAll()) {
+            areas.put(area.getId(), new Area(area.getId(), area.getCodigo(), area.getDescripcion(),
+                    area.getActive(), area.getCreatedAt(), area.getUpdatedAt()));
+        }
+
+        Map<Long, Tipo> tipos = new HashMap<>();
+        for (ExamType tipo : examTypeRepository.findAll()) {
+            tipos.put(tipo.getId(), new Tipo(tipo.getId(), tipo.getNombre(), tipo.getDescripcion(),
+                    tipo.getActive(), tipo.getCreatedAt(), tipo.getUpdatedAt()));
+        }
+
+        Map<Long, Examen> examenes = new HashMap<>();
+        for (Exam exam : examRepository.findAll()) {
+            examenes.put(exam.getId(), new Examen(exam.getId(), exam.getCodigo(), exam.getNombre(),
+                    areas.get(exam.getArea().getId()), tipos.get(exam.getTipoExamen().getId()),
+                    exam.getMetodo(), exam.getUnidadMedida(), exam.getTipoMuestra(), exam.getTipoResultado(),
+                    exam.getPrecio(), exam.getValorMinimo(), exam.getValorMaximo(), exam.getValorCriticoMin(),
+                    exam.getValorCriticoMax(), exam.getTiempoEntrega(), exam.getIndicaciones(),
+                    exam.getActive(), exam.getEsPerfil(), exam.getCreatedAt(), exam.getUpdatedAt()));
+        }
+
+        Map<Long, SubExamen> subExamenes = new HashMap<>();
+        for (SubExam sub : subExamRepository.findAll()) {
+            subExamenes.put(sub.getId(), new SubExamen(sub.getId(), examenes.get(sub.getExamen().getId()),
+                    sub.getCodigo(), sub.getNombre(), sub.getTipoResultado(), sub.getUnidadMedida(),
+                    sub.getValorMinimo(), sub.getValorMaximo(), sub.getValorCriticoMin(),
+                    sub.getValorCriticoMax(), sub.getOrdenVisualizacion(), sub.getObservaciones(),
+                    sub.getActive(), sub.getCreatedAt(), sub.getUpdatedAt()));
+        }
+
+        return new Catalogo(version, areas, tipos, examenes, subExamenes);
+    }
+
+    // ========================================
+    // Instantánea
+    // ========================================
+
+    /**
+     * Catálogo completo (activos e inactivos) indexado por id, con las listas
+     * de activos precalculadas en el orden en que se presentan. Nada se
+     * modifica después de construido.
+     */
+    public static final class Catalogo {
+
+        private final long version;
+        private final Map<Long, Area> areas;
+        private final Map<Long, Tipo> tipos;
+        private final Map<Long, Examen> examenes;
+        private final Map<Long, SubExamen> subExamenes;
+        private final Map<String, Tipo> tiposPorNombre;
+
+        private final List<Area> areasActivas;
+        private final List<Tipo> tiposPorNombreOrdenados;
+        private final List<Tipo> tiposActivos;
+        private final List<Examen> examenesActivos;
+        private final List<Examen> perfilesActivos;
+        private final Map<Long, List<Examen>> activosPorArea;
+        private final Map<Long, List<Examen>> activosPorTipo;
+        private final Map<Long, List<SubExamen>> subExamenesActivosPorExamen;
+
+        private Catalogo(long version, Map<Long, Area> areas, Map<Long, Tipo> tipos,
+                Map<Long, Examen> examenes, Map<Long, SubExamen> subExamenes) {
+            this.version = version;
+            this.areas = Map.copyOf(areas);
+            this.tipos = Map.copyOf(tipos);
+            this.examenes = Map.copyOf(examenes);
+            this.subExamenes = Map.copyOf(subExamenes);
+
+            Map<String, Tipo> porNombre = new HashMap<>();
+            tipos.values().forEach(tipo -> porNombre.put(tipo.nombre(), tipo));
+            this.tiposPorNombre = Map.copyOf(porNombre);
+
+            this.areasActivas = areas.values().stream()
+                    .filter(area -> Boolean.TRUE.equals(area.active()))
+                    .sorted(Comparator.comparing(Area::id))
+                    .toList();
+            this.tiposPorNombreOrdenados = tipos.values().stream()
+                    .sorted(Comparator.comparing(Tipo::nombre, PaginacionMemoria.TEXTO).thenComparing(Tipo::id))
+                    .toList();
+            this.tiposActivos = tiposPorNombreOrdenados.stream()
+                    .filter(tipo -> Boolean.TRUE.equals(tipo.active()))
+                    .toList();
+
+            this.examenesActivos = examenes.values().stream()
+                    .filter(examen -> Boolean.TRUE.equals(examen.active()))
+                    .sorted(POR_NOMBRE)
+                    .toList();
+            this.perfilesActivos = examenesActivos.stream()
+                    .filter(examen -> Boolean.TRUE.equals(examen.esPerfil()))
+                    .toList();
+            this.activosPorArea = agrupar(examenesActivos, examen -> examen.area().id());
+            this.activosPorTipo = agrupar(examenesActivos, examen -> examen.tipo().id());
+
+            this.subExamenesActivosPorExamen = agrupar(subExamenes.values().stream()
+                    .filter(sub -> Boolean.TRUE.equals(sub.active()))
+                    .sorted(Comparator.comparing(SubExamen::ordenVisualizacion,
+                            Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(SubExamen::id))
+                    .toList(), sub -> sub.examen().id());
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public Optional<Examen> examen(Long id) {
+            return Optional.ofNullable(id != null ? examenes.get(id) : null);
+        }
+
+        /**
+         * Exámenes activos ordenados por nombre
+         */
+        public List<Examen> examenesActivos() {
+            return examenesActivos;
+        }
+
+        public List<Examen> examenesActivosPorArea(Long areaId) {
+            return activosPorArea.getOrDefault(areaId, List.of());
+        }
+
+        public List<Examen> examenesActivosPorTipo(Long tipoId) {
+            return activosPorTipo.getOrDefault(tipoId, List.of());
+        }
+
+        public List<Examen> perfilesActivos() {
+            return perfilesActivos;
+        }
+
+        public Optional<SubExamen> subExamen(Long id) {
+            return Optional.ofNullable(id != null ? subExamenes.get(id) : null);
+        }
+
+        /**
+         * Subexámenes activos del examen en su orden de visualización
+         */
+        public List<SubExamen> subExamenesActivos(Long examenId) {
+            return subExamenesActivosPorExamen.getOrDefault(examenId, List.of());
+        }
+
+        public Optional<Area> area(Long id) {
+            return Optional.ofNullable(id != null ? areas.get(id) : null);
+        }
+
+        /**
+         * Áreas activas ordenadas por id
+         */
+        public List<Area> areasActivas() {
+            return areasActivas;
+        }
+
+        public Optional<Tipo> tipo(Long id) {
+            return Optional.ofNullable(id != null ? tipos.get(id) : null);
+        }
+
+        public Optional<Tipo> tipoPorNombre(String nombre) {
+            return Optional.ofNullable(nombre != null ? tiposPorNombre.get(nombre) : null);
+        }
+
+        /**
+         * Todos los tipos (activos e inactivos) ordenados por nombre
+         */
+        public List<Tipo> tipos() {
+            return tiposPorNombreOrdenados;
+        }
+
+        public List<Tipo> tiposActivos() {
+            return tiposActivos;
+        }
+
+        private static <T> Map<Long, List<T>> agrupar(List<T> elementos,
+                Function<T, Long> clave) {
+            Map<Long, List<T>> grupos = new HashMap<>();
+            for (T elemento : elementos) {
+                grupos.computeIfAbsent(clave.apply(elemento), k -> new ArrayList<>()).add(elemento);
+            }
+            grupos.replaceAll((k, lista) -> List.copyOf(lista));
+            return Map.copyOf(grupos);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.domain.Pageable;
 
 import com.pe.laboratorio.exam.dto.ExamRequest;
 import com.pe.laboratorio.exam.dto.ExamResponse;
+import com.pe.laboratorio.exam.dto.ExamSuggestionResponse;
 
 public interface ExamService {
 
@@ -22,6 +23,8 @@ public interface ExamService {
 
     Page<ExamResponse> searchByNombreOrCodigo(String search, Pageable pageable);
 
+    List<ExamSuggestionResponse> suggest(String query, int limit);
+
     Page<ExamResponse> getByTipoExamen(Long tipoExamenId, Pageable pageable);
 
     List<ExamResponse> getPerfiles();
@@ -0,0 +1,241 @@
+package com.pe.laboratorio.exam.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.pe.laboratorio.exam.service.CatalogoExamenes.Catalogo;
+import com.pe.laboratorio.exam.service.CatalogoExamenes.Examen;
+import com.pe.laboratorio.exam.service.CatalogoExamenes.SubExamen;
+import com.pe.laboratorio.shared.util.TextNormalizer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Autocompletado de exámenes activos por código, nombre o nombre de un
+ * subexamen (que devuelve el perfil al que pertenece).
+ *
+ * Cada texto se normaliza con {@link TextNormalizer} (sin tildes, minúsculas)
+ * y se indexa desde el inicio de cada palabra, así "uric" encuentra "ÁCIDO
+ * ÚRICO". Los términos se guardan en un arreglo ordenado: una sugerencia es
+ * una búsqueda binaria del prefijo y un recorrido de los términos que lo
+ * comparten.
+ *
+ * El índice corresponde a una versión de {@link CatalogoExamenes}. Cuando la
+ * versión cambia se actualiza en forma incremental: se quitan los términos de
+ * los exámenes modificados y se intercalan los nuevos, sin reordenar el resto.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SugerenciasExamenes {
+
+    // Prioridad de la coincidencia, de la más a la menos relevante
+    private static final byte CODIGO = 0;
+    private static final byte NOMBRE = 1;
+    private static final byte PALABRA_NOMBRE = 2;
+    private static final byte SUBEXAMEN = 3;
+    private static final byte PALABRA_SUBEXAMEN = 4;
+
+    private static final Comparator<Termino> ORDEN_TERMINOS = Comparator
+            .comparing(Termino::texto)
+            .thenComparingLong(Termino::examId)
+            .thenComparingInt(Termino::prioridad);
+
+    private final CatalogoExamenes catalogoExamenes;
+
+    private volatile Indice indice;
+
+    /**
+     * Examen sugerido; subExamen es el nombre del subexamen que coincidió, o
+     * null si coincidió el propio examen
+     */
+    public record Sugerencia(Examen examen, String subExamen) {
+    }
+
+    /**
+     * Hasta limite exámenes cuyo código, nombre o subexamen tiene una palabra
+     * que empieza con el texto, del más al menos relevante: código exacto,
+     * código, inicio del nombre, otra palabra del nombre y subexámenes; a
+     * igual relevancia, el nombre más corto
+     */
+    public List<Sugerencia> sugerir(String texto, int limite) {
+        String prefijo = TextNormalizer.normalizar(texto);
+        if (prefijo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Indice actual = indice(catalogoExamenes.actual());
+
+        Map<Long, Coincidencia> mejores = new HashMap<>();
+        Termino[] terminos = actual.terminos();
+        for (int i = desde(terminos, prefijo); i < terminos.length && terminos[i].texto().startsWith(prefijo); i++) {
+            Termino termino = terminos[i];
+            // Un término completo pesa más que uno que solo empieza con el texto
+            int rango = termino.prioridad() * 2 + (termino.texto().length() == prefijo.length() ? 0 : 1);
+            Coincidencia anterior = mejores.get(termino.examId());
+            if (anterior == null || rango < anterior.rango()) {
+                mejores.put(termino.examId(), new Coincidencia(termino, rango));
+            }
+        }
+
+        Catalogo catalogo = actual.catalogo();
+        return mejores.values().stream()
+                .sorted(Comparator.comparingInt(Coincidencia::rango)
+                        .thenComparingInt(c -> c.termino().nombreExamen().length())
+                        .thenComparing(c -> c.termino().nombreExamen())
+                        .thenComparingLong(c -> c.termino().examId()))
+                .limit(limite)
+                .map(c -> new Sugerencia(catalogo.examen(c.termino().examId()).orElseThrow(),
+                        c.termino().subExamen()))
+                .toList();
+    }
+
+    // ========================================
+    // Construcción
+    // ========================================
+
+    /**
+     * Índice de la versión indicada del catálogo, actualizándolo si es de
+     * una versión anterior
+     */
+    private Indice indice(Catalogo catalogo) {
+        Indice actual = indice;
+        if (actual != null && actual.catalogo().version() == catalogo.version()) {
+            return actual;
+        }
+        synchronized (this) {
+            actual = indice;
+            if (actual != null && actual.catalogo().version() >= catalogo.version()) {
+                // Otro hilo ya lo actualizó, o a una versión más nueva que
+                // responde igual de bien
+                return actual;
+            }
+            long inicio = System.nanoTime();
+            Indice nuevo = actual == null ? construir(catalogo) : actualizar(actual, catalogo);
+            indice = nuevo;
+            log.debug("Índice de sugerencias de exámenes en versión {}: {} términos ({} µs)",
+                    catalogo.version(), nuevo.terminos().length, (System.nanoTime() - inicio) / 1000);
+            return nuevo;
+        }
+    }
+
+    private static Indice construir(Catalogo catalogo) {
+        List<Termino> terminos = new ArrayList<>();
+        for (Examen examen : catalogo.examenesActivos()) {
+            agregarTerminos(terminos, examen, catalogo.subExamenesActivos(examen.id()));
+        }
+        Termino[] ordenados = terminos.toArray(Termino[]::new);
+        Arrays.sort(ordenados, ORDEN_TERMINOS);
+        return new Indice(catalogo, ordenados);
+    }
+
+    /**
+     * Quita los términos de los exámenes que cambiaron (ellos, su área o tipo,
+     * o sus subexámenes) o dejaron de estar activos, e intercala los nuevos
+     */
+    private static Indice actualizar(Indice anterior, Catalogo catalogo) {
+        Catalogo previo = anterior.catalogo();
+        Set<Long> cambiados = new HashSet<>();
+        for (Examen examen : previo.examenesActivos()) {
+            if (!examen.equals(catalogo.examen(examen.id()).orElse(null))) {
+                cambiados.add(examen.id());
+            }
+        }
+        List<Termino> nuevos = new ArrayList<>();
+        for (Examen examen : catalogo.examenesActivos()) {
+            List<SubExamen> subExamenes = catalogo.subExamenesActivos(examen.id());
+            if (cambiados.contains(examen.id())
+                    || !examen.equals(previo.examen(examen.id()).orElse(null))
+                    || !subExamenes.equals(previo.subExamenesActivos(examen.id()))) {
+                cambiados.add(examen.id());
+                agregarTerminos(nuevos, examen, subExamenes);
+            }
+        }
+        if (cambiados.isEmpty()) {
+            return new Indice(catalogo, anterior.terminos());
+        }
+        nuevos.sort(ORDEN_TERMINOS);
+
+        Termino[] terminos = anterior.terminos();
+        Termino[] resultado = new Termino[terminos.length + nuevos.size()];
+        int n = 0;
+        int j = 0;
+        for (Termino termino : terminos) {
+            if (cambiados.contains(termino.examId())) {
+                continue;
+            }
+            while (j < nuevos.size() && ORDEN_TERMINOS.compare(nuevos.get(j), termino) < 0) {
+                resultado[n++] = nuevos.get(j++);
+            }
+            resultado[n++] = termino;
+        }
+        while (j < nuevos.size()) {
+            resultado[n++] = nuevos.get(j++);
+        }
+        return new Indice(catalogo, Arrays.copyOf(resultado, n));
+    }
+
+    private static void agregarTerminos(List<Termino> terminos, Examen examen, List<SubExamen> subExamenes) {
+        String nombre = Objects.requireNonNullElse(examen.nombre(), "");
+        String codigo = TextNormalizer.normalizar(examen.codigo());
+        if (!codigo.isEmpty()) {
+            terminos.add(new Termino(codigo, examen.id(), CODIGO, nombre, null));
+        }
+        agregarPalabras(terminos, TextNormalizer.normalizar(nombre), examen.id(), NOMBRE, PALABRA_NOMBRE,
+                nombre, null);
+        for (SubExamen subExamen : subExamenes) {
+            agregarPalabras(terminos, TextNormalizer.normalizar(subExamen.nombre()), examen.id(), SUBEXAMEN,
+                    PALABRA_SUBEXAMEN, nombre, subExamen.nombre());
+        }
+    }
+
+    /**
+     * Un término por cada palabra del texto normalizado, desde esa palabra
+     * hasta el final
+     */
+    private static void agregarPalabras(List<Termino> terminos, String texto, long examId, byte inicio,
+            byte palabra, String nombreExamen, String subExamen) {
+        if (texto.isEmpty()) {
+            return;
+        }
+        terminos.add(new Termino(texto, examId, inicio, nombreExamen, subExamen));
+        for (int i = texto.indexOf(' '); i >= 0; i = texto.indexOf(' ', i + 1)) {
+            terminos.add(new Termino(texto.substring(i + 1), examId, palabra, nombreExamen, subExamen));
+        }
+    }
+
+    /**
+     * Posición del primer término mayor o igual al prefijo
+     */
+    private static int desde(Termino[] terminos, String prefijo) {
+        int bajo = 0;
+        int alto = terminos.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (terminos[medio].texto().compareTo(prefijo) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private record Termino(String texto, long examId, byte prioridad, String nombreExamen, String subExamen) {
+    }
+
+    private record Coincidencia(Termino termino, int rango) {
+    }
+
+    private record Indice(Catalogo catalogo, Termino[] terminos) {
+    }
+}
@@ -1,24 +1,34 @@
 package com.pe.laboratorio.exam.service.impl;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.pe.laboratorio.exam.dto.ExamRequest;
 import com.pe.laboratorio.exam.dto.ExamResponse;
+import com.pe.laboratorio.exam.dto.ExamSuggestionResponse;
 import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.exam.event.CatalogoExamenCambiadoEvent;
 import com.pe.laboratorio.exam.repository.ExamRepository;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.exam.service.ExamService;
+import com.pe.laboratorio.exam.service.SugerenciasExamenes;
 import com.pe.laboratorio.examtype.entity.ExamType;
 import com.pe.laboratorio.examtype.repository.ExamTypeRepository;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
 import com.pe.laboratorio.exception.ValidationException;
 import com.pe.laboratorio.labarea.entity.LabArea;
 import com.pe.laboratorio.labarea.repository.LabAreaRepository;
+import com.pe.laboratorio.shared.util.PaginacionMemoria;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,9 +39,27 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class ExamServiceImpl implements ExamService {
 
+    private static final int MAXIMO_SUGERENCIAS = 50;
+
+    /**
+     * Propiedades por las que se puede ordenar el listado de exámenes
+     */
+    private static final Map<String, Function<CatalogoExamenes.Examen, Comparable<?>>> CAMPOS_ORDEN = Map.of(
+            "id", CatalogoExamenes.Examen::id,
+            "codigo", CatalogoExamenes.Examen::codigo,
+            "nombre", CatalogoExamenes.Examen::nombre,
+            "metodo", CatalogoExamenes.Examen::metodo,
+            "precio", CatalogoExamenes.Examen::precio,
+            "tiempoEntrega", CatalogoExamenes.Examen::tiempoEntrega,
+            "createdAt", CatalogoExamenes.Examen::createdAt,
+            "updatedAt", CatalogoExamenes.Examen::updatedAt);
+
     private final ExamRepository examRepository;
     private final LabAreaRepository labAreaRepository;
     private final ExamTypeRepository examTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoExamenes catalogoExamenes;
+    private final SugerenciasExamenes sugerenciasExamenes;
 
     @Override
     public ExamResponse create(ExamRequest request) {
@@ -70,6 +98,7 @@ public class ExamServiceImpl implements ExamService {
 
         Exam saved = examRepository.save(exam);
         log.info("Exam created successfully with ID: {}", saved.getId());
+        eventPublisher.publishEvent(new CatalogoExamenCambiadoEvent(saved.getId()));
 
         return mapToResponse(saved);
     }
@@ -111,78 +140,102 @@ public class ExamServiceImpl implements ExamService {
 
         Exam updated = examRepository.save(exam);
         log.info("Exam updated successfully: {}", updated.getId());
+        eventPublisher.publishEvent(new CatalogoExamenCambiadoEvent(updated.getId()));
 
         return mapToResponse(updated);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ExamResponse getById(Long id) {
         log.info("Getting exam by ID: {}", id);
 
-        Exam exam = examRepository.findById(id)
+        return catalogoExamenes.actual().examen(id)
+                .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Examen no encontrado con ID: " + id));
-
-        return mapToResponse(exam);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<ExamResponse> getAll(Pageable pageable) {
         log.info("Getting all exams - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-        return examRepository.findByActiveTrue(pageable)
+        return PaginacionMemoria.paginar(catalogoExamenes.actual().examenesActivos(), pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<ExamResponse> getByAreaId(Long areaId, Pageable pageable) {
         log.info("Getting exams by area ID: {}", areaId);
 
-        if (!labAreaRepository.existsById(areaId)) {
+        CatalogoExamenes.Catalogo catalogo = catalogoExamenes.actual();
+        if (catalogo.area(areaId).isEmpty()) {
             throw new ResourceNotFoundException("Área no encontrada con ID: " + areaId);
         }
 
-        return examRepository.findByAreaIdAndActiveTrue(areaId, pageable)
+        return PaginacionMemoria.paginar(catalogo.examenesActivosPorArea(areaId), pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<ExamResponse> searchByNombreOrCodigo(String search, Pageable pageable) {
         log.info("Searching exams by: {}", search);
 
-        return examRepository.searchByNombreOrCodigo(search, pageable)
+        String texto = search.toLowerCase(Locale.ROOT);
+        List<CatalogoExamenes.Examen> encontrados = catalogoExamenes.actual().examenesActivos().stream()
+                .filter(examen -> contiene(examen.nombre(), texto) || contiene(examen.codigo(), texto))
+                .toList();
+
+        return PaginacionMemoria.paginar(encontrados, pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ExamSuggestionResponse> suggest(String query, int limit) {
+        log.debug("Suggesting exams for: {}", query);
+
+        return sugerenciasExamenes.sugerir(query, Math.min(limit, MAXIMO_SUGERENCIAS)).stream()
+                .map(sugerencia -> ExamSuggestionResponse.builder()
+                        .id(sugerencia.examen().id())
+                        .codigo(sugerencia.examen().codigo())
+                        .nombre(sugerencia.examen().nombre())
+                        .areaNombre(sugerencia.examen().area().descripcion())
+                        .precio(sugerencia.examen().precio())
+                        .esPerfil(sugerencia.examen().esPerfil())
+                        .subExamenNombre(sugerencia.subExamen())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<ExamResponse> getByTipoExamen(Long tipoExamenId, Pageable pageable) {
         log.info("Getting exams by tipo examen ID: {}", tipoExamenId);
 
-        return examRepository.findByTipoExamenId(tipoExamenId, pageable)
+        return PaginacionMemoria.paginar(catalogoExamenes.actual().examenesActivosPorTipo(tipoExamenId),
+                pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ExamResponse> getPerfiles() {
         log.info("Getting all exam profiles");
 
-        return examRepository.findByEsPerfilTrueAndActiveTrue().stream()
+        return catalogoExamenes.actual().perfilesActivos().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ExamResponse> getAllActive() {
         log.info("Getting all active exams");
 
-        return examRepository.findByActiveTrue(Pageable.unpaged())
-                .stream()
+        return catalogoExamenes.actual().examenesActivos().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -198,6 +251,7 @@ public class ExamServiceImpl implements ExamService {
         examRepository.save(exam);
 
         log.info("Exam deleted (soft delete): {}", id);
+        eventPublisher.publishEvent(new CatalogoExamenCambiadoEvent(id));
     }
 
     @Override
@@ -211,6 +265,39 @@ public class ExamServiceImpl implements ExamService {
         examRepository.save(exam);
 
         log.info("Exam status changed: {} - active: {}", id, active);
+        eventPublisher.publishEvent(new CatalogoExamenCambiadoEvent(id));
+    }
+
+    private static boolean contiene(String valor, String texto) {
+        return valor != null && valor.toLowerCase(Locale.ROOT).contains(texto);
+    }
+
+    private ExamResponse mapToResponse(CatalogoExamenes.Examen exam) {
+        return ExamResponse.builder()
+                .id(exam.id())
+                .codigo(exam.codigo())
+                .nombre(exam.nombre())
+                .areaId(exam.area().id())
+                .areaNombre(exam.area().descripcion())
+                .areaCodigo(exam.area().codigo())
+                .tipoExamenId(exam.tipo().id())
+                .tipoExamenNombre(exam.tipo().nombre())
+                .metodo(exam.metodo())
+                .unidadMedida(exam.unidadMedida())
+                .tipoMuestra(exam.tipoMuestra())
+                .tipoResultado(exam.tipoResultado())
+                .precio(exam.precio())
+                .valorMinimo(exam.valorMinimo())
+                .valorMaximo(exam.valorMaximo())
+                .valorCriticoMin(exam.valorCriticoMin())
+                .valorCriticoMax(exam.valorCriticoMax())
+                .tiempoEntrega(exam.tiempoEntrega())
+                .indicaciones(exam.indicaciones())
+                .active(exam.active())
+                .esPerfil(exam.esPerfil())
+                .createdAt(exam.createdAt())
+                .updatedAt(exam.updatedAt())
+                .build();
     }
 
     private ExamResponse mapToResponse(Exam exam) {
@@ -20,11 +20,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.examtype.dto.ExamTypeRequest;
 import com.pe.laboratorio.examtype.dto.ExamTypeResponse;
 import com.pe.laboratorio.examtype.service.ExamTypeService;
 import com.pe.laboratorio.shared.dto.ApiResponse;
+import com.pe.laboratorio.shared.util.RespuestaCondicional;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class ExamTypeController {
 
         private final ExamTypeService examTypeService;
+        private final CatalogoExamenes catalogoExamenes;
 
         @PostMapping
         @PreAuthorize("hasAuthority('EXAM_TYPE_CREATE')")
@@ -69,24 +73,28 @@ public class ExamTypeController {
 
         @GetMapping("/{id}")
         @PreAuthorize("hasAuthority('EXAM_TYPE_READ')")
-        public ResponseEntity<ApiResponse<ExamTypeResponse>> getById(@PathVariable Long id) {
-                ExamTypeResponse response = examTypeService.getById(id);
-
-                return ResponseEntity.ok(ApiResponse.<ExamTypeResponse>builder()
-                                .success(true)
-                                .data(response)
-                                .build());
+        public ResponseEntity<ApiResponse<ExamTypeResponse>> getById(@PathVariable Long id, WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        ExamTypeResponse response = examTypeService.getById(id);
+
+                        return ApiResponse.<ExamTypeResponse>builder()
+                                        .success(true)
+                                        .data(response)
+                                        .build();
+                });
         }
 
         @GetMapping("/nombre/{nombre}")
         @PreAuthorize("hasAuthority('EXAM_TYPE_READ')")
-        public ResponseEntity<ApiResponse<ExamTypeResponse>> getByNombre(@PathVariable String nombre) {
-                ExamTypeResponse response = examTypeService.getByNombre(nombre);
-
-                return ResponseEntity.ok(ApiResponse.<ExamTypeResponse>builder()
-                                .success(true)
-                                .data(response)
-                                .build());
+        public ResponseEntity<ApiResponse<ExamTypeResponse>> getByNombre(@PathVariable String nombre, WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        ExamTypeResponse response = examTypeService.getByNombre(nombre);
+
+                        return ApiResponse.<ExamTypeResponse>builder()
+                                        .success(true)
+                                        .data(response)
+                                        .build();
+                });
         }
 
         @GetMapping
@@ -95,32 +103,36 @@ public class ExamTypeController {
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "nombre") String sort,
-                        @RequestParam(defaultValue = "asc") String direction) {
-
-                Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
-                                ? Sort.Direction.DESC
-                                : Sort.Direction.ASC;
-
-                Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
-                Page<ExamTypeResponse> examTypes = examTypeService.getAll(pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<ExamTypeResponse>>builder()
-                                .success(true)
-                                .message("Tipos de examen obtenidos exitosamente")
-                                .data(examTypes)
-                                .build());
+                        @RequestParam(defaultValue = "asc") String direction,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                                        ? Sort.Direction.DESC
+                                        : Sort.Direction.ASC;
+
+                        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+                        Page<ExamTypeResponse> examTypes = examTypeService.getAll(pageable);
+
+                        return ApiResponse.<Page<ExamTypeResponse>>builder()
+                                        .success(true)
+                                        .message("Tipos de examen obtenidos exitosamente")
+                                        .data(examTypes)
+                                        .build();
+                });
         }
 
         @GetMapping("/active")
         @PreAuthorize("hasAuthority('EXAM_TYPE_READ')")
-        public ResponseEntity<ApiResponse<List<ExamTypeResponse>>> getAllActive() {
-                List<ExamTypeResponse> examTypes = examTypeService.getAllActive();
-
-                return ResponseEntity.ok(ApiResponse.<List<ExamTypeResponse>>builder()
-                                .success(true)
-                                .message("Tipos de examen activos obtenidos exitosamente")
-                                .data(examTypes)
-                                .build());
+        public ResponseEntity<ApiResponse<List<ExamTypeResponse>>> getAllActive(WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<ExamTypeResponse> examTypes = examTypeService.getAllActive();
+
+                        return ApiResponse.<List<ExamTypeResponse>>builder()
+                                        .success(true)
+                                        .message("Tipos de examen activos obtenidos exitosamente")
+                                        .data(examTypes)
+                                        .build();
+                });
         }
 
         @DeleteMapping("/{id}")
@@ -1,13 +1,19 @@
 package com.pe.laboratorio.examtype.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.pe.laboratorio.exam.event.CatalogoCambiadoEvent;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.examtype.dto.ExamTypeRequest;
 import com.pe.laboratorio.examtype.dto.ExamTypeResponse;
 import com.pe.laboratorio.examtype.entity.ExamType;
@@ -15,6 +21,7 @@ import com.pe.laboratorio.examtype.repository.ExamTypeRepository;
 import com.pe.laboratorio.examtype.service.ExamTypeService;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
 import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.shared.util.PaginacionMemoria;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -25,7 +32,20 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class ExamTypeServiceImpl implements ExamTypeService {
 
+    /**
+     * Propiedades por las que se puede ordenar el listado de tipos de examen
+     */
+    private static final Map<String, Function<CatalogoExamenes.Tipo, Comparable<?>>> CAMPOS_ORDEN = Map.of(
+            "id", CatalogoExamenes.Tipo::id,
+            "nombre", CatalogoExamenes.Tipo::nombre,
+            "descripcion", CatalogoExamenes.Tipo::descripcion,
+            "active", CatalogoExamenes.Tipo::active,
+            "createdAt", CatalogoExamenes.Tipo::createdAt,
+            "updatedAt", CatalogoExamenes.Tipo::updatedAt);
+
     private final ExamTypeRepository examTypeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoExamenes catalogoExamenes;
 
     @Override
     public ExamTypeResponse create(ExamTypeRequest request) {
@@ -43,6 +63,7 @@ public class ExamTypeServiceImpl implements ExamTypeService {
 
         ExamType saved = examTypeRepository.save(examType);
         log.info("Exam type created successfully with ID: {}", saved.getId());
+        publicarCambio(saved.getId());
 
         return mapToResponse(saved);
     }
@@ -65,47 +86,46 @@ public class ExamTypeServiceImpl implements ExamTypeService {
 
         ExamType updated = examTypeRepository.save(examType);
         log.info("Exam type updated successfully: {}", updated.getId());
+        publicarCambio(updated.getId());
 
         return mapToResponse(updated);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ExamTypeResponse getById(Long id) {
         log.info("Getting exam type by ID: {}", id);
 
-        ExamType examType = examTypeRepository.findById(id)
+        return catalogoExamenes.actual().tipo(id)
+                .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de examen no encontrado con ID: " + id));
-
-        return mapToResponse(examType);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ExamTypeResponse getByNombre(String nombre) {
         log.info("Getting exam type by nombre: {}", nombre);
 
-        ExamType examType = examTypeRepository.findByNombre(nombre)
+        return catalogoExamenes.actual().tipoPorNombre(nombre)
+                .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Tipo de examen no encontrado con nombre: " + nombre));
-
-        return mapToResponse(examType);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<ExamTypeResponse> getAll(Pageable pageable) {
         log.info("Getting all exam types - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-        return examTypeRepository.findAll(pageable)
+        return PaginacionMemoria.paginar(catalogoExamenes.actual().tipos(), pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ExamTypeResponse> getAllActive() {
         log.info("Getting all active exam types");
 
-        return examTypeRepository.findByActiveTrue().stream()
+        return catalogoExamenes.actual().tiposActivos().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -121,6 +141,7 @@ public class ExamTypeServiceImpl implements ExamTypeService {
         examTypeRepository.save(examType);
 
         log.info("Exam type deleted (soft delete): {}", id);
+        publicarCambio(id);
     }
 
     @Override
@@ -134,6 +155,23 @@ public class ExamTypeServiceImpl implements ExamTypeService {
         examTypeRepository.save(examType);
 
         log.info("Exam type status changed: {} - active: {}", id, active);
+        publicarCambio(id);
+    }
+
+    private void publicarCambio(Long id) {
+        eventPublisher.publishEvent(
+                new CatalogoCambiadoEvent(CatalogoCambiadoEvent.Entidad.TIPO_EXAMEN, List.of(id)));
+    }
+
+    private ExamTypeResponse mapToResponse(CatalogoExamenes.Tipo examType) {
+        return ExamTypeResponse.builder()
+                .id(examType.id())
+                .nombre(examType.nombre())
+                .descripcion(examType.descripcion())
+                .active(examType.active())
+                .createdAt(examType.createdAt())
+                .updatedAt(examType.updatedAt())
+                .build();
     }
 
     private ExamTypeResponse mapToResponse(ExamType examType) {
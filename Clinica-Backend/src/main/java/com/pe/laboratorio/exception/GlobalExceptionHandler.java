@@ -1,6 +1,7 @@
 package com.pe.laboratorio.exception;
 
 import com.pe.laboratorio.auth.service.dto.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -27,6 +28,15 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
   }
 
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<Map<String, Object>> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+    Map<String, Object> errorDetails = new HashMap<>();
+    errorDetails.put("message", "El registro fue modificado por otro usuario. Recargue e intente nuevamente.");
+    errorDetails.put("status", HttpStatus.CONFLICT.value());
+    errorDetails.put("error", "Conflicto de Concurrencia");
+    return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
     Map<String, Object> errorDetails = new HashMap<>();
@@ -20,11 +20,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.labarea.dto.LabAreaRequest;
 import com.pe.laboratorio.labarea.dto.LabAreaResponse;
 import com.pe.laboratorio.labarea.service.LabAreaService;
 import com.pe.laboratorio.shared.dto.ApiResponse;
+import com.pe.laboratorio.shared.util.RespuestaCondicional;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +39,7 @@ import lombok.RequiredArgsConstructor;
 public class LabAreaController {
 
         private final LabAreaService labAreaService;
+        private final CatalogoExamenes catalogoExamenes;
 
         /**
          * Crear área de laboratorio
@@ -81,13 +85,15 @@ public class LabAreaController {
          */
         @GetMapping("/{id}")
         @PreAuthorize("hasAuthority('LAB_AREA_READ')")
-        public ResponseEntity<ApiResponse<LabAreaResponse>> getById(@PathVariable Long id) {
-                LabAreaResponse response = labAreaService.getById(id);
-
-                return ResponseEntity.ok(ApiResponse.<LabAreaResponse>builder()
-                                .success(true)
-                                .data(response)
-                                .build());
+        public ResponseEntity<ApiResponse<LabAreaResponse>> getById(@PathVariable Long id, WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        LabAreaResponse response = labAreaService.getById(id);
+
+                        return ApiResponse.<LabAreaResponse>builder()
+                                        .success(true)
+                                        .data(response)
+                                        .build();
+                });
         }
 
         /**
@@ -100,20 +106,22 @@ public class LabAreaController {
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "10") int size,
                         @RequestParam(defaultValue = "id") String sort,
-                        @RequestParam(defaultValue = "asc") String direction) {
-
-                Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
-                                ? Sort.Direction.DESC
-                                : Sort.Direction.ASC;
-
-                Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
-                Page<LabAreaResponse> areas = labAreaService.getAll(pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<LabAreaResponse>>builder()
-                                .success(true)
-                                .message("Áreas obtenidas exitosamente")
-                                .data(areas)
-                                .build());
+                        @RequestParam(defaultValue = "asc") String direction,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Sort.Direction sortDirection = direction.equalsIgnoreCase("desc")
+                                        ? Sort.Direction.DESC
+                                        : Sort.Direction.ASC;
+
+                        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
+                        Page<LabAreaResponse> areas = labAreaService.getAll(pageable);
+
+                        return ApiResponse.<Page<LabAreaResponse>>builder()
+                                        .success(true)
+                                        .message("Áreas obtenidas exitosamente")
+                                        .data(areas)
+                                        .build();
+                });
         }
 
         /**
@@ -125,16 +133,18 @@ public class LabAreaController {
         public ResponseEntity<ApiResponse<Page<LabAreaResponse>>> search(
                         @RequestParam String q,
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "10") int size) {
-
-                Pageable pageable = PageRequest.of(page, size);
-                Page<LabAreaResponse> areas = labAreaService.searchByDescripcion(q, pageable);
-
-                return ResponseEntity.ok(ApiResponse.<Page<LabAreaResponse>>builder()
-                                .success(true)
-                                .message("Búsqueda realizada exitosamente")
-                                .data(areas)
-                                .build());
+                        @RequestParam(defaultValue = "10") int size,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        Pageable pageable = PageRequest.of(page, size);
+                        Page<LabAreaResponse> areas = labAreaService.searchByDescripcion(q, pageable);
+
+                        return ApiResponse.<Page<LabAreaResponse>>builder()
+                                        .success(true)
+                                        .message("Búsqueda realizada exitosamente")
+                                        .data(areas)
+                                        .build();
+                });
         }
 
         /**
@@ -143,14 +153,16 @@ public class LabAreaController {
          */
         @GetMapping("/active")
         @PreAuthorize("hasAuthority('LAB_AREA_READ')")
-        public ResponseEntity<ApiResponse<List<LabAreaResponse>>> getAllActive() {
-                List<LabAreaResponse> areas = labAreaService.getAllActive();
-
-                return ResponseEntity.ok(ApiResponse.<List<LabAreaResponse>>builder()
-                                .success(true)
-                                .message("Áreas activas obtenidas exitosamente")
-                                .data(areas)
-                                .build());
+        public ResponseEntity<ApiResponse<List<LabAreaResponse>>> getAllActive(WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<LabAreaResponse> areas = labAreaService.getAllActive();
+
+                        return ApiResponse.<List<LabAreaResponse>>builder()
+                                        .success(true)
+                                        .message("Áreas activas obtenidas exitosamente")
+                                        .data(areas)
+                                        .build();
+                });
         }
 
         /**
@@ -1,13 +1,20 @@
 package com.pe.laboratorio.labarea.service.impl;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.pe.laboratorio.exam.event.CatalogoCambiadoEvent;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
 import com.pe.laboratorio.exception.ValidationException;
 import com.pe.laboratorio.labarea.dto.LabAreaRequest;
@@ -17,6 +24,7 @@ import com.pe.laboratorio.labarea.repository.LabAreaRepository;
 import com.pe.laboratorio.labarea.service.LabAreaService;
 import com.pe.laboratorio.reports.audit.service.AuditService;
 import com.pe.laboratorio.security.util.HttpUtils;
+import com.pe.laboratorio.shared.util.PaginacionMemoria;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -28,9 +36,21 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class LabAreaServiceImpl implements LabAreaService {
 
+    /**
+     * Propiedades por las que se puede ordenar el listado de áreas
+     */
+    private static final Map<String, Function<CatalogoExamenes.Area, Comparable<?>>> CAMPOS_ORDEN = Map.of(
+            "id", CatalogoExamenes.Area::id,
+            "codigo", CatalogoExamenes.Area::codigo,
+            "descripcion", CatalogoExamenes.Area::descripcion,
+            "createdAt", CatalogoExamenes.Area::createdAt,
+            "updatedAt", CatalogoExamenes.Area::updatedAt);
+
     private final LabAreaRepository labAreaRepository;
     private final AuditService auditService;
     private final HttpServletRequest httpRequest;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoExamenes catalogoExamenes;
 
     @Override
     public LabAreaResponse create(LabAreaRequest request) {
@@ -49,6 +69,7 @@ public class LabAreaServiceImpl implements LabAreaService {
 
         LabArea saved = labAreaRepository.save(labArea);
         log.info("Lab area created successfully with ID: {}", saved.getId());
+        publicarCambio(saved.getId());
 
         // Auditoría
         auditService.logAction(
@@ -87,6 +108,7 @@ public class LabAreaServiceImpl implements LabAreaService {
 
         LabArea updated = labAreaRepository.save(labArea);
         log.info("Lab area updated successfully: {}", updated.getId());
+        publicarCambio(updated.getId());
 
         // Auditoría
         auditService.logAction(
@@ -106,41 +128,45 @@ public class LabAreaServiceImpl implements LabAreaService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public LabAreaResponse getById(Long id) {
         log.info("Getting lab area by ID: {}", id);
 
-        LabArea labArea = labAreaRepository.findById(id)
+        return catalogoExamenes.actual().area(id)
+                .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Área de laboratorio no encontrada con ID: " + id));
-
-        return mapToResponse(labArea);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<LabAreaResponse> getAll(Pageable pageable) {
         log.info("Getting all lab areas - page: {}, size: {}", pageable.getPageNumber(), pageable.getPageSize());
 
-        return labAreaRepository.findByActiveTrue(pageable)
+        return PaginacionMemoria.paginar(catalogoExamenes.actual().areasActivas(), pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Page<LabAreaResponse> searchByDescripcion(String descripcion, Pageable pageable) {
         log.info("Searching lab areas by description: {}", descripcion);
 
-        return labAreaRepository.findByDescripcionContainingIgnoreCaseAndActiveTrue(descripcion, pageable)
+        String texto = descripcion.toLowerCase(Locale.ROOT);
+        List<CatalogoExamenes.Area> encontradas = catalogoExamenes.actual().areasActivas().stream()
+                .filter(area -> area.descripcion() != null
+                        && area.descripcion().toLowerCase(Locale.ROOT).contains(texto))
+                .toList();
+
+        return PaginacionMemoria.paginar(encontradas, pageable, CAMPOS_ORDEN)
                 .map(this::mapToResponse);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<LabAreaResponse> getAllActive() {
         log.info("Getting all active lab areas");
 
-        return labAreaRepository.findByActiveTrue(Pageable.unpaged())
-                .stream()
+        return catalogoExamenes.actual().areasActivas().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -157,6 +183,7 @@ public class LabAreaServiceImpl implements LabAreaService {
         labAreaRepository.save(labArea);
 
         log.info("Lab area deleted (soft delete): {}", id);
+        publicarCambio(id);
 
         // Auditoría
         auditService.logAction(
@@ -183,12 +210,28 @@ public class LabAreaServiceImpl implements LabAreaService {
         labAreaRepository.save(labArea);
 
         log.info("Lab area status changed: {} - active: {}", id, active);
+        publicarCambio(id);
     }
 
     // ========================================
     // Helper Methods
     // ========================================
 
+    private void publicarCambio(Long id) {
+        eventPublisher.publishEvent(new CatalogoCambiadoEvent(CatalogoCambiadoEvent.Entidad.AREA, List.of(id)));
+    }
+
+    private LabAreaResponse mapToResponse(CatalogoExamenes.Area labArea) {
+        return LabAreaResponse.builder()
+                .id(labArea.id())
+                .codigo(labArea.codigo())
+                .descripcion(labArea.descripcion())
+                .active(labArea.active())
+                .createdAt(labArea.createdAt())
+                .updatedAt(labArea.updatedAt())
+                .build();
+    }
+
     private LabAreaResponse mapToResponse(LabArea labArea) {
         return LabAreaResponse.builder()
                 .id(labArea.getId())
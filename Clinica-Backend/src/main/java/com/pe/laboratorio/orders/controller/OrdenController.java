@@ -1,14 +1,40 @@
 package com.pe.laboratorio.orders.controller;
 
+import com.pe.laboratorio.orders.dto.OrdenBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenBusquedaResultadoDTO;
+import com.pe.laboratorio.orders.dto.OrdenCambiosDTO;
 import com.pe.laboratorio.orders.dto.OrdenCreateDTO;
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchDTO;
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchRequestDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadisticasDTO;
 import com.pe.laboratorio.orders.dto.OrdenFilterDTO;
+import com.pe.laboratorio.orders.dto.OrdenPageResponseDTO;
 import com.pe.laboratorio.orders.dto.OrdenResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenResumenDTO;
+import com.pe.laboratorio.orders.dto.ResultadoBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoDetalleDTO;
+import com.pe.laboratorio.orders.dto.TatEstadisticasDTO;
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.service.OrdenCambiosService;
+import com.pe.laboratorio.orders.service.OrdenEstadisticasService;
+import com.pe.laboratorio.orders.service.OrdenExportService;
 import com.pe.laboratorio.orders.service.OrdenService;
+import com.pe.laboratorio.orders.service.ResultadoService;
+import com.pe.laboratorio.orders.service.TatService;
+import com.pe.laboratorio.shared.util.RespuestaCondicional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -18,16 +44,114 @@ import java.util.Map;
 public class OrdenController {
 
     private final OrdenService ordenService;
+    private final OrdenExportService ordenExportService;
+    private final ResultadoService resultadoService;
+    private final OrdenEstadisticasService ordenEstadisticasService;
+    private final TatService tatService;
+    private final OrdenCambiosService ordenCambiosService;
 
     /**
-     * Endpoint para filtrar órdenes según criterios
+     * Endpoint para filtrar órdenes según criterios, paginado por cursor.
+     * Para la siguiente página se reenvía el filtro con cursor = nextCursor.
      * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
      */
     @PostMapping("/filtrar")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
-    public ResponseEntity<List<OrdenResponseDTO>> filtrarOrdenes(@RequestBody OrdenFilterDTO filtro) {
-        List<OrdenResponseDTO> ordenes = ordenService.filtrarOrdenes(filtro);
-        return ResponseEntity.ok(ordenes);
+    public ResponseEntity<OrdenPageResponseDTO> filtrarOrdenes(@RequestBody OrdenFilterDTO filtro) {
+        OrdenPageResponseDTO pagina = ordenService.filtrarOrdenes(filtro);
+        return ResponseEntity.ok(pagina);
+    }
+
+    /**
+     * Resumen de las órdenes que cumplen el filtro: cantidad y monto total,
+     * por estado, prioridad y día. Se calcula con una consulta agrupada, sin
+     * cargar las órdenes. El cursor y el tamaño de página se ignoran.
+     * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
+     */
+    @PostMapping("/resumen")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<OrdenResumenDTO> resumirOrdenes(@RequestBody OrdenFilterDTO filtro) {
+        OrdenResumenDTO resumen = ordenService.resumirOrdenes(filtro);
+        return ResponseEntity.ok(resumen);
+    }
+
+    /**
+     * Búsqueda rápida de órdenes por nombre o DNI del paciente, número de
+     * orden o diagnóstico (sin distinguir mayúsculas ni tildes).
+     * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/buscar")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<List<OrdenBusquedaResultadoDTO>> buscarOrdenes(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        List<OrdenBusquedaResultadoDTO> resultados = ordenService.buscarOrdenes(q, limit);
+        return ResponseEntity.ok(resultados);
+    }
+
+    /**
+     * Exportar órdenes filtradas como CSV o NDJSON.
+     * La respuesta se escribe en streaming a medida que se leen las filas.
+     * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<StreamingResponseBody> exportarOrdenes(
+            @RequestParam(defaultValue = OrdenExportService.FORMATO_CSV) String formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) Long medicoId,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String prioridad) {
+        OrdenFilterDTO filtro = OrdenFilterDTO.builder()
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .patientId(patientId)
+                .medicoId(medicoId)
+                .estado(estado)
+                .prioridad(prioridad)
+                .build();
+
+        StreamingResponseBody cuerpo = ordenExportService.exportar(filtro, formato);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + ordenExportService.nombreArchivo(formato) + "\"")
+                .contentType(MediaType.parseMediaType(ordenExportService.contentType(formato)))
+                .body(cuerpo);
+    }
+
+    /**
+     * Estadísticas de órdenes para tableros: conteos por estado, prioridad,
+     * área o médico en un rango de fechas (por defecto los últimos 30 días).
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<OrdenEstadisticasDTO> obtenerEstadisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "ESTADO") String agrupacion,
+            @RequestParam(defaultValue = "false") boolean porDia) {
+        OrdenEstadisticasDTO estadisticas = ordenEstadisticasService.obtener(desde, hasta, agrupacion, porDia);
+        return ResponseEntity.ok(estadisticas);
+    }
+
+    /**
+     * Tiempos de respuesta (TAT) en minutos: cantidad, promedio y percentiles
+     * p50/p90/p99 por etapa (RESULTADO, VALIDACION), agrupados en total o por
+     * prioridad, área o examen.
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/tat")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<TatEstadisticasDTO> obtenerTat(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "RESULTADO") String etapa,
+            @RequestParam(defaultValue = "TOTAL") String agrupacion) {
+        TatEstadisticasDTO tat = tatService.obtener(desde, hasta, etapa, agrupacion);
+        return ResponseEntity.ok(tat);
     }
 
     /**
@@ -41,6 +165,18 @@ public class OrdenController {
         return ResponseEntity.status(201).body(orden);
     }
 
+    /**
+     * Crear varias órdenes de laboratorio en un solo envío.
+     * Devuelve un resultado por orden; las inválidas no impiden crear las demás.
+     * Accesible para: ADMIN, MEDICO
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO')")
+    public ResponseEntity<OrdenBatchResponseDTO> crearOrdenesBatch(@RequestBody List<OrdenCreateDTO> dtos) {
+        OrdenBatchResponseDTO resultado = ordenService.crearOrdenesBatch(dtos);
+        return ResponseEntity.ok(resultado);
+    }
+
     /**
      * Obtener una orden por ID
      * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
@@ -53,7 +189,9 @@ public class OrdenController {
     }
 
     /**
-     * Actualizar el estado de una orden
+     * Avanzar el estado de una orden (PENDIENTE → EN_PROCESO → PROCESADO →
+     * VALIDADA → ENTREGADA). Si el cuerpo incluye "version" y la orden cambió
+     * desde entonces se responde 409.
      * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
      */
     @PutMapping("/{id}/estado")
@@ -62,18 +200,83 @@ public class OrdenController {
             @PathVariable Long id,
             @RequestBody Map<String, String> body) {
         String nuevoEstado = body.get("estado");
-        OrdenResponseDTO orden = ordenService.actualizarEstado(id, nuevoEstado);
+        Long version;
+        try {
+            version = body.get("version") != null ? Long.valueOf(body.get("version")) : null;
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Versión inválida: " + body.get("version"));
+        }
+        OrdenResponseDTO orden = ordenService.actualizarEstado(id, nuevoEstado, version);
         return ResponseEntity.ok(orden);
     }
 
     /**
-     * Obtener todas las órdenes (sin filtros)
+     * Aplicar una misma transición de estado a varias órdenes.
+     * Devuelve un resultado por orden; las que cambiaron de estado o de
+     * versión se reportan como conflicto sin afectar a las demás.
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @PutMapping("/estado/batch")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<OrdenEstadoBatchResponseDTO> actualizarEstadoBatch(
+            @RequestBody OrdenEstadoBatchRequestDTO solicitud) {
+        OrdenEstadoBatchResponseDTO resultado = ordenService.actualizarEstadoBatch(solicitud);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Modificar un detalle de la orden (resultado, estado, observaciones o
+     * equipo) sin reenviar la orden completa. La versión del detalle es
+     * obligatoria; si no coincide se responde 409. El estado de la orden se
+     * recalcula a partir de sus detalles.
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @PatchMapping("/{id}/detalles/{detalleId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<OrdenDetallePatchResponseDTO> actualizarDetalle(
+            @PathVariable Long id,
+            @PathVariable Long detalleId,
+            @RequestBody OrdenDetallePatchDTO dto) {
+        OrdenDetallePatchResponseDTO resultado = resultadoService.actualizarDetalle(id, detalleId, dto);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Registrar resultados de varios exámenes en un solo envío (analizadores).
+     * Cada resultado se evalúa contra los rangos de referencia y críticos del
+     * examen y el detalle pasa a PROCESADO.
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @PostMapping("/resultados/batch")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<ResultadoBatchResponseDTO> registrarResultadosBatch(
+            @RequestBody List<ResultadoDetalleDTO> resultados) {
+        ResultadoBatchResponseDTO resultado = resultadoService.registrarResultadosBatch(resultados);
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * Obtener todas las órdenes (sin filtros).
+     * Responde con ETag; si el cliente envía If-None-Match con el ETag vigente
+     * se devuelve 304 sin consultar las órdenes.
      * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
-    public ResponseEntity<List<OrdenResponseDTO>> obtenerTodasLasOrdenes() {
-        List<OrdenResponseDTO> ordenes = ordenService.obtenerTodasLasOrdenes();
-        return ResponseEntity.ok(ordenes);
+    public ResponseEntity<List<OrdenResponseDTO>> obtenerTodasLasOrdenes(WebRequest request) {
+        return RespuestaCondicional.conEtag(request, ordenCambiosService.etagListado(),
+                ordenService::obtenerTodasLasOrdenes);
+    }
+
+    /**
+     * Sincronización incremental: órdenes modificadas desde el token de la
+     * consulta anterior (sin token, todas) y el token para la siguiente.
+     * Accesible para: ADMIN, MEDICO, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<OrdenCambiosDTO> obtenerCambios(@RequestParam(required = false) String since) {
+        OrdenCambiosDTO cambios = ordenService.obtenerCambios(since);
+        return ResponseEntity.ok(cambios);
     }
 }
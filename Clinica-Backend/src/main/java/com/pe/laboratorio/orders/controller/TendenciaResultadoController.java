@@ -0,0 +1,32 @@
+package com.pe.laboratorio.orders.controller;
+
+import com.pe.laboratorio.orders.dto.TendenciaResultadoDTO;
+import com.pe.laboratorio.orders.service.ResultadoService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients")
+@RequiredArgsConstructor
+public class TendenciaResultadoController {
+
+    private final ResultadoService resultadoService;
+
+    /**
+     * Últimos resultados numéricos del paciente por examen, para comparar
+     * con resultados anteriores al validar. examId limita a un examen.
+     * Accesible para: ADMIN, MEDICO (solo pacientes de sus órdenes), TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/{id}/trends")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'MEDICO', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<List<TendenciaResultadoDTO>> obtenerTendencias(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long examId) {
+        List<TendenciaResultadoDTO> tendencias = resultadoService.obtenerTendencias(id, examId);
+        return ResponseEntity.ok(tendencias);
+    }
+}
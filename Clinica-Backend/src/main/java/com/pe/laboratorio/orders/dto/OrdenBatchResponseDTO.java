@@ -0,0 +1,39 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta del ingreso masivo de órdenes.
+ * Contiene un resultado por cada orden enviada, en el mismo orden.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenBatchResponseDTO {
+
+    private int total;
+    private int creadas;
+    private int rechazadas;
+    private List<ItemDTO> items;
+
+    /**
+     * Resultado individual: indice es la posición en la lista enviada
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private int indice;
+        private boolean exito;
+        private Long ordenId;
+        private String numeroOrden;
+        private String error;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Orden encontrada por la búsqueda de texto libre.
+ * prefijo = true si todas las palabras buscadas coinciden con el inicio de
+ * alguna palabra de la orden (estas se listan primero).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenBusquedaResultadoDTO {
+
+    private Long ordenId;
+    private String numeroOrden;
+    private LocalDateTime fechaOrden;
+    private String diagnostico;
+    private String patientName;
+    private String patientDni;
+    private boolean prefijo;
+}
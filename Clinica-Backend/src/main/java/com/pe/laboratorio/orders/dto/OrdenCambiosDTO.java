@@ -0,0 +1,23 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de la sincronización incremental de órdenes.
+ * El cliente reemplaza por id las órdenes recibidas y en la siguiente
+ * consulta envía since = token. Una misma orden puede llegar más de una vez.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenCambiosDTO {
+
+    private List<OrdenResponseDTO> ordenes;
+    private String token;
+}
@@ -0,0 +1,24 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para modificar un detalle de orden (PATCH). Solo se cambian los campos
+ * enviados; version es obligatoria y debe coincidir con la actual.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenDetallePatchDTO {
+
+    private Long version;
+    private String estado; // Siguiente estado del detalle: EN_PROCESO, PROCESADO, VALIDADO
+    private String resultado;
+    private String unidad; // Opcional: por defecto la unidad del examen
+    private String observaciones;
+    private Long equipoId;
+}
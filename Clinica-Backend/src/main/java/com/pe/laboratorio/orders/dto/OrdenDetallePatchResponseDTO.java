@@ -0,0 +1,29 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de respuesta del PATCH de un detalle: nueva versión del detalle y
+ * estado resultante de la orden
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenDetallePatchResponseDTO {
+
+    private Long detalleId;
+    private Long version;
+    private String estado;
+    private Boolean fueraRango;
+    private Boolean valorCritico;
+    private Boolean deltaCheck;
+    private Double valorAnterior;
+    private String valorReferencia;
+    private Long ordenId;
+    private String estadoOrden;
+    private boolean estadoOrdenCambiado;
+}
@@ -0,0 +1,38 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta de las estadísticas de órdenes para tableros.
+ * Con porDia = true hay un ítem por fecha y valor; si no, uno por valor con
+ * el total del rango.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenEstadisticasDTO {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private String agrupacion; // ESTADO, PRIORIDAD, AREA, MEDICO
+    private boolean porDia;
+    private long total;
+    private List<ItemDTO> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private LocalDate fecha; // Nula si no se agrupa por día
+        private String valor; // Estado o prioridad, o id del área o del médico
+        private long cantidad;
+    }
+}
@@ -0,0 +1,32 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para aplicar una misma transición de estado a varias órdenes.
+ * Cada orden se envía con la versión que el cliente tiene; si no coincide con
+ * la actual, esa orden se reporta como conflicto.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenEstadoBatchRequestDTO {
+
+    private String estado; // Estado destino: EN_PROCESO, PROCESADO, VALIDADA, ENTREGADA
+    private List<ItemDTO> ordenes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private Long id;
+        private Long version; // Opcional: sin versión solo se verifica el estado de origen
+    }
+}
@@ -0,0 +1,41 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta de la transición masiva de estado.
+ * Contiene un resultado por cada orden enviada, en el mismo orden.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenEstadoBatchResponseDTO {
+
+    private String estado;
+    private int total;
+    private int actualizadas;
+    private int conflictos;
+    private List<ItemDTO> items;
+
+    /**
+     * Resultado individual: version es la nueva versión si se actualizó, o la
+     * actual de la orden si hubo conflicto
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private Long id;
+        private boolean exito;
+        private Long version;
+        private String estadoActual;
+        private String error;
+    }
+}
@@ -24,4 +24,23 @@ public class OrdenFilterDTO {
     private Long medicoId;
     private String estado; // PENDIENTE, EN_PROCESO, VALIDADO, ENTREGADO
     private String prioridad; // NORMAL, URGENTE, EMERGENCIA
+
+    /**
+     * Modo archivo. Sin fechaInicio, el filtro se limita al año en curso (la
+     * partición caliente de lab_orden); con archivo=true recorre también los
+     * años anteriores.
+     */
+    private Boolean archivo;
+
+    /**
+     * Token opaco devuelto en la página anterior (nextCursor). Nulo para la
+     * primera página.
+     */
+    private String cursor;
+
+    /**
+     * Cantidad de órdenes por página. Si no se envía se usa el valor por
+     * defecto configurado.
+     */
+    private Integer size;
 }
@@ -0,0 +1,31 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para una página de órdenes paginada por cursor (keyset).
+ * Para obtener la siguiente página se reenvía el mismo filtro con
+ * cursor = nextCursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenPageResponseDTO {
+
+    private List<OrdenResponseDTO> content;
+
+    /**
+     * Token de continuación; nulo cuando no hay más páginas
+     */
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    private int size;
+}
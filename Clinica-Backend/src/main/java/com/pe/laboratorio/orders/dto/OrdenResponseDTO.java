@@ -34,6 +34,11 @@ public class OrdenResponseDTO {
     private LocalDateTime fechaValidacion;
     private LocalDate fechaEntrega;
 
+    /**
+     * Versión para control de concurrencia; se reenvía al cambiar el estado
+     */
+    private Long version;
+
     // Información del paciente
     private Long patientId;
     private String patientFirstName;
@@ -81,6 +86,7 @@ public class OrdenResponseDTO {
         private BigDecimal precio;
         private Boolean valorCritico;
         private Boolean fueraRango;
+        private Boolean deltaCheck;
         private Boolean validadoPrimario;
         private Boolean validadoFinal;
         private String tecnologoName;
@@ -90,6 +96,7 @@ public class OrdenResponseDTO {
         private LocalDateTime fechaProcesamiento;
         private LocalDateTime fechaValidacionPrimaria;
         private LocalDateTime fechaValidacionFinal;
+        private Long version;
         private LocalDateTime createdAt;
         private LocalDateTime updatedAt;
     }
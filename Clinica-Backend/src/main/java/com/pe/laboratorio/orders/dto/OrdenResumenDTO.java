@@ -0,0 +1,56 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta del resumen de órdenes (POST /api/ordenes/resumen).
+ * Cantidad de órdenes y suma de LABOrden.total, en total y desglosadas por
+ * estado, prioridad y día.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrdenResumenDTO {
+
+    private long cantidad;
+    private BigDecimal montoTotal;
+    private List<ItemDTO> porEstado;
+    private List<ItemDTO> porPrioridad;
+    private List<DiaDTO> porDia;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private String valor; // Estado o prioridad
+        private long cantidad;
+        private BigDecimal monto;
+
+        public void sumar(long cantidad, BigDecimal monto) {
+            this.cantidad += cantidad;
+            this.monto = this.monto.add(monto);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DiaDTO {
+        private LocalDate fecha;
+        private long cantidad;
+        private BigDecimal monto;
+
+        public void sumar(long cantidad, BigDecimal monto) {
+            this.cantidad += cantidad;
+            this.monto = this.monto.add(monto);
+        }
+    }
+}
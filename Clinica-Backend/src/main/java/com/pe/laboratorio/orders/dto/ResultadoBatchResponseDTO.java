@@ -0,0 +1,42 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta del ingreso masivo de resultados.
+ * Contiene un resultado por cada detalle enviado, en el mismo orden.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoBatchResponseDTO {
+
+    private int total;
+    private int registrados;
+    private int rechazados;
+    private int fueraRango;
+    private int criticos;
+    private int deltas;
+    private List<ItemDTO> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private Long detalleId;
+        private boolean exito;
+        private Boolean fueraRango;
+        private Boolean valorCritico;
+        private Boolean deltaCheck;
+        private Double valorAnterior;
+        private String valorReferencia;
+        private String error;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para registrar el resultado de un examen (detalle de orden)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoDetalleDTO {
+
+    private Long detalleId;
+    private String resultado;
+    private String unidad; // Opcional: por defecto la unidad del examen
+    private String observaciones;
+    private Long equipoId; // Analizador que emitió el resultado
+    private Long version; // Opcional: versión del detalle que vio el cliente
+}
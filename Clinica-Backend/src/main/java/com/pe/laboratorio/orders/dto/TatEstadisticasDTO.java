@@ -0,0 +1,39 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de respuesta de tiempos de respuesta (TAT). Los tiempos están en
+ * minutos y tienen un error relativo máximo de ~3% por el histograma.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TatEstadisticasDTO {
+
+    private LocalDate desde;
+    private LocalDate hasta;
+    private String etapa; // RESULTADO, VALIDACION
+    private String agrupacion; // TOTAL, PRIORIDAD, AREA, EXAMEN
+    private List<ItemDTO> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemDTO {
+        private String valor; // Prioridad, id del área o del examen, o "*" para TOTAL
+        private long cantidad;
+        private Double promedio;
+        private Long p50;
+        private Long p90;
+        private Long p99;
+    }
+}
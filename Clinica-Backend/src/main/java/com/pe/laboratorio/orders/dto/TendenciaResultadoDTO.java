@@ -0,0 +1,35 @@
+package com.pe.laboratorio.orders.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de la tendencia de un examen del paciente: sus últimos resultados
+ * numéricos, del más antiguo al más reciente
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TendenciaResultadoDTO {
+
+    private Long examId;
+    private String examName;
+    private String unidad;
+    private List<PuntoDTO> puntos;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PuntoDTO {
+        private Long detalleId;
+        private LocalDateTime fecha;
+        private Double valor;
+    }
+}
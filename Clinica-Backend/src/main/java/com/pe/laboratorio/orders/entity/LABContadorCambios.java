@@ -0,0 +1,25 @@
+package com.pe.laboratorio.orders.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador de cambios por tabla. Se incrementa después de cada commit que
+ * modifica la tabla y se usa como ETag de los listados completos; ver
+ * {@link com.pe.laboratorio.orders.service.OrdenCambiosService}.
+ */
+@Entity
+@Table(name = "lab_contador_cambios")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LABContadorCambios {
+
+    @Id
+    @Column(name = "tabla", length = 50)
+    private String tabla;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
@@ -11,8 +11,24 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Tabla particionada por rango anual de fecha_orden (ver
+ * db/migracion/V1__particionar_ordenes.sql): la clave primaria física es
+ * (id, fecha_orden) y numero_orden no puede tener una restricción única
+ * global; su unicidad la garantiza NumeroOrdenAllocator.
+ */
 @Entity
-@Table(name = "lab_orden")
+@Table(name = "lab_orden", indexes = {
+        // Soporta la paginación por keyset (fecha_orden DESC, id DESC)
+        @Index(name = "idx_lab_orden_fecha_id", columnList = "fecha_orden DESC, id DESC"),
+        // Filtros frecuentes de POST /api/ordenes/filtrar (ver OrdenSpecifications)
+        @Index(name = "idx_lab_orden_fecha_estado", columnList = "fecha_orden, estado"),
+        @Index(name = "idx_lab_orden_medico_fecha", columnList = "medico_id, fecha_orden"),
+        @Index(name = "idx_lab_orden_patient_fecha", columnList = "patient_id, fecha_orden"),
+        // Sincronización incremental (GET /api/ordenes/changes)
+        @Index(name = "idx_lab_orden_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_lab_orden_numero", columnList = "numero_orden")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -38,7 +54,7 @@ public class LABOrden {
     @Column(name = "numero_orden", length = 50)
     private String numeroOrden;
 
-    @Column(name = "fecha_orden", nullable = false)
+    @Column(name = "fecha_orden", nullable = false, updatable = false)
     private LocalDateTime fechaOrden;
 
     @Column(name = "diagnostico", length = 500)
@@ -80,6 +96,14 @@ public class LABOrden {
     @JoinColumn(name = "validado_por_id")
     private DatosPersonales validadoPor;
 
+    /**
+     * Control de concurrencia optimista. Las transiciones masivas por JDBC
+     * también lo comparan e incrementan.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @OneToMany(mappedBy = "orden", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<LABOrdenDetalle> detalles = new ArrayList<>();
@@ -124,12 +148,28 @@ public class LABOrden {
     }
 
     // Enums
+
+    /**
+     * Ciclo de vida de la orden. Es lineal: cada estado solo puede avanzar al
+     * siguiente (PENDIENTE → EN_PROCESO → PROCESADO → VALIDADA → ENTREGADA).
+     */
     public enum EstadoOrden {
         PENDIENTE,
         EN_PROCESO,
         PROCESADO,
         VALIDADA,
-        ENTREGADA
+        ENTREGADA;
+
+        /**
+         * Estado desde el que se llega a este, o null para PENDIENTE
+         */
+        public EstadoOrden anterior() {
+            return ordinal() == 0 ? null : values()[ordinal() - 1];
+        }
+
+        public boolean puedeTransicionarA(EstadoOrden destino) {
+            return destino != null && destino.anterior() == this;
+        }
     }
 
     public enum PrioridadOrden {
@@ -8,8 +8,15 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+/**
+ * Particionada junto con lab_orden: fecha_orden repite la fecha de la orden
+ * para compartir su clave de partición y la clave foránea es
+ * (orden_id, fecha_orden), creada por la migración.
+ */
 @Entity
-@Table(name = "lab_orden_detalle")
+@Table(name = "lab_orden_detalle", indexes = {
+        @Index(name = "idx_lab_orden_detalle_orden", columnList = "orden_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,10 +28,13 @@ public class LABOrdenDetalle {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "orden_id", nullable = false)
+    @JoinColumn(name = "orden_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @ToString.Exclude
     private LABOrden orden;
 
+    @Column(name = "fecha_orden", updatable = false)
+    private LocalDateTime fechaOrden;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "exam_id", nullable = false)
     private Exam exam;
@@ -59,6 +69,14 @@ public class LABOrdenDetalle {
     @Builder.Default
     private Boolean fueraRango = false;
 
+    /**
+     * Cambio respecto al resultado anterior del mismo examen del paciente
+     * mayor al umbral configurado (delta check)
+     */
+    @Column(name = "delta_check")
+    @Builder.Default
+    private Boolean deltaCheck = false;
+
     @Column(name = "validado_primario")
     @Builder.Default
     private Boolean validadoPrimario = false;
@@ -92,6 +110,14 @@ public class LABOrdenDetalle {
     @Column(name = "fecha_validacion_final")
     private LocalDateTime fechaValidacionFinal;
 
+    /**
+     * Control de concurrencia optimista. Los UPDATE por JDBC (resultados por
+     * lote y PATCH de detalle) también lo incrementan.
+     */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Campos de auditoría
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -106,6 +132,9 @@ public class LABOrdenDetalle {
         if (estado == null) {
             estado = EstadoDetalle.PENDIENTE;
         }
+        if (fechaOrden == null && orden != null) {
+            fechaOrden = orden.getFechaOrden();
+        }
     }
 
     @PreUpdate
@@ -118,6 +147,17 @@ public class LABOrdenDetalle {
         PENDIENTE,
         EN_PROCESO,
         PROCESADO,
-        VALIDADO
+        VALIDADO;
+
+        /**
+         * Estado desde el que se llega a este, o null para PENDIENTE
+         */
+        public EstadoDetalle anterior() {
+            return ordinal() == 0 ? null : values()[ordinal() - 1];
+        }
+
+        public boolean puedeTransicionarA(EstadoDetalle destino) {
+            return destino != null && destino.anterior() == this;
+        }
     }
 }
@@ -0,0 +1,63 @@
+package com.pe.laboratorio.orders.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Conteo diario de órdenes por dimensión (estado, prioridad, área, médico).
+ * La fecha es la de la orden (fecha_orden). Se mantiene de forma incremental;
+ * ver {@link com.pe.laboratorio.orders.service.OrdenEstadisticasService}.
+ */
+@Entity
+@Table(name = "lab_orden_estadistica_diaria")
+@IdClass(LABOrdenEstadisticaDiaria.Clave.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LABOrdenEstadisticaDiaria {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 20)
+    private Dimension dimension;
+
+    /**
+     * Valor de la dimensión: nombre del estado o prioridad, o id del área o médico
+     */
+    @Id
+    @Column(name = "valor", length = 50)
+    private String valor;
+
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad;
+
+    /**
+     * ESTADO cuenta las órdenes del día según su estado actual; PRIORIDAD y
+     * MEDICO cuentan órdenes creadas; AREA cuenta exámenes solicitados.
+     */
+    public enum Dimension {
+        ESTADO,
+        PRIORIDAD,
+        AREA,
+        MEDICO
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate fecha;
+        private Dimension dimension;
+        private String valor;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pe.laboratorio.orders.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Contador por año para los números de orden ORD-YYYY-NNNNN.
+ * Cada nodo reserva bloques de números incrementando ultimoValor; ver
+ * {@link com.pe.laboratorio.orders.service.NumeroOrdenAllocator}.
+ */
+@Entity
+@Table(name = "lab_orden_secuencia")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LABOrdenSecuencia {
+
+    @Id
+    @Column(name = "anio")
+    private Integer anio;
+
+    /**
+     * Último número ya reservado por algún nodo para el año
+     */
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+}
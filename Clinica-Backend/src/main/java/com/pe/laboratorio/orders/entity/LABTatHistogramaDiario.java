@@ -0,0 +1,81 @@
+package com.pe.laboratorio.orders.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Cubetas diarias de los histogramas de tiempo de respuesta (TAT), en
+ * minutos. Solo se guardan las cubetas con observaciones; ver
+ * {@link com.pe.laboratorio.orders.util.HistogramaLatencia} y
+ * {@link com.pe.laboratorio.orders.service.TatService}.
+ * La fecha es la del día en que terminó la etapa.
+ */
+@Entity
+@Table(name = "lab_tat_histograma_diario")
+@IdClass(LABTatHistogramaDiario.Clave.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LABTatHistogramaDiario {
+
+    @Id
+    @Column(name = "fecha")
+    private LocalDate fecha;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "etapa", length = 20)
+    private Etapa etapa;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 20)
+    private Dimension dimension;
+
+    /**
+     * Valor de la dimensión: prioridad, id del área o del examen, o "*" para TOTAL
+     */
+    @Id
+    @Column(name = "valor", length = 50)
+    private String valor;
+
+    @Id
+    @Column(name = "cubeta")
+    private Integer cubeta;
+
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad;
+
+    /**
+     * RESULTADO: de la orden al resultado de cada examen.
+     * VALIDACION: de la orden a su validación.
+     */
+    public enum Etapa {
+        RESULTADO,
+        VALIDACION
+    }
+
+    public enum Dimension {
+        TOTAL,
+        PRIORIDAD,
+        AREA,
+        EXAMEN
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate fecha;
+        private Etapa etapa;
+        private Dimension dimension;
+        private String valor;
+        private Integer cubeta;
+    }
+}
@@ -0,0 +1,10 @@
+package com.pe.laboratorio.orders.event;
+
+import java.util.List;
+
+/**
+ * Se publica cuando cambian detalles (estado, resultado o validación) de las
+ * órdenes indicadas
+ */
+public record DetalleActualizadoEvent(List<Long> ordenIds) {
+}
@@ -0,0 +1,9 @@
+package com.pe.laboratorio.orders.event;
+
+import java.util.List;
+
+/**
+ * Se publica al crear una o varias órdenes (individual o por lote)
+ */
+public record OrdenCreadaEvent(List<Long> ordenIds) {
+}
@@ -0,0 +1,11 @@
+package com.pe.laboratorio.orders.event;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+
+import java.util.List;
+
+/**
+ * Se publica cuando una o varias órdenes pasan al estado indicado
+ */
+public record OrdenEstadoCambiadoEvent(List<Long> ordenIds, LABOrden.EstadoOrden estado) {
+}
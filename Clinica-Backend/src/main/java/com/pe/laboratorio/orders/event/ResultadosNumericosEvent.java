@@ -0,0 +1,14 @@
+package com.pe.laboratorio.orders.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Se publica cuando se registra o corrige el resultado de detalles. Un valor
+ * NaN indica que el resultado ya no es numérico.
+ */
+public record ResultadosNumericosEvent(List<ResultadoNumerico> resultados) {
+
+    public record ResultadoNumerico(Long detalleId, Long patientId, Long examId, LocalDateTime fecha, double valor) {
+    }
+}
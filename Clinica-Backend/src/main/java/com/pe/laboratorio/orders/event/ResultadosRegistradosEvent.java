@@ -0,0 +1,9 @@
+package com.pe.laboratorio.orders.event;
+
+import java.util.List;
+
+/**
+ * Se publica cuando detalles reciben su primer resultado (pasan a PROCESADO)
+ */
+public record ResultadosRegistradosEvent(List<Long> detalleIds) {
+}
@@ -0,0 +1,35 @@
+package com.pe.laboratorio.orders.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Acceso a los contadores de cambios por tabla (lab_contador_cambios).
+ * Se usa JDBC directo: la lectura es una búsqueda por clave primaria y el
+ * incremento un único INSERT ... ON CONFLICT DO UPDATE atómico.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LABContadorCambiosRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Versión actual de la tabla; 0 si nunca se registró un cambio
+     */
+    public long obtener(String tabla) {
+        List<Long> version = jdbcTemplate.queryForList(
+                "SELECT version FROM lab_contador_cambios WHERE tabla = ?", Long.class, tabla);
+        return version.isEmpty() ? 0 : version.get(0);
+    }
+
+    public void incrementar(String tabla) {
+        jdbcTemplate.update(
+                "INSERT INTO lab_contador_cambios (tabla, version) VALUES (?, 1) " +
+                        "ON CONFLICT (tabla) DO UPDATE SET version = lab_contador_cambios.version + 1",
+                tabla);
+    }
+}
@@ -1,21 +1,81 @@
 package com.pe.laboratorio.orders.repository;
 
+import com.pe.laboratorio.orders.entity.LABOrden;
 import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import jakarta.persistence.Tuple;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LABOrdenDetalleRepository extends JpaRepository<LABOrdenDetalle, Long> {
 
+    /**
+     * Proyección de la lista de trabajo: detalle con la prioridad de su orden,
+     * el examen (tiempo de entrega) y el área que lo procesa
+     */
+    String WORKLIST_SELECT = "SELECT d.id AS id, d.estado AS estado, " +
+            "o.id AS ordenId, o.numeroOrden AS numeroOrden, o.estado AS estadoOrden, " +
+            "o.prioridad AS prioridad, o.fechaOrden AS fechaOrden, " +
+            "e.id AS examId, e.nombre AS examName, e.tiempoEntrega AS tiempoEntrega, a.id AS areaId, " +
+            "p.id AS patientId, p.firstName AS patientFirstName, p.lastName AS patientLastName " +
+            "FROM LABOrdenDetalle d " +
+            "JOIN d.orden o " +
+            "JOIN o.patient p " +
+            "JOIN d.exam e " +
+            "JOIN e.area a ";
+
     /**
      * Buscar todos los detalles de una orden específica
      */
     List<LABOrdenDetalle> findByOrdenId(Long ordenId);
 
+    /**
+     * Proyección plana de los detalles de varias órdenes con examen y personal
+     * asignado en una sola consulta (sin hidratar entidades)
+     */
+    @Query("SELECT d.id AS id, d.orden.id AS ordenId, e.id AS examId, e.nombre AS examName, " +
+            "d.equipoId AS equipoId, d.estado AS estado, d.resultado AS resultado, " +
+            "d.valorReferencia AS valorReferencia, d.unidad AS unidad, d.observaciones AS observaciones, " +
+            "d.precio AS precio, d.valorCritico AS valorCritico, d.fueraRango AS fueraRango, " +
+            "d.deltaCheck AS deltaCheck, " +
+            "d.validadoPrimario AS validadoPrimario, d.validadoFinal AS validadoFinal, " +
+            "d.fechaProcesamiento AS fechaProcesamiento, " +
+            "d.fechaValidacionPrimaria AS fechaValidacionPrimaria, " +
+            "d.fechaValidacionFinal AS fechaValidacionFinal, d.version AS version, " +
+            "d.createdAt AS createdAt, d.updatedAt AS updatedAt, " +
+            "t.nombre AS tecnologoNombre, t.apepat AS tecnologoApepat, t.apemat AS tecnologoApemat, " +
+            "t.login AS tecnologoLogin, t.idPersonal AS tecnologoIdPersonal, t.id AS tecnologoId, " +
+            "b.nombre AS biologoNombre, b.apepat AS biologoApepat, b.apemat AS biologoApemat, " +
+            "b.login AS biologoLogin, b.idPersonal AS biologoIdPersonal, b.id AS biologoId, " +
+            "pp.nombre AS procesadoPorNombre, pp.apepat AS procesadoPorApepat, " +
+            "pp.apemat AS procesadoPorApemat, pp.login AS procesadoPorLogin, " +
+            "pp.idPersonal AS procesadoPorIdPersonal, pp.id AS procesadoPorId, " +
+            "v.nombre AS validadoPorNombre, v.apepat AS validadoPorApepat, v.apemat AS validadoPorApemat, " +
+            "v.login AS validadoPorLogin, v.idPersonal AS validadoPorIdPersonal, v.id AS validadoPorId " +
+            "FROM LABOrdenDetalle d " +
+            "JOIN d.exam e " +
+            "LEFT JOIN d.tecnologo t " +
+            "LEFT JOIN d.biologo b " +
+            "LEFT JOIN d.procesadoPor pp " +
+            "LEFT JOIN d.validadoPor v " +
+            "WHERE d.orden.id IN :ordenIds " +
+            "ORDER BY d.orden.id, d.id")
+    List<Tuple> findFilasByOrdenIdIn(@Param("ordenIds") Collection<Long> ordenIds);
+
+    /**
+     * Estado de los detalles indicados y de sus órdenes, para validar el
+     * ingreso de resultados y los cambios de detalle
+     */
+    @Query("SELECT d.id AS id, d.estado AS estado, d.version AS version, d.resultado AS resultado, " +
+            "e.id AS examId, o.id AS ordenId, o.estado AS estadoOrden, o.patient.id AS patientId " +
+            "FROM LABOrdenDetalle d JOIN d.exam e JOIN d.orden o WHERE d.id IN :ids")
+    List<Tuple> findEstadosByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Buscar detalles pendientes de validación primaria
      */
@@ -27,4 +87,45 @@ public interface LABOrdenDetalleRepository extends JpaRepository<LABOrdenDetalle
      */
     @Query("SELECT d FROM LABOrdenDetalle d WHERE d.orden.id = :ordenId AND d.validadoPrimario = true AND d.validadoFinal = false")
     List<LABOrdenDetalle> findPendientesValidacionFinal(@Param("ordenId") Long ordenId);
+
+    /**
+     * Filas de la lista de trabajo de las órdenes indicadas, en cualquier estado
+     */
+    @Query(WORKLIST_SELECT + "WHERE o.id IN :ordenIds")
+    List<Tuple> findWorklistByOrdenIdIn(@Param("ordenIds") Collection<Long> ordenIds);
+
+    /**
+     * Filas de la lista de trabajo cuyo detalle y orden siguen en los estados
+     * indicados (carga inicial y resincronización)
+     */
+    @Query(WORKLIST_SELECT + "WHERE d.estado IN :estadosDetalle AND o.estado IN :estadosOrden")
+    List<Tuple> findWorklistPendientes(
+            @Param("estadosDetalle") Collection<LABOrdenDetalle.EstadoDetalle> estadosDetalle,
+            @Param("estadosOrden") Collection<LABOrden.EstadoOrden> estadosOrden);
+
+    /**
+     * Cantidad de exámenes por orden y área
+     */
+    @Query("SELECT d.orden.id AS ordenId, e.area.id AS areaId, COUNT(d) AS cantidad " +
+            "FROM LABOrdenDetalle d JOIN d.exam e " +
+            "WHERE d.orden.id IN :ordenIds " +
+            "GROUP BY d.orden.id, e.area.id")
+    List<Tuple> contarPorAreaByOrdenIdIn(@Param("ordenIds") Collection<Long> ordenIds);
+
+    /**
+     * Tiempos de los detalles indicados para el cálculo de TAT
+     */
+    @Query("SELECT d.id AS id, d.fechaProcesamiento AS fechaProcesamiento, o.fechaOrden AS fechaOrden, " +
+            "o.prioridad AS prioridad, e.id AS examId, e.area.id AS areaId " +
+            "FROM LABOrdenDetalle d JOIN d.orden o JOIN d.exam e " +
+            "WHERE d.id IN :ids")
+    List<Tuple> findTiemposByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cantidad de detalles de cada orden por estado, para derivar el estado
+     * de las órdenes sin cargar sus detalles
+     */
+    @Query("SELECT d.orden.id AS ordenId, d.estado AS estado, COUNT(d) AS cantidad FROM LABOrdenDetalle d " +
+            "WHERE d.orden.id IN :ordenIds GROUP BY d.orden.id, d.estado")
+    List<Tuple> contarPorEstadoByOrdenIdIn(@Param("ordenIds") Collection<Long> ordenIds);
 }
@@ -0,0 +1,112 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABOrdenEstadisticaDiaria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Acceso a los conteos diarios de órdenes (lab_orden_estadistica_diaria).
+ * Se usa JDBC directo para acumular con INSERT ... ON CONFLICT DO UPDATE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LABOrdenEstadisticaRepository {
+
+    private static final int TAMANIO_LOTE = 500;
+
+    /**
+     * Conteos por día de cada dimensión calculados desde lab_orden y
+     * lab_orden_detalle; %1$s filtra las órdenes de cada parte
+     */
+    private static final String CONTEOS_HISTORICO =
+            "SELECT CAST(o.fecha_orden AS date), 'ESTADO', o.estado, COUNT(*) " +
+                    "FROM lab_orden o WHERE %1$s GROUP BY 1, 3 " +
+                    "UNION ALL " +
+                    "SELECT CAST(o.fecha_orden AS date), 'PRIORIDAD', o.prioridad, COUNT(*) " +
+                    "FROM lab_orden o WHERE %1$s GROUP BY 1, 3 " +
+                    "UNION ALL " +
+                    "SELECT CAST(o.fecha_orden AS date), 'MEDICO', CAST(o.medico_id AS varchar), COUNT(*) " +
+                    "FROM lab_orden o WHERE o.medico_id IS NOT NULL AND %1$s GROUP BY 1, 3 " +
+                    "UNION ALL " +
+                    "SELECT CAST(o.fecha_orden AS date), 'AREA', CAST(e.area_id AS varchar), COUNT(*) " +
+                    "FROM lab_orden_detalle d " +
+                    "JOIN lab_orden o ON o.id = d.orden_id AND o.fecha_orden = d.fecha_orden " +
+                    "JOIN lab_examenes e ON e.id = d.exam_id " +
+                    "WHERE %1$s GROUP BY 1, 3 ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma los incrementos (pueden ser negativos) a los conteos existentes
+     */
+    public void acumular(List<Incremento> incrementos) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO lab_orden_estadistica_diaria (fecha, dimension, valor, cantidad) " +
+                        "VALUES (?, ?, ?, ?) " +
+                        "ON CONFLICT (fecha, dimension, valor) " +
+                        "DO UPDATE SET cantidad = lab_orden_estadistica_diaria.cantidad + EXCLUDED.cantidad",
+                incrementos, TAMANIO_LOTE, (ps, i) -> {
+                    ps.setObject(1, i.fecha());
+                    ps.setString(2, i.dimension().name());
+                    ps.setString(3, i.valor());
+                    ps.setLong(4, i.cantidad());
+                });
+    }
+
+    /**
+     * Conteos de una dimensión en el rango de fechas (ambos inclusive)
+     */
+    public List<Incremento> buscar(LABOrdenEstadisticaDiaria.Dimension dimension, LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(
+                "SELECT fecha, valor, cantidad FROM lab_orden_estadistica_diaria " +
+                        "WHERE dimension = ? AND fecha BETWEEN ? AND ?",
+                (rs, n) -> new Incremento(rs.getObject(1, LocalDate.class), dimension,
+                        rs.getString(2), rs.getLong(3)),
+                dimension.name(), desde, hasta);
+    }
+
+    public boolean estaVacia() {
+        return jdbcTemplate.queryForList(
+                "SELECT 1 FROM lab_orden_estadistica_diaria LIMIT 1", Integer.class).isEmpty();
+    }
+
+    /**
+     * Carga inicial de los conteos a partir del histórico de órdenes.
+     * Solo inserta claves que aún no existen.
+     */
+    public int poblarDesdeHistorico() {
+        return jdbcTemplate.update(
+                "INSERT INTO lab_orden_estadistica_diaria (fecha, dimension, valor, cantidad) " +
+                        String.format(CONTEOS_HISTORICO, "TRUE") +
+                        "ON CONFLICT (fecha, dimension, valor) DO NOTHING");
+    }
+
+    /**
+     * Reemplaza los conteos desde la fecha indicada por los calculados del
+     * histórico de órdenes
+     *
+     * @return filas escritas
+     */
+    @Transactional
+    public int recalcularDesde(LocalDate desde) {
+        LocalDateTime inicio = desde.atStartOfDay();
+        jdbcTemplate.update("DELETE FROM lab_orden_estadistica_diaria WHERE fecha >= ?", desde);
+        return jdbcTemplate.update(
+                "INSERT INTO lab_orden_estadistica_diaria (fecha, dimension, valor, cantidad) " +
+                        String.format(CONTEOS_HISTORICO, "o.fecha_orden >= ?"),
+                inicio, inicio, inicio, inicio);
+    }
+
+    /**
+     * Conteo de un día para un valor de dimensión
+     */
+    public record Incremento(LocalDate fecha, LABOrdenEstadisticaDiaria.Dimension dimension,
+            String valor, long cantidad) {
+    }
+}
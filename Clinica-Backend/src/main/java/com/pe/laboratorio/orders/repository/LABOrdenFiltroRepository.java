@@ -0,0 +1,30 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Fragmento de {@link LABOrdenRepository} para el filtro dinámico de órdenes
+ */
+public interface LABOrdenFiltroRepository {
+
+    /**
+     * Claves de orden de las órdenes que cumplen la especificación, de la más
+     * reciente a la más antigua (fecha_orden DESC, id DESC), como máximo
+     * {@code limite}. No hidrata entidades; el DTO se arma con
+     * {@link LABOrdenRepository#findCabecerasByIdIn}.
+     * Alias: id, fechaOrden.
+     */
+    List<Tuple> filtrarClaves(Specification<LABOrden> especificacion, int limite);
+
+    /**
+     * Cantidad de órdenes y suma de total que cumplen la especificación,
+     * agrupadas por estado, prioridad y día de la orden, en una sola consulta
+     * que no hidrata entidades.
+     * Alias: estado, prioridad, fecha (LocalDate), cantidad, monto.
+     */
+    List<Tuple> resumir(Specification<LABOrden> especificacion);
+}
@@ -0,0 +1,64 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LABOrdenFiltroRepositoryImpl implements LABOrdenFiltroRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Tuple> filtrarClaves(Specification<LABOrden> especificacion, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<LABOrden> root = query.from(LABOrden.class);
+
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("fechaOrden").alias("fechaOrden"));
+        Predicate predicado = especificacion != null ? especificacion.toPredicate(root, query, cb) : null;
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.orderBy(cb.desc(root.get("fechaOrden")), cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public List<Tuple> resumir(Specification<LABOrden> especificacion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<LABOrden> root = query.from(LABOrden.class);
+
+        Expression<LocalDate> fecha = cb.function("date", LocalDate.class, root.get("fechaOrden"));
+        query.multiselect(
+                root.get("estado").alias("estado"),
+                root.get("prioridad").alias("prioridad"),
+                fecha.alias("fecha"),
+                cb.count(root).alias("cantidad"),
+                cb.sum(root.<BigDecimal>get("total")).alias("monto"));
+        Predicate predicado = especificacion != null ? especificacion.toPredicate(root, query, cb) : null;
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        query.groupBy(root.get("estado"), root.get("prioridad"), fecha);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,491 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escrituras masivas sobre lab_orden y lab_orden_detalle con JDBC.
+ * Las columnas id son IDENTITY, lo que impide que Hibernate agrupe los
+ * INSERT; aquí los ids se reservan por adelantado de las mismas secuencias
+ * (un solo viaje por tabla) y las filas se envían con batchUpdate.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LABOrdenJdbcRepository {
+
+    private static final int TAMANIO_LOTE = 500;
+    private static final int FETCH_SIZE_CURSOR = 1000;
+
+    /**
+     * Número decimal con punto o coma, con signo y exponente opcionales
+     */
+    private static final String PATRON_NUMERICO =
+            "^\\s*[-+]?([0-9]+([.,][0-9]*)?|[.,][0-9]+)([eE][-+]?[0-9]+)?\\s*$";
+
+    /**
+     * Columnas: id, fecha_orden, medico_id, numero_orden, diagnostico,
+     * first_name, last_name, dni
+     */
+    private static final String SELECT_DOCUMENTO_BUSQUEDA =
+            "SELECT o.id, o.fecha_orden, o.medico_id, o.numero_orden, o.diagnostico, " +
+                    "p.first_name, p.last_name, p.dni " +
+                    "FROM lab_orden o JOIN patients p ON p.id = o.patient_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserva {@code cantidad} ids de la secuencia de lab_orden
+     */
+    public List<Long> reservarIdsOrden(int cantidad) {
+        return reservarIds("lab_orden", cantidad);
+    }
+
+    /**
+     * Reserva {@code cantidad} ids de la secuencia de lab_orden_detalle
+     */
+    public List<Long> reservarIdsDetalle(int cantidad) {
+        return reservarIds("lab_orden_detalle", cantidad);
+    }
+
+    public void insertarOrdenes(List<OrdenFila> ordenes) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO lab_orden (id, patient_id, medico_id, user_id, numero_orden, fecha_orden, " +
+                        "diagnostico, estado, prioridad, tipo_atencion, tipo_muestra, observaciones, total, " +
+                        "fecha_entrega, created_at, updated_at, created_by, version) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                ordenes, TAMANIO_LOTE, (ps, o) -> {
+                    ps.setObject(1, o.id());
+                    ps.setObject(2, o.patientId());
+                    ps.setObject(3, o.medicoId());
+                    ps.setObject(4, o.userId());
+                    ps.setString(5, o.numeroOrden());
+                    ps.setObject(6, o.fechaOrden());
+                    ps.setString(7, o.diagnostico());
+                    ps.setString(8, o.estado());
+                    ps.setString(9, o.prioridad());
+                    ps.setString(10, o.tipoAtencion());
+                    ps.setString(11, o.tipoMuestra());
+                    ps.setString(12, o.observaciones());
+                    ps.setBigDecimal(13, o.total());
+                    ps.setObject(14, o.fechaEntrega());
+                    ps.setObject(15, o.fechaOrden());
+                    ps.setObject(16, o.fechaOrden());
+                    ps.setObject(17, o.userId());
+                });
+    }
+
+    public void insertarDetalles(List<DetalleFila> detalles) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO lab_orden_detalle (id, orden_id, fecha_orden, exam_id, estado, precio, " +
+                        "valor_critico, fuera_rango, delta_check, validado_primario, validado_final, created_at, " +
+                        "updated_at, version) VALUES (?, ?, ?, ?, ?, ?, false, false, false, false, false, ?, ?, 0)",
+                detalles, TAMANIO_LOTE, (ps, d) -> {
+                    ps.setObject(1, d.id());
+                    ps.setObject(2, d.ordenId());
+                    ps.setObject(3, d.fechaOrden());
+                    ps.setObject(4, d.examId());
+                    ps.setString(5, d.estado());
+                    ps.setBigDecimal(6, d.precio());
+                    ps.setObject(7, d.createdAt());
+                    ps.setObject(8, d.createdAt());
+                });
+    }
+
+    /**
+     * Registra los resultados de varios detalles con un UPDATE por lotes y
+     * los deja PROCESADO. Cada fila solo cambia si el detalle sigue en la
+     * versión leída y todavía no tiene resultado procesado (PENDIENTE o
+     * EN_PROCESO). Los campos opcionales nulos conservan el valor actual.
+     *
+     * @return ids de los detalles actualizados
+     */
+    public Set<Long> registrarResultados(List<ResultadoFila> resultados) {
+        int[][] lotes = jdbcTemplate.batchUpdate(
+                "UPDATE lab_orden_detalle SET resultado = ?, unidad = COALESCE(?, unidad), " +
+                        "valor_referencia = COALESCE(?, valor_referencia), " +
+                        "observaciones = COALESCE(?, observaciones), equipo_id = COALESCE(?, equipo_id), " +
+                        "fuera_rango = ?, valor_critico = ?, delta_check = ?, estado = ?, fecha_procesamiento = ?, " +
+                        "procesado_por_id = ?, updated_at = ?, version = version + 1 " +
+                        "WHERE id = ? AND version = ? AND estado IN (?, ?)",
+                resultados, TAMANIO_LOTE, (ps, r) -> {
+                    ps.setString(1, r.resultado());
+                    ps.setString(2, r.unidad());
+                    ps.setString(3, r.valorReferencia());
+                    ps.setString(4, r.observaciones());
+                    ps.setObject(5, r.equipoId());
+                    ps.setBoolean(6, r.fueraRango());
+                    ps.setBoolean(7, r.valorCritico());
+                    ps.setBoolean(8, r.deltaCheck());
+                    ps.setString(9, LABOrdenDetalle.EstadoDetalle.PROCESADO.name());
+                    ps.setObject(10, r.fecha());
+                    ps.setObject(11, r.procesadoPorId());
+                    ps.setObject(12, r.fecha());
+                    ps.setObject(13, r.id());
+                    ps.setObject(14, r.version());
+                    ps.setString(15, LABOrdenDetalle.EstadoDetalle.PENDIENTE.name());
+                    ps.setString(16, LABOrdenDetalle.EstadoDetalle.EN_PROCESO.name());
+                });
+
+        // Los conteos llegan por lote y en el orden de envío
+        Set<Long> actualizados = new HashSet<>();
+        int i = 0;
+        for (int[] lote : lotes) {
+            for (int filas : lote) {
+                if (filas != 0) {
+                    actualizados.add(resultados.get(i).id());
+                }
+                i++;
+            }
+        }
+        return actualizados;
+    }
+
+    /**
+     * Actualiza un detalle con un único UPDATE que compara su versión. Solo
+     * se escriben los campos informados en el cambio; el estado destino sella
+     * sus fechas y responsable.
+     *
+     * @return la nueva versión, o null si la versión no coincide
+     */
+    public Long actualizarDetalle(DetalleCambio cambio) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE lab_orden_detalle SET version = version + 1, updated_at = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(cambio.fecha());
+
+        if (cambio.resultado() != null) {
+            sql.append(", resultado = ?, fuera_rango = ?, valor_critico = ?, delta_check = ?, " +
+                    "valor_referencia = COALESCE(?, valor_referencia), unidad = COALESCE(?, unidad)");
+            args.add(cambio.resultado());
+            args.add(cambio.fueraRango());
+            args.add(cambio.valorCritico());
+            args.add(cambio.deltaCheck());
+            args.add(cambio.valorReferencia());
+            args.add(cambio.unidad());
+        }
+        if (cambio.observaciones() != null) {
+            sql.append(", observaciones = ?");
+            args.add(cambio.observaciones());
+        }
+        if (cambio.equipoId() != null) {
+            sql.append(", equipo_id = ?");
+            args.add(cambio.equipoId());
+        }
+        if (cambio.estado() != null) {
+            sql.append(", estado = ?");
+            args.add(cambio.estado().name());
+            if (cambio.estado() == LABOrdenDetalle.EstadoDetalle.PROCESADO) {
+                sql.append(", fecha_procesamiento = ?, procesado_por_id = ?");
+                args.add(cambio.fecha());
+                args.add(cambio.usuarioId());
+            } else if (cambio.estado() == LABOrdenDetalle.EstadoDetalle.VALIDADO) {
+                sql.append(", validado_primario = true, validado_final = true, " +
+                        "fecha_validacion_primaria = COALESCE(fecha_validacion_primaria, ?), " +
+                        "fecha_validacion_final = ?, validado_por_id = ?");
+                args.add(cambio.fecha());
+                args.add(cambio.fecha());
+                args.add(cambio.usuarioId());
+            }
+        }
+        sql.append(" WHERE id = ? AND version = ? RETURNING version");
+        args.add(cambio.id());
+        args.add(cambio.version());
+
+        List<Long> version = jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+        return version.isEmpty() ? null : version.get(0);
+    }
+
+    /**
+     * Bloquea las filas de las órdenes indicadas hasta el fin de la
+     * transacción, en orden de id para que dos transacciones no se esperen
+     * en cruz. Serializa los cambios de detalles de una misma orden: quien
+     * deriva el estado de la orden ve los detalles que escribió el anterior.
+     * La tabla está particionada por fecha_orden, así que el id se busca en
+     * el índice de cada partición.
+     */
+    public void bloquearOrdenes(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id FROM lab_orden WHERE id = ANY(?) ORDER BY id FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    /**
+     * Bloquea las órdenes a las que pertenecen los detalles indicados, como
+     * {@link #bloquearOrdenes(Collection)}
+     */
+    public void bloquearOrdenesDeDetalles(Collection<Long> detalleIds) {
+        if (detalleIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id FROM lab_orden WHERE id IN " +
+                            "(SELECT orden_id FROM lab_orden_detalle WHERE id = ANY(?)) ORDER BY id FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("bigint", detalleIds.toArray()));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    /**
+     * Aplica una transición de estado a varias órdenes con una sola sentencia
+     * UPDATE condicional. Solo cambian las filas que siguen en el estado de
+     * origen y cuya versión coincide con la enviada (null = no verificar); a
+     * esas se les incrementa la versión y se sellan las fechas del destino.
+     *
+     * @return id → nueva versión de las órdenes actualizadas
+     */
+    public Map<Long, Long> transicionarEstado(List<Long> ids, List<Long> versiones,
+            LABOrden.EstadoOrden origen, LABOrden.EstadoOrden destino,
+            LocalDateTime fecha, Long usuarioId) {
+        StringBuilder sql = new StringBuilder(
+                "UPDATE lab_orden o SET estado = ?, version = o.version + 1, updated_at = ?");
+        if (destino == LABOrden.EstadoOrden.PROCESADO) {
+            sql.append(", fecha_procesamiento = ?");
+        } else if (destino == LABOrden.EstadoOrden.VALIDADA) {
+            sql.append(", fecha_validacion = ?, validado_por_id = ?");
+        }
+        sql.append(" FROM unnest(?::bigint[], ?::bigint[]) AS v(id, version)" +
+                " WHERE o.id = v.id AND o.estado = ? AND (v.version IS NULL OR o.version = v.version)" +
+                " RETURNING o.id, o.version");
+
+        Map<Long, Long> actualizadas = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            int i = 1;
+            ps.setString(i++, destino.name());
+            ps.setObject(i++, fecha);
+            if (destino == LABOrden.EstadoOrden.PROCESADO) {
+                ps.setObject(i++, fecha);
+            } else if (destino == LABOrden.EstadoOrden.VALIDADA) {
+                ps.setObject(i++, fecha);
+                ps.setObject(i++, usuarioId);
+            }
+            ps.setArray(i++, con.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(i++, con.createArrayOf("bigint", versiones.toArray()));
+            ps.setString(i, origen.name());
+            return ps;
+        }, rs -> {
+            actualizadas.put(rs.getLong(1), rs.getLong(2));
+        });
+        return actualizadas;
+    }
+
+    /**
+     * Estado y versión actuales de las órdenes indicadas (las inexistentes se
+     * omiten). Se usa para explicar los conflictos de una transición masiva.
+     */
+    public List<EstadoVersion> obtenerEstados(Collection<Long> ids) {
+        List<EstadoVersion> estados = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return estados;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, estado, version FROM lab_orden WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, rs -> {
+            estados.add(new EstadoVersion(rs.getLong(1), rs.getString(2), rs.getLong(3)));
+        });
+        return estados;
+    }
+
+    /**
+     * Recorre los campos de búsqueda de todas las órdenes en orden de id con
+     * un cursor de solo avance. Debe llamarse dentro de una transacción.
+     */
+    public void recorrerDocumentosBusqueda(RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_DOCUMENTO_BUSQUEDA + " ORDER BY o.id");
+            ps.setFetchSize(FETCH_SIZE_CURSOR);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Campos de búsqueda de las órdenes indicadas
+     */
+    public void buscarDocumentosBusqueda(Collection<Long> ids, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_DOCUMENTO_BUSQUEDA + " WHERE o.id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Actualiza updated_at de las órdenes indicadas, para que un cambio en
+     * sus detalles llegue en la sincronización incremental
+     */
+    public void marcarActualizadas(Collection<Long> ids, LocalDateTime fecha) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("UPDATE lab_orden SET updated_at = ? WHERE id = ANY(?)");
+            ps.setObject(1, fecha);
+            ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Actualiza updated_at de las órdenes de un paciente
+     *
+     * @return cantidad de órdenes marcadas
+     */
+    public int marcarActualizadasPorPaciente(Long patientId, LocalDateTime fecha) {
+        return jdbcTemplate.update("UPDATE lab_orden SET updated_at = ? WHERE patient_id = ?", fecha, patientId);
+    }
+
+    /**
+     * Ids de las órdenes de un paciente
+     */
+    public List<Long> buscarIdsPorPaciente(Long patientId) {
+        return jdbcTemplate.queryForList("SELECT id FROM lab_orden WHERE patient_id = ?", Long.class, patientId);
+    }
+
+    /**
+     * Últimos resultados numéricos de cada examen de los pacientes indicados,
+     * a lo más puntosPorExamen por paciente y examen, en orden cronológico
+     * (fecha de procesamiento, o de última modificación si no la tiene).
+     *
+     * La expresión regular descarta en la base los resultados que no son
+     * números para que no ocupen lugar en el límite; quien lee cada fila
+     * aplica el filtro exacto.
+     */
+    public void recorrerUltimosResultadosPacientes(Collection<Long> patientIds, int puntosPorExamen,
+            RowCallbackHandler handler) {
+        if (patientIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT patient_id, id, exam_id, fecha, resultado FROM (" +
+                            "SELECT o.patient_id, d.id, d.exam_id, " +
+                            "COALESCE(d.fecha_procesamiento, d.updated_at) AS fecha, d.resultado, " +
+                            "row_number() OVER (PARTITION BY o.patient_id, d.exam_id " +
+                            "ORDER BY COALESCE(d.fecha_procesamiento, d.updated_at) DESC, d.id DESC) AS posicion " +
+                            "FROM lab_orden o " +
+                            "JOIN lab_orden_detalle d ON d.orden_id = o.id AND d.fecha_orden = o.fecha_orden " +
+                            "WHERE o.patient_id = ANY(?) AND d.resultado ~ ?) r " +
+                            "WHERE posicion <= ? " +
+                            "ORDER BY fecha, id");
+            ps.setArray(1, con.createArrayOf("bigint", patientIds.toArray()));
+            ps.setString(2, PATRON_NUMERICO);
+            ps.setInt(3, puntosPorExamen);
+            ps.setFetchSize(FETCH_SIZE_CURSOR);
+            return ps;
+        }, handler);
+    }
+
+    private List<Long> reservarIds(String tabla, int cantidad) {
+        if (cantidad == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, tabla, cantidad);
+    }
+
+    /**
+     * Fila de lab_orden lista para insertar. created_at/updated_at toman el
+     * valor de fechaOrden y created_by el de userId.
+     */
+    public record OrdenFila(
+            Long id,
+            Long patientId,
+            Long medicoId,
+            Long userId,
+            String numeroOrden,
+            LocalDateTime fechaOrden,
+            String diagnostico,
+            String estado,
+            String prioridad,
+            String tipoAtencion,
+            String tipoMuestra,
+            String observaciones,
+            BigDecimal total,
+            LocalDate fechaEntrega) {
+    }
+
+    /**
+     * Fila de lab_orden_detalle lista para insertar. fechaOrden debe ser la
+     * de su orden (clave de partición compartida).
+     */
+    public record DetalleFila(
+            Long id,
+            Long ordenId,
+            LocalDateTime fechaOrden,
+            Long examId,
+            String estado,
+            BigDecimal precio,
+            LocalDateTime createdAt) {
+    }
+
+    /**
+     * Resultado evaluado de un detalle, listo para el UPDATE. version es la
+     * del detalle cuando se validó el resultado.
+     */
+    public record ResultadoFila(
+            Long id,
+            Long version,
+            String resultado,
+            String unidad,
+            String valorReferencia,
+            String observaciones,
+            Long equipoId,
+            boolean fueraRango,
+            boolean valorCritico,
+            boolean deltaCheck,
+            LocalDateTime fecha,
+            Long procesadoPorId) {
+    }
+
+    /**
+     * Cambio parcial de un detalle. Los campos nulos no se modifican; si hay
+     * resultado, la evaluación de rangos lo acompaña.
+     */
+    public record DetalleCambio(
+            Long id,
+            Long version,
+            String resultado,
+            String unidad,
+            String valorReferencia,
+            boolean fueraRango,
+            boolean valorCritico,
+            boolean deltaCheck,
+            String observaciones,
+            Long equipoId,
+            LABOrdenDetalle.EstadoDetalle estado,
+            LocalDateTime fecha,
+            Long usuarioId) {
+    }
+
+    /**
+     * Estado y versión actuales de una orden
+     */
+    public record EstadoVersion(Long id, String estado, Long version) {
+    }
+}
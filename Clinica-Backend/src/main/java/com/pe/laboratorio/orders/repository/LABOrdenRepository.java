@@ -1,39 +1,79 @@
 package com.pe.laboratorio.orders.repository;
 
 import com.pe.laboratorio.orders.entity.LABOrden;
+import jakarta.persistence.Tuple;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LABOrdenRepository extends JpaRepository<LABOrden, Long> {
+public interface LABOrdenRepository extends JpaRepository<LABOrden, Long>,
+                JpaSpecificationExecutor<LABOrden>, LABOrdenFiltroRepository {
 
         /**
-         * Consulta nativa para filtrar órdenes con múltiples criterios opcionales.
-         * Usa COALESCE para manejar valores nulos sin problemas de inferencia de tipos.
+         * Ids de todas las órdenes, de la más reciente a la más antigua
          */
-        @Query(value = "SELECT DISTINCT o.* FROM lab_orden o " +
-                        "LEFT JOIN patients p ON o.patient_id = p.id " +
-                        "WHERE (CAST(:fechaInicio AS timestamp) IS NULL OR o.fecha_orden >= CAST(:fechaInicio AS timestamp)) "
-                        +
-                        "AND (CAST(:fechaFin AS timestamp) IS NULL OR o.fecha_orden <= CAST(:fechaFin AS timestamp)) " +
-                        "AND (:patientId IS NULL OR o.patient_id = :patientId) " +
-                        "AND (:medicoId IS NULL OR o.medico_id = :medicoId) " +
-                        "AND (:estado IS NULL OR o.estado = :estado) " +
-                        "AND (:prioridad IS NULL OR o.prioridad = :prioridad) " +
-                        "ORDER BY o.fecha_orden DESC", nativeQuery = true)
-        List<LABOrden> filtrarOrdenes(
-                        @Param("fechaInicio") LocalDateTime fechaInicio,
-                        @Param("fechaFin") LocalDateTime fechaFin,
-                        @Param("patientId") Long patientId,
-                        @Param("medicoId") Long medicoId,
-                        @Param("estado") String estado,
-                        @Param("prioridad") String prioridad);
+        @Query("SELECT o.id FROM LABOrden o ORDER BY o.fechaOrden DESC, o.id DESC")
+        List<Long> findAllIds();
+
+        /**
+         * Ids de las órdenes de un médico (RF-MED-01)
+         */
+        @Query("SELECT o.id FROM LABOrden o WHERE o.medico.id = :medicoId ORDER BY o.fechaOrden DESC, o.id DESC")
+        List<Long> findIdsByMedicoId(@Param("medicoId") Long medicoId);
+
+        /**
+         * Ids de las órdenes actualizadas después de la fecha indicada
+         */
+        @Query("SELECT o.id FROM LABOrden o WHERE o.updatedAt > :desde ORDER BY o.updatedAt, o.id")
+        List<Long> findIdsActualizadasDesde(@Param("desde") LocalDateTime desde);
+
+        /**
+         * Ids de las órdenes de un médico actualizadas después de la fecha indicada
+         */
+        @Query("SELECT o.id FROM LABOrden o WHERE o.medico.id = :medicoId AND o.updatedAt > :desde " +
+                        "ORDER BY o.updatedAt, o.id")
+        List<Long> findIdsByMedicoIdActualizadasDesde(@Param("medicoId") Long medicoId,
+                        @Param("desde") LocalDateTime desde);
+
+        /**
+         * Proyección plana de la cabecera de las órdenes con paciente y personas
+         * relacionadas en una sola consulta. No hidrata entidades, por lo que no
+         * dispara cargas perezosas ni los roles EAGER de DatosPersonales.
+         */
+        @Query("SELECT o.id AS id, o.numeroOrden AS numeroOrden, o.fechaOrden AS fechaOrden, " +
+                        "o.diagnostico AS diagnostico, o.estado AS estado, o.prioridad AS prioridad, " +
+                        "o.tipoAtencion AS tipoAtencion, o.tipoMuestra AS tipoMuestra, " +
+                        "o.observaciones AS observaciones, o.total AS total, " +
+                        "o.fechaTomaMuestra AS fechaTomaMuestra, o.fechaProcesamiento AS fechaProcesamiento, " +
+                        "o.fechaValidacion AS fechaValidacion, o.fechaEntrega AS fechaEntrega, " +
+                        "o.version AS version, o.createdAt AS createdAt, o.updatedAt AS updatedAt, " +
+                        "p.id AS patientId, p.firstName AS patientFirstName, p.lastName AS patientLastName, " +
+                        "p.dni AS patientDni, " +
+                        "m.id AS medicoId, m.nombre AS medicoNombre, m.apepat AS medicoApepat, " +
+                        "m.apemat AS medicoApemat, m.login AS medicoLogin, m.idPersonal AS medicoIdPersonal, " +
+                        "u.id AS userId, u.nombre AS userNombre, u.apepat AS userApepat, " +
+                        "u.apemat AS userApemat, u.login AS userLogin, u.idPersonal AS userIdPersonal, " +
+                        "v.id AS validadoPorId, v.nombre AS validadoPorNombre, v.apepat AS validadoPorApepat, " +
+                        "v.apemat AS validadoPorApemat, v.login AS validadoPorLogin, " +
+                        "v.idPersonal AS validadoPorIdPersonal, " +
+                        "c.id AS createdById, c.nombre AS createdByNombre, c.apepat AS createdByApepat, " +
+                        "c.apemat AS createdByApemat, c.login AS createdByLogin, c.idPersonal AS createdByIdPersonal " +
+                        "FROM LABOrden o " +
+                        "JOIN o.patient p " +
+                        "LEFT JOIN o.medico m " +
+                        "LEFT JOIN o.user u " +
+                        "LEFT JOIN o.validadoPor v " +
+                        "LEFT JOIN o.createdBy c " +
+                        "WHERE o.id IN :ids")
+        List<Tuple> findCabecerasByIdIn(@Param("ids") Collection<Long> ids);
 
         /**
          * Buscar todas las órdenes de un médico específico.
@@ -48,6 +88,11 @@ public interface LABOrdenRepository extends JpaRepository<LABOrden, Long> {
         @Query("SELECT o FROM LABOrden o WHERE o.patient.id = :patientId ORDER BY o.fechaOrden DESC")
         List<LABOrden> findByPatientId(@Param("patientId") Long patientId);
 
+        /**
+         * Indica si el médico registró alguna orden del paciente (RF-MED-01)
+         */
+        boolean existsByPatientIdAndMedicoId(Long patientId, Long medicoId);
+
         /**
          * Buscar órdenes por estado
          */
@@ -64,8 +109,18 @@ public interface LABOrdenRepository extends JpaRepository<LABOrden, Long> {
         Optional<LABOrden> findByNumeroOrden(String numeroOrden);
 
         /**
-         * Obtener el último número de orden para generar el siguiente
+         * Datos mínimos de las órdenes para mantener las estadísticas diarias
+         */
+        @Query("SELECT o.id AS id, o.fechaOrden AS fechaOrden, o.estado AS estado, " +
+                        "o.prioridad AS prioridad, o.medico.id AS medicoId " +
+                        "FROM LABOrden o WHERE o.id IN :ids")
+        List<Tuple> findResumenByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Tiempos de las órdenes indicadas para el cálculo de TAT
          */
-        @Query("SELECT o FROM LABOrden o ORDER BY o.id DESC LIMIT 1")
-        Optional<LABOrden> findLastOrden();
+        @Query("SELECT o.id AS id, o.fechaOrden AS fechaOrden, o.fechaValidacion AS fechaValidacion, " +
+                        "o.prioridad AS prioridad " +
+                        "FROM LABOrden o WHERE o.id IN :ids")
+        List<Tuple> findTiemposByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,46 @@
+package com.pe.laboratorio.orders.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Acceso al contador por año de números de orden (lab_orden_secuencia).
+ * Se usa JDBC directo porque la reserva es un UPDATE ... RETURNING.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LABOrdenSecuenciaRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Incrementa atómicamente el contador del año y devuelve el nuevo último
+     * valor, o null si el año aún no tiene fila
+     */
+    public Long incrementar(int anio, int cantidad) {
+        List<Long> valores = jdbcTemplate.queryForList(
+                "UPDATE lab_orden_secuencia SET ultimo_valor = ultimo_valor + ? " +
+                        "WHERE anio = ? RETURNING ultimo_valor",
+                Long.class, cantidad, anio);
+        return valores.isEmpty() ? null : valores.get(0);
+    }
+
+    /**
+     * Crea la fila del año partiendo del mayor número ya emitido con el formato
+     * ORD-YYYY-NNNNN, para no repetir números generados antes del contador.
+     * Si otro nodo la creó primero no hace nada.
+     */
+    public void inicializarAnio(int anio) {
+        String prefijo = "ORD-" + anio + "-";
+        jdbcTemplate.update(
+                "INSERT INTO lab_orden_secuencia (anio, ultimo_valor) " +
+                        "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(o.numero_orden FROM ?) AS BIGINT)), 0) " +
+                        "FROM lab_orden o " +
+                        "WHERE o.numero_orden LIKE ? AND SUBSTRING(o.numero_orden FROM ?) ~ '^[0-9]+$' " +
+                        "ON CONFLICT (anio) DO NOTHING",
+                anio, prefijo.length() + 1, prefijo + "%", prefijo.length() + 1);
+    }
+}
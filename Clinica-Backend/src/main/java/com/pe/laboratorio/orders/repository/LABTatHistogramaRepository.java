@@ -0,0 +1,128 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABTatHistogramaDiario;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Acceso a las cubetas diarias de TAT (lab_tat_histograma_diario).
+ * Se usa JDBC directo para acumular con INSERT ... ON CONFLICT DO UPDATE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LABTatHistogramaRepository {
+
+    private static final int TAMANIO_LOTE = 500;
+    private static final int FETCH_SIZE = 1000;
+    private static final long CLAVE_CARGA_INICIAL = 0x4C4142544154L; // "LABTAT"
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma las cantidades a las cubetas existentes
+     */
+    public void acumular(List<Incremento> incrementos) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO lab_tat_histograma_diario (fecha, etapa, dimension, valor, cubeta, cantidad) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (fecha, etapa, dimension, valor, cubeta) " +
+                        "DO UPDATE SET cantidad = lab_tat_histograma_diario.cantidad + EXCLUDED.cantidad",
+                incrementos, TAMANIO_LOTE, (ps, i) -> {
+                    ps.setObject(1, i.fecha());
+                    ps.setString(2, i.etapa().name());
+                    ps.setString(3, i.dimension().name());
+                    ps.setString(4, i.valor());
+                    ps.setInt(5, i.cubeta());
+                    ps.setLong(6, i.cantidad());
+                });
+    }
+
+    /**
+     * Carga inicial de las cubetas calculadas del histórico. Solo inserta
+     * claves que aún no existen: repetir la carga no duplica conteos.
+     */
+    public void cargarHistorico(List<Incremento> incrementos) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO lab_tat_histograma_diario (fecha, etapa, dimension, valor, cubeta, cantidad) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (fecha, etapa, dimension, valor, cubeta) DO NOTHING",
+                incrementos, TAMANIO_LOTE, (ps, i) -> {
+                    ps.setObject(1, i.fecha());
+                    ps.setString(2, i.etapa().name());
+                    ps.setString(3, i.dimension().name());
+                    ps.setString(4, i.valor());
+                    ps.setInt(5, i.cubeta());
+                    ps.setLong(6, i.cantidad());
+                });
+    }
+
+    /**
+     * Bloquea la carga inicial hasta el fin de la transacción, para que un
+     * solo nodo la haga
+     */
+    public void bloquearCargaInicial() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)", Object.class, CLAVE_CARGA_INICIAL);
+    }
+
+    /**
+     * Cubetas de una etapa y dimensión sumadas en el rango de fechas (ambos
+     * inclusive). La fecha de los incrementos devueltos es nula.
+     */
+    public List<Incremento> buscar(LABTatHistogramaDiario.Etapa etapa, LABTatHistogramaDiario.Dimension dimension,
+            LocalDate desde, LocalDate hasta) {
+        return jdbcTemplate.query(
+                "SELECT valor, cubeta, SUM(cantidad) FROM lab_tat_histograma_diario " +
+                        "WHERE etapa = ? AND dimension = ? AND fecha BETWEEN ? AND ? " +
+                        "GROUP BY valor, cubeta",
+                (rs, n) -> new Incremento(null, etapa, dimension, rs.getString(1), rs.getInt(2), rs.getLong(3)),
+                etapa.name(), dimension.name(), desde, hasta);
+    }
+
+    public boolean estaVacia() {
+        return jdbcTemplate.queryForList(
+                "SELECT 1 FROM lab_tat_histograma_diario LIMIT 1", Integer.class).isEmpty();
+    }
+
+    /**
+     * Recorre los detalles con resultado (fecha_orden, fecha_procesamiento,
+     * prioridad, exam_id, area_id) con un cursor de solo avance.
+     * Debe llamarse dentro de una transacción.
+     */
+    public void recorrerResultados(RowCallbackHandler handler) {
+        recorrer("SELECT o.fecha_orden, d.fecha_procesamiento, o.prioridad, d.exam_id, e.area_id " +
+                "FROM lab_orden_detalle d " +
+                "JOIN lab_orden o ON o.id = d.orden_id " +
+                "JOIN lab_examenes e ON e.id = d.exam_id " +
+                "WHERE d.fecha_procesamiento IS NOT NULL", handler);
+    }
+
+    /**
+     * Recorre las órdenes validadas (fecha_orden, fecha_validacion, prioridad)
+     * con un cursor de solo avance. Debe llamarse dentro de una transacción.
+     */
+    public void recorrerValidaciones(RowCallbackHandler handler) {
+        recorrer("SELECT o.fecha_orden, o.fecha_validacion, o.prioridad " +
+                "FROM lab_orden o WHERE o.fecha_validacion IS NOT NULL", handler);
+    }
+
+    private void recorrer(String sql, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Cantidad de observaciones de una cubeta en un día
+     */
+    public record Incremento(LocalDate fecha, LABTatHistogramaDiario.Etapa etapa,
+            LABTatHistogramaDiario.Dimension dimension, String valor, int cubeta, long cantidad) {
+    }
+}
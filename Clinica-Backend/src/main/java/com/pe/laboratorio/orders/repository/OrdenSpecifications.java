@@ -0,0 +1,66 @@
+package com.pe.laboratorio.orders.repository;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.util.OrdenCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predicados del filtro de órdenes. Cada método devuelve null si su
+ * parámetro no se informó, y {@link Specification#allOf} descarta los nulos,
+ * de modo que la consulta solo lleva los predicados realmente usados y
+ * PostgreSQL puede elegir el índice que corresponda (ver índices de
+ * {@link LABOrden}). Las relaciones se comparan por id, sin JOIN.
+ */
+public final class OrdenSpecifications {
+
+    private OrdenSpecifications() {
+    }
+
+    public static Specification<LABOrden> fechaDesde(LocalDateTime fechaInicio) {
+        return fechaInicio == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fechaOrden"), fechaInicio);
+    }
+
+    public static Specification<LABOrden> fechaHasta(LocalDateTime fechaFin) {
+        return fechaFin == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("fechaOrden"), fechaFin);
+    }
+
+    public static Specification<LABOrden> paciente(Long patientId) {
+        return patientId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<LABOrden> medico(Long medicoId) {
+        return medicoId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("medico").get("id"), medicoId);
+    }
+
+    public static Specification<LABOrden> estado(LABOrden.EstadoOrden estado) {
+        return estado == null ? null
+                : (root, query, cb) -> cb.equal(root.get("estado"), estado);
+    }
+
+    public static Specification<LABOrden> prioridad(LABOrden.PrioridadOrden prioridad) {
+        return prioridad == null ? null
+                : (root, query, cb) -> cb.equal(root.get("prioridad"), prioridad);
+    }
+
+    /**
+     * Órdenes posteriores al cursor en el orden (fecha_orden DESC, id DESC).
+     * El límite fecha_orden <= cursor se repite fuera del OR para que sirva
+     * como condición de índice.
+     */
+    public static Specification<LABOrden> despuesDe(OrdenCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("fechaOrden"), cursor.fechaOrden()),
+                cb.or(
+                        cb.lessThan(root.get("fechaOrden"), cursor.fechaOrden()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
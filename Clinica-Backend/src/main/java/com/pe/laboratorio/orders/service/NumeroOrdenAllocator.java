@@ -0,0 +1,96 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.orders.repository.LABOrdenSecuenciaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generador de números de orden con formato ORD-YYYY-NNNNN.
+ * Estrategia hi/lo: el nodo reserva en la base de datos un bloque de números
+ * del contador del año (lab_orden_secuencia) y luego los entrega desde
+ * memoria con un incremento atómico, sin consultas ni bloqueos. Solo se toca
+ * la base de datos al agotar el bloque o al cambiar de año, y la numeración
+ * se reinicia cada año.
+ * Los números son únicos entre nodos; puede haber huecos si un nodo se
+ * reinicia con parte de su bloque sin usar o si una orden hace rollback.
+ */
+@Component
+@Slf4j
+public class NumeroOrdenAllocator {
+
+    private final LABOrdenSecuenciaRepository secuenciaRepository;
+    private final TransactionTemplate transaccionNueva;
+    private final int tamanioBloque;
+
+    private final AtomicReference<Bloque> bloqueActual = new AtomicReference<>();
+
+    public NumeroOrdenAllocator(LABOrdenSecuenciaRepository secuenciaRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${ordenes.numero.tamanio-bloque:50}") int tamanioBloque) {
+        this.secuenciaRepository = secuenciaRepository;
+        this.tamanioBloque = tamanioBloque;
+        // La reserva se confirma aunque la orden que la provocó haga rollback
+        this.transaccionNueva = new TransactionTemplate(transactionManager);
+        this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Devuelve el siguiente número de orden del año en curso
+     */
+    public String siguienteNumero() {
+        int anio = Year.now().getValue();
+        while (true) {
+            Bloque bloque = bloqueActual.get();
+            if (bloque != null && bloque.anio == anio) {
+                long numero = bloque.siguiente.getAndIncrement();
+                if (numero <= bloque.limite) {
+                    return String.format("ORD-%d-%05d", anio, numero);
+                }
+            }
+            recargar(anio, bloque);
+        }
+    }
+
+    /**
+     * Reserva un bloque nuevo. Solo un hilo lo hace; los demás reintentan con
+     * el bloque que este publique.
+     */
+    private synchronized void recargar(int anio, Bloque agotado) {
+        if (bloqueActual.get() != agotado) {
+            return;
+        }
+
+        Long ultimo = transaccionNueva.execute(status -> {
+            Long valor = secuenciaRepository.incrementar(anio, tamanioBloque);
+            if (valor == null) {
+                secuenciaRepository.inicializarAnio(anio);
+                valor = secuenciaRepository.incrementar(anio, tamanioBloque);
+            }
+            return valor;
+        });
+
+        long desde = ultimo - tamanioBloque + 1;
+        bloqueActual.set(new Bloque(anio, desde, ultimo));
+        log.debug("Reservado bloque de números de orden {}: {}-{}", anio, desde, ultimo);
+    }
+
+    private static final class Bloque {
+        private final int anio;
+        private final AtomicLong siguiente;
+        private final long limite;
+
+        private Bloque(int anio, long desde, long limite) {
+            this.anio = anio;
+            this.siguiente = new AtomicLong(desde);
+            this.limite = limite;
+        }
+    }
+}
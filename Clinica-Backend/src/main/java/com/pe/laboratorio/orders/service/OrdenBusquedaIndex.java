@@ -0,0 +1,335 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.orders.dto.OrdenBusquedaResultadoDTO;
+import com.pe.laboratorio.orders.event.OrdenCreadaEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import com.pe.laboratorio.shared.util.IndiceReconstruible;
+import com.pe.laboratorio.shared.util.ListaIdsOrdenada;
+import com.pe.laboratorio.shared.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de trigramas en memoria para buscar órdenes por nombre o DNI del
+ * paciente, número de orden o diagnóstico.
+ *
+ * Cada palabra normalizada (ver {@link TextNormalizer}) se indexa con relleno
+ * de borde ("  " + palabra + " "), de modo que los trigramas iniciales
+ * representan prefijos de palabra. Una búsqueda interseca las listas de ids
+ * de los trigramas de la consulta, de la más corta a la más larga, y verifica
+ * cada candidato contra el texto normalizado para descartar falsos positivos.
+ * Las coincidencias por prefijo de palabra se listan antes que las parciales.
+ *
+ * Los eventos de creación de órdenes y de modificación de pacientes agregan
+ * ids pero nunca los quitan: tras renombrar un paciente, sus órdenes siguen
+ * en las listas de los trigramas del nombre anterior hasta la próxima
+ * reconstrucción, y la verificación contra el texto las descarta mientras
+ * tanto.
+ */
+@Component
+@Slf4j
+public class OrdenBusquedaIndex {
+
+    /**
+     * Tope de candidatos verificados por búsqueda, para acotar la latencia
+     * con consultas muy poco selectivas
+     */
+    private static final int MAXIMO_VERIFICADOS = 20_000;
+
+    private final LABOrdenJdbcRepository ordenJdbcRepository;
+    private final TransactionTemplate transaccionLectura;
+
+    private final IndiceReconstruible<Indice> indice = new IndiceReconstruible<>(new Indice());
+
+    public OrdenBusquedaIndex(LABOrdenJdbcRepository ordenJdbcRepository,
+            PlatformTransactionManager transactionManager) {
+        this.ordenJdbcRepository = ordenJdbcRepository;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+    }
+
+    /**
+     * Busca órdenes cuyo texto contenga todas las palabras de la consulta.
+     *
+     * @param medicoId si no es nulo, solo órdenes de ese médico
+     */
+    public List<OrdenBusquedaResultadoDTO> buscar(String consulta, Long medicoId, int limite) {
+        String[] palabras = palabras(TextNormalizer.normalizar(consulta));
+        if (palabras.length == 0 || limite <= 0) {
+            return List.of();
+        }
+
+        Indice actual = indice.actual();
+        List<ListaIdsOrdenada.Vista> listas = new ArrayList<>();
+        for (int trigrama : trigramasConsulta(palabras)) {
+            ListaIdsOrdenada postings = actual.postings.get(trigrama);
+            if (postings == null) {
+                return List.of();
+            }
+            listas.add(postings.vista());
+        }
+        listas.sort(Comparator.comparingInt(ListaIdsOrdenada.Vista::tamanio));
+
+        List<OrdenBusquedaResultadoDTO> prefijos = new ArrayList<>();
+        List<OrdenBusquedaResultadoDTO> parciales = new ArrayList<>();
+        ListaIdsOrdenada.Vista menor = listas.get(0);
+        int verificados = 0;
+
+        // Los ids más altos (órdenes más recientes) primero
+        for (int i = menor.tamanio() - 1; i >= 0 && prefijos.size() < limite; i--) {
+            long id = menor.ids()[i];
+            if (!contenidoEnTodas(id, listas)) {
+                continue;
+            }
+            if (++verificados > MAXIMO_VERIFICADOS) {
+                break;
+            }
+
+            Documento documento = actual.documentos.get(id);
+            if (documento == null || (medicoId != null && !medicoId.equals(documento.medicoId()))) {
+                continue;
+            }
+            Coincidencia coincidencia = documento.coincide(palabras);
+            if (coincidencia == Coincidencia.PREFIJO) {
+                prefijos.add(documento.aResultado(true));
+            } else if (coincidencia == Coincidencia.PARCIAL && parciales.size() < limite) {
+                parciales.add(documento.aResultado(false));
+            }
+        }
+
+        List<OrdenBusquedaResultadoDTO> resultado = new ArrayList<>(limite);
+        resultado.addAll(prefijos);
+        for (int i = 0; i < parciales.size() && resultado.size() < limite; i++) {
+            resultado.add(parciales.get(i));
+        }
+        return resultado;
+    }
+
+    // ========================================
+    // Mantenimiento incremental
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenCreada(OrdenCreadaEvent event) {
+        indexar(event.ordenIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPacienteActualizado(PacienteActualizadoEvent event) {
+        indexar(ordenJdbcRepository.buscarIdsPorPaciente(event.patientId()));
+    }
+
+    void indexar(Collection<Long> ordenIds) {
+        if (ordenIds.isEmpty()) {
+            return;
+        }
+        List<Documento> documentos = new ArrayList<>(ordenIds.size());
+        ordenJdbcRepository.buscarDocumentosBusqueda(ordenIds, rs -> {
+            documentos.add(leerDocumento(rs));
+        });
+
+        indice.modificar(ordenIds, actual -> documentos.forEach(actual::agregar));
+    }
+
+    // ========================================
+    // Reconstrucción completa
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recargar();
+    }
+
+    @Scheduled(fixedDelayString = "${ordenes.busqueda.reconstruccion-ms:3600000}",
+            initialDelayString = "${ordenes.busqueda.reconstruccion-ms:3600000}")
+    public void reconstruir() {
+        recargar();
+    }
+
+    void recargar() {
+        long inicio = System.currentTimeMillis();
+        Indice nuevo = new Indice();
+        Set<Long> tocadas = indice.reconstruir(() -> {
+            // Las órdenes llegan por id ascendente: cada trigrama recibe sus
+            // ids al final de la lista, sin inserciones intermedias
+            transaccionLectura.executeWithoutResult(status -> ordenJdbcRepository.recorrerDocumentosBusqueda(
+                    rs -> nuevo.agregar(leerDocumento(rs))));
+            return nuevo;
+        });
+        indexar(tocadas);
+
+        log.info("Índice de búsqueda de órdenes reconstruido: {} órdenes, {} trigramas ({} ms)",
+                nuevo.documentos.size(), nuevo.postings.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    private Documento leerDocumento(ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        Timestamp fechaOrden = rs.getTimestamp(2);
+        long medico = rs.getLong(3);
+        Long medicoId = rs.wasNull() ? null : medico;
+        String nombre = Objects.toString(rs.getString(6), "") + " " + Objects.toString(rs.getString(7), "");
+        return new Documento(
+                id,
+                fechaOrden != null ? fechaOrden.toLocalDateTime() : null,
+                medicoId,
+                rs.getString(4),
+                rs.getString(5),
+                nombre.trim(),
+                rs.getString(8));
+    }
+
+    private static String[] palabras(String normalizado) {
+        return normalizado.isEmpty() ? new String[0] : normalizado.split(" ");
+    }
+
+    /**
+     * Palabras de 3 o más caracteres: sus trigramas internos (coinciden en
+     * cualquier posición). Palabras más cortas: sus trigramas con relleno
+     * inicial, que solo existen al comienzo de una palabra.
+     */
+    private static Set<Integer> trigramasConsulta(String[] palabras) {
+        Set<Integer> trigramas = new LinkedHashSet<>();
+        for (String palabra : palabras) {
+            String texto = palabra.length() >= 3 ? palabra : "  " + palabra;
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                trigramas.add(codificar(texto, i));
+            }
+        }
+        return trigramas;
+    }
+
+    /**
+     * Trigramas de un campo normalizado, con relleno de borde por palabra
+     */
+    private static void trigramasCampo(String normalizado, Set<Integer> destino) {
+        for (String palabra : palabras(normalizado)) {
+            String texto = "  " + palabra + " ";
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                destino.add(codificar(texto, i));
+            }
+        }
+    }
+
+    /**
+     * Empaqueta tres caracteres del alfabeto normalizado (espacio, dígitos y
+     * letras) en 6 bits cada uno
+     */
+    private static int codificar(String texto, int desde) {
+        return (codigo(texto.charAt(desde)) << 12)
+                | (codigo(texto.charAt(desde + 1)) << 6)
+                | codigo(texto.charAt(desde + 2));
+    }
+
+    private static int codigo(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 11;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 1;
+        }
+        return 0;
+    }
+
+    private static boolean contenidoEnTodas(long id, List<ListaIdsOrdenada.Vista> listas) {
+        for (int i = 1; i < listas.size(); i++) {
+            ListaIdsOrdenada.Vista vista = listas.get(i);
+            if (Arrays.binarySearch(vista.ids(), 0, vista.tamanio(), id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private enum Coincidencia {
+        PREFIJO,
+        PARCIAL,
+        NINGUNA
+    }
+
+    /**
+     * Orden indexada: textos originales para la respuesta y normalizados
+     * (" " + texto + " ") para verificar coincidencias
+     */
+    private record Documento(long id, LocalDateTime fechaOrden, Long medicoId, String numeroOrden,
+            String diagnostico, String patientName, String patientDni, String normalizado) {
+
+        private Documento(long id, LocalDateTime fechaOrden, Long medicoId, String numeroOrden,
+                String diagnostico, String patientName, String patientDni) {
+            this(id, fechaOrden, medicoId, numeroOrden, diagnostico, patientName, patientDni,
+                    " " + String.join(" ",
+                            TextNormalizer.normalizar(patientName),
+                            TextNormalizer.normalizar(patientDni),
+                            TextNormalizer.normalizar(numeroOrden),
+                            TextNormalizer.normalizar(diagnostico)) + " ");
+        }
+
+        private Coincidencia coincide(String[] palabras) {
+            boolean todasPrefijo = true;
+            for (String palabra : palabras) {
+                if (normalizado.contains(" " + palabra)) {
+                    continue;
+                }
+                if (!normalizado.contains(palabra)) {
+                    return Coincidencia.NINGUNA;
+                }
+                todasPrefijo = false;
+            }
+            return todasPrefijo ? Coincidencia.PREFIJO : Coincidencia.PARCIAL;
+        }
+
+        private OrdenBusquedaResultadoDTO aResultado(boolean prefijo) {
+            return OrdenBusquedaResultadoDTO.builder()
+                    .ordenId(id)
+                    .numeroOrden(numeroOrden)
+                    .fechaOrden(fechaOrden)
+                    .diagnostico(diagnostico)
+                    .patientName(patientName)
+                    .patientDni(patientDni)
+                    .prefijo(prefijo)
+                    .build();
+        }
+    }
+
+    private static final class Indice {
+        private final ConcurrentHashMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Integer, ListaIdsOrdenada> postings = new ConcurrentHashMap<>();
+
+        private void agregar(Documento documento) {
+            documentos.put(documento.id(), documento);
+            Set<Integer> trigramas = new HashSet<>();
+            trigramasCampo(TextNormalizer.normalizar(documento.patientName()), trigramas);
+            trigramasCampo(TextNormalizer.normalizar(documento.patientDni()), trigramas);
+            trigramasCampo(TextNormalizer.normalizar(documento.numeroOrden()), trigramas);
+            trigramasCampo(TextNormalizer.normalizar(documento.diagnostico()), trigramas);
+            for (int trigrama : trigramas) {
+                postings.computeIfAbsent(trigrama, t -> new ListaIdsOrdenada()).agregar(documento.id());
+            }
+        }
+    }
+}
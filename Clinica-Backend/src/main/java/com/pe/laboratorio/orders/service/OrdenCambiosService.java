@@ -0,0 +1,101 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.exam.event.CatalogoExamenCambiadoEvent;
+import com.pe.laboratorio.orders.event.DetalleActualizadoEvent;
+import com.pe.laboratorio.orders.event.OrdenCreadaEvent;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.repository.LABContadorCambiosRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Versión de los datos de órdenes para la sincronización de clientes.
+ *
+ * El contador de lab_orden se incrementa después del commit de cada cambio
+ * que altera el listado de órdenes (creación, estado, resultados, datos del
+ * paciente o del catálogo de exámenes). Incrementarlo después del commit
+ * garantiza que una versión nueva nunca se entrega con datos viejos; en el
+ * peor caso un cliente recibe datos nuevos con la versión anterior y los
+ * vuelve a pedir en la siguiente consulta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrdenCambiosService {
+
+    public static final String TABLA_ORDENES = "lab_orden";
+
+    private final LABContadorCambiosRepository contadorCambiosRepository;
+    private final LABOrdenJdbcRepository ordenJdbcRepository;
+
+    public long version() {
+        return contadorCambiosRepository.obtener(TABLA_ORDENES);
+    }
+
+    /**
+     * ETag fuerte del listado completo de órdenes. Los médicos ven un
+     * listado propio (RF-MED-01), por lo que su ETag incluye su login; el rol
+     * se toma de la autenticación, sin consultar al usuario.
+     */
+    public String etagListado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean medico = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_MEDICO".equals(authority.getAuthority()));
+        String alcance = medico ? "-" + authentication.getName() : "";
+        return "\"ordenes-" + version() + alcance + "\"";
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenCreada(OrdenCreadaEvent event) {
+        incrementar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEstadoCambiado(OrdenEstadoCambiadoEvent event) {
+        incrementar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDetalleActualizado(DetalleActualizadoEvent event) {
+        incrementar();
+    }
+
+    /**
+     * El nombre y DNI del paciente forman parte de cada orden: se marcan sus
+     * órdenes como actualizadas para que lleguen en la sincronización
+     * incremental
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPacienteActualizado(PacienteActualizadoEvent event) {
+        if (ordenJdbcRepository.marcarActualizadasPorPaciente(event.patientId(), LocalDateTime.now()) > 0) {
+            incrementar();
+        }
+    }
+
+    /**
+     * Un cambio del catálogo altera el nombre de los exámenes del listado.
+     * No marca órdenes: la sincronización incremental no lo refleja y el
+     * cliente lo obtiene al recargar el listado completo.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoCambiado(CatalogoExamenCambiadoEvent event) {
+        incrementar();
+    }
+
+    private void incrementar() {
+        try {
+            contadorCambiosRepository.incrementar(TABLA_ORDENES);
+        } catch (RuntimeException e) {
+            // El cambio ya se confirmó; los clientes lo verán con el próximo incremento
+            log.warn("No se pudo incrementar el contador de cambios de órdenes: {}", e.getMessage());
+        }
+    }
+}
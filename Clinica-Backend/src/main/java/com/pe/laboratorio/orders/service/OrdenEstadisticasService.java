@@ -0,0 +1,246 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.dto.OrdenEstadisticasDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenEstadisticaDiaria.Dimension;
+import com.pe.laboratorio.orders.event.OrdenCreadaEvent;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenDetalleRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenEstadisticaRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estadísticas de órdenes para tableros, mantenidas de forma incremental.
+ * Cada creación o cambio de estado genera incrementos por día y dimensión
+ * que se acumulan en memoria y se vuelcan periódicamente a
+ * lab_orden_estadistica_diaria con un upsert por lotes (write-behind).
+ * Las consultas leen solo las filas del rango pedido y les suman lo aún no
+ * volcado, por lo que su costo no depende del histórico de lab_orden.
+ *
+ * Los conteos son aproximados: lo pendiente de volcar se pierde si el
+ * proceso termina sin el volcado de cierre, y un cambio confirmado mientras
+ * se recalcula puede contarse dos veces. Los últimos días se recalculan
+ * periódicamente desde lab_orden, lo que corrige ambos casos en ese rango;
+ * un cambio de estado perdido de una orden más antigua queda sin corregir.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrdenEstadisticasService {
+
+    private static final int TAMANIO_BLOQUE = 1000;
+    private static final int RANGO_MAXIMO_DIAS = 366;
+
+    private final LABOrdenRepository ordenRepository;
+    private final LABOrdenDetalleRepository detalleRepository;
+    private final LABOrdenEstadisticaRepository estadisticaRepository;
+
+    /**
+     * Incrementos pendientes de volcar. merge y remove son atómicos por clave,
+     * así que ningún incremento se pierde entre el registro y el volcado.
+     */
+    private final ConcurrentHashMap<Clave, Long> pendientes = new ConcurrentHashMap<>();
+
+    @Value("${ordenes.estadisticas.resincronizacion-dias:2}")
+    private int diasResincronizacion;
+
+    /**
+     * Conteos de una dimensión en el rango [desde, hasta]
+     */
+    public OrdenEstadisticasDTO obtener(LocalDate desde, LocalDate hasta, String agrupacion, boolean porDia) {
+        Dimension dimension = parsearDimension(agrupacion);
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        if (inicio.isAfter(fin)) {
+            throw new ValidationException("La fecha de inicio no puede ser posterior a la fecha fin");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fin) >= RANGO_MAXIMO_DIAS) {
+            throw new ValidationException("El rango no puede superar " + RANGO_MAXIMO_DIAS + " días");
+        }
+
+        // (fecha o null, valor) → cantidad
+        Map<Clave, Long> conteos = new HashMap<>();
+        for (LABOrdenEstadisticaRepository.Incremento fila : estadisticaRepository.buscar(dimension, inicio, fin)) {
+            conteos.merge(new Clave(porDia ? fila.fecha() : null, dimension, fila.valor()), fila.cantidad(), Long::sum);
+        }
+        pendientes.forEach((clave, cantidad) -> {
+            if (clave.dimension() == dimension && !clave.fecha().isBefore(inicio) && !clave.fecha().isAfter(fin)) {
+                conteos.merge(new Clave(porDia ? clave.fecha() : null, dimension, clave.valor()), cantidad, Long::sum);
+            }
+        });
+
+        List<OrdenEstadisticasDTO.ItemDTO> items = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<Clave, Long> entrada : conteos.entrySet()) {
+            if (entrada.getValue() == 0) {
+                continue;
+            }
+            items.add(OrdenEstadisticasDTO.ItemDTO.builder()
+                    .fecha(entrada.getKey().fecha())
+                    .valor(entrada.getKey().valor())
+                    .cantidad(entrada.getValue())
+                    .build());
+            total += entrada.getValue();
+        }
+        items.sort(Comparator
+                .comparing(OrdenEstadisticasDTO.ItemDTO::getFecha, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(OrdenEstadisticasDTO.ItemDTO::getValor));
+
+        return OrdenEstadisticasDTO.builder()
+                .desde(inicio)
+                .hasta(fin)
+                .agrupacion(dimension.name())
+                .porDia(porDia)
+                .total(total)
+                .items(items)
+                .build();
+    }
+
+    // ========================================
+    // Mantenimiento incremental
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenCreada(OrdenCreadaEvent event) {
+        List<Long> ids = event.ordenIds();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+
+            Map<Long, LocalDate> fechas = new HashMap<>();
+            for (Tuple orden : ordenRepository.findResumenByIdIn(bloque)) {
+                LocalDate fecha = orden.get("fechaOrden", LocalDateTime.class).toLocalDate();
+                Long medicoId = orden.get("medicoId", Long.class);
+                fechas.put(orden.get("id", Long.class), fecha);
+
+                sumar(fecha, Dimension.ESTADO, orden.get("estado", LABOrden.EstadoOrden.class).name(), 1);
+                sumar(fecha, Dimension.PRIORIDAD, orden.get("prioridad", LABOrden.PrioridadOrden.class).name(), 1);
+                if (medicoId != null) {
+                    sumar(fecha, Dimension.MEDICO, medicoId.toString(), 1);
+                }
+            }
+
+            for (Tuple fila : detalleRepository.contarPorAreaByOrdenIdIn(bloque)) {
+                LocalDate fecha = fechas.get(fila.get("ordenId", Long.class));
+                if (fecha != null) {
+                    sumar(fecha, Dimension.AREA, fila.get("areaId", Long.class).toString(),
+                            fila.get("cantidad", Long.class));
+                }
+            }
+        }
+    }
+
+    /**
+     * Las transiciones avanzan un solo paso, así que el estado de origen es
+     * el anterior al destino
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenEstadoCambiado(OrdenEstadoCambiadoEvent event) {
+        LABOrden.EstadoOrden origen = event.estado().anterior();
+        List<Long> ids = event.ordenIds();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+            for (Tuple orden : ordenRepository.findResumenByIdIn(bloque)) {
+                LocalDate fecha = orden.get("fechaOrden", LocalDateTime.class).toLocalDate();
+                if (origen != null) {
+                    sumar(fecha, Dimension.ESTADO, origen.name(), -1);
+                }
+                sumar(fecha, Dimension.ESTADO, event.estado().name(), 1);
+            }
+        }
+    }
+
+    private void sumar(LocalDate fecha, Dimension dimension, String valor, long cantidad) {
+        pendientes.merge(new Clave(fecha, dimension, valor), cantidad, Long::sum);
+    }
+
+    // ========================================
+    // Volcado y carga inicial
+    // ========================================
+
+    @Scheduled(fixedDelayString = "${ordenes.estadisticas.volcado-ms:5000}")
+    @PreDestroy
+    public synchronized void volcar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        List<LABOrdenEstadisticaRepository.Incremento> incrementos = new ArrayList<>();
+        for (Clave clave : pendientes.keySet()) {
+            Long cantidad = pendientes.remove(clave);
+            if (cantidad != null && cantidad != 0) {
+                incrementos.add(new LABOrdenEstadisticaRepository.Incremento(
+                        clave.fecha(), clave.dimension(), clave.valor(), cantidad));
+            }
+        }
+        if (incrementos.isEmpty()) {
+            return;
+        }
+
+        try {
+            estadisticaRepository.acumular(incrementos);
+        } catch (RuntimeException e) {
+            // Se devuelven a memoria para el siguiente intento
+            incrementos.forEach(i -> sumar(i.fecha(), i.dimension(), i.valor(), i.cantidad()));
+            log.warn("No se pudieron volcar {} incrementos de estadísticas: {}", incrementos.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula desde el histórico los conteos de los últimos días, los que
+     * concentran los cambios, sin recorrer todo lab_orden
+     */
+    @Scheduled(fixedDelayString = "${ordenes.estadisticas.resincronizacion-ms:3600000}",
+            initialDelayString = "${ordenes.estadisticas.resincronizacion-ms:3600000}")
+    public synchronized void resincronizar() {
+        volcar();
+        LocalDate desde = LocalDate.now().minusDays(Math.max(1, diasResincronizacion) - 1L);
+        int filas = estadisticaRepository.recalcularDesde(desde);
+        log.info("Estadísticas diarias de órdenes recalculadas desde {}: {} filas", desde, filas);
+    }
+
+    /**
+     * En el primer arranque con la tabla vacía se calcula el histórico una sola vez
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (estadisticaRepository.estaVacia()) {
+            int filas = estadisticaRepository.poblarDesdeHistorico();
+            log.info("Estadísticas diarias de órdenes inicializadas desde el histórico: {} filas", filas);
+        }
+    }
+
+    private Dimension parsearDimension(String agrupacion) {
+        if (agrupacion == null) {
+            return Dimension.ESTADO;
+        }
+        try {
+            return Dimension.valueOf(agrupacion.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Agrupación inválida: " + agrupacion);
+        }
+    }
+
+    private record Clave(LocalDate fecha, Dimension dimension, String valor) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.pe.laboratorio.orders.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.dto.OrdenFilterDTO;
+import com.pe.laboratorio.security.util.UsuarioActual;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exportación de órdenes en el servidor (CSV o NDJSON).
+ * Las filas se leen con un cursor JDBC de solo avance (fetchSize) dentro de
+ * una transacción de solo lectura y se escriben directamente en la respuesta,
+ * sin pasar por entidades ni por el contexto de persistencia. La memoria usada
+ * es constante sin importar el rango de fechas.
+ */
+@Service
+@Slf4j
+public class OrdenExportService {
+
+    public static final String FORMATO_CSV = "csv";
+    public static final String FORMATO_NDJSON = "ndjson";
+
+    private static final String[] COLUMNAS = {
+            "id", "numeroOrden", "fechaOrden", "estado", "prioridad", "tipoAtencion", "tipoMuestra",
+            "diagnostico", "total", "fechaTomaMuestra", "fechaProcesamiento", "fechaValidacion",
+            "fechaEntrega", "patientId", "patientDni", "patientFirstName", "patientLastName",
+            "medicoId", "medicoNombre"
+    };
+
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate transaccionLectura;
+    private final ObjectMapper objectMapper;
+
+    public OrdenExportService(DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${ordenes.export.fetch-size:1000}") int fetchSize) {
+        // PostgreSQL solo usa cursor de servidor con fetchSize > 0 y autocommit desactivado
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Prepara la exportación. El control de acceso (médicos solo exportan sus
+     * órdenes) se resuelve aquí, en el hilo de la petición; la lectura y
+     * escritura ocurren cuando Spring MVC ejecuta el cuerpo.
+     */
+    public StreamingResponseBody exportar(OrdenFilterDTO filtro, String formato) {
+        String formatoNormalizado = normalizarFormato(formato);
+        Long medicoId = resolverMedicoId(filtro.getMedicoId());
+
+        List<Object> args = new ArrayList<>();
+        String sql = construirConsulta(filtro, medicoId, args);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long inicio = System.currentTimeMillis();
+            long filas = FORMATO_CSV.equals(formatoNormalizado)
+                    ? escribirCsv(sql, args, writer)
+                    : escribirNdjson(sql, args, writer);
+            writer.flush();
+            log.info("Exportación {} de órdenes: {} filas en {} ms",
+                    formatoNormalizado, filas, System.currentTimeMillis() - inicio);
+        };
+    }
+
+    public String contentType(String formato) {
+        return FORMATO_CSV.equals(normalizarFormato(formato))
+                ? "text/csv; charset=UTF-8"
+                : "application/x-ndjson";
+    }
+
+    public String nombreArchivo(String formato) {
+        return "ordenes." + normalizarFormato(formato);
+    }
+
+    // ========================================
+    // Escritura
+    // ========================================
+
+    private long escribirCsv(String sql, List<Object> args, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNAS));
+        writer.write('\n');
+
+        return recorrer(sql, args, rs -> {
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escaparCsv(valorTexto(rs, i + 1)));
+            }
+            writer.write('\n');
+        }, writer);
+    }
+
+    private long escribirNdjson(String sql, List<Object> args, Writer writer) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        // El writer se cierra fuera; cada objeto va en su propia línea
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long filas = recorrer(sql, args, rs -> {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                Object valor = rs.getObject(i + 1);
+                generator.writeFieldName(COLUMNAS[i]);
+                if (valor == null) {
+                    generator.writeNull();
+                } else if (valor instanceof Number numero) {
+                    generator.writeNumber(numero.toString());
+                } else {
+                    generator.writeString(valorTexto(rs, i + 1));
+                }
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }, writer);
+
+        generator.close();
+        return filas;
+    }
+
+    /**
+     * Recorre el resultado con el cursor JDBC dentro de una transacción de
+     * solo lectura, invocando al escritor por cada fila
+     */
+    private long recorrer(String sql, List<Object> args, EscritorFila escritor, Writer writer) {
+        Long filas = transaccionLectura.execute(status -> {
+            long[] contador = { 0 };
+            cursorJdbcTemplate.query(sql, rs -> {
+                try {
+                    escritor.escribir(rs);
+                    if (++contador[0] % FILAS_POR_FLUSH == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+            return contador[0];
+        });
+        return filas != null ? filas : 0;
+    }
+
+    @FunctionalInterface
+    private interface EscritorFila {
+        void escribir(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private String valorTexto(ResultSet rs, int columna) throws SQLException {
+        Object valor = rs.getObject(columna);
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return valor.toString();
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+                || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+
+    // ========================================
+    // Consulta
+    // ========================================
+
+    /**
+     * Arma la consulta emitiendo solo los predicados informados
+     */
+    private String construirConsulta(OrdenFilterDTO filtro, Long medicoId, List<Object> args) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT o.id, o.numero_orden, o.fecha_orden, o.estado, o.prioridad, o.tipo_atencion, " +
+                        "o.tipo_muestra, o.diagnostico, o.total, o.fecha_toma_muestra, o.fecha_procesamiento, " +
+                        "o.fecha_validacion, o.fecha_entrega, p.id, p.dni, p.first_name, p.last_name, " +
+                        "m.id, CONCAT_WS(' ', m.nombre, m.apepat, m.apemat) " +
+                        "FROM lab_orden o " +
+                        "JOIN patients p ON p.id = o.patient_id " +
+                        "LEFT JOIN datos_personales m ON m.id = o.medico_id " +
+                        "WHERE 1 = 1");
+
+        if (filtro.getFechaInicio() != null) {
+            sql.append(" AND o.fecha_orden >= ?");
+            args.add(LocalDateTime.of(filtro.getFechaInicio(), LocalTime.MIN));
+        }
+        if (filtro.getFechaFin() != null) {
+            sql.append(" AND o.fecha_orden <= ?");
+            args.add(LocalDateTime.of(filtro.getFechaFin(), LocalTime.MAX));
+        }
+        if (filtro.getPatientId() != null) {
+            sql.append(" AND o.patient_id = ?");
+            args.add(filtro.getPatientId());
+        }
+        if (medicoId != null) {
+            sql.append(" AND o.medico_id = ?");
+            args.add(medicoId);
+        }
+        if (filtro.getEstado() != null) {
+            sql.append(" AND o.estado = ?");
+            args.add(filtro.getEstado());
+        }
+        if (filtro.getPrioridad() != null) {
+            sql.append(" AND o.prioridad = ?");
+            args.add(filtro.getPrioridad());
+        }
+
+        sql.append(" ORDER BY o.fecha_orden DESC, o.id DESC");
+        return sql.toString();
+    }
+
+    private String normalizarFormato(String formato) {
+        String valor = formato != null ? formato.toLowerCase(Locale.ROOT) : FORMATO_CSV;
+        if (!FORMATO_CSV.equals(valor) && !FORMATO_NDJSON.equals(valor)) {
+            throw new ValidationException("Formato de exportación no soportado: " + formato);
+        }
+        return valor;
+    }
+
+    /**
+     * RF-MED-01: los médicos solo exportan sus propias órdenes
+     */
+    private Long resolverMedicoId(Long medicoSolicitado) {
+        UsuarioActual usuario = UsuarioActual.obtener();
+        return usuario.hasRole("MEDICO") ? usuario.id() : medicoSolicitado;
+    }
+}
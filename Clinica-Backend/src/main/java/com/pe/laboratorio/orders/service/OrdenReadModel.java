@@ -0,0 +1,178 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.exception.ResourceNotFoundException;
+import com.pe.laboratorio.orders.dto.OrdenResponseDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.orders.repository.LABOrdenDetalleRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenRepository;
+import com.pe.laboratorio.users.entity.DatosPersonales;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modelo de lectura de órdenes.
+ * Arma el grafo completo OrdenResponseDTO + detalles con dos consultas de
+ * proyección plana por bloque de ids (cabeceras y detalles), sin hidratar
+ * entidades. La cantidad de sentencias no depende de cuántas órdenes o
+ * detalles se devuelvan, solo del número de bloques.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrdenReadModel {
+
+    /**
+     * Tamaño máximo de cada lista IN enviada a la base de datos
+     */
+    private static final int TAMANIO_BLOQUE = 1000;
+
+    private final LABOrdenRepository ordenRepository;
+    private final LABOrdenDetalleRepository detalleRepository;
+
+    /**
+     * Carga las órdenes indicadas respetando el orden de la lista de ids.
+     * Los ids inexistentes se omiten.
+     */
+    @Transactional(readOnly = true)
+    public List<OrdenResponseDTO> cargar(List<Long> ids) {
+        List<OrdenResponseDTO> resultado = new ArrayList<>(ids.size());
+
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+
+            Map<Long, OrdenResponseDTO> porId = new HashMap<>();
+            for (Tuple fila : ordenRepository.findCabecerasByIdIn(bloque)) {
+                OrdenResponseDTO dto = mapearCabecera(fila);
+                porId.put(dto.getId(), dto);
+            }
+
+            for (Tuple fila : detalleRepository.findFilasByOrdenIdIn(bloque)) {
+                OrdenResponseDTO orden = porId.get(fila.get("ordenId", Long.class));
+                if (orden != null) {
+                    orden.getDetalles().add(mapearDetalle(fila));
+                }
+            }
+
+            for (Long id : bloque) {
+                OrdenResponseDTO dto = porId.get(id);
+                if (dto != null) {
+                    resultado.add(dto);
+                }
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Carga una sola orden
+     */
+    @Transactional(readOnly = true)
+    public OrdenResponseDTO cargar(Long id) {
+        List<OrdenResponseDTO> ordenes = cargar(List.of(id));
+        if (ordenes.isEmpty()) {
+            throw new ResourceNotFoundException("Orden no encontrada con ID: " + id);
+        }
+        return ordenes.get(0);
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    private OrdenResponseDTO mapearCabecera(Tuple fila) {
+        LABOrden.EstadoOrden estado = fila.get("estado", LABOrden.EstadoOrden.class);
+        LABOrden.PrioridadOrden prioridad = fila.get("prioridad", LABOrden.PrioridadOrden.class);
+
+        return OrdenResponseDTO.builder()
+                .id(fila.get("id", Long.class))
+                .numeroOrden(fila.get("numeroOrden", String.class))
+                .fechaOrden(fila.get("fechaOrden", LocalDateTime.class))
+                .diagnostico(fila.get("diagnostico", String.class))
+                .estado(estado != null ? estado.name() : null)
+                .prioridad(prioridad != null ? prioridad.name() : null)
+                .tipoAtencion(fila.get("tipoAtencion", String.class))
+                .tipoMuestra(fila.get("tipoMuestra", String.class))
+                .observaciones(fila.get("observaciones", String.class))
+                .total(fila.get("total", BigDecimal.class))
+                .fechaTomaMuestra(fila.get("fechaTomaMuestra", LocalDateTime.class))
+                .fechaProcesamiento(fila.get("fechaProcesamiento", LocalDateTime.class))
+                .fechaValidacion(fila.get("fechaValidacion", LocalDateTime.class))
+                .fechaEntrega(fila.get("fechaEntrega", LocalDate.class))
+                .version(fila.get("version", Long.class))
+                .patientId(fila.get("patientId", Long.class))
+                .patientFirstName(fila.get("patientFirstName", String.class))
+                .patientLastName(fila.get("patientLastName", String.class))
+                .patientDni(fila.get("patientDni", String.class))
+                .medicoId(fila.get("medicoId", Long.class))
+                .medicoNombre(fila.get("medicoNombre", String.class))
+                .medicoFullName(nombreCompleto(fila, "medico"))
+                .userId(fila.get("userId", Long.class))
+                .userName(nombreCompleto(fila, "user"))
+                .validadoPorId(fila.get("validadoPorId", Long.class))
+                .validadoPorName(nombreCompleto(fila, "validadoPor"))
+                .detalles(new ArrayList<>())
+                .createdAt(fila.get("createdAt", LocalDateTime.class))
+                .updatedAt(fila.get("updatedAt", LocalDateTime.class))
+                .createdByName(nombreCompleto(fila, "createdBy"))
+                .build();
+    }
+
+    private OrdenResponseDTO.OrdenDetalleDTO mapearDetalle(Tuple fila) {
+        LABOrdenDetalle.EstadoDetalle estado = fila.get("estado", LABOrdenDetalle.EstadoDetalle.class);
+
+        return OrdenResponseDTO.OrdenDetalleDTO.builder()
+                .id(fila.get("id", Long.class))
+                .examId(fila.get("examId", Long.class))
+                .examName(fila.get("examName", String.class))
+                .equipoId(fila.get("equipoId", Long.class))
+                .estado(estado != null ? estado.name() : null)
+                .resultado(fila.get("resultado", String.class))
+                .valorReferencia(fila.get("valorReferencia", String.class))
+                .unidad(fila.get("unidad", String.class))
+                .observaciones(fila.get("observaciones", String.class))
+                .precio(fila.get("precio", BigDecimal.class))
+                .valorCritico(fila.get("valorCritico", Boolean.class))
+                .fueraRango(fila.get("fueraRango", Boolean.class))
+                .deltaCheck(fila.get("deltaCheck", Boolean.class))
+                .validadoPrimario(fila.get("validadoPrimario", Boolean.class))
+                .validadoFinal(fila.get("validadoFinal", Boolean.class))
+                .tecnologoName(nombreCompleto(fila, "tecnologo"))
+                .biologoName(nombreCompleto(fila, "biologo"))
+                .procesadoPorName(nombreCompleto(fila, "procesadoPor"))
+                .validadoPorName(nombreCompleto(fila, "validadoPor"))
+                .fechaProcesamiento(fila.get("fechaProcesamiento", LocalDateTime.class))
+                .fechaValidacionPrimaria(fila.get("fechaValidacionPrimaria", LocalDateTime.class))
+                .fechaValidacionFinal(fila.get("fechaValidacionFinal", LocalDateTime.class))
+                .version(fila.get("version", Long.class))
+                .createdAt(fila.get("createdAt", LocalDateTime.class))
+                .updatedAt(fila.get("updatedAt", LocalDateTime.class))
+                .build();
+    }
+
+    /**
+     * Nombre completo de una persona proyectada con el prefijo dado
+     * (medico, user, ...). Nulo si la relación no existe.
+     */
+    private String nombreCompleto(Tuple fila, String prefijo) {
+        if (fila.get(prefijo + "Id", Long.class) == null) {
+            return null;
+        }
+        return DatosPersonales.construirNombreCompleto(
+                fila.get(prefijo + "Nombre", String.class),
+                fila.get(prefijo + "Apepat", String.class),
+                fila.get(prefijo + "Apemat", String.class),
+                fila.get(prefijo + "Login", String.class),
+                fila.get(prefijo + "IdPersonal", Long.class));
+    }
+}
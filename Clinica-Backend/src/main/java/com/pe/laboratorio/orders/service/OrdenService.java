@@ -1,8 +1,15 @@
 package com.pe.laboratorio.orders.service;
 
+import com.pe.laboratorio.orders.dto.OrdenBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenBusquedaResultadoDTO;
+import com.pe.laboratorio.orders.dto.OrdenCambiosDTO;
 import com.pe.laboratorio.orders.dto.OrdenCreateDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchRequestDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchResponseDTO;
 import com.pe.laboratorio.orders.dto.OrdenFilterDTO;
+import com.pe.laboratorio.orders.dto.OrdenPageResponseDTO;
 import com.pe.laboratorio.orders.dto.OrdenResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenResumenDTO;
 
 import java.util.List;
 
@@ -16,26 +23,62 @@ public interface OrdenService {
      * Aplica reglas de negocio:
      * - Médicos solo ven sus propias órdenes (RF-MED-01)
      * - Tecnólogos y Biólogos ven todas las órdenes (RF-TEC-05, RF-BIO-03)
+     * El resultado se pagina por cursor: filtro.cursor = nextCursor de la
+     * página anterior.
      */
-    List<OrdenResponseDTO> filtrarOrdenes(OrdenFilterDTO filtro);
+    OrdenPageResponseDTO filtrarOrdenes(OrdenFilterDTO filtro);
+
+    /**
+     * Totales de las órdenes que cumplen el filtro (cantidad y monto por
+     * estado, prioridad y día) calculados en la base de datos, sin cargar
+     * las órdenes. Aplica la misma restricción de médicos que el filtro.
+     */
+    OrdenResumenDTO resumirOrdenes(OrdenFilterDTO filtro);
+
+    /**
+     * Búsqueda de texto libre por nombre o DNI del paciente, número de orden o
+     * diagnóstico. Los médicos solo encuentran sus propias órdenes (RF-MED-01).
+     */
+    List<OrdenBusquedaResultadoDTO> buscarOrdenes(String consulta, Integer limite);
 
     /**
      * Crear una nueva orden de laboratorio
      */
     OrdenResponseDTO crearOrden(OrdenCreateDTO dto);
 
+    /**
+     * Crear muchas órdenes en una sola operación (jornadas de campaña).
+     * Las órdenes con datos inválidos se rechazan individualmente; el resto se
+     * inserta con JDBC por lotes.
+     */
+    OrdenBatchResponseDTO crearOrdenesBatch(List<OrdenCreateDTO> dtos);
+
     /**
      * Obtener una orden por ID
      */
     OrdenResponseDTO obtenerOrdenPorId(Long id);
 
     /**
-     * Actualizar el estado de una orden
+     * Avanzar el estado de una orden al siguiente del ciclo de vida.
+     * Si se envía version y no coincide con la actual se rechaza con conflicto.
+     */
+    OrdenResponseDTO actualizarEstado(Long id, String nuevoEstado, Long version);
+
+    /**
+     * Aplicar una misma transición de estado a varias órdenes en una sola
+     * sentencia, reportando los conflictos por orden
      */
-    OrdenResponseDTO actualizarEstado(Long id, String nuevoEstado);
+    OrdenEstadoBatchResponseDTO actualizarEstadoBatch(OrdenEstadoBatchRequestDTO solicitud);
 
     /**
      * Obtener todas las órdenes (sin filtros)
      */
     List<OrdenResponseDTO> obtenerTodasLasOrdenes();
+
+    /**
+     * Órdenes modificadas desde el token de una consulta anterior, junto con
+     * el token para la siguiente. Sin token devuelve todas las órdenes
+     * visibles para el usuario.
+     */
+    OrdenCambiosDTO obtenerCambios(String since);
 }
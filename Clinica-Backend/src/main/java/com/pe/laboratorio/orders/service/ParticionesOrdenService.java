@@ -0,0 +1,72 @@
+package com.pe.laboratorio.orders.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Crea por adelantado las particiones anuales de lab_orden y
+ * lab_orden_detalle (ver db/migracion/V1__particionar_ordenes.sql).
+ * Las órdenes siempre se fechan con la hora actual, por lo que basta con que
+ * existan las particiones del año en curso y del siguiente.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParticionesOrdenService {
+
+    private static final List<String> TABLAS = List.of("lab_orden", "lab_orden_detalle");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inicio del año en curso: límite inferior de la partición caliente
+     */
+    public static LocalDateTime inicioAnioActual() {
+        return LocalDate.now().withDayOfYear(1).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        asegurarParticiones();
+    }
+
+    @Scheduled(cron = "${ordenes.particiones.cron:0 0 3 * * *}")
+    public void asegurarParticiones() {
+        int anio = LocalDate.now().getYear();
+        for (String tabla : TABLAS) {
+            if (!particionada(tabla)) {
+                log.warn("La tabla {} no está particionada; no se crean particiones", tabla);
+                continue;
+            }
+            crearParticion(tabla, anio);
+            crearParticion(tabla, anio + 1);
+        }
+    }
+
+    private boolean particionada(String tabla) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(?) AND relkind = 'p')",
+                Boolean.class, tabla));
+    }
+
+    private void crearParticion(String tabla, int anio) {
+        String particion = tabla + "_" + anio;
+        try {
+            // Los índices de la tabla padre se crean en la partición automáticamente
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + particion + " PARTITION OF " + tabla +
+                    " FOR VALUES FROM ('" + LocalDate.of(anio, 1, 1) + "') TO ('" + LocalDate.of(anio + 1, 1, 1) + "')");
+        } catch (RuntimeException e) {
+            // Otro nodo pudo crearla al mismo tiempo; se reintenta en la próxima ejecución
+            log.warn("No se pudo crear la partición {}: {}", particion, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.exam.event.CatalogoExamenCambiadoEvent;
+import com.pe.laboratorio.exam.repository.ExamRepository;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
+import com.pe.laboratorio.orders.repository.LABContadorCambiosRepository;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla de rangos de referencia y críticos por examen, compilada en arreglos
+ * primitivos ordenados por id de examen. La evaluación de un resultado es una
+ * búsqueda binaria y cuatro comparaciones de double, sin BigDecimal ni
+ * entidades. Los límites ausentes se guardan como NaN: cualquier comparación
+ * con NaN es falsa, por lo que un límite no configurado nunca marca el valor.
+ * Se reconstruye completa al cambiar el catálogo de exámenes, y cuando la
+ * versión del catálogo (ver {@link CatalogoExamenes}) avanza por un cambio
+ * hecho en otro nodo.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RangosReferencia {
+
+    private final ExamRepository examRepository;
+    private final LABContadorCambiosRepository contadorCambiosRepository;
+
+    private volatile Tabla tabla;
+
+    /**
+     * Resultado de evaluar un valor. fueraRango y critico son falsos si el
+     * resultado no es numérico o el examen no tiene rangos.
+     */
+    public record Evaluacion(boolean numerico, boolean fueraRango, boolean critico,
+            String valorReferencia, String unidad) {
+    }
+
+    public Evaluacion evaluar(Long examId, String resultado) {
+        Tabla actual = obtenerTabla();
+        int i = examId != null ? Arrays.binarySearch(actual.examIds, examId) : -1;
+        if (i < 0) {
+            return new Evaluacion(false, false, false, null, null);
+        }
+
+        double valor = parsear(resultado);
+        if (Double.isNaN(valor)) {
+            return new Evaluacion(false, false, false, actual.valorReferencia[i], actual.unidad[i]);
+        }
+
+        boolean fueraRango = valor < actual.minimo[i] || valor > actual.maximo[i];
+        boolean critico = valor < actual.criticoMin[i] || valor > actual.criticoMax[i];
+        return new Evaluacion(true, fueraRango, critico, actual.valorReferencia[i], actual.unidad[i]);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recompilar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogoCambiado(CatalogoExamenCambiadoEvent event) {
+        recompilar();
+    }
+
+    @Scheduled(fixedDelayString = "${catalogo.verificacion-ms:30000}",
+            initialDelayString = "${catalogo.verificacion-ms:30000}")
+    public void verificarVersion() {
+        Tabla actual = tabla;
+        if (actual != null
+                && contadorCambiosRepository.obtener(CatalogoExamenes.TABLA_CATALOGO) != actual.version) {
+            recompilar();
+        }
+    }
+
+    // ========================================
+    // Compilación
+    // ========================================
+
+    private Tabla obtenerTabla() {
+        Tabla actual = tabla;
+        return actual != null ? actual : recompilar();
+    }
+
+    synchronized Tabla recompilar() {
+        // La versión se lee antes que los rangos: son al menos tan nuevos como ella
+        long version = contadorCambiosRepository.obtener(CatalogoExamenes.TABLA_CATALOGO);
+        List<Tuple> filas = examRepository.findRangosReferencia();
+        int n = filas.size();
+
+        Tabla nueva = new Tabla(version, n);
+        for (int i = 0; i < n; i++) {
+            Tuple fila = filas.get(i);
+            BigDecimal minimo = fila.get("valorMinimo", BigDecimal.class);
+            BigDecimal maximo = fila.get("valorMaximo", BigDecimal.class);
+
+            nueva.examIds[i] = fila.get("id", Long.class);
+            nueva.minimo[i] = aDouble(minimo);
+            nueva.maximo[i] = aDouble(maximo);
+            nueva.criticoMin[i] = aDouble(fila.get("valorCriticoMin", BigDecimal.class));
+            nueva.criticoMax[i] = aDouble(fila.get("valorCriticoMax", BigDecimal.class));
+            nueva.valorReferencia[i] = textoReferencia(minimo, maximo);
+            nueva.unidad[i] = fila.get("unidadMedida", String.class);
+        }
+
+        tabla = nueva;
+        log.debug("Rangos de referencia compilados para {} exámenes", n);
+        return nueva;
+    }
+
+    private static double aDouble(BigDecimal valor) {
+        return valor != null ? valor.doubleValue() : Double.NaN;
+    }
+
+    private static String textoReferencia(BigDecimal minimo, BigDecimal maximo) {
+        if (minimo != null && maximo != null) {
+            return minimo.toPlainString() + " - " + maximo.toPlainString();
+        }
+        if (minimo != null) {
+            return ">= " + minimo.toPlainString();
+        }
+        if (maximo != null) {
+            return "<= " + maximo.toPlainString();
+        }
+        return null;
+    }
+
+    /**
+     * Convierte el resultado a número aceptando coma decimal; NaN si no es
+     * numérico (resultados cualitativos o de texto)
+     */
+    public static double parsear(String resultado) {
+        if (resultado == null || resultado.isBlank()) {
+            return Double.NaN;
+        }
+        try {
+            double valor = Double.parseDouble(resultado.trim().replace(',', '.'));
+            return Double.isFinite(valor) ? valor : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Arreglos paralelos indexados por la posición del examen en examIds
+     */
+    private static final class Tabla {
+        private final long version;
+        private final long[] examIds;
+        private final double[] minimo;
+        private final double[] maximo;
+        private final double[] criticoMin;
+        private final double[] criticoMax;
+        private final String[] valorReferencia;
+        private final String[] unidad;
+
+        private Tabla(long version, int n) {
+            this.version = version;
+            examIds = new long[n];
+            minimo = new double[n];
+            maximo = new double[n];
+            criticoMin = new double[n];
+            criticoMax = new double[n];
+            valorReferencia = new String[n];
+            unidad = new String[n];
+        }
+    }
+}
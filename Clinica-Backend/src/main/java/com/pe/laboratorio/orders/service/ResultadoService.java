@@ -0,0 +1,32 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchDTO;
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoDetalleDTO;
+import com.pe.laboratorio.orders.dto.TendenciaResultadoDTO;
+
+import java.util.List;
+
+public interface ResultadoService {
+
+    /**
+     * Registrar resultados de varios detalles en un solo envío, evaluando los
+     * rangos de referencia y críticos de cada examen.
+     * Los detalles inválidos se reportan sin impedir registrar los demás.
+     */
+    ResultadoBatchResponseDTO registrarResultadosBatch(List<ResultadoDetalleDTO> resultados);
+
+    /**
+     * Modificar un detalle (resultado, estado, observaciones o equipo) con un
+     * UPDATE puntual que verifica la versión, sin cargar la orden. El estado
+     * de la orden se recalcula a partir de los estados de sus detalles.
+     */
+    OrdenDetallePatchResponseDTO actualizarDetalle(Long ordenId, Long detalleId, OrdenDetallePatchDTO dto);
+
+    /**
+     * Últimos resultados numéricos del paciente por examen (todos, o solo el
+     * indicado), desde el historial en memoria
+     */
+    List<TendenciaResultadoDTO> obtenerTendencias(Long patientId, Long examId);
+}
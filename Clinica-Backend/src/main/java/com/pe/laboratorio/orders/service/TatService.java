@@ -0,0 +1,284 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.dto.TatEstadisticasDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABTatHistogramaDiario.Dimension;
+import com.pe.laboratorio.orders.entity.LABTatHistogramaDiario.Etapa;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.event.ResultadosRegistradosEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenDetalleRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenRepository;
+import com.pe.laboratorio.orders.repository.LABTatHistogramaRepository;
+import com.pe.laboratorio.orders.util.HistogramaLatencia;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Tuple;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tiempos de respuesta (TAT) con histogramas combinables.
+ * Cada resultado o validación registra su duración (en minutos desde la
+ * orden) en la cubeta correspondiente por día, etapa y dimensión. Las
+ * cubetas se acumulan en memoria y se vuelcan periódicamente a
+ * lab_tat_histograma_diario (write-behind). Los percentiles de cualquier
+ * ventana se obtienen sumando las cubetas de sus días, sin releer órdenes.
+ */
+@Service
+@Slf4j
+public class TatService {
+
+    private static final int TAMANIO_BLOQUE = 1000;
+    private static final int RANGO_MAXIMO_DIAS = 366;
+    private static final String VALOR_TOTAL = "*";
+
+    private final LABOrdenRepository ordenRepository;
+    private final LABOrdenDetalleRepository detalleRepository;
+    private final LABTatHistogramaRepository histogramaRepository;
+    private final TransactionTemplate transaccion;
+
+    /**
+     * Incrementos pendientes de volcar por cubeta
+     */
+    private final ConcurrentHashMap<Clave, Long> pendientes = new ConcurrentHashMap<>();
+
+    public TatService(LABOrdenRepository ordenRepository,
+            LABOrdenDetalleRepository detalleRepository,
+            LABTatHistogramaRepository histogramaRepository,
+            PlatformTransactionManager transactionManager) {
+        this.ordenRepository = ordenRepository;
+        this.detalleRepository = detalleRepository;
+        this.histogramaRepository = histogramaRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Percentiles de TAT de una etapa agrupados por la dimensión indicada
+     */
+    public TatEstadisticasDTO obtener(LocalDate desde, LocalDate hasta, String etapa, String agrupacion) {
+        Etapa etapaTat = parsear(Etapa.class, etapa, Etapa.RESULTADO, "Etapa");
+        Dimension dimension = parsear(Dimension.class, agrupacion, Dimension.TOTAL, "Agrupación");
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        if (inicio.isAfter(fin)) {
+            throw new ValidationException("La fecha de inicio no puede ser posterior a la fecha fin");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fin) >= RANGO_MAXIMO_DIAS) {
+            throw new ValidationException("El rango no puede superar " + RANGO_MAXIMO_DIAS + " días");
+        }
+
+        Map<String, HistogramaLatencia> porValor = new HashMap<>();
+        for (LABTatHistogramaRepository.Incremento fila : histogramaRepository.buscar(etapaTat, dimension, inicio, fin)) {
+            porValor.computeIfAbsent(fila.valor(), v -> new HistogramaLatencia())
+                    .sumarCubeta(fila.cubeta(), fila.cantidad());
+        }
+        pendientes.forEach((clave, cantidad) -> {
+            if (clave.etapa() == etapaTat && clave.dimension() == dimension
+                    && !clave.fecha().isBefore(inicio) && !clave.fecha().isAfter(fin)) {
+                porValor.computeIfAbsent(clave.valor(), v -> new HistogramaLatencia())
+                        .sumarCubeta(clave.cubeta(), cantidad);
+            }
+        });
+
+        List<TatEstadisticasDTO.ItemDTO> items = new ArrayList<>();
+        porValor.forEach((valor, histograma) -> {
+            if (histograma.total() > 0) {
+                items.add(TatEstadisticasDTO.ItemDTO.builder()
+                        .valor(valor)
+                        .cantidad(histograma.total())
+                        .promedio(histograma.promedio())
+                        .p50(histograma.percentil(50))
+                        .p90(histograma.percentil(90))
+                        .p99(histograma.percentil(99))
+                        .build());
+            }
+        });
+        items.sort(Comparator.comparing(TatEstadisticasDTO.ItemDTO::getValor));
+
+        return TatEstadisticasDTO.builder()
+                .desde(inicio)
+                .hasta(fin)
+                .etapa(etapaTat.name())
+                .agrupacion(dimension.name())
+                .items(items)
+                .build();
+    }
+
+    // ========================================
+    // Registro incremental
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultadosRegistrados(ResultadosRegistradosEvent event) {
+        List<Long> ids = event.detalleIds();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+            for (Tuple fila : detalleRepository.findTiemposByIdIn(bloque)) {
+                registrarResultado(
+                        fila.get("fechaOrden", LocalDateTime.class),
+                        fila.get("fechaProcesamiento", LocalDateTime.class),
+                        fila.get("prioridad", LABOrden.PrioridadOrden.class).name(),
+                        fila.get("examId", Long.class),
+                        fila.get("areaId", Long.class),
+                        pendientes);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenEstadoCambiado(OrdenEstadoCambiadoEvent event) {
+        if (event.estado() != LABOrden.EstadoOrden.VALIDADA) {
+            return;
+        }
+        List<Long> ids = event.ordenIds();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+            for (Tuple fila : ordenRepository.findTiemposByIdIn(bloque)) {
+                registrarValidacion(
+                        fila.get("fechaOrden", LocalDateTime.class),
+                        fila.get("fechaValidacion", LocalDateTime.class),
+                        fila.get("prioridad", LABOrden.PrioridadOrden.class).name(),
+                        pendientes);
+            }
+        }
+    }
+
+    private void registrarResultado(LocalDateTime inicio, LocalDateTime fin, String prioridad,
+            Long examId, Long areaId, Map<Clave, Long> destino) {
+        if (inicio == null || fin == null) {
+            return;
+        }
+        int cubeta = HistogramaLatencia.indice(ChronoUnit.MINUTES.between(inicio, fin));
+        LocalDate fecha = fin.toLocalDate();
+        sumar(destino, new Clave(fecha, Etapa.RESULTADO, Dimension.TOTAL, VALOR_TOTAL, cubeta));
+        sumar(destino, new Clave(fecha, Etapa.RESULTADO, Dimension.PRIORIDAD, prioridad, cubeta));
+        sumar(destino, new Clave(fecha, Etapa.RESULTADO, Dimension.EXAMEN, examId.toString(), cubeta));
+        sumar(destino, new Clave(fecha, Etapa.RESULTADO, Dimension.AREA, areaId.toString(), cubeta));
+    }
+
+    private void registrarValidacion(LocalDateTime inicio, LocalDateTime fin, String prioridad,
+            Map<Clave, Long> destino) {
+        if (inicio == null || fin == null) {
+            return;
+        }
+        int cubeta = HistogramaLatencia.indice(ChronoUnit.MINUTES.between(inicio, fin));
+        LocalDate fecha = fin.toLocalDate();
+        sumar(destino, new Clave(fecha, Etapa.VALIDACION, Dimension.TOTAL, VALOR_TOTAL, cubeta));
+        sumar(destino, new Clave(fecha, Etapa.VALIDACION, Dimension.PRIORIDAD, prioridad, cubeta));
+    }
+
+    private static void sumar(Map<Clave, Long> destino, Clave clave) {
+        destino.merge(clave, 1L, Long::sum);
+    }
+
+    // ========================================
+    // Volcado y carga inicial
+    // ========================================
+
+    @Scheduled(fixedDelayString = "${ordenes.estadisticas.volcado-ms:5000}")
+    @PreDestroy
+    public synchronized void volcar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+
+        List<LABTatHistogramaRepository.Incremento> incrementos = new ArrayList<>();
+        for (Clave clave : pendientes.keySet()) {
+            Long cantidad = pendientes.remove(clave);
+            if (cantidad != null && cantidad != 0) {
+                incrementos.add(aIncremento(clave, cantidad));
+            }
+        }
+        if (incrementos.isEmpty()) {
+            return;
+        }
+
+        try {
+            histogramaRepository.acumular(incrementos);
+        } catch (RuntimeException e) {
+            // Se devuelven a memoria para el siguiente intento
+            incrementos.forEach(i -> pendientes.merge(
+                    new Clave(i.fecha(), i.etapa(), i.dimension(), i.valor(), i.cubeta()), i.cantidad(), Long::sum));
+            log.warn("No se pudieron volcar {} cubetas de TAT: {}", incrementos.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * En el primer arranque con la tabla vacía se recorre el histórico una
+     * sola vez con un cursor y se cargan las cubetas calculadas. La carga
+     * corre en una transacción con un advisory lock y vuelve a comprobar la
+     * tabla: si varios nodos arrancan a la vez, solo el primero la hace.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (!histogramaRepository.estaVacia()) {
+            return;
+        }
+
+        Integer cubetas = transaccion.execute(status -> {
+            histogramaRepository.bloquearCargaInicial();
+            if (!histogramaRepository.estaVacia()) {
+                return null;
+            }
+
+            Map<Clave, Long> historico = new HashMap<>();
+            histogramaRepository.recorrerResultados(rs -> registrarResultado(
+                    fecha(rs.getTimestamp(1)), fecha(rs.getTimestamp(2)), rs.getString(3),
+                    rs.getLong(4), rs.getLong(5), historico));
+            histogramaRepository.recorrerValidaciones(rs -> registrarValidacion(
+                    fecha(rs.getTimestamp(1)), fecha(rs.getTimestamp(2)), rs.getString(3), historico));
+
+            List<LABTatHistogramaRepository.Incremento> incrementos = new ArrayList<>(historico.size());
+            historico.forEach((clave, cantidad) -> incrementos.add(aIncremento(clave, cantidad)));
+            histogramaRepository.cargarHistorico(incrementos);
+            return incrementos.size();
+        });
+        if (cubetas != null) {
+            log.info("Histogramas de TAT inicializados desde el histórico: {} cubetas", cubetas);
+        }
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    private static LocalDateTime fecha(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static LABTatHistogramaRepository.Incremento aIncremento(Clave clave, long cantidad) {
+        return new LABTatHistogramaRepository.Incremento(
+                clave.fecha(), clave.etapa(), clave.dimension(), clave.valor(), clave.cubeta(), cantidad);
+    }
+
+    private static <E extends Enum<E>> E parsear(Class<E> tipo, String valor, E defecto, String nombre) {
+        if (valor == null) {
+            return defecto;
+        }
+        try {
+            return Enum.valueOf(tipo, valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(nombre + " inválida: " + valor);
+        }
+    }
+
+    private record Clave(LocalDate fecha, Etapa etapa, Dimension dimension, String valor, int cubeta) {
+    }
+}
@@ -0,0 +1,369 @@
+package com.pe.laboratorio.orders.service;
+
+import com.pe.laboratorio.orders.event.ResultadosNumericosEvent;
+import com.pe.laboratorio.orders.event.ResultadosNumericosEvent.ResultadoNumerico;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historial reciente de resultados numéricos por paciente y examen, para las
+ * vistas de tendencia y el delta check.
+ *
+ * Cada serie guarda los últimos N puntos en arreglos paralelos (detalle,
+ * instante en segundos, valor) ordenados cronológicamente. Los pacientes se
+ * cargan al primer uso, o todos los de un lote con una sola consulta, leyendo
+ * solo los últimos N resultados de cada examen; se descartan por LRU al
+ * superar el máximo configurado. Los resultados nuevos se aplican después del commit
+ * solo a los pacientes ya cargados; los demás los leerán de la base al
+ * cargarse. Una corrección de resultado conserva la fecha de su punto.
+ *
+ * Los cambios hechos en otro nodo no llegan como eventos: un paciente se
+ * vuelve a leer de la base cuando su carga supera la expiración configurada.
+ */
+@Component
+@Slf4j
+public class TendenciasResultados {
+
+    private static final int CAPACIDAD_INICIAL_SERIE = 4;
+
+    private final LABOrdenJdbcRepository ordenJdbcRepository;
+    private final int puntosPorExamen;
+    private final double umbralDelta;
+    private final Duration ventanaDelta;
+    private final long ttlNanos;
+
+    /**
+     * Paciente → historial, del menos al más recientemente usado.
+     * Guardado por this, igual que las series que contiene.
+     */
+    private final LinkedHashMap<Long, Historial> pacientes;
+
+    /**
+     * Resultados recibidos mientras se carga un paciente; se aplican sobre lo
+     * leído para no perder los confirmados durante la consulta
+     */
+    private final Map<Long, List<ResultadoNumerico>> pendientesCarga = new HashMap<>();
+
+    public TendenciasResultados(LABOrdenJdbcRepository ordenJdbcRepository,
+            @Value("${resultados.tendencias.max-pacientes:5000}") int maxPacientes,
+            @Value("${resultados.tendencias.puntos-por-examen:20}") int puntosPorExamen,
+            @Value("${resultados.delta.umbral-porcentaje:50}") double umbralPorcentaje,
+            @Value("${resultados.delta.ventana-dias:365}") int ventanaDias,
+            @Value("${resultados.tendencias.ttl-segundos:600}") long ttlSegundos) {
+        this.ordenJdbcRepository = ordenJdbcRepository;
+        this.puntosPorExamen = Math.max(2, puntosPorExamen);
+        this.umbralDelta = umbralPorcentaje / 100.0;
+        this.ventanaDelta = Duration.ofDays(ventanaDias);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.pacientes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Historial> eldest) {
+                return size() > maxPacientes;
+            }
+        };
+    }
+
+    public record Punto(Long detalleId, LocalDateTime fecha, double valor) {
+    }
+
+    public record Tendencia(Long examId, List<Punto> puntos) {
+    }
+
+    /**
+     * Resultado del delta check: marcado si el valor cambió respecto al
+     * anterior del mismo examen en al menos el umbral, dentro de la ventana.
+     * valorAnterior es null si no hay resultado previo.
+     */
+    public record Delta(boolean marcado, Double valorAnterior, LocalDateTime fechaAnterior) {
+
+        static final Delta SIN_ANTERIOR = new Delta(false, null, null);
+    }
+
+    /**
+     * Series del paciente ordenadas por examen, o solo la del examen indicado
+     */
+    public List<Tendencia> tendencias(Long patientId, Long examId) {
+        Map<Long, Serie> series = obtener(patientId);
+        synchronized (this) {
+            List<Tendencia> tendencias = new ArrayList<>();
+            for (Map.Entry<Long, Serie> entrada : new TreeMap<>(series).entrySet()) {
+                if ((examId == null || examId.equals(entrada.getKey())) && entrada.getValue().tamanio > 0) {
+                    tendencias.add(new Tendencia(entrada.getKey(), entrada.getValue().puntos()));
+                }
+            }
+            return tendencias;
+        }
+    }
+
+    /**
+     * Compara un resultado con el último anterior del mismo examen del
+     * paciente, sin contar el propio detalle (corrección de un resultado)
+     */
+    public Delta evaluarDelta(Long patientId, Long examId, Long detalleId, LocalDateTime fecha, double valor) {
+        if (Double.isNaN(valor)) {
+            return Delta.SIN_ANTERIOR;
+        }
+        Map<Long, Serie> series = obtener(patientId);
+        Punto anterior;
+        synchronized (this) {
+            Serie serie = series.get(examId);
+            anterior = serie != null ? serie.anterior(detalleId, segundos(fecha)) : null;
+        }
+        if (anterior == null) {
+            return Delta.SIN_ANTERIOR;
+        }
+        boolean marcado = !anterior.fecha().isBefore(fecha.minus(ventanaDelta))
+                && superaUmbral(anterior.valor(), valor);
+        return new Delta(marcado, anterior.valor(), anterior.fecha());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onResultadosNumericos(ResultadosNumericosEvent event) {
+        for (ResultadoNumerico resultado : event.resultados()) {
+            Map<Long, Serie> series = vigente(resultado.patientId());
+            if (series != null) {
+                aplicar(series, resultado);
+            } else {
+                List<ResultadoNumerico> pendientes = pendientesCarga.get(resultado.patientId());
+                if (pendientes != null) {
+                    pendientes.add(resultado);
+                }
+            }
+        }
+    }
+
+    /**
+     * Carga en una sola consulta los pacientes que no están en memoria, para
+     * que un lote no lea cada historial por separado
+     */
+    public void precargar(Collection<Long> patientIds) {
+        cargar(patientIds);
+    }
+
+    private Map<Long, Serie> obtener(Long patientId) {
+        synchronized (this) {
+            Map<Long, Serie> series = vigente(patientId);
+            if (series != null) {
+                return series;
+            }
+        }
+        return cargar(List.of(patientId)).get(patientId);
+    }
+
+    /**
+     * Lee de la base los pacientes que faltan y los agrega al caché
+     *
+     * @return series de cada paciente leído
+     */
+    private Map<Long, Map<Long, Serie>> cargar(Collection<Long> patientIds) {
+        Map<Long, Map<Long, Serie>> leidos = new HashMap<>();
+        synchronized (this) {
+            for (Long patientId : patientIds) {
+                if (patientId != null && !leidos.containsKey(patientId) && vigente(patientId) == null) {
+                    pendientesCarga.putIfAbsent(patientId, new ArrayList<>());
+                    leidos.put(patientId, new HashMap<>());
+                }
+            }
+        }
+        if (leidos.isEmpty()) {
+            return leidos;
+        }
+
+        // La consulta se hace fuera del lock; si dos hilos cargan el mismo
+        // paciente, se conserva la primera carga
+        try {
+            ordenJdbcRepository.recorrerUltimosResultadosPacientes(leidos.keySet(), puntosPorExamen, rs -> {
+                double valor = RangosReferencia.parsear(rs.getString("resultado"));
+                if (!Double.isNaN(valor)) {
+                    leidos.get(rs.getLong("patient_id"))
+                            .computeIfAbsent(rs.getLong("exam_id"), id -> new Serie())
+                            .registrar(rs.getLong("id"), segundos(rs.getTimestamp("fecha").toLocalDateTime()), valor);
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                leidos.keySet().forEach(pendientesCarga::remove);
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            long cargado = System.nanoTime();
+            for (Map.Entry<Long, Map<Long, Serie>> entrada : leidos.entrySet()) {
+                Long patientId = entrada.getKey();
+                Map<Long, Serie> existentes = vigente(patientId);
+                if (existentes != null) {
+                    entrada.setValue(existentes);
+                    continue;
+                }
+                Map<Long, Serie> series = entrada.getValue();
+                List<ResultadoNumerico> pendientes = pendientesCarga.remove(patientId);
+                if (pendientes != null) {
+                    pendientes.forEach(resultado -> aplicar(series, resultado));
+                }
+                pacientes.put(patientId, new Historial(series, cargado));
+            }
+            log.debug("Historial de resultados de {} pacientes cargado ({} pacientes en memoria)",
+                    leidos.size(), pacientes.size());
+            return leidos;
+        }
+    }
+
+    /**
+     * Series del paciente si está cargado y no expiró; uno expirado se
+     * descarta. Debe llamarse con el lock de this.
+     */
+    private Map<Long, Serie> vigente(Long patientId) {
+        Historial historial = pacientes.get(patientId);
+        if (historial == null) {
+            return null;
+        }
+        if (System.nanoTime() - historial.cargado() > ttlNanos) {
+            pacientes.remove(patientId);
+            return null;
+        }
+        return historial.series();
+    }
+
+    private void aplicar(Map<Long, Serie> series, ResultadoNumerico resultado) {
+        if (Double.isNaN(resultado.valor())) {
+            Serie serie = series.get(resultado.examId());
+            if (serie != null) {
+                serie.quitar(resultado.detalleId());
+            }
+            return;
+        }
+        series.computeIfAbsent(resultado.examId(), id -> new Serie())
+                .registrar(resultado.detalleId(), segundos(resultado.fecha()), resultado.valor());
+    }
+
+    private boolean superaUmbral(double anterior, double actual) {
+        if (anterior == 0) {
+            return actual != 0;
+        }
+        return Math.abs(actual - anterior) / Math.abs(anterior) >= umbralDelta;
+    }
+
+    private static long segundos(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fecha(long segundos) {
+        return LocalDateTime.ofEpochSecond(segundos, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Series de un paciente e instante (System.nanoTime) en que se leyeron
+     */
+    private record Historial(Map<Long, Serie> series, long cargado) {
+    }
+
+    /**
+     * Últimos puntos de un examen en arreglos paralelos, del más antiguo al
+     * más reciente. Crecen hasta puntosPorExamen; al llenarse se descarta el
+     * más antiguo.
+     */
+    private final class Serie {
+
+        private long[] detalleIds = new long[CAPACIDAD_INICIAL_SERIE];
+        private long[] instantes = new long[CAPACIDAD_INICIAL_SERIE];
+        private double[] valores = new double[CAPACIDAD_INICIAL_SERIE];
+        private int tamanio;
+
+        void registrar(long detalleId, long instante, double valor) {
+            int existente = posicion(detalleId);
+            if (existente >= 0) {
+                valores[existente] = valor;
+                return;
+            }
+
+            // Normalmente el punto nuevo es el más reciente
+            int i = tamanio;
+            while (i > 0 && instantes[i - 1] > instante) {
+                i--;
+            }
+            if (tamanio == puntosPorExamen) {
+                if (i == 0) {
+                    return;
+                }
+                desplazar(1, 0, i - 1);
+                i--;
+            } else {
+                if (tamanio == detalleIds.length) {
+                    int capacidad = Math.min(puntosPorExamen, tamanio * 2);
+                    detalleIds = Arrays.copyOf(detalleIds, capacidad);
+                    instantes = Arrays.copyOf(instantes, capacidad);
+                    valores = Arrays.copyOf(valores, capacidad);
+                }
+                desplazar(i, i + 1, tamanio - i);
+                tamanio++;
+            }
+            detalleIds[i] = detalleId;
+            instantes[i] = instante;
+            valores[i] = valor;
+        }
+
+        void quitar(long detalleId) {
+            int i = posicion(detalleId);
+            if (i >= 0) {
+                desplazar(i + 1, i, tamanio - i - 1);
+                tamanio--;
+            }
+        }
+
+        /**
+         * Punto más reciente no posterior al instante, excluyendo el detalle
+         */
+        Punto anterior(long excluido, long instante) {
+            for (int i = tamanio - 1; i >= 0; i--) {
+                if (instantes[i] <= instante && detalleIds[i] != excluido) {
+                    return punto(i);
+                }
+            }
+            return null;
+        }
+
+        List<Punto> puntos() {
+            List<Punto> puntos = new ArrayList<>(tamanio);
+            for (int i = 0; i < tamanio; i++) {
+                puntos.add(punto(i));
+            }
+            return puntos;
+        }
+
+        private Punto punto(int i) {
+            return new Punto(detalleIds[i], fecha(instantes[i]), valores[i]);
+        }
+
+        private int posicion(long detalleId) {
+            for (int i = 0; i < tamanio; i++) {
+                if (detalleIds[i] == detalleId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void desplazar(int desde, int hasta, int cantidad) {
+            System.arraycopy(detalleIds, desde, detalleIds, hasta, cantidad);
+            System.arraycopy(instantes, desde, instantes, hasta, cantidad);
+            System.arraycopy(valores, desde, valores, hasta, cantidad);
+        }
+    }
+}
@@ -3,30 +3,62 @@ package com.pe.laboratorio.orders.service.impl;
 import com.pe.laboratorio.exam.entity.Exam;
 import com.pe.laboratorio.exam.repository.ExamRepository;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.dto.OrdenBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenBusquedaResultadoDTO;
+import com.pe.laboratorio.orders.dto.OrdenCambiosDTO;
 import com.pe.laboratorio.orders.dto.OrdenCreateDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchRequestDTO;
+import com.pe.laboratorio.orders.dto.OrdenEstadoBatchResponseDTO;
 import com.pe.laboratorio.orders.dto.OrdenFilterDTO;
+import com.pe.laboratorio.orders.dto.OrdenPageResponseDTO;
 import com.pe.laboratorio.orders.dto.OrdenResponseDTO;
+import com.pe.laboratorio.orders.dto.OrdenResumenDTO;
 import com.pe.laboratorio.orders.entity.LABOrden;
 import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.orders.event.OrdenCreadaEvent;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
 import com.pe.laboratorio.orders.repository.LABOrdenRepository;
+import com.pe.laboratorio.orders.repository.OrdenSpecifications;
+import com.pe.laboratorio.orders.service.NumeroOrdenAllocator;
+import com.pe.laboratorio.orders.service.OrdenBusquedaIndex;
+import com.pe.laboratorio.orders.service.OrdenCambiosService;
+import com.pe.laboratorio.orders.service.OrdenReadModel;
 import com.pe.laboratorio.orders.service.OrdenService;
-import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.orders.service.ParticionesOrdenService;
+import com.pe.laboratorio.orders.util.OrdenCursor;
+import com.pe.laboratorio.orders.util.OrdenSyncToken;
+import com.pe.laboratorio.patients.dto.PatientDTO;
 import com.pe.laboratorio.patients.repository.PatientRepository;
+import com.pe.laboratorio.patients.service.PatientCache;
+import com.pe.laboratorio.security.util.UsuarioActual;
 import com.pe.laboratorio.users.entity.DatosPersonales;
 import com.pe.laboratorio.users.repository.DatosPersonalesRepository;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.Year;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -35,73 +67,157 @@ public class OrdenServiceImpl implements OrdenService {
 
     private final LABOrdenRepository ordenRepository;
     private final PatientRepository patientRepository;
+    private final PatientCache patientCache;
     private final DatosPersonalesRepository datosPersonalesRepository;
     private final ExamRepository examRepository;
+    private final OrdenReadModel ordenReadModel;
+    private final NumeroOrdenAllocator numeroOrdenAllocator;
+    private final LABOrdenJdbcRepository ordenJdbcRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrdenBusquedaIndex ordenBusquedaIndex;
+    private final OrdenCambiosService ordenCambiosService;
+
+    @Value("${ordenes.batch.tamanio-maximo:5000}")
+    private int tamanioBatchMaximo;
+
+    @Value("${ordenes.pagina.tamanio-defecto:50}")
+    private int tamanioPaginaDefecto;
+
+    @Value("${ordenes.pagina.tamanio-maximo:500}")
+    private int tamanioPaginaMaximo;
+
+    @Value("${ordenes.busqueda.limite-defecto:20}")
+    private int limiteBusquedaDefecto;
+
+    @Value("${ordenes.busqueda.limite-maximo:100}")
+    private int limiteBusquedaMaximo;
+
+    @Value("${ordenes.cambios.margen-ms:5000}")
+    private long margenCambiosMs;
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrdenResponseDTO> filtrarOrdenes(OrdenFilterDTO filtro) {
-        // Convertir LocalDate a LocalDateTime
-        LocalDateTime fechaInicio = filtro.getFechaInicio() != null
-                ? LocalDateTime.of(filtro.getFechaInicio(), LocalTime.MIN)
-                : null;
-        LocalDateTime fechaFin = filtro.getFechaFin() != null ? LocalDateTime.of(filtro.getFechaFin(), LocalTime.MAX)
-                : null;
+    public OrdenPageResponseDTO filtrarOrdenes(OrdenFilterDTO filtro) {
+        OrdenCursor cursor = OrdenCursor.decode(filtro.getCursor());
+        int size = resolverTamanioPagina(filtro.getSize());
 
         // Obtener usuario autenticado
-        DatosPersonales usuarioActual = obtenerUsuarioActual();
-
-        List<LABOrden> ordenes;
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
 
         // Aplicar reglas de negocio según rol
+        Long medicoId;
         if (esMedico(usuarioActual)) {
             // RF-MED-01: Médicos solo ven órdenes que ellos registraron
-            log.info("Usuario {} es médico, aplicando filtro por medicoId", usuarioActual.getLogin());
-            ordenes = ordenRepository.filtrarOrdenes(
-                    fechaInicio,
-                    fechaFin,
-                    filtro.getPatientId(),
-                    usuarioActual.getId(), // Forzar filtro por médico actual
-                    filtro.getEstado(),
-                    filtro.getPrioridad());
+            log.info("Usuario {} es médico, aplicando filtro por medicoId", usuarioActual.login());
+            medicoId = usuarioActual.id(); // Forzar filtro por médico actual
         } else if (esTecnologoOBiologo(usuarioActual)) {
             // RF-TEC-05, RF-BIO-03: Tecnólogos y Biólogos ven todas las órdenes
-            log.info("Usuario {} es tecnólogo/biólogo, sin restricciones", usuarioActual.getLogin());
-            ordenes = ordenRepository.filtrarOrdenes(
-                    fechaInicio,
-                    fechaFin,
-                    filtro.getPatientId(),
-                    filtro.getMedicoId(),
-                    filtro.getEstado(),
-                    filtro.getPrioridad());
+            log.info("Usuario {} es tecnólogo/biólogo, sin restricciones", usuarioActual.login());
+            medicoId = filtro.getMedicoId();
         } else {
             // Otros roles: sin restricciones (ADMIN, etc.)
-            log.info("Usuario {} tiene acceso completo", usuarioActual.getLogin());
-            ordenes = ordenRepository.filtrarOrdenes(
-                    fechaInicio,
-                    fechaFin,
-                    filtro.getPatientId(),
-                    filtro.getMedicoId(),
-                    filtro.getEstado(),
-                    filtro.getPrioridad());
+            log.info("Usuario {} tiene acceso completo", usuarioActual.login());
+            medicoId = filtro.getMedicoId();
+        }
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        Specification<LABOrden> especificacion = Specification.allOf(
+                construirFiltro(filtro, medicoId),
+                OrdenSpecifications.despuesDe(cursor));
+        List<Tuple> claves = ordenRepository.filtrarClaves(especificacion, size + 1);
+
+        boolean hasNext = claves.size() > size;
+        if (hasNext) {
+            claves = claves.subList(0, size);
+        }
+
+        List<OrdenResponseDTO> ordenes = ordenReadModel.cargar(
+                claves.stream().map(clave -> clave.get("id", Long.class)).toList());
+
+        // El cursor sale de la consulta de claves y no de las órdenes cargadas,
+        // que pueden ser menos si alguna se eliminó entre ambas consultas
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple ultima = claves.get(claves.size() - 1);
+            nextCursor = new OrdenCursor(ultima.get("fechaOrden", LocalDateTime.class),
+                    ultima.get("id", Long.class)).encode();
         }
 
         // Registrar auditoría (RN-SIS-02)
         log.info("Usuario {} consultó {} órdenes con filtros: {}",
-                usuarioActual.getLogin(), ordenes.size(), filtro);
+                usuarioActual.login(), ordenes.size(), filtro);
 
-        return ordenes.stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return OrdenPageResponseDTO.builder()
+                .content(ordenes)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrdenResumenDTO resumirOrdenes(OrdenFilterDTO filtro) {
+        // RF-MED-01: Médicos solo resumen sus propias órdenes
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+        Long medicoId = esMedico(usuarioActual) ? usuarioActual.id() : filtro.getMedicoId();
+
+        Map<String, OrdenResumenDTO.ItemDTO> porEstado = new LinkedHashMap<>();
+        Map<String, OrdenResumenDTO.ItemDTO> porPrioridad = new LinkedHashMap<>();
+        Map<LocalDate, OrdenResumenDTO.DiaDTO> porDia = new TreeMap<>();
+        long cantidad = 0;
+        BigDecimal monto = BigDecimal.ZERO;
+
+        // Una sola consulta agrupada por estado, prioridad y día; los demás
+        // totales se obtienen sumando sus filas
+        for (Tuple fila : ordenRepository.resumir(construirFiltro(filtro, medicoId))) {
+            String estado = fila.get("estado", LABOrden.EstadoOrden.class).name();
+            String prioridad = fila.get("prioridad", LABOrden.PrioridadOrden.class).name();
+            LocalDate fecha = fila.get("fecha", LocalDate.class);
+            long filas = fila.get("cantidad", Long.class);
+            BigDecimal suma = Objects.requireNonNullElse(fila.get("monto", BigDecimal.class), BigDecimal.ZERO);
+
+            porEstado.computeIfAbsent(estado, valor -> new OrdenResumenDTO.ItemDTO(valor, 0, BigDecimal.ZERO))
+                    .sumar(filas, suma);
+            porPrioridad.computeIfAbsent(prioridad, valor -> new OrdenResumenDTO.ItemDTO(valor, 0, BigDecimal.ZERO))
+                    .sumar(filas, suma);
+            porDia.computeIfAbsent(fecha, dia -> new OrdenResumenDTO.DiaDTO(dia, 0, BigDecimal.ZERO))
+                    .sumar(filas, suma);
+            cantidad += filas;
+            monto = monto.add(suma);
+        }
+
+        return OrdenResumenDTO.builder()
+                .cantidad(cantidad)
+                .montoTotal(monto)
+                .porEstado(new ArrayList<>(porEstado.values()))
+                .porPrioridad(new ArrayList<>(porPrioridad.values()))
+                .porDia(new ArrayList<>(porDia.values()))
+                .build();
+    }
+
+    @Override
+    public List<OrdenBusquedaResultadoDTO> buscarOrdenes(String consulta, Integer limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ValidationException("Debe indicar el texto a buscar");
+        }
+        int tope = limite != null && limite > 0 ? Math.min(limite, limiteBusquedaMaximo) : limiteBusquedaDefecto;
+
+        // RF-MED-01: Médicos solo encuentran sus propias órdenes
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+        Long medicoId = esMedico(usuarioActual) ? usuarioActual.id() : null;
+
+        return ordenBusquedaIndex.buscar(consulta, medicoId, tope);
     }
 
     @Override
     @Transactional
     public OrdenResponseDTO crearOrden(OrdenCreateDTO dto) {
-        DatosPersonales usuarioActual = obtenerUsuarioActual();
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
 
-        // Validar y obtener entidades relacionadas
-        Patient patient = patientRepository.findById(dto.getPatientId())
+        // Validar y obtener entidades relacionadas. El paciente se valida
+        // contra la caché; la orden solo necesita su referencia
+        PatientDTO patient = patientCache.porId(dto.getPatientId())
                 .orElseThrow(
                         () -> new ResourceNotFoundException("Paciente no encontrado con ID: " + dto.getPatientId()));
 
@@ -112,14 +228,14 @@ public class OrdenServiceImpl implements OrdenService {
                             () -> new ResourceNotFoundException("Médico no encontrado con ID: " + dto.getMedicoId()));
         }
 
-        // Generar número de orden
-        String numeroOrden = generarNumeroOrden();
+        // Generar número de orden (sin consulta salvo al agotar el bloque reservado)
+        String numeroOrden = numeroOrdenAllocator.siguienteNumero();
 
         // Crear orden
         LABOrden orden = LABOrden.builder()
-                .patient(patient)
+                .patient(patientRepository.getReferenceById(patient.getId()))
                 .medico(medico)
-                .user(usuarioActual)
+                .user(referenciaUsuario(usuarioActual))
                 .numeroOrden(numeroOrden)
                 .diagnostico(dto.getDiagnostico())
                 .prioridad(LABOrden.PrioridadOrden.valueOf(dto.getPrioridad()))
@@ -127,7 +243,7 @@ public class OrdenServiceImpl implements OrdenService {
                 .tipoMuestra(dto.getTipoMuestra())
                 .observaciones(dto.getObservaciones())
                 .fechaEntrega(dto.getFechaEntrega())
-                .createdBy(usuarioActual)
+                .createdBy(referenciaUsuario(usuarioActual))
                 .build();
 
         // Agregar detalles (exámenes) y calcular total
@@ -153,167 +269,465 @@ public class OrdenServiceImpl implements OrdenService {
         LABOrden ordenGuardada = ordenRepository.save(orden);
 
         log.info("Usuario {} creó orden {} para paciente {}",
-                usuarioActual.getLogin(), ordenGuardada.getNumeroOrden(), patient.getDni());
+                usuarioActual.login(), ordenGuardada.getNumeroOrden(), patient.getDni());
+
+        eventPublisher.publishEvent(new OrdenCreadaEvent(List.of(ordenGuardada.getId())));
+
+        return ordenReadModel.cargar(ordenGuardada.getId());
+    }
+
+    @Override
+    @Transactional
+    public OrdenBatchResponseDTO crearOrdenesBatch(List<OrdenCreateDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new ValidationException("Debe enviar al menos una orden");
+        }
+        if (dtos.size() > tamanioBatchMaximo) {
+            throw new ValidationException("No se pueden enviar más de " + tamanioBatchMaximo + " órdenes por lote");
+        }
+
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+
+        // Resolver en bloque todas las referencias del lote (una consulta por tabla)
+        Set<Long> patientIds = new HashSet<>();
+        Set<Long> medicoIds = new HashSet<>();
+        Set<Long> examIds = new HashSet<>();
+        for (OrdenCreateDTO dto : dtos) {
+            if (dto == null) {
+                continue;
+            }
+            if (dto.getPatientId() != null) {
+                patientIds.add(dto.getPatientId());
+            }
+            if (dto.getMedicoId() != null) {
+                medicoIds.add(dto.getMedicoId());
+            }
+            if (dto.getExamenesIds() != null) {
+                dto.getExamenesIds().stream().filter(Objects::nonNull).forEach(examIds::add);
+            }
+        }
+        Set<Long> patientsExistentes = patientCache.presentes(patientIds);
+        Set<Long> patientsSinCache = new HashSet<>(patientIds);
+        patientsSinCache.removeAll(patientsExistentes);
+        if (!patientsSinCache.isEmpty()) {
+            patientsExistentes.addAll(patientRepository.findIdsByIdIn(patientsSinCache));
+        }
+        Set<Long> medicosExistentes = medicoIds.isEmpty() ? Set.of()
+                : new HashSet<>(datosPersonalesRepository.findIdsByIdIn(medicoIds));
+        Set<Long> examsExistentes = examIds.isEmpty() ? Set.of()
+                : new HashSet<>(examRepository.findIdsByIdIn(examIds));
+
+        // Validar cada orden por separado
+        List<OrdenBatchResponseDTO.ItemDTO> items = new ArrayList<>(dtos.size());
+        List<OrdenCreateDTO> validas = new ArrayList<>();
+        List<OrdenBatchResponseDTO.ItemDTO> itemsValidos = new ArrayList<>();
+        int cantidadDetalles = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            OrdenCreateDTO dto = dtos.get(i);
+            String error = validarOrdenBatch(dto, patientsExistentes, medicosExistentes, examsExistentes);
+
+            OrdenBatchResponseDTO.ItemDTO item = OrdenBatchResponseDTO.ItemDTO.builder()
+                    .indice(i)
+                    .exito(error == null)
+                    .error(error)
+                    .build();
+            items.add(item);
+
+            if (error == null) {
+                validas.add(dto);
+                itemsValidos.add(item);
+                cantidadDetalles += dto.getExamenesIds() != null ? dto.getExamenesIds().size() : 0;
+            }
+        }
 
-        return convertirADTO(ordenGuardada);
+        if (!validas.isEmpty()) {
+            // Ids reservados por adelantado: un viaje por tabla en vez de uno por fila
+            List<Long> ordenIds = ordenJdbcRepository.reservarIdsOrden(validas.size());
+            List<Long> detalleIds = ordenJdbcRepository.reservarIdsDetalle(cantidadDetalles);
+
+            LocalDateTime ahora = LocalDateTime.now();
+            List<LABOrdenJdbcRepository.OrdenFila> ordenes = new ArrayList<>(validas.size());
+            List<LABOrdenJdbcRepository.DetalleFila> detalles = new ArrayList<>(cantidadDetalles);
+            int siguienteDetalle = 0;
+
+            for (int i = 0; i < validas.size(); i++) {
+                OrdenCreateDTO dto = validas.get(i);
+                Long ordenId = ordenIds.get(i);
+                String numeroOrden = numeroOrdenAllocator.siguienteNumero();
+
+                BigDecimal total = BigDecimal.ZERO;
+                if (dto.getExamenesIds() != null) {
+                    for (Long examId : dto.getExamenesIds()) {
+                        BigDecimal precio = BigDecimal.ZERO; // Debería venir del catálogo de precios
+                        detalles.add(new LABOrdenJdbcRepository.DetalleFila(
+                                detalleIds.get(siguienteDetalle++),
+                                ordenId,
+                                ahora,
+                                examId,
+                                LABOrdenDetalle.EstadoDetalle.PENDIENTE.name(),
+                                precio,
+                                ahora));
+                        total = total.add(precio);
+                    }
+                }
+
+                ordenes.add(new LABOrdenJdbcRepository.OrdenFila(
+                        ordenId,
+                        dto.getPatientId(),
+                        dto.getMedicoId(),
+                        usuarioActual.id(),
+                        numeroOrden,
+                        ahora,
+                        dto.getDiagnostico(),
+                        LABOrden.EstadoOrden.PENDIENTE.name(),
+                        dto.getPrioridad(),
+                        dto.getTipoAtencion(),
+                        dto.getTipoMuestra(),
+                        dto.getObservaciones(),
+                        total,
+                        dto.getFechaEntrega()));
+
+                itemsValidos.get(i).setOrdenId(ordenId);
+                itemsValidos.get(i).setNumeroOrden(numeroOrden);
+            }
+
+            // Primero todas las cabeceras y luego todos los detalles (inserts ordenados)
+            ordenJdbcRepository.insertarOrdenes(ordenes);
+            ordenJdbcRepository.insertarDetalles(detalles);
+
+            eventPublisher.publishEvent(new OrdenCreadaEvent(ordenIds));
+        }
+
+        log.info("Usuario {} creó {} órdenes por lote ({} rechazadas)",
+                usuarioActual.login(), validas.size(), dtos.size() - validas.size());
+
+        return OrdenBatchResponseDTO.builder()
+                .total(dtos.size())
+                .creadas(validas.size())
+                .rechazadas(dtos.size() - validas.size())
+                .items(items)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrdenResponseDTO obtenerOrdenPorId(Long id) {
-        LABOrden orden = ordenRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada con ID: " + id));
+        OrdenResponseDTO orden = ordenReadModel.cargar(id);
 
-        DatosPersonales usuarioActual = obtenerUsuarioActual();
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
 
         // Aplicar control de acceso
-        if (esMedico(usuarioActual) && orden.getMedico() != null
-                && !orden.getMedico().getId().equals(usuarioActual.getId())) {
+        if (esMedico(usuarioActual) && orden.getMedicoId() != null
+                && !orden.getMedicoId().equals(usuarioActual.id())) {
             throw new SecurityException("No tiene permiso para ver esta orden");
         }
 
-        return convertirADTO(orden);
+        return orden;
     }
 
     @Override
     @Transactional
-    public OrdenResponseDTO actualizarEstado(Long id, String nuevoEstado) {
+    public OrdenResponseDTO actualizarEstado(Long id, String nuevoEstado, Long version) {
+        LABOrden.EstadoOrden destino = parsearEstado(nuevoEstado);
+
         LABOrden orden = ordenRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Orden no encontrada con ID: " + id));
 
-        DatosPersonales usuarioActual = obtenerUsuarioActual();
+        // El cliente trabaja sobre una versión anterior de la orden
+        if (version != null && !version.equals(orden.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(LABOrden.class, id);
+        }
+        if (!orden.getEstado().puedeTransicionarA(destino)) {
+            throw new ValidationException("Transición de estado no permitida: "
+                    + orden.getEstado() + " → " + destino);
+        }
 
-        orden.setEstado(LABOrden.EstadoOrden.valueOf(nuevoEstado));
-        LABOrden ordenActualizada = ordenRepository.save(orden);
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+
+        sellarTransicion(orden, destino, referenciaUsuario(usuarioActual), LocalDateTime.now());
+        orden.setEstado(destino);
+        // El flush inmediato hace que un cambio concurrente falle aquí (@Version)
+        ordenRepository.saveAndFlush(orden);
 
         log.info("Usuario {} actualizó estado de orden {} a {}",
-                usuarioActual.getLogin(), id, nuevoEstado);
+                usuarioActual.login(), id, destino);
+
+        eventPublisher.publishEvent(new OrdenEstadoCambiadoEvent(List.of(id), destino));
 
-        return convertirADTO(ordenActualizada);
+        return ordenReadModel.cargar(id);
+    }
+
+    @Override
+    @Transactional
+    public OrdenEstadoBatchResponseDTO actualizarEstadoBatch(OrdenEstadoBatchRequestDTO solicitud) {
+        LABOrden.EstadoOrden destino = parsearEstado(solicitud.getEstado());
+        LABOrden.EstadoOrden origen = destino.anterior();
+        if (origen == null) {
+            throw new ValidationException("Ninguna orden puede volver al estado " + destino);
+        }
+
+        List<OrdenEstadoBatchRequestDTO.ItemDTO> items = solicitud.getOrdenes();
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("Debe enviar al menos una orden");
+        }
+        if (items.size() > tamanioBatchMaximo) {
+            throw new ValidationException("No se pueden enviar más de " + tamanioBatchMaximo + " órdenes por lote");
+        }
+
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+
+        // Se descartan antes del UPDATE los ítems sin id o repetidos
+        String[] errores = new String[items.size()];
+        List<Long> ids = new ArrayList<>(items.size());
+        List<Long> versiones = new ArrayList<>(items.size());
+        Set<Long> vistos = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            OrdenEstadoBatchRequestDTO.ItemDTO item = items.get(i);
+            if (item == null || item.getId() == null) {
+                errores[i] = "El id de la orden es obligatorio";
+            } else if (!vistos.add(item.getId())) {
+                errores[i] = "Orden repetida en el lote: " + item.getId();
+            } else {
+                ids.add(item.getId());
+                versiones.add(item.getVersion());
+            }
+        }
+
+        Map<Long, Long> actualizadas = ids.isEmpty()
+                ? Map.of()
+                : ordenJdbcRepository.transicionarEstado(ids, versiones, origen, destino,
+                        LocalDateTime.now(), usuarioActual.id());
+
+        // Estado actual de las que no se actualizaron, para explicar el conflicto
+        Map<Long, LABOrdenJdbcRepository.EstadoVersion> actuales = new HashMap<>();
+        List<Long> noActualizadas = ids.stream().filter(id -> !actualizadas.containsKey(id)).toList();
+        for (LABOrdenJdbcRepository.EstadoVersion ev : ordenJdbcRepository.obtenerEstados(noActualizadas)) {
+            actuales.put(ev.id(), ev);
+        }
+
+        List<OrdenEstadoBatchResponseDTO.ItemDTO> resultado = new ArrayList<>(items.size());
+        int conflictos = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Long id = items.get(i) != null ? items.get(i).getId() : null;
+            OrdenEstadoBatchResponseDTO.ItemDTO.ItemDTOBuilder item = OrdenEstadoBatchResponseDTO.ItemDTO.builder()
+                    .id(id);
+
+            if (errores[i] == null && actualizadas.containsKey(id)) {
+                item.exito(true).version(actualizadas.get(id)).estadoActual(destino.name());
+            } else {
+                conflictos++;
+                item.exito(false);
+                LABOrdenJdbcRepository.EstadoVersion actual = errores[i] == null ? actuales.get(id) : null;
+                if (errores[i] != null) {
+                    item.error(errores[i]);
+                } else if (actual == null) {
+                    item.error("Orden no encontrada con ID: " + id);
+                } else {
+                    item.version(actual.version()).estadoActual(actual.estado());
+                    item.error(origen.name().equals(actual.estado())
+                            ? "La orden fue modificada por otro usuario (versión actual " + actual.version() + ")"
+                            : "Transición de estado no permitida: " + actual.estado() + " → " + destino);
+                }
+            }
+            resultado.add(item.build());
+        }
+
+        log.info("Usuario {} cambió a {} {} órdenes ({} conflictos)",
+                usuarioActual.login(), destino, actualizadas.size(), conflictos);
+
+        if (!actualizadas.isEmpty()) {
+            eventPublisher.publishEvent(new OrdenEstadoCambiadoEvent(List.copyOf(actualizadas.keySet()), destino));
+        }
+
+        return OrdenEstadoBatchResponseDTO.builder()
+                .estado(destino.name())
+                .total(items.size())
+                .actualizadas(actualizadas.size())
+                .conflictos(conflictos)
+                .items(resultado)
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrdenResponseDTO> obtenerTodasLasOrdenes() {
-        DatosPersonales usuarioActual = obtenerUsuarioActual();
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
 
-        List<LABOrden> ordenes;
+        List<Long> ids;
 
         if (esMedico(usuarioActual)) {
             // Médicos solo ven sus órdenes
-            ordenes = ordenRepository.findByMedicoId(usuarioActual.getId());
+            ids = ordenRepository.findIdsByMedicoId(usuarioActual.id());
         } else {
             // Otros roles ven todas
-            ordenes = ordenRepository.findAll();
+            ids = ordenRepository.findAllIds();
         }
 
-        return ordenes.stream()
-                .map(this::convertirADTO)
-                .collect(Collectors.toList());
+        return ordenReadModel.cargar(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrdenCambiosDTO obtenerCambios(String since) {
+        OrdenSyncToken token = OrdenSyncToken.decode(since);
+
+        // Sin cambios confirmados desde el token: no se consultan órdenes
+        long version = ordenCambiosService.version();
+        if (token != null && token.version() == version) {
+            return OrdenCambiosDTO.builder()
+                    .ordenes(List.of())
+                    .token(token.encode())
+                    .build();
+        }
+
+        LocalDateTime inicio = LocalDateTime.now();
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+
+        List<Long> ids;
+        if (esMedico(usuarioActual)) {
+            // RF-MED-01: Médicos solo sincronizan sus órdenes
+            ids = token == null
+                    ? ordenRepository.findIdsByMedicoId(usuarioActual.id())
+                    : ordenRepository.findIdsByMedicoIdActualizadasDesde(usuarioActual.id(), token.desde());
+        } else {
+            ids = token == null
+                    ? ordenRepository.findAllIds()
+                    : ordenRepository.findIdsActualizadasDesde(token.desde());
+        }
+
+        // updated_at se asigna antes del commit: una transacción que confirma
+        // después de esta consulta puede tener una fecha anterior a su inicio.
+        // El margen hace que esas órdenes se vuelvan a pedir en la siguiente.
+        LocalDateTime desde = inicio.minus(margenCambiosMs, ChronoUnit.MILLIS);
+        if (token != null && desde.isBefore(token.desde())) {
+            desde = token.desde();
+        }
+
+        return OrdenCambiosDTO.builder()
+                .ordenes(ordenReadModel.cargar(ids))
+                .token(new OrdenSyncToken(desde, version).encode())
+                .build();
     }
 
     // ========================================
     // Métodos auxiliares
     // ========================================
 
-    private DatosPersonales obtenerUsuarioActual() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return datosPersonalesRepository.findByLogin(username)
-                .orElseThrow(() -> new SecurityException("Usuario no autenticado"));
+    /**
+     * Referencia al usuario autenticado para las relaciones de la orden, sin
+     * cargarlo
+     */
+    private DatosPersonales referenciaUsuario(UsuarioActual usuario) {
+        return datosPersonalesRepository.getReferenceById(usuario.id());
     }
 
-    private boolean esMedico(DatosPersonales usuario) {
+    private boolean esMedico(UsuarioActual usuario) {
         return usuario.hasRole("MEDICO");
     }
 
-    private boolean esTecnologoOBiologo(DatosPersonales usuario) {
+    private boolean esTecnologoOBiologo(UsuarioActual usuario) {
         return usuario.hasRole("TECNOLOGO_MEDICO") || usuario.hasRole("BIOLOGO");
     }
 
-    private String generarNumeroOrden() {
-        // Formato: ORD-YYYY-00001
-        Year currentYear = Year.now();
-        LABOrden lastOrden = ordenRepository.findLastOrden().orElse(null);
-
-        int nextNumber = 1;
-        if (lastOrden != null && lastOrden.getNumeroOrden() != null) {
-            String[] parts = lastOrden.getNumeroOrden().split("-");
-            if (parts.length == 3) {
-                try {
-                    nextNumber = Integer.parseInt(parts[2]) + 1;
-                } catch (NumberFormatException e) {
-                    log.warn("No se pudo parsear número de orden anterior: {}", lastOrden.getNumeroOrden());
+    /**
+     * Devuelve el motivo de rechazo de una orden del lote, o null si es válida
+     */
+    private String validarOrdenBatch(OrdenCreateDTO dto, Set<Long> patientsExistentes,
+            Set<Long> medicosExistentes, Set<Long> examsExistentes) {
+        if (dto == null) {
+            return "Orden vacía";
+        }
+        if (dto.getPatientId() == null || !patientsExistentes.contains(dto.getPatientId())) {
+            return "Paciente no encontrado con ID: " + dto.getPatientId();
+        }
+        if (dto.getMedicoId() != null && !medicosExistentes.contains(dto.getMedicoId())) {
+            return "Médico no encontrado con ID: " + dto.getMedicoId();
+        }
+        if (dto.getPrioridad() == null) {
+            return "La prioridad es obligatoria";
+        }
+        try {
+            LABOrden.PrioridadOrden.valueOf(dto.getPrioridad());
+        } catch (IllegalArgumentException e) {
+            return "Prioridad inválida: " + dto.getPrioridad();
+        }
+        if (dto.getExamenesIds() != null) {
+            for (Long examId : dto.getExamenesIds()) {
+                if (examId == null || !examsExistentes.contains(examId)) {
+                    return "Examen no encontrado con ID: " + examId;
                 }
             }
         }
+        return null;
+    }
 
-        return String.format("ORD-%d-%05d", currentYear.getValue(), nextNumber);
+    /**
+     * Predicados del filtro de órdenes; solo se emiten los informados. Sin
+     * fecha de inicio se consulta solo el año en curso, salvo en modo archivo,
+     * para que PostgreSQL descarte las particiones de años anteriores.
+     */
+    private Specification<LABOrden> construirFiltro(OrdenFilterDTO filtro, Long medicoId) {
+        LocalDateTime fechaInicio;
+        if (filtro.getFechaInicio() != null) {
+            fechaInicio = LocalDateTime.of(filtro.getFechaInicio(), LocalTime.MIN);
+        } else {
+            fechaInicio = Boolean.TRUE.equals(filtro.getArchivo()) ? null : ParticionesOrdenService.inicioAnioActual();
+        }
+        LocalDateTime fechaFin = filtro.getFechaFin() != null ? LocalDateTime.of(filtro.getFechaFin(), LocalTime.MAX)
+                : null;
+
+        return Specification.allOf(
+                OrdenSpecifications.fechaDesde(fechaInicio),
+                OrdenSpecifications.fechaHasta(fechaFin),
+                OrdenSpecifications.paciente(filtro.getPatientId()),
+                OrdenSpecifications.medico(medicoId),
+                OrdenSpecifications.estado(filtro.getEstado() != null ? parsearEstado(filtro.getEstado()) : null),
+                OrdenSpecifications.prioridad(parsearPrioridad(filtro.getPrioridad())));
     }
 
-    private OrdenResponseDTO convertirADTO(LABOrden orden) {
-        List<OrdenResponseDTO.OrdenDetalleDTO> detallesDTO = orden.getDetalles().stream()
-                .map(this::convertirDetalleADTO)
-                .collect(Collectors.toList());
-
-        return OrdenResponseDTO.builder()
-                .id(orden.getId())
-                .numeroOrden(orden.getNumeroOrden())
-                .fechaOrden(orden.getFechaOrden())
-                .diagnostico(orden.getDiagnostico())
-                .estado(orden.getEstado().name())
-                .prioridad(orden.getPrioridad().name())
-                .tipoAtencion(orden.getTipoAtencion())
-                .tipoMuestra(orden.getTipoMuestra())
-                .observaciones(orden.getObservaciones())
-                .total(orden.getTotal())
-                .fechaTomaMuestra(orden.getFechaTomaMuestra())
-                .fechaProcesamiento(orden.getFechaProcesamiento())
-                .fechaValidacion(orden.getFechaValidacion())
-                .fechaEntrega(orden.getFechaEntrega())
-                .patientId(orden.getPatient().getId())
-                .patientFirstName(orden.getPatient().getFirstName())
-                .patientLastName(orden.getPatient().getLastName())
-                .patientDni(orden.getPatient().getDni())
-                .medicoId(orden.getMedico() != null ? orden.getMedico().getId() : null)
-                .medicoNombre(orden.getMedico() != null ? orden.getMedico().getNombre() : null)
-                .medicoFullName(orden.getMedico() != null ? orden.getMedico().getFullName() : null)
-                .userId(orden.getUser() != null ? orden.getUser().getId() : null)
-                .userName(orden.getUser() != null ? orden.getUser().getFullName() : null)
-                .validadoPorId(orden.getValidadoPor() != null ? orden.getValidadoPor().getId() : null)
-                .validadoPorName(orden.getValidadoPor() != null ? orden.getValidadoPor().getFullName() : null)
-                .detalles(detallesDTO)
-                .createdAt(orden.getCreatedAt())
-                .updatedAt(orden.getUpdatedAt())
-                .createdByName(orden.getCreatedBy() != null ? orden.getCreatedBy().getFullName() : null)
-                .build();
+    private LABOrden.EstadoOrden parsearEstado(String estado) {
+        if (estado == null) {
+            throw new ValidationException("El estado es obligatorio");
+        }
+        try {
+            return LABOrden.EstadoOrden.valueOf(estado);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Estado inválido: " + estado);
+        }
     }
 
-    private OrdenResponseDTO.OrdenDetalleDTO convertirDetalleADTO(LABOrdenDetalle detalle) {
-        return OrdenResponseDTO.OrdenDetalleDTO.builder()
-                .id(detalle.getId())
-                .examId(detalle.getExam().getId())
-                .examName(detalle.getExam().getNombre())
-                .equipoId(detalle.getEquipoId())
-                .estado(detalle.getEstado() != null ? detalle.getEstado().name() : null)
-                .resultado(detalle.getResultado())
-                .valorReferencia(detalle.getValorReferencia())
-                .unidad(detalle.getUnidad())
-                .observaciones(detalle.getObservaciones())
-                .precio(detalle.getPrecio())
-                .valorCritico(detalle.getValorCritico())
-                .fueraRango(detalle.getFueraRango())
-                .validadoPrimario(detalle.getValidadoPrimario())
-                .validadoFinal(detalle.getValidadoFinal())
-                .tecnologoName(detalle.getTecnologo() != null ? detalle.getTecnologo().getFullName() : null)
-                .biologoName(detalle.getBiologo() != null ? detalle.getBiologo().getFullName() : null)
-                .procesadoPorName(detalle.getProcesadoPor() != null ? detalle.getProcesadoPor().getFullName() : null)
-                .validadoPorName(detalle.getValidadoPor() != null ? detalle.getValidadoPor().getFullName() : null)
-                .fechaProcesamiento(detalle.getFechaProcesamiento())
-                .fechaValidacionPrimaria(detalle.getFechaValidacionPrimaria())
-                .fechaValidacionFinal(detalle.getFechaValidacionFinal())
-                .createdAt(detalle.getCreatedAt())
-                .updatedAt(detalle.getUpdatedAt())
-                .build();
+    private LABOrden.PrioridadOrden parsearPrioridad(String prioridad) {
+        if (prioridad == null) {
+            return null;
+        }
+        try {
+            return LABOrden.PrioridadOrden.valueOf(prioridad);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Prioridad inválida: " + prioridad);
+        }
+    }
+
+    /**
+     * Registra las fechas y el responsable que corresponden al estado destino
+     */
+    private void sellarTransicion(LABOrden orden, LABOrden.EstadoOrden destino,
+            DatosPersonales usuario, LocalDateTime fecha) {
+        switch (destino) {
+            case PROCESADO -> orden.setFechaProcesamiento(fecha);
+            case VALIDADA -> {
+                orden.setFechaValidacion(fecha);
+                orden.setValidadoPor(usuario);
+            }
+            default -> {
+                // EN_PROCESO y ENTREGADA no registran fechas propias
+            }
+        }
+    }
+
+    private int resolverTamanioPagina(Integer solicitado) {
+        if (solicitado == null || solicitado <= 0) {
+            return tamanioPaginaDefecto;
+        }
+        return Math.min(solicitado, tamanioPaginaMaximo);
     }
 }
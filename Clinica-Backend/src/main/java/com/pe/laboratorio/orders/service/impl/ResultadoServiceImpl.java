@@ -0,0 +1,490 @@
+package com.pe.laboratorio.orders.service.impl;
+
+import com.pe.laboratorio.exam.repository.ExamRepository;
+import com.pe.laboratorio.exception.ResourceNotFoundException;
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchDTO;
+import com.pe.laboratorio.orders.dto.OrdenDetallePatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoDetalleDTO;
+import com.pe.laboratorio.orders.dto.TendenciaResultadoDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.orders.event.DetalleActualizadoEvent;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.event.ResultadosNumericosEvent;
+import com.pe.laboratorio.orders.event.ResultadosRegistradosEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenDetalleRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
+import com.pe.laboratorio.orders.repository.LABOrdenRepository;
+import com.pe.laboratorio.orders.service.RangosReferencia;
+import com.pe.laboratorio.orders.service.ResultadoService;
+import com.pe.laboratorio.orders.service.TendenciasResultados;
+import com.pe.laboratorio.patients.service.PatientCache;
+import com.pe.laboratorio.security.util.UsuarioActual;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultadoServiceImpl implements ResultadoService {
+
+    private final LABOrdenDetalleRepository detalleRepository;
+    private final LABOrdenJdbcRepository ordenJdbcRepository;
+    private final LABOrdenRepository ordenRepository;
+    private final PatientCache patientCache;
+    private final ExamRepository examRepository;
+    private final RangosReferencia rangosReferencia;
+    private final TendenciasResultados tendenciasResultados;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ordenes.batch.tamanio-maximo:5000}")
+    private int tamanioBatchMaximo;
+
+    @Override
+    @Transactional
+    public ResultadoBatchResponseDTO registrarResultadosBatch(List<ResultadoDetalleDTO> resultados) {
+        if (resultados == null || resultados.isEmpty()) {
+            throw new ValidationException("Debe enviar al menos un resultado");
+        }
+        if (resultados.size() > tamanioBatchMaximo) {
+            throw new ValidationException("No se pueden enviar más de " + tamanioBatchMaximo + " resultados por lote");
+        }
+
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+
+        List<Long> ids = resultados.stream()
+                .filter(Objects::nonNull)
+                .map(ResultadoDetalleDTO::getDetalleId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        // Con las órdenes bloqueadas, el estado leído de sus detalles no cambia
+        // hasta derivar el de cada orden (ver actualizarDetalle)
+        ordenJdbcRepository.bloquearOrdenesDeDetalles(ids);
+
+        // Estado de todos los detalles en una sola consulta
+        Map<Long, Tuple> detalles = new HashMap<>();
+        for (Tuple fila : detalleRepository.findEstadosByIdIn(ids)) {
+            detalles.put(fila.get("id", Long.class), fila);
+        }
+
+        // Historiales de todos los pacientes del lote en una sola consulta,
+        // en lugar de una por paciente al evaluar el delta de cada fila
+        tendenciasResultados.precargar(detalles.values().stream()
+                .map(fila -> fila.get("patientId", Long.class))
+                .collect(Collectors.toSet()));
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<LABOrdenJdbcRepository.ResultadoFila> filas = new ArrayList<>();
+        List<ResultadoBatchResponseDTO.ItemDTO> items = new ArrayList<>(resultados.size());
+        Map<Long, ResultadosNumericosEvent.ResultadoNumerico> numericos = new LinkedHashMap<>();
+        Set<Long> vistos = new HashSet<>();
+
+        for (ResultadoDetalleDTO dto : resultados) {
+            Long detalleId = dto != null ? dto.getDetalleId() : null;
+            String error = validarResultado(dto, detalles.get(detalleId), vistos);
+            if (error != null) {
+                items.add(ResultadoBatchResponseDTO.ItemDTO.builder()
+                        .detalleId(detalleId)
+                        .exito(false)
+                        .error(error)
+                        .build());
+                continue;
+            }
+
+            Tuple detalle = detalles.get(detalleId);
+            Long examId = detalle.get("examId", Long.class);
+            Long patientId = detalle.get("patientId", Long.class);
+            RangosReferencia.Evaluacion evaluacion = rangosReferencia.evaluar(examId, dto.getResultado());
+            double valor = RangosReferencia.parsear(dto.getResultado());
+            TendenciasResultados.Delta delta = tendenciasResultados.evaluarDelta(
+                    patientId, examId, detalleId, ahora, valor);
+
+            filas.add(new LABOrdenJdbcRepository.ResultadoFila(
+                    detalleId,
+                    detalle.get("version", Long.class),
+                    dto.getResultado().trim(),
+                    dto.getUnidad() != null ? dto.getUnidad() : evaluacion.unidad(),
+                    evaluacion.valorReferencia(),
+                    dto.getObservaciones(),
+                    dto.getEquipoId(),
+                    evaluacion.fueraRango(),
+                    evaluacion.critico(),
+                    delta.marcado(),
+                    ahora,
+                    usuarioActual.id()));
+            numericos.put(detalleId,
+                    new ResultadosNumericosEvent.ResultadoNumerico(detalleId, patientId, examId, ahora, valor));
+
+            items.add(ResultadoBatchResponseDTO.ItemDTO.builder()
+                    .detalleId(detalleId)
+                    .exito(true)
+                    .fueraRango(evaluacion.fueraRango())
+                    .valorCritico(evaluacion.critico())
+                    .deltaCheck(delta.marcado())
+                    .valorAnterior(delta.valorAnterior())
+                    .valorReferencia(evaluacion.valorReferencia())
+                    .build());
+        }
+
+        Set<Long> registrados = filas.isEmpty() ? Set.of() : ordenJdbcRepository.registrarResultados(filas);
+
+        // Un detalle que otra escritura cambió desde que se leyó no se
+        // registra; se informa como rechazado
+        Map<Long, LABOrden.EstadoOrden> ordenesAfectadas = new LinkedHashMap<>();
+        int fueraRango = 0;
+        int criticos = 0;
+        int deltas = 0;
+        for (int i = 0; i < items.size(); i++) {
+            ResultadoBatchResponseDTO.ItemDTO item = items.get(i);
+            if (!item.isExito()) {
+                continue;
+            }
+            if (!registrados.contains(item.getDetalleId())) {
+                items.set(i, ResultadoBatchResponseDTO.ItemDTO.builder()
+                        .detalleId(item.getDetalleId())
+                        .exito(false)
+                        .error("El detalle fue modificado por otro usuario")
+                        .build());
+                numericos.remove(item.getDetalleId());
+                continue;
+            }
+            Tuple detalle = detalles.get(item.getDetalleId());
+            ordenesAfectadas.put(detalle.get("ordenId", Long.class),
+                    detalle.get("estadoOrden", LABOrden.EstadoOrden.class));
+            if (item.getFueraRango()) {
+                fueraRango++;
+            }
+            if (item.getValorCritico()) {
+                criticos++;
+            }
+            if (item.getDeltaCheck()) {
+                deltas++;
+            }
+        }
+
+        if (!registrados.isEmpty()) {
+            avanzarOrdenes(ordenesAfectadas, ahora, usuarioActual.id());
+            eventPublisher.publishEvent(new DetalleActualizadoEvent(List.copyOf(ordenesAfectadas.keySet())));
+            eventPublisher.publishEvent(new ResultadosNumericosEvent(List.copyOf(numericos.values())));
+            eventPublisher.publishEvent(new ResultadosRegistradosEvent(List.copyOf(numericos.keySet())));
+        }
+
+        log.info("Usuario {} registró {} resultados ({} rechazados, {} fuera de rango, {} críticos, {} delta)",
+                usuarioActual.login(), registrados.size(), resultados.size() - registrados.size(),
+                fueraRango, criticos, deltas);
+
+        return ResultadoBatchResponseDTO.builder()
+                .total(resultados.size())
+                .registrados(registrados.size())
+                .rechazados(resultados.size() - registrados.size())
+                .fueraRango(fueraRango)
+                .criticos(criticos)
+                .deltas(deltas)
+                .items(items)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public OrdenDetallePatchResponseDTO actualizarDetalle(Long ordenId, Long detalleId, OrdenDetallePatchDTO dto) {
+        if (dto == null || dto.getVersion() == null) {
+            throw new ValidationException("La versión del detalle es obligatoria");
+        }
+        if (dto.getResultado() != null && (dto.getResultado().isBlank() || dto.getResultado().trim().length() > 255)) {
+            throw new ValidationException("El resultado debe tener entre 1 y 255 caracteres");
+        }
+
+        // Con la orden bloqueada, dos cambios concurrentes a detalles distintos
+        // no derivan el estado de la orden cada uno sin ver el del otro
+        ordenJdbcRepository.bloquearOrdenes(List.of(ordenId));
+
+        List<Tuple> filas = detalleRepository.findEstadosByIdIn(List.of(detalleId));
+        if (filas.isEmpty() || !ordenId.equals(filas.get(0).get("ordenId", Long.class))) {
+            throw new ResourceNotFoundException("Detalle no encontrado con ID: " + detalleId + " en la orden " + ordenId);
+        }
+        Tuple detalle = filas.get(0);
+        LABOrdenDetalle.EstadoDetalle estadoActual = detalle.get("estado", LABOrdenDetalle.EstadoDetalle.class);
+        LABOrden.EstadoOrden estadoOrden = detalle.get("estadoOrden", LABOrden.EstadoOrden.class);
+
+        if (estadoOrden == LABOrden.EstadoOrden.ENTREGADA) {
+            throw new ValidationException("La orden ya está " + estadoOrden);
+        }
+        LABOrdenDetalle.EstadoDetalle destino = parsearEstadoDetalle(dto.getEstado());
+        if (destino != null && !estadoActual.puedeTransicionarA(destino)) {
+            throw new ValidationException("Transición de estado no permitida: " + estadoActual + " → " + destino);
+        }
+        if (dto.getResultado() != null && estadoActual == LABOrdenDetalle.EstadoDetalle.VALIDADO) {
+            throw new ValidationException("El resultado ya fue validado");
+        }
+        if ((destino == LABOrdenDetalle.EstadoDetalle.PROCESADO || destino == LABOrdenDetalle.EstadoDetalle.VALIDADO)
+                && dto.getResultado() == null && detalle.get("resultado", String.class) == null) {
+            throw new ValidationException("El detalle no tiene resultado para pasar a " + destino);
+        }
+
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        Long examId = detalle.get("examId", Long.class);
+        Long patientId = detalle.get("patientId", Long.class);
+        RangosReferencia.Evaluacion evaluacion = null;
+        TendenciasResultados.Delta delta = null;
+        double valor = Double.NaN;
+        if (dto.getResultado() != null) {
+            evaluacion = rangosReferencia.evaluar(examId, dto.getResultado());
+            valor = RangosReferencia.parsear(dto.getResultado());
+            delta = tendenciasResultados.evaluarDelta(patientId, examId, detalleId, ahora, valor);
+        }
+
+        Long version = ordenJdbcRepository.actualizarDetalle(new LABOrdenJdbcRepository.DetalleCambio(
+                detalleId,
+                dto.getVersion(),
+                dto.getResultado() != null ? dto.getResultado().trim() : null,
+                evaluacion != null && dto.getUnidad() == null ? evaluacion.unidad() : dto.getUnidad(),
+                evaluacion != null ? evaluacion.valorReferencia() : null,
+                evaluacion != null && evaluacion.fueraRango(),
+                evaluacion != null && evaluacion.critico(),
+                delta != null && delta.marcado(),
+                dto.getObservaciones(),
+                dto.getEquipoId(),
+                destino,
+                ahora,
+                usuarioActual.id()));
+        if (version == null) {
+            // El cliente trabaja sobre una versión anterior del detalle
+            throw new ObjectOptimisticLockingFailureException(LABOrdenDetalle.class, detalleId);
+        }
+
+        LABOrden.EstadoOrden estadoFinal = avanzarOrdenes(Map.of(ordenId, estadoOrden), ahora, usuarioActual.id())
+                .get(ordenId);
+        boolean ordenCambiada = estadoFinal != estadoOrden;
+
+        eventPublisher.publishEvent(new DetalleActualizadoEvent(List.of(ordenId)));
+        if (dto.getResultado() != null) {
+            eventPublisher.publishEvent(new ResultadosNumericosEvent(List.of(
+                    new ResultadosNumericosEvent.ResultadoNumerico(detalleId, patientId, examId, ahora, valor))));
+        }
+        if (destino == LABOrdenDetalle.EstadoDetalle.PROCESADO) {
+            eventPublisher.publishEvent(new ResultadosRegistradosEvent(List.of(detalleId)));
+        }
+
+        log.info("Usuario {} actualizó el detalle {} de la orden {} (estado {}, orden {})",
+                usuarioActual.login(), detalleId, ordenId,
+                destino != null ? destino : estadoActual, estadoFinal);
+
+        return OrdenDetallePatchResponseDTO.builder()
+                .detalleId(detalleId)
+                .version(version)
+                .estado((destino != null ? destino : estadoActual).name())
+                .fueraRango(evaluacion != null ? evaluacion.fueraRango() : null)
+                .valorCritico(evaluacion != null ? evaluacion.critico() : null)
+                .deltaCheck(delta != null ? delta.marcado() : null)
+                .valorAnterior(delta != null ? delta.valorAnterior() : null)
+                .valorReferencia(evaluacion != null ? evaluacion.valorReferencia() : null)
+                .ordenId(ordenId)
+                .estadoOrden(estadoFinal.name())
+                .estadoOrdenCambiado(ordenCambiada)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TendenciaResultadoDTO> obtenerTendencias(Long patientId, Long examId) {
+        if (patientCache.porId(patientId).isEmpty()) {
+            throw new ResourceNotFoundException("Paciente no encontrado con ID: " + patientId);
+        }
+        UsuarioActual usuarioActual = UsuarioActual.obtener();
+        if (usuarioActual.hasRole("MEDICO")
+                && !ordenRepository.existsByPatientIdAndMedicoId(patientId, usuarioActual.id())) {
+            // RF-MED-01: Médicos solo ven pacientes de sus órdenes
+            throw new SecurityException("No tiene permiso para ver este paciente");
+        }
+
+        List<TendenciasResultados.Tendencia> tendencias = tendenciasResultados.tendencias(patientId, examId);
+        if (tendencias.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Tuple> examenes = new HashMap<>();
+        for (Tuple fila : examRepository.findNombresByIdIn(
+                tendencias.stream().map(TendenciasResultados.Tendencia::examId).toList())) {
+            examenes.put(fila.get("id", Long.class), fila);
+        }
+
+        List<TendenciaResultadoDTO> resultado = new ArrayList<>(tendencias.size());
+        for (TendenciasResultados.Tendencia tendencia : tendencias) {
+            Tuple examen = examenes.get(tendencia.examId());
+            resultado.add(TendenciaResultadoDTO.builder()
+                    .examId(tendencia.examId())
+                    .examName(examen != null ? examen.get("nombre", String.class) : null)
+                    .unidad(examen != null ? examen.get("unidadMedida", String.class) : null)
+                    .puntos(tendencia.puntos().stream()
+                            .map(punto -> TendenciaResultadoDTO.PuntoDTO.builder()
+                                    .detalleId(punto.detalleId())
+                                    .fecha(punto.fecha())
+                                    .valor(punto.valor())
+                                    .build())
+                            .toList())
+                    .build());
+        }
+        return resultado;
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    /**
+     * Devuelve el motivo de rechazo de un resultado del lote, o null si es válido
+     */
+    private String validarResultado(ResultadoDetalleDTO dto, Tuple detalle, Set<Long> vistos) {
+        if (dto == null || dto.getDetalleId() == null) {
+            return "El id del detalle es obligatorio";
+        }
+        if (dto.getResultado() == null || dto.getResultado().isBlank()) {
+            return "El resultado es obligatorio";
+        }
+        if (dto.getResultado().trim().length() > 255) {
+            return "El resultado no puede superar 255 caracteres";
+        }
+        if (detalle == null) {
+            return "Detalle no encontrado con ID: " + dto.getDetalleId();
+        }
+        if (!vistos.add(dto.getDetalleId())) {
+            return "Detalle repetido en el lote: " + dto.getDetalleId();
+        }
+        // El resultado del analizador deja el detalle PROCESADO; desde
+        // PENDIENTE la toma de muestra (EN_PROCESO) queda implícita. Un
+        // resultado ya procesado se corrige con el cambio de detalle.
+        LABOrdenDetalle.EstadoDetalle estado = detalle.get("estado", LABOrdenDetalle.EstadoDetalle.class);
+        if (estado == LABOrdenDetalle.EstadoDetalle.VALIDADO) {
+            return "El resultado ya fue validado";
+        }
+        if (estado == LABOrdenDetalle.EstadoDetalle.PROCESADO) {
+            return "El detalle ya tiene resultado";
+        }
+        if (dto.getVersion() != null && !dto.getVersion().equals(detalle.get("version", Long.class))) {
+            return "El detalle fue modificado por otro usuario";
+        }
+        LABOrden.EstadoOrden estadoOrden = detalle.get("estadoOrden", LABOrden.EstadoOrden.class);
+        if (estadoOrden == LABOrden.EstadoOrden.VALIDADA || estadoOrden == LABOrden.EstadoOrden.ENTREGADA) {
+            return "La orden ya está " + estadoOrden;
+        }
+        return null;
+    }
+
+    /**
+     * Avanza cada orden hasta el estado que corresponde a sus detalles, un
+     * estado a la vez: cada paso es una transición condicional por lote y su
+     * propio evento. Las órdenes que no cambian de estado se marcan como
+     * actualizadas para la sincronización incremental. Las órdenes deben
+     * estar bloqueadas.
+     *
+     * @param estados id → estado actual de las órdenes
+     * @return id → estado final
+     */
+    private Map<Long, LABOrden.EstadoOrden> avanzarOrdenes(Map<Long, LABOrden.EstadoOrden> estados,
+            LocalDateTime ahora, Long usuarioId) {
+        Map<Long, LABOrden.EstadoOrden> derivados = derivarEstadosOrden(estados.keySet());
+        Map<Long, LABOrden.EstadoOrden> finales = new HashMap<>(estados);
+
+        // Recorrer los estados en orden deja avanzar en la misma pasada a
+        // las órdenes que acaban de llegar al siguiente
+        for (LABOrden.EstadoOrden origen : LABOrden.EstadoOrden.values()) {
+            List<Long> ids = finales.entrySet().stream()
+                    .filter(e -> e.getValue() == origen && derivados.get(e.getKey()).ordinal() > origen.ordinal())
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (ids.isEmpty()) {
+                continue;
+            }
+            LABOrden.EstadoOrden siguiente = LABOrden.EstadoOrden.values()[origen.ordinal() + 1];
+            Set<Long> avanzadas = ordenJdbcRepository.transicionarEstado(ids,
+                    Collections.nCopies(ids.size(), null), origen, siguiente, ahora, usuarioId).keySet();
+            if (!avanzadas.isEmpty()) {
+                eventPublisher.publishEvent(new OrdenEstadoCambiadoEvent(List.copyOf(avanzadas), siguiente));
+                avanzadas.forEach(id -> finales.put(id, siguiente));
+            }
+        }
+
+        List<Long> sinCambio = estados.keySet().stream()
+                .filter(id -> finales.get(id) == estados.get(id))
+                .toList();
+        if (!sinCambio.isEmpty()) {
+            ordenJdbcRepository.marcarActualizadas(sinCambio, ahora);
+        }
+        return finales;
+    }
+
+    /**
+     * Estado que corresponde a cada orden según sus detalles, con una sola
+     * consulta agregada: todos VALIDADO → VALIDADA, todos procesados →
+     * PROCESADO, alguno iniciado → EN_PROCESO.
+     */
+    private Map<Long, LABOrden.EstadoOrden> derivarEstadosOrden(Collection<Long> ordenIds) {
+        Map<Long, Map<LABOrdenDetalle.EstadoDetalle, Long>> conteos = new HashMap<>();
+        for (Tuple fila : detalleRepository.contarPorEstadoByOrdenIdIn(ordenIds)) {
+            conteos.computeIfAbsent(fila.get("ordenId", Long.class),
+                    id -> new EnumMap<>(LABOrdenDetalle.EstadoDetalle.class))
+                    .put(fila.get("estado", LABOrdenDetalle.EstadoDetalle.class), fila.get("cantidad", Long.class));
+        }
+
+        Map<Long, LABOrden.EstadoOrden> estados = new HashMap<>();
+        for (Long ordenId : ordenIds) {
+            estados.put(ordenId, derivarEstadoOrden(conteos.getOrDefault(ordenId, Map.of())));
+        }
+        return estados;
+    }
+
+    private LABOrden.EstadoOrden derivarEstadoOrden(Map<LABOrdenDetalle.EstadoDetalle, Long> conteo) {
+        long total = conteo.values().stream().mapToLong(Long::longValue).sum();
+        long validados = conteo.getOrDefault(LABOrdenDetalle.EstadoDetalle.VALIDADO, 0L);
+        long procesados = validados + conteo.getOrDefault(LABOrdenDetalle.EstadoDetalle.PROCESADO, 0L);
+        long pendientes = conteo.getOrDefault(LABOrdenDetalle.EstadoDetalle.PENDIENTE, 0L);
+
+        if (total > 0 && validados == total) {
+            return LABOrden.EstadoOrden.VALIDADA;
+        }
+        if (total > 0 && procesados == total) {
+            return LABOrden.EstadoOrden.PROCESADO;
+        }
+        if (pendientes < total) {
+            return LABOrden.EstadoOrden.EN_PROCESO;
+        }
+        return LABOrden.EstadoOrden.PENDIENTE;
+    }
+
+    private LABOrdenDetalle.EstadoDetalle parsearEstadoDetalle(String estado) {
+        if (estado == null) {
+            return null;
+        }
+        try {
+            return LABOrdenDetalle.EstadoDetalle.valueOf(estado);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Estado de detalle inválido: " + estado);
+        }
+    }
+}
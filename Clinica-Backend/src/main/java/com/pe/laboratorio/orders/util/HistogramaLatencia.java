@@ -0,0 +1,100 @@
+package com.pe.laboratorio.orders.util;
+
+/**
+ * Histograma de latencias con cubetas log-lineales (estilo HDR).
+ * Los valores menores a 64 tienen cubeta propia; a partir de ahí cada
+ * potencia de dos se divide en 32 cubetas, con un error relativo máximo de
+ * ~3%. Se guarda como conteos por índice de cubeta; los de varios días se
+ * suman cubeta a cubeta para obtener cualquier ventana.
+ * No es seguro para uso concurrente.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS = 6;
+    private static final int SUB = 1 << BITS;
+    private static final int MITAD = SUB / 2;
+
+    /**
+     * Mayor valor representable (2^20 - 1 minutos ≈ 2 años); los mayores se
+     * acumulan en la última cubeta
+     */
+    public static final long VALOR_MAXIMO = (1L << 20) - 1;
+
+    public static final int CANTIDAD_CUBETAS = indice(VALOR_MAXIMO) + 1;
+
+    private final long[] cubetas = new long[CANTIDAD_CUBETAS];
+    private long total;
+
+    /**
+     * Cubeta que corresponde al valor (negativos cuentan como 0)
+     */
+    public static int indice(long valor) {
+        long v = Math.min(Math.max(valor, 0), VALOR_MAXIMO);
+        if (v < SUB) {
+            return (int) v;
+        }
+        int bitAlto = 63 - Long.numberOfLeadingZeros(v);
+        int desplazamiento = bitAlto - (BITS - 1);
+        long mantisa = v >> desplazamiento;
+        return SUB + (desplazamiento - 1) * MITAD + (int) (mantisa - MITAD);
+    }
+
+    /**
+     * Punto medio del rango de valores de la cubeta
+     */
+    public static long valorRepresentativo(int indice) {
+        if (indice < SUB) {
+            return indice;
+        }
+        int j = indice - SUB;
+        int desplazamiento = j / MITAD + 1;
+        long mantisa = j % MITAD + MITAD;
+        long inferior = mantisa << desplazamiento;
+        long superior = ((mantisa + 1) << desplazamiento) - 1;
+        return (inferior + superior) / 2;
+    }
+
+    public void sumarCubeta(int indice, long cantidad) {
+        cubetas[indice] += cantidad;
+        total += cantidad;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * Valor bajo el cual queda el porcentaje {@code percentil} (0-100) de las
+     * observaciones, o null si el histograma está vacío
+     */
+    public Long percentil(double percentil) {
+        if (total <= 0) {
+            return null;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            acumulado += cubetas[i];
+            if (acumulado >= objetivo) {
+                return valorRepresentativo(i);
+            }
+        }
+        return valorRepresentativo(CANTIDAD_CUBETAS - 1);
+    }
+
+    /**
+     * Promedio aproximado a partir de los valores representativos
+     */
+    public Double promedio() {
+        if (total <= 0) {
+            return null;
+        }
+        double suma = 0;
+        for (int i = 0; i < CANTIDAD_CUBETAS; i++) {
+            if (cubetas[i] != 0) {
+                suma += (double) cubetas[i] * valorRepresentativo(i);
+            }
+        }
+        return suma / total;
+    }
+}
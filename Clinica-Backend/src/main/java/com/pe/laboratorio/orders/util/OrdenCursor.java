@@ -0,0 +1,50 @@
+package com.pe.laboratorio.orders.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.pe.laboratorio.exception.ValidationException;
+
+/**
+ * Token de continuación para la paginación por keyset de órdenes.
+ * Representa la posición (fecha_orden, id) de la última orden entregada; el
+ * cliente lo recibe como cadena opaca y lo devuelve tal cual para pedir la
+ * siguiente página.
+ */
+public record OrdenCursor(LocalDateTime fechaOrden, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Codifica la posición como Base64 URL-safe sin relleno
+     */
+    public String encode() {
+        String raw = fechaOrden + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente. Devuelve null si no se envió
+     * token (primera página).
+     */
+    public static OrdenCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARADOR);
+            if (sep < 0) {
+                throw new ValidationException("Cursor de paginación inválido");
+            }
+            return new OrdenCursor(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Cursor de paginación inválido");
+        }
+    }
+}
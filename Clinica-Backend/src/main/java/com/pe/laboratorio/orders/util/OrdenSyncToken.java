@@ -0,0 +1,50 @@
+package com.pe.laboratorio.orders.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.pe.laboratorio.exception.ValidationException;
+
+/**
+ * Token de sincronización incremental de órdenes (GET /api/ordenes/changes).
+ * Guarda desde qué updated_at hay que volver a pedir órdenes y la versión del
+ * contador de cambios vista en esa consulta: si la versión no cambió, no hay
+ * nada nuevo y la respuesta se arma sin consultar órdenes.
+ */
+public record OrdenSyncToken(LocalDateTime desde, long version) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Codifica el token como Base64 URL-safe sin relleno
+     */
+    public String encode() {
+        String raw = desde + SEPARADOR + version;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente. Devuelve null si no se envió
+     * token (sincronización completa).
+     */
+    public static OrdenSyncToken decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARADOR);
+            if (sep < 0) {
+                throw new ValidationException("Token de sincronización inválido");
+            }
+            return new OrdenSyncToken(
+                    LocalDateTime.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Token de sincronización inválido");
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.pe.laboratorio.patients.controller;
 
+import com.pe.laboratorio.patients.dto.PatientCacheStatsDTO;
 import com.pe.laboratorio.patients.dto.PatientDTO;
+import com.pe.laboratorio.patients.dto.PatientDuplicateDTO;
+import com.pe.laboratorio.patients.dto.PatientDuplicatePairDTO;
+import com.pe.laboratorio.patients.dto.PatientFilterDTO;
+import com.pe.laboratorio.patients.dto.PatientPageDTO;
+import com.pe.laboratorio.patients.dto.PatientSummaryDTO;
+import com.pe.laboratorio.patients.service.PatientImportService;
 import com.pe.laboratorio.patients.service.PatientService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -15,6 +26,7 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
 
 
     @PostMapping
@@ -25,11 +37,77 @@ public class PatientController {
     }
 
 
+    /**
+     * Importación masiva de pacientes. El cuerpo es el archivo CSV (con
+     * cabecera) o NDJSON; los pacientes se insertan o actualizan por DNI. La
+     * respuesta es NDJSON con el progreso por lote, las filas rechazadas y un
+     * resumen final.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importPatients(
+            @RequestParam(defaultValue = PatientImportService.FORMATO_CSV) String formato,
+            HttpServletRequest request) throws IOException {
+        StreamingResponseBody cuerpo = patientImportService.importar(request.getInputStream(), formato);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
+    }
+
+
+    /**
+     * Búsqueda paginada por cursor. Sin filtros recorre todos los pacientes
+     * ordenados por apellidos y nombres.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<PatientDTO>> getAllPatients() {
-        List<PatientDTO> patients = patientService.getAllPatients();
-        return ResponseEntity.ok(patients);
+    public ResponseEntity<PatientPageDTO<PatientDTO>> searchPatients(@ModelAttribute PatientFilterDTO filter) {
+        return ResponseEntity.ok(patientService.searchPatients(filter));
+    }
+
+
+    /**
+     * Misma búsqueda con la proyección reducida (id, DNI, nombre completo y
+     * fecha de nacimiento) para selectores
+     */
+    @GetMapping("/summary")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PatientPageDTO<PatientSummaryDTO>> searchPatientSummaries(
+            @ModelAttribute PatientFilterDTO filter) {
+        return ResponseEntity.ok(patientService.searchPatientSummaries(filter));
+    }
+
+
+    /**
+     * Posibles duplicados de los datos de un paciente antes de registrarlo
+     * (nombres, apellidos, fecha de nacimiento y DNI si lo tiene)
+     */
+    @PostMapping("/duplicates/check")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PatientDuplicateDTO>> checkDuplicates(@RequestBody PatientDTO request) {
+        return ResponseEntity.ok(patientService.checkDuplicates(request));
+    }
+
+
+    /**
+     * Pares de pacientes registrados que probablemente son la misma persona,
+     * sobre todo el padrón
+     */
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PatientDuplicatePairDTO>> findDuplicates(
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientService.findDuplicates(limit));
+    }
+
+
+    /**
+     * Métricas de la caché de pacientes (aciertos, fallos, desalojos)
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PatientCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(patientService.getCacheStats());
     }
 
 
@@ -0,0 +1,24 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Métricas de la caché de pacientes desde el inicio de la aplicación
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientCacheStatsDTO {
+    private int size;
+    private int maxSize;
+    private long ttlSeconds;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private long evictions;
+    private long expirations;
+}
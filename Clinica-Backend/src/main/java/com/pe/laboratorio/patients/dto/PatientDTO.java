@@ -1,8 +1,11 @@
 package com.pe.laboratorio.patients.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDate;
+import java.util.List;
 
 @Data
 @Builder
@@ -16,4 +19,12 @@ public class PatientDTO {
     private String gender;
     private String phone;
     private String address;
+
+    /**
+     * Solo en la respuesta del alta: pacientes registrados que podrían ser
+     * la misma persona
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<PatientDuplicateDTO> possibleDuplicates;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posible duplicado de un paciente con su puntaje de similitud (0-1)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientDuplicateDTO {
+    private PatientSummaryDTO patient;
+    private double score;
+}
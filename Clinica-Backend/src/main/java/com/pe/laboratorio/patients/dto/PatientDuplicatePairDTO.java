@@ -0,0 +1,20 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Par de pacientes registrados que probablemente son la misma persona, con
+ * su puntaje de similitud (0-1)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientDuplicatePairDTO {
+    private PatientSummaryDTO first;
+    private PatientSummaryDTO second;
+    private double score;
+}
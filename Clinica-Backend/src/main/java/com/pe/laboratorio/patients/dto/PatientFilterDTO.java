@@ -0,0 +1,50 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de la búsqueda paginada de pacientes. Todos son opcionales y se
+ * combinan con AND.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientFilterDTO {
+
+    /**
+     * Prefijo del DNI
+     */
+    private String dni;
+
+    /**
+     * Texto del nombre; se compara sin tildes ni mayúsculas contra
+     * "apellidos nombres"
+     */
+    private String name;
+
+    /**
+     * true: el nombre contiene el texto; false o nulo: empieza con él
+     */
+    private Boolean nameContains;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateOfBirthTo;
+
+    /**
+     * Token opaco devuelto en la página anterior (nextCursor). Nulo para la
+     * primera página.
+     */
+    private String cursor;
+
+    private Integer size;
+}
@@ -0,0 +1,38 @@
+package com.pe.laboratorio.patients.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Línea NDJSON de la respuesta de la importación de pacientes.
+ * tipo = "progreso" (totales acumulados tras cada lote), "rechazo" (una fila
+ * descartada con su motivo) o "resumen" (totales finales y duración).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PatientImportEventDTO {
+
+    public static final String PROGRESO = "progreso";
+    public static final String RECHAZO = "rechazo";
+    public static final String RESUMEN = "resumen";
+
+    private String tipo;
+
+    // Rechazo
+    private Long linea;
+    private String dni;
+    private String motivo;
+
+    // Progreso y resumen
+    private Long leidas;
+    private Long insertadas;
+    private Long actualizadas;
+    private Long rechazadas;
+    private Long duracionMs;
+}
@@ -0,0 +1,30 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de pacientes paginada por cursor (keyset). Para obtener la
+ * siguiente página se reenvían los mismos filtros con cursor = nextCursor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientPageDTO<T> {
+
+    private List<T> content;
+
+    /**
+     * Token de continuación; nulo cuando no hay más páginas
+     */
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    private int size;
+}
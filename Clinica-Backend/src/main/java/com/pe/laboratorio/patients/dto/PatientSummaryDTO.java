@@ -0,0 +1,22 @@
+package com.pe.laboratorio.patients.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección reducida de un paciente para selectores
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSummaryDTO {
+    private Long id;
+    private String dni;
+    private String fullName;
+    private LocalDate dateOfBirth;
+}
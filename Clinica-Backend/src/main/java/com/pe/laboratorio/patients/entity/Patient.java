@@ -1,11 +1,16 @@
 package com.pe.laboratorio.patients.entity;
 
+import com.pe.laboratorio.shared.util.TextNormalizer;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        // Búsqueda por prefijo del nombre y paginación por keyset (nombre_normalizado, id)
+        @Index(name = "idx_patients_nombre", columnList = "nombre_normalizado, id"),
+        @Index(name = "idx_patients_fecha_nacimiento", columnList = "date_of_birth")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -28,8 +33,22 @@ public class Patient {
     @Column(unique = true)
     private String email;
 
+    @Column(name = "date_of_birth")
     private LocalDate dateOfBirth;
     private String gender;
     private String phone;
     private String address;
+
+    /**
+     * Apellidos y nombres normalizados con TextNormalizer. Usa la collation
+     * "C" para que su índice resuelva LIKE 'prefijo%' y el orden del keyset.
+     */
+    @Column(name = "nombre_normalizado", columnDefinition = "varchar(255) COLLATE \"C\"")
+    private String nombreNormalizado;
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizarNombre() {
+        nombreNormalizado = TextNormalizer.normalizar(lastName + " " + firstName);
+    }
 }
\ No newline at end of file
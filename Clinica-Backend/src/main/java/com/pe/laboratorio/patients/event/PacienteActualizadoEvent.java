@@ -0,0 +1,7 @@
+package com.pe.laboratorio.patients.event;
+
+/**
+ * Se publica al modificar los datos de un paciente
+ */
+public record PacienteActualizadoEvent(Long patientId) {
+}
@@ -0,0 +1,222 @@
+package com.pe.laboratorio.patients.repository;
+
+import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.patients.util.PatientCursor;
+import com.pe.laboratorio.shared.util.TextNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Búsqueda paginada de pacientes con SQL armado según los filtros
+ * informados, para que cada combinación use su índice: nombre_normalizado
+ * (collation "C") para el prefijo y el orden, el índice trigram para
+ * "contiene" y dni varchar_pattern_ops para el prefijo del DNI (ver
+ * db/migracion/V2__indices_busqueda_pacientes.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientJdbcRepository {
+
+    private static final String COLUMNAS_COMPLETAS =
+            "id, first_name, last_name, dni, email, date_of_birth, gender, phone, address, nombre_normalizado";
+    private static final String COLUMNAS_RESUMEN =
+            "id, first_name, last_name, dni, date_of_birth, nombre_normalizado";
+
+    private static final int TAMANIO_LOTE = 500;
+    private static final int FETCH_SIZE_CURSOR = 1000;
+
+    /**
+     * Columnas: id, dni, first_name, last_name, date_of_birth
+     */
+    private static final String SELECT_FICHA_DUPLICADOS =
+            "SELECT id, dni, first_name, last_name, date_of_birth FROM patients";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Pacientes que cumplen la búsqueda, ordenados por (nombre_normalizado,
+     * id). Con {@code resumen} solo se leen id, nombres, DNI y fecha de
+     * nacimiento; los demás campos quedan nulos.
+     */
+    public List<Patient> buscar(Busqueda busqueda, int limite, boolean resumen) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(resumen ? COLUMNAS_RESUMEN : COLUMNAS_COMPLETAS)
+                .append(" FROM patients WHERE nombre_normalizado IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+
+        if (busqueda.dniPrefijo() != null) {
+            sql.append(" AND dni LIKE ?");
+            args.add(escaparLike(busqueda.dniPrefijo()) + "%");
+        }
+        if (busqueda.nombre() != null) {
+            sql.append(" AND nombre_normalizado LIKE ?");
+            args.add((busqueda.contiene() ? "%" : "") + busqueda.nombre() + "%");
+        }
+        if (busqueda.nacimientoDesde() != null) {
+            sql.append(" AND date_of_birth >= ?");
+            args.add(Date.valueOf(busqueda.nacimientoDesde()));
+        }
+        if (busqueda.nacimientoHasta() != null) {
+            sql.append(" AND date_of_birth <= ?");
+            args.add(Date.valueOf(busqueda.nacimientoHasta()));
+        }
+        if (busqueda.despuesDe() != null) {
+            sql.append(" AND (nombre_normalizado, id) > (?, ?)");
+            args.add(busqueda.despuesDe().nombreNormalizado());
+            args.add(busqueda.despuesDe().id());
+        }
+        sql.append(" ORDER BY nombre_normalizado, id LIMIT ?");
+        args.add(limite);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            Date nacimiento = rs.getDate("date_of_birth");
+            Patient.PatientBuilder paciente = Patient.builder()
+                    .id(rs.getLong("id"))
+                    .firstName(rs.getString("first_name"))
+                    .lastName(rs.getString("last_name"))
+                    .dni(rs.getString("dni"))
+                    .dateOfBirth(nacimiento != null ? nacimiento.toLocalDate() : null)
+                    .nombreNormalizado(rs.getString("nombre_normalizado"));
+            if (!resumen) {
+                paciente.email(rs.getString("email"))
+                        .gender(rs.getString("gender"))
+                        .phone(rs.getString("phone"))
+                        .address(rs.getString("address"));
+            }
+            return paciente.build();
+        }, args.toArray());
+    }
+
+    /**
+     * Calcula nombre_normalizado de los pacientes registrados antes de que
+     * existiera la columna, en lotes de {@code limite}
+     *
+     * @return la cantidad de pacientes actualizados
+     */
+    public int completarNombresNormalizados(int limite) {
+        List<Object[]> filas = jdbcTemplate.query(
+                "SELECT id, first_name, last_name FROM patients WHERE nombre_normalizado IS NULL LIMIT ?",
+                (rs, rowNum) -> new Object[] {
+                        TextNormalizer.normalizar(rs.getString("last_name") + " " + rs.getString("first_name")),
+                        rs.getLong("id") },
+                limite);
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE patients SET nombre_normalizado = ? WHERE id = ?", filas);
+        }
+        return filas.size();
+    }
+
+    /**
+     * DNI y email de los pacientes que ya usan alguno de los DNI o emails
+     * indicados
+     */
+    public List<DniEmail> buscarExistentes(Collection<String> dnis, Collection<String> emails) {
+        List<DniEmail> existentes = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT dni, email FROM patients WHERE dni = ANY(?) OR email = ANY(?)");
+            ps.setArray(1, con.createArrayOf("varchar", dnis.toArray()));
+            ps.setArray(2, con.createArrayOf("varchar", emails.toArray()));
+            return ps;
+        }, rs -> {
+            existentes.add(new DniEmail(rs.getString(1), rs.getString(2)));
+        });
+        return existentes;
+    }
+
+    /**
+     * Inserta o actualiza pacientes por DNI con INSERT ... ON CONFLICT en
+     * lotes. Los nombres se reemplazan; los campos opcionales nulos conservan
+     * el valor actual.
+     */
+    public void upsert(List<Patient> patients) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO patients (dni, first_name, last_name, email, date_of_birth, gender, phone, address, " +
+                        "nombre_normalizado) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (dni) DO UPDATE SET first_name = EXCLUDED.first_name, " +
+                        "last_name = EXCLUDED.last_name, " +
+                        "email = COALESCE(EXCLUDED.email, patients.email), " +
+                        "date_of_birth = COALESCE(EXCLUDED.date_of_birth, patients.date_of_birth), " +
+                        "gender = COALESCE(EXCLUDED.gender, patients.gender), " +
+                        "phone = COALESCE(EXCLUDED.phone, patients.phone), " +
+                        "address = COALESCE(EXCLUDED.address, patients.address), " +
+                        "nombre_normalizado = EXCLUDED.nombre_normalizado",
+                patients, TAMANIO_LOTE, (ps, p) -> {
+                    ps.setString(1, p.getDni());
+                    ps.setString(2, p.getFirstName());
+                    ps.setString(3, p.getLastName());
+                    ps.setString(4, p.getEmail());
+                    ps.setObject(5, p.getDateOfBirth());
+                    ps.setString(6, p.getGender());
+                    ps.setString(7, p.getPhone());
+                    ps.setString(8, p.getAddress());
+                    ps.setString(9, p.getNombreNormalizado());
+                });
+    }
+
+    /**
+     * Ids de los pacientes con los DNI indicados
+     */
+    public List<Long> buscarIdsPorDni(Collection<String> dnis) {
+        if (dnis.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("SELECT id FROM patients WHERE dni = ANY(?)");
+            ps.setArray(1, con.createArrayOf("varchar", dnis.toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Recorre los datos de identificación de todos los pacientes en orden de
+     * id con un cursor de solo avance. Debe llamarse dentro de una
+     * transacción.
+     */
+    public void recorrerFichasDuplicados(RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_FICHA_DUPLICADOS + " ORDER BY id");
+            ps.setFetchSize(FETCH_SIZE_CURSOR);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Datos de identificación de los pacientes indicados
+     */
+    public void buscarFichasDuplicados(Collection<Long> ids, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_FICHA_DUPLICADOS + " WHERE id = ANY(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        }, handler);
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public record DniEmail(String dni, String email) {
+    }
+
+    /**
+     * Filtros ya normalizados; los nulos no se aplican
+     */
+    public record Busqueda(
+            String dniPrefijo,
+            String nombre,
+            boolean contiene,
+            LocalDate nacimientoDesde,
+            LocalDate nacimientoHasta,
+            PatientCursor despuesDe) {
+    }
+}
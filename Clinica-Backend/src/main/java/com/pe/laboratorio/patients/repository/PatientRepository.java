@@ -2,11 +2,18 @@ package com.pe.laboratorio.patients.repository;
 
 import com.pe.laboratorio.patients.entity.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Optional<Patient> findByDni(String dni);
+
+    @Query("SELECT p.id FROM Patient p WHERE p.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
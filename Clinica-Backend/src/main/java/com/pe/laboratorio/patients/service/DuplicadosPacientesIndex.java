@@ -0,0 +1,528 @@
+package com.pe.laboratorio.patients.service;
+
+import com.pe.laboratorio.patients.dto.PatientDuplicateDTO;
+import com.pe.laboratorio.patients.dto.PatientDuplicatePairDTO;
+import com.pe.laboratorio.patients.dto.PatientSummaryDTO;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import com.pe.laboratorio.patients.repository.PatientJdbcRepository;
+import com.pe.laboratorio.patients.util.CodigoFonetico;
+import com.pe.laboratorio.shared.util.IndiceReconstruible;
+import com.pe.laboratorio.shared.util.ListaIdsOrdenada;
+import com.pe.laboratorio.shared.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Índice en memoria para detectar pacientes duplicados cuando el DNI falta o
+ * está mal digitado.
+ *
+ * Cada paciente se ubica en bloques según claves de agrupación: código
+ * fonético del primer apellido + año de nacimiento, código fonético del
+ * primer nombre + año de nacimiento, y prefijo del primer apellido + prefijo
+ * del primer nombre (para fechas mal digitadas). Solo se comparan pacientes
+ * que comparten un bloque, con distancia de edición sobre nombres y
+ * apellidos y coincidencia parcial de la fecha de nacimiento.
+ *
+ * El alta, la baja y la modificación de un paciente actualizan su ficha; un
+ * bloque no olvida a un paciente que dejó de pertenecerle o se eliminó, así
+ * que cada candidato se compara con la ficha vigente (y se ignora si ya no
+ * existe). Reconstruir el índice descarta esos ids sobrantes.
+ */
+@Component
+@Slf4j
+public class DuplicadosPacientesIndex {
+
+    private static final double PESO_APELLIDOS = 0.40;
+    private static final double PESO_NOMBRES = 0.35;
+    private static final double PESO_FECHA = 0.25;
+
+    /**
+     * Sin fecha de nacimiento en alguno de los dos, el puntaje de los
+     * nombres se reduce por falta de evidencia
+     */
+    private static final double FACTOR_SIN_FECHA = 0.9;
+
+    /**
+     * Bloques por tarea de la búsqueda completa antes de dividirla
+     */
+    private static final int BLOQUES_POR_TAREA = 64;
+
+    private static final int LARGO_PREFIJO_APELLIDO = 3;
+    private static final int LARGO_PREFIJO_NOMBRE = 2;
+
+    /**
+     * Partículas que no identifican al apellido ("de la Cruz" → "cruz")
+     */
+    private static final Set<String> PARTICULAS = Set.of("de", "del", "la", "las", "los", "y", "san");
+
+    private final PatientJdbcRepository patientJdbcRepository;
+    private final TransactionTemplate transaccionLectura;
+    private final double umbral;
+
+    private final IndiceReconstruible<Indice> indice = new IndiceReconstruible<>(new Indice());
+
+    public DuplicadosPacientesIndex(PatientJdbcRepository patientJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${pacientes.duplicados.umbral:0.85}") double umbral) {
+        this.patientJdbcRepository = patientJdbcRepository;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.umbral = umbral;
+    }
+
+    /**
+     * Pacientes registrados que podrían ser la misma persona que los datos
+     * indicados, del más al menos parecido
+     *
+     * @param excluirId paciente que no se compara consigo mismo (modificación)
+     */
+    public List<PatientDuplicateDTO> buscarCandidatos(String dni, String firstName, String lastName,
+            LocalDate dateOfBirth, Long excluirId, int limite) {
+        Ficha consulta = new Ficha(excluirId != null ? excluirId : -1L, dni, firstName, lastName, dateOfBirth);
+        Indice actual = indice.actual();
+
+        Set<Long> vistos = new HashSet<>();
+        List<PatientDuplicateDTO> candidatos = new ArrayList<>();
+        for (String clave : consulta.claves()) {
+            ListaIdsOrdenada bloque = actual.bloques.get(clave);
+            if (bloque == null) {
+                continue;
+            }
+            ListaIdsOrdenada.Vista vista = bloque.vista();
+            for (int i = 0; i < vista.tamanio(); i++) {
+                long id = vista.ids()[i];
+                if (id == consulta.id() || !vistos.add(id)) {
+                    continue;
+                }
+                Ficha ficha = actual.fichas.get(id);
+                if (ficha == null) {
+                    continue;
+                }
+                double puntaje = puntaje(consulta, ficha);
+                if (puntaje >= umbral) {
+                    candidatos.add(PatientDuplicateDTO.builder()
+                            .patient(ficha.aResumen())
+                            .score(puntaje)
+                            .build());
+                }
+            }
+        }
+        candidatos.sort(Comparator.comparingDouble(PatientDuplicateDTO::getScore).reversed());
+        return candidatos.size() > limite ? candidatos.subList(0, limite) : candidatos;
+    }
+
+    /**
+     * Pares de pacientes registrados que probablemente son la misma persona,
+     * del más al menos parecido. Los bloques se reparten entre los núcleos
+     * con fork/join; cada par se evalúa una sola vez, en el menor bloque que
+     * comparten.
+     */
+    public List<PatientDuplicatePairDTO> buscarTodos(int limite) {
+        long inicio = System.currentTimeMillis();
+        Indice actual = indice.actual();
+        List<Map.Entry<String, ListaIdsOrdenada.Vista>> bloques = new ArrayList<>(actual.bloques.size());
+        actual.bloques.forEach((clave, bloque) -> {
+            ListaIdsOrdenada.Vista vista = bloque.vista();
+            if (vista.tamanio() > 1) {
+                bloques.add(Map.entry(clave, vista));
+            }
+        });
+
+        List<Par> pares = ForkJoinPool.commonPool()
+                .invoke(new CompararBloques(actual, bloques, umbral, 0, bloques.size()));
+        pares.sort(Comparator.comparingDouble(Par::puntaje).reversed()
+                .thenComparingLong(Par::primero)
+                .thenComparingLong(Par::segundo));
+
+        log.info("Búsqueda de pacientes duplicados: {} pares en {} bloques ({} ms)",
+                pares.size(), bloques.size(), System.currentTimeMillis() - inicio);
+
+        List<PatientDuplicatePairDTO> resultado = new ArrayList<>(Math.min(limite, pares.size()));
+        for (Par par : pares) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            Ficha primero = actual.fichas.get(par.primero());
+            Ficha segundo = actual.fichas.get(par.segundo());
+            if (primero != null && segundo != null) {
+                resultado.add(PatientDuplicatePairDTO.builder()
+                        .first(primero.aResumen())
+                        .second(segundo.aResumen())
+                        .score(par.puntaje())
+                        .build());
+            }
+        }
+        return resultado;
+    }
+
+    // ========================================
+    // Mantenimiento incremental
+    // ========================================
+
+    /**
+     * Agrega un paciente recién registrado
+     */
+    public void agregar(Long id, String dni, String firstName, String lastName, LocalDate dateOfBirth) {
+        Ficha ficha = new Ficha(id, dni, firstName, lastName, dateOfBirth);
+        indice.modificar(List.of(id), actual -> actual.agregar(ficha));
+    }
+
+    public void quitar(Long id) {
+        indice.modificar(List.of(id), actual -> actual.fichas.remove(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPacienteActualizado(PacienteActualizadoEvent event) {
+        indexar(List.of(event.patientId()));
+    }
+
+    /**
+     * Vuelve a leer los pacientes indicados; los que ya no existen se quitan
+     */
+    public void indexar(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Ficha> fichas = new ArrayList<>(ids.size());
+        patientJdbcRepository.buscarFichasDuplicados(ids, rs -> {
+            fichas.add(leerFicha(rs));
+        });
+
+        indice.modificar(ids, actual -> {
+            Set<Long> eliminados = new HashSet<>(ids);
+            for (Ficha ficha : fichas) {
+                actual.agregar(ficha);
+                eliminados.remove(ficha.id());
+            }
+            eliminados.forEach(actual.fichas::remove);
+        });
+    }
+
+    // ========================================
+    // Reconstrucción completa
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recargar();
+    }
+
+    @Scheduled(fixedDelayString = "${pacientes.duplicados.reconstruccion-ms:21600000}",
+            initialDelayString = "${pacientes.duplicados.reconstruccion-ms:21600000}")
+    public void reconstruir() {
+        recargar();
+    }
+
+    void recargar() {
+        long inicio = System.currentTimeMillis();
+        Indice nuevo = new Indice();
+        Set<Long> tocados = indice.reconstruir(() -> {
+            // Recorrer los pacientes por id evita copiar los bloques al cargarlos
+            transaccionLectura.executeWithoutResult(status -> patientJdbcRepository.recorrerFichasDuplicados(
+                    rs -> nuevo.agregar(leerFicha(rs))));
+            return nuevo;
+        });
+        indexar(tocados);
+
+        log.info("Índice de pacientes duplicados reconstruido: {} pacientes, {} bloques ({} ms)",
+                nuevo.fichas.size(), nuevo.bloques.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // ========================================
+    // Puntaje
+    // ========================================
+
+    /**
+     * Similitud ponderada de apellidos, nombres y fecha de nacimiento (0-1).
+     * Dos DNI informados que difieren en más de un dígito identifican a
+     * personas distintas.
+     */
+    private static double puntaje(Ficha a, Ficha b) {
+        if (a.dni() != null && b.dni() != null && distancia(a.dni(), b.dni(), 2) > 1) {
+            return 0;
+        }
+        double apellidos = similitudNombre(a.apellidos(), a.primerApellido(), b.apellidos(), b.primerApellido());
+        double nombres = similitudNombre(a.nombres(), a.primerNombre(), b.nombres(), b.primerNombre());
+        if (a.dateOfBirth() == null || b.dateOfBirth() == null) {
+            return (PESO_APELLIDOS * apellidos + PESO_NOMBRES * nombres)
+                    / (PESO_APELLIDOS + PESO_NOMBRES) * FACTOR_SIN_FECHA;
+        }
+        return PESO_APELLIDOS * apellidos + PESO_NOMBRES * nombres
+                + PESO_FECHA * similitudFecha(a.dateOfBirth(), b.dateOfBirth());
+    }
+
+    /**
+     * Similitud por distancia de edición del texto completo, o de la primera
+     * palabra con una leve penalización ("Quispe Mamani" frente a "Quispe")
+     */
+    private static double similitudNombre(String completoA, String primeraA, String completoB, String primeraB) {
+        if (completoA.isEmpty() || completoB.isEmpty()) {
+            return 0;
+        }
+        double completo = similitud(completoA, completoB);
+        if (completo == 1 || (primeraA.equals(completoA) && primeraB.equals(completoB))) {
+            return completo;
+        }
+        return Math.max(completo, 0.9 * similitud(primeraA, primeraB));
+    }
+
+    private static double similitud(String a, String b) {
+        int largo = Math.max(a.length(), b.length());
+        return largo == 0 ? 1 : 1 - (double) distancia(a, b, largo) / largo;
+    }
+
+    /**
+     * Fecha igual: 1. Día y mes invertidos, o un solo componente distinto
+     * (error de digitación): parcial. Otra fecha: 0.
+     */
+    private static double similitudFecha(LocalDate a, LocalDate b) {
+        if (a.equals(b)) {
+            return 1;
+        }
+        if (a.getYear() == b.getYear() && a.getMonthValue() == b.getDayOfMonth()
+                && a.getDayOfMonth() == b.getMonthValue()) {
+            return 0.8;
+        }
+        int distintos = (a.getYear() != b.getYear() ? 1 : 0)
+                + (a.getMonthValue() != b.getMonthValue() ? 1 : 0)
+                + (a.getDayOfMonth() != b.getDayOfMonth() ? 1 : 0);
+        return distintos == 1 ? 0.6 : 0;
+    }
+
+    /**
+     * Distancia de Levenshtein con dos filas; deja de calcular al superar
+     * {@code tope} y devuelve tope + 1
+     */
+    static int distancia(String a, String b, int tope) {
+        if (Math.abs(a.length() - b.length()) > tope) {
+            return tope + 1;
+        }
+        int[] previa = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previa[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                actual[j] = Math.min(Math.min(actual[j - 1] + 1, previa[j] + 1), previa[j - 1] + costo);
+                minimoFila = Math.min(minimoFila, actual[j]);
+            }
+            if (minimoFila > tope) {
+                return tope + 1;
+            }
+            int[] temporal = previa;
+            previa = actual;
+            actual = temporal;
+        }
+        return previa[b.length()];
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    private static Ficha leerFicha(ResultSet rs) throws SQLException {
+        Date fechaNacimiento = rs.getDate(5);
+        return new Ficha(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getString(4),
+                fechaNacimiento != null ? fechaNacimiento.toLocalDate() : null);
+    }
+
+    /**
+     * Claves de bloque de un paciente con los datos indicados
+     */
+    static List<String> claves(String firstName, String lastName, LocalDate dateOfBirth) {
+        return List.of(new Ficha(-1L, null, firstName, lastName, dateOfBirth).claves());
+    }
+
+    private static String primeraPalabra(String normalizado, boolean omitirParticulas) {
+        for (String palabra : normalizado.split(" ")) {
+            if (!palabra.isEmpty() && !(omitirParticulas && PARTICULAS.contains(palabra))) {
+                return palabra;
+            }
+        }
+        return normalizado;
+    }
+
+    private static String prefijo(String texto, int largo) {
+        return texto.length() <= largo ? texto : texto.substring(0, largo);
+    }
+
+    /**
+     * Datos de identificación de un paciente, con sus textos normalizados y
+     * claves de bloque
+     */
+    private record Ficha(long id, String dni, String firstName, String lastName, LocalDate dateOfBirth,
+            String nombres, String apellidos, String primerNombre, String primerApellido, String[] claves) {
+
+        private Ficha(long id, String dni, String firstName, String lastName, LocalDate dateOfBirth) {
+            this(id, dni != null && !dni.isBlank() ? dni.trim() : null, firstName, lastName, dateOfBirth,
+                    TextNormalizer.normalizar(firstName), TextNormalizer.normalizar(lastName));
+        }
+
+        private Ficha(long id, String dni, String firstName, String lastName, LocalDate dateOfBirth,
+                String nombres, String apellidos) {
+            this(id, dni, firstName, lastName, dateOfBirth, nombres, apellidos,
+                    primeraPalabra(nombres, false), primeraPalabra(apellidos, true));
+        }
+
+        private Ficha(long id, String dni, String firstName, String lastName, LocalDate dateOfBirth,
+                String nombres, String apellidos, String primerNombre, String primerApellido) {
+            this(id, dni, firstName, lastName, dateOfBirth, nombres, apellidos, primerNombre, primerApellido,
+                    claves(primerNombre, primerApellido, dateOfBirth));
+        }
+
+        private static String[] claves(String primerNombre, String primerApellido, LocalDate dateOfBirth) {
+            List<String> claves = new ArrayList<>(3);
+            if (dateOfBirth != null) {
+                String apellido = CodigoFonetico.codificar(primerApellido);
+                String nombre = CodigoFonetico.codificar(primerNombre);
+                if (!apellido.isEmpty()) {
+                    claves.add("A:" + apellido + ":" + dateOfBirth.getYear());
+                }
+                if (!nombre.isEmpty()) {
+                    claves.add("N:" + nombre + ":" + dateOfBirth.getYear());
+                }
+            }
+            if (!primerApellido.isEmpty() && !primerNombre.isEmpty()) {
+                claves.add("P:" + prefijo(primerApellido, LARGO_PREFIJO_APELLIDO)
+                        + ":" + prefijo(primerNombre, LARGO_PREFIJO_NOMBRE));
+            }
+            return claves.toArray(String[]::new);
+        }
+
+        private boolean tieneClave(String clave) {
+            for (String propia : claves) {
+                if (propia.equals(clave)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Menor clave que comparte con otra ficha, o null si no comparten
+         */
+        private String menorClaveComun(Ficha otra) {
+            String menor = null;
+            for (String clave : claves) {
+                if (otra.tieneClave(clave) && (menor == null || clave.compareTo(menor) < 0)) {
+                    menor = clave;
+                }
+            }
+            return menor;
+        }
+
+        private PatientSummaryDTO aResumen() {
+            return PatientSummaryDTO.builder()
+                    .id(id)
+                    .dni(dni)
+                    .fullName(lastName + " " + firstName)
+                    .dateOfBirth(dateOfBirth)
+                    .build();
+        }
+    }
+
+    private record Par(long primero, long segundo, double puntaje) {
+    }
+
+    /**
+     * Compara los pares de cada bloque del rango; divide el rango en mitades
+     * mientras supere {@link #BLOQUES_POR_TAREA}
+     */
+    private static final class CompararBloques extends RecursiveTask<List<Par>> {
+
+        private static final long serialVersionUID = 1L;
+
+        // La tarea nunca se serializa; el índice y los bloques no lo admiten
+        private final transient Indice origen;
+        private final transient List<Map.Entry<String, ListaIdsOrdenada.Vista>> bloques;
+        private final double umbral;
+        private final int desde;
+        private final int hasta;
+
+        private CompararBloques(Indice origen, List<Map.Entry<String, ListaIdsOrdenada.Vista>> bloques,
+                double umbral, int desde, int hasta) {
+            this.origen = origen;
+            this.bloques = bloques;
+            this.umbral = umbral;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected List<Par> compute() {
+            if (hasta - desde > BLOQUES_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                CompararBloques izquierda = new CompararBloques(origen, bloques, umbral, desde, medio);
+                izquierda.fork();
+                List<Par> pares = new CompararBloques(origen, bloques, umbral, medio, hasta).compute();
+                pares.addAll(izquierda.join());
+                return pares;
+            }
+
+            List<Par> pares = new ArrayList<>();
+            for (int b = desde; b < hasta; b++) {
+                String clave = bloques.get(b).getKey();
+                ListaIdsOrdenada.Vista vista = bloques.get(b).getValue();
+                for (int i = 0; i < vista.tamanio(); i++) {
+                    Ficha a = origen.fichas.get(vista.ids()[i]);
+                    if (a == null || !a.tieneClave(clave)) {
+                        continue;
+                    }
+                    for (int j = i + 1; j < vista.tamanio(); j++) {
+                        Ficha c = origen.fichas.get(vista.ids()[j]);
+                        if (c == null || !clave.equals(a.menorClaveComun(c))) {
+                            continue;
+                        }
+                        double puntaje = puntaje(a, c);
+                        if (puntaje >= umbral) {
+                            pares.add(new Par(Math.min(a.id(), c.id()), Math.max(a.id(), c.id()), puntaje));
+                        }
+                    }
+                }
+            }
+            return pares;
+        }
+    }
+
+    private static final class Indice {
+        private final ConcurrentHashMap<Long, Ficha> fichas = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, ListaIdsOrdenada> bloques = new ConcurrentHashMap<>();
+
+        private void agregar(Ficha ficha) {
+            fichas.put(ficha.id(), ficha);
+            for (String clave : ficha.claves()) {
+                bloques.computeIfAbsent(clave, c -> new ListaIdsOrdenada()).agregar(ficha.id());
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.pe.laboratorio.patients.service;
+
+import com.pe.laboratorio.patients.dto.PatientCacheStatsDTO;
+import com.pe.laboratorio.patients.dto.PatientDTO;
+import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import com.pe.laboratorio.patients.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de lectura de pacientes por id y por DNI, acotada (LRU) y con
+ * expiración por tiempo.
+ *
+ * Las consultas que no encuentran al paciente en caché lo leen de la base y
+ * lo guardan. Las altas, modificaciones y bajas de este servicio actualizan o
+ * invalidan la entrada al momento; los cambios de otros caminos (importación)
+ * llegan con {@link PacienteActualizadoEvent}, y la expiración acota lo que
+ * pueda quedar desactualizado. Una carga que coincide con una invalidación no
+ * se guarda, para no reponer datos anteriores al cambio.
+ */
+@Component
+public class PatientCache {
+
+    private final PatientRepository patientRepository;
+    private final int maximo;
+    private final long ttlNanos;
+
+    /**
+     * id → entrada, del menos al más recientemente usado. Guardado por this,
+     * igual que idPorDni e invalidaciones.
+     */
+    private final LinkedHashMap<Long, Entrada> porId;
+    private final Map<String, Long> idPorDni = new HashMap<>();
+    private long invalidaciones;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder expiraciones = new LongAdder();
+
+    public PatientCache(PatientRepository patientRepository,
+            @Value("${pacientes.cache.maximo:10000}") int maximo,
+            @Value("${pacientes.cache.ttl-segundos:300}") long ttlSegundos) {
+        this.patientRepository = patientRepository;
+        this.maximo = maximo;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.porId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entrada> eldest) {
+                if (size() <= PatientCache.this.maximo) {
+                    return false;
+                }
+                idPorDni.remove(eldest.getValue().paciente().dni(), eldest.getKey());
+                desalojos.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Paciente por id, desde la caché o la base
+     */
+    public Optional<PatientDTO> porId(Long id) {
+        Instantanea paciente = vigente(id);
+        if (paciente != null) {
+            aciertos.increment();
+            return Optional.of(paciente.aDTO());
+        }
+        fallos.increment();
+        long version = version();
+        Optional<Instantanea> leido = patientRepository.findById(id).map(Instantanea::de);
+        leido.ifPresent(p -> guardar(p, version));
+        return leido.map(Instantanea::aDTO);
+    }
+
+    /**
+     * Paciente por DNI, desde la caché o la base
+     */
+    public Optional<PatientDTO> porDni(String dni) {
+        if (dni == null) {
+            return Optional.empty();
+        }
+        Long id;
+        synchronized (this) {
+            id = idPorDni.get(dni);
+        }
+        Instantanea paciente = id != null ? vigente(id) : null;
+        if (paciente != null && dni.equals(paciente.dni())) {
+            aciertos.increment();
+            return Optional.of(paciente.aDTO());
+        }
+        fallos.increment();
+        long version = version();
+        Optional<Instantanea> leido = patientRepository.findByDni(dni).map(Instantanea::de);
+        leido.ifPresent(p -> guardar(p, version));
+        return leido.map(Instantanea::aDTO);
+    }
+
+    /**
+     * Ids de la colección que están vigentes en caché (cuentan como aciertos;
+     * los demás como fallos, que el llamador resuelve contra la base)
+     */
+    public Set<Long> presentes(Collection<Long> ids) {
+        Set<Long> presentes = new HashSet<>();
+        for (Long id : ids) {
+            if (vigente(id) != null) {
+                presentes.add(id);
+                aciertos.increment();
+            } else {
+                fallos.increment();
+            }
+        }
+        return presentes;
+    }
+
+    /**
+     * Guarda los datos recién escritos de un paciente
+     */
+    public void actualizar(Patient patient) {
+        synchronized (this) {
+            quitar(patient.getId());
+            invalidaciones++;
+            guardar(Instantanea.de(patient), invalidaciones);
+        }
+    }
+
+    public synchronized void invalidar(Long id) {
+        quitar(id);
+        invalidaciones++;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPacienteActualizado(PacienteActualizadoEvent event) {
+        invalidar(event.patientId());
+    }
+
+    public PatientCacheStatsDTO estadisticas() {
+        long hits = aciertos.sum();
+        long misses = fallos.sum();
+        int tamanio;
+        synchronized (this) {
+            tamanio = porId.size();
+        }
+        return PatientCacheStatsDTO.builder()
+                .size(tamanio)
+                .maxSize(maximo)
+                .ttlSeconds(TimeUnit.NANOSECONDS.toSeconds(ttlNanos))
+                .hits(hits)
+                .misses(misses)
+                .hitRatio(hits + misses > 0 ? (double) hits / (hits + misses) : 0)
+                .evictions(desalojos.sum())
+                .expirations(expiraciones.sum())
+                .build();
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    /**
+     * Datos en caché del paciente, o null si no está o expiró
+     */
+    private synchronized Instantanea vigente(Long id) {
+        Entrada entrada = porId.get(id);
+        if (entrada == null) {
+            return null;
+        }
+        if (System.nanoTime() - entrada.guardada() > ttlNanos) {
+            quitar(id);
+            expiraciones.increment();
+            return null;
+        }
+        return entrada.paciente();
+    }
+
+    private synchronized long version() {
+        return invalidaciones;
+    }
+
+    private synchronized void guardar(Instantanea paciente, long version) {
+        if (version != invalidaciones) {
+            return;
+        }
+        Entrada anterior = porId.put(paciente.id(), new Entrada(paciente, System.nanoTime()));
+        if (anterior != null && anterior.paciente().dni() != null) {
+            idPorDni.remove(anterior.paciente().dni(), paciente.id());
+        }
+        if (paciente.dni() != null) {
+            idPorDni.put(paciente.dni(), paciente.id());
+        }
+    }
+
+    private void quitar(Long id) {
+        Entrada entrada = porId.remove(id);
+        if (entrada != null && entrada.paciente().dni() != null) {
+            idPorDni.remove(entrada.paciente().dni(), id);
+        }
+    }
+
+    private record Entrada(Instantanea paciente, long guardada) {
+    }
+
+    /**
+     * Copia inmutable de los datos del paciente; cada lectura entrega un DTO
+     * nuevo
+     */
+    private record Instantanea(Long id, String firstName, String lastName, String dni, String email,
+            LocalDate dateOfBirth, String gender, String phone, String address) {
+
+        private static Instantanea de(Patient patient) {
+            return new Instantanea(patient.getId(), patient.getFirstName(), patient.getLastName(),
+                    patient.getDni(), patient.getEmail(), patient.getDateOfBirth(), patient.getGender(),
+                    patient.getPhone(), patient.getAddress());
+        }
+
+        private PatientDTO aDTO() {
+            return PatientDTO.builder()
+                    .id(id)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .dni(dni)
+                    .email(email)
+                    .dateOfBirth(dateOfBirth)
+                    .gender(gender)
+                    .phone(phone)
+                    .address(address)
+                    .build();
+        }
+    }
+}
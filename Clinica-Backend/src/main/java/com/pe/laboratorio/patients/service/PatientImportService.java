@@ -0,0 +1,501 @@
+package com.pe.laboratorio.patients.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.patients.dto.PatientImportEventDTO;
+import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import com.pe.laboratorio.patients.repository.PatientJdbcRepository;
+import com.pe.laboratorio.shared.util.TextNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Importación masiva de pacientes (migración desde el HIS) en CSV o NDJSON.
+ *
+ * El archivo se lee en streaming y se procesa por lotes: cada lote se valida
+ * y normaliza en paralelo, se deduplica por DNI y email con conjuntos en
+ * memoria, se contrasta con los pacientes existentes en una sola consulta y
+ * se guarda con INSERT ... ON CONFLICT (dni) en lotes JDBC, en su propia
+ * transacción. La memoria usada depende del tamaño del lote, no del archivo.
+ * La respuesta es NDJSON: el progreso tras cada lote, las filas rechazadas
+ * y un resumen final.
+ */
+@Service
+@Slf4j
+public class PatientImportService {
+
+    public static final String FORMATO_CSV = "csv";
+    public static final String FORMATO_NDJSON = "ndjson";
+
+    private static final String[] COLUMNAS = {
+            "dni", "firstName", "lastName", "email", "dateOfBirth", "gender", "phone", "address"
+    };
+    private static final int LARGO_MAXIMO = 255;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final PatientJdbcRepository patientJdbcRepository;
+    private final DuplicadosPacientesIndex duplicadosIndex;
+    private final TransactionTemplate transaccion;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int tamanioLote;
+
+    public PatientImportService(PatientJdbcRepository patientJdbcRepository,
+            DuplicadosPacientesIndex duplicadosIndex,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${pacientes.importacion.tamanio-lote:1000}") int tamanioLote) {
+        this.patientJdbcRepository = patientJdbcRepository;
+        this.duplicadosIndex = duplicadosIndex;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Prepara la importación. La cabecera del CSV se valida aquí, en el hilo
+     * de la petición, para responder 400 si falta una columna obligatoria;
+     * las filas se procesan cuando Spring MVC ejecuta el cuerpo.
+     */
+    public StreamingResponseBody importar(InputStream entrada, String formato) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LectorFilas lector = FORMATO_CSV.equals(normalizarFormato(formato))
+                ? new LectorCsv(reader)
+                : new LectorNdjson(reader, objectMapper);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            long inicio = System.currentTimeMillis();
+            Totales totales = new Totales();
+
+            List<FilaImportacion> lote = new ArrayList<>(tamanioLote);
+            FilaImportacion fila;
+            while ((fila = lector.siguiente()) != null) {
+                lote.add(fila);
+                if (lote.size() == tamanioLote) {
+                    procesarLote(lote, totales, writer);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, totales, writer);
+            }
+
+            long duracion = System.currentTimeMillis() - inicio;
+            escribir(writer, totales.evento(PatientImportEventDTO.RESUMEN).duracionMs(duracion).build());
+            writer.flush();
+            log.info("Importación de pacientes: {} leídas, {} insertadas, {} actualizadas, {} rechazadas en {} ms",
+                    totales.leidas, totales.insertadas, totales.actualizadas, totales.rechazadas, duracion);
+        };
+    }
+
+    // ========================================
+    // Lotes
+    // ========================================
+
+    private void procesarLote(List<FilaImportacion> lote, Totales totales, Writer writer) throws IOException {
+        // Validación y normalización en paralelo; toList conserva el orden del archivo
+        List<Validacion> validadas = lote.parallelStream().map(PatientImportService::validar).toList();
+        totales.leidas += lote.size();
+
+        Set<String> dnis = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        List<Validacion> unicas = new ArrayList<>(validadas.size());
+        for (Validacion validacion : validadas) {
+            if (validacion.motivo() != null) {
+                rechazar(writer, totales, validacion.fila(), validacion.motivo());
+                continue;
+            }
+            Patient paciente = validacion.paciente();
+            if (dnis.contains(paciente.getDni())) {
+                rechazar(writer, totales, validacion.fila(), "DNI repetido en el archivo");
+            } else if (paciente.getEmail() != null && emails.contains(paciente.getEmail())) {
+                rechazar(writer, totales, validacion.fila(), "Email repetido en el archivo");
+            } else {
+                dnis.add(paciente.getDni());
+                if (paciente.getEmail() != null) {
+                    emails.add(paciente.getEmail());
+                }
+                unicas.add(validacion);
+            }
+        }
+
+        // Una consulta por lote para distinguir altas de actualizaciones y
+        // detectar emails que ya pertenecen a otro paciente
+        Set<String> dnisExistentes = new HashSet<>();
+        Map<String, String> dniPorEmail = new HashMap<>();
+        if (!unicas.isEmpty()) {
+            for (PatientJdbcRepository.DniEmail existente : patientJdbcRepository.buscarExistentes(dnis, emails)) {
+                if (dnis.contains(existente.dni())) {
+                    dnisExistentes.add(existente.dni());
+                }
+                if (existente.email() != null) {
+                    dniPorEmail.put(existente.email(), existente.dni());
+                }
+            }
+        }
+
+        List<Patient> pacientes = new ArrayList<>(unicas.size());
+        List<Validacion> guardadas = new ArrayList<>(unicas.size());
+        List<String> actualizados = new ArrayList<>();
+        for (Validacion validacion : unicas) {
+            Patient paciente = validacion.paciente();
+            String duenio = paciente.getEmail() != null ? dniPorEmail.get(paciente.getEmail()) : null;
+            if (duenio != null && !duenio.equals(paciente.getDni())) {
+                rechazar(writer, totales, validacion.fila(), "El email ya está registrado para otro paciente");
+                continue;
+            }
+            pacientes.add(paciente);
+            guardadas.add(validacion);
+            if (dnisExistentes.contains(paciente.getDni())) {
+                actualizados.add(paciente.getDni());
+            }
+        }
+
+        if (!pacientes.isEmpty()) {
+            try {
+                transaccion.executeWithoutResult(status -> {
+                    patientJdbcRepository.upsert(pacientes);
+                    // El nombre y DNI del paciente forman parte de sus órdenes
+                    patientJdbcRepository.buscarIdsPorDni(actualizados)
+                            .forEach(id -> eventPublisher.publishEvent(new PacienteActualizadoEvent(id)));
+                });
+                totales.insertadas += pacientes.size() - actualizados.size();
+                totales.actualizadas += actualizados.size();
+                indexarAltas(pacientes, dnisExistentes);
+            } catch (DataAccessException e) {
+                // Conflicto con un alta concurrente: se rechaza el lote y se continúa
+                String motivo = "No se pudo guardar el lote: "
+                        + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (Validacion validacion : guardadas) {
+                    rechazar(writer, totales, validacion.fila(), motivo);
+                }
+            }
+        }
+
+        escribir(writer, totales.evento(PatientImportEventDTO.PROGRESO).build());
+        writer.flush();
+    }
+
+    /**
+     * Agrega los pacientes nuevos al índice de duplicados; los actualizados
+     * llegan con su evento
+     */
+    private void indexarAltas(List<Patient> pacientes, Set<String> dnisExistentes) {
+        List<String> altas = pacientes.stream()
+                .map(Patient::getDni)
+                .filter(dni -> !dnisExistentes.contains(dni))
+                .toList();
+        if (altas.isEmpty()) {
+            return;
+        }
+        try {
+            duplicadosIndex.indexar(patientJdbcRepository.buscarIdsPorDni(altas));
+        } catch (RuntimeException e) {
+            // Las altas ya se confirmaron; la reconstrucción periódica las incorpora
+            log.warn("No se pudieron indexar los pacientes importados para duplicados: {}", e.getMessage());
+        }
+    }
+
+    private void rechazar(Writer writer, Totales totales, FilaImportacion fila, String motivo) throws IOException {
+        totales.rechazadas++;
+        escribir(writer, PatientImportEventDTO.builder()
+                .tipo(PatientImportEventDTO.RECHAZO)
+                .linea(fila.linea())
+                .dni(fila.dni())
+                .motivo(motivo)
+                .build());
+    }
+
+    private void escribir(Writer writer, PatientImportEventDTO evento) throws IOException {
+        writer.write(objectMapper.writeValueAsString(evento));
+        writer.write('\n');
+    }
+
+    // ========================================
+    // Validación y normalización
+    // ========================================
+
+    private static Validacion validar(FilaImportacion fila) {
+        if (fila.error() != null) {
+            return Validacion.rechazo(fila, fila.error());
+        }
+        String dni = limpiar(fila.dni());
+        String firstName = limpiar(fila.firstName());
+        String lastName = limpiar(fila.lastName());
+        String email = limpiar(fila.email());
+        String gender = limpiar(fila.gender());
+        String phone = limpiar(fila.phone());
+        String address = limpiar(fila.address());
+
+        if (dni == null) {
+            return Validacion.rechazo(fila, "El DNI es obligatorio");
+        }
+        if (firstName == null || lastName == null) {
+            return Validacion.rechazo(fila, "Los nombres y apellidos son obligatorios");
+        }
+        for (String valor : new String[] { dni, firstName, lastName, email, gender, phone, address }) {
+            if (valor != null && valor.length() > LARGO_MAXIMO) {
+                return Validacion.rechazo(fila, "Un campo supera los " + LARGO_MAXIMO + " caracteres");
+            }
+        }
+        if (email != null) {
+            email = email.toLowerCase(Locale.ROOT);
+            if (!EMAIL.matcher(email).matches()) {
+                return Validacion.rechazo(fila, "Email inválido");
+            }
+        }
+
+        LocalDate dateOfBirth = null;
+        String fecha = limpiar(fila.dateOfBirth());
+        if (fecha != null) {
+            try {
+                dateOfBirth = LocalDate.parse(fecha);
+            } catch (DateTimeParseException e) {
+                return Validacion.rechazo(fila, "Fecha de nacimiento inválida (se espera AAAA-MM-DD)");
+            }
+            if (dateOfBirth.isAfter(LocalDate.now())) {
+                return Validacion.rechazo(fila, "La fecha de nacimiento es futura");
+            }
+        }
+
+        return new Validacion(fila, Patient.builder()
+                .dni(dni)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .dateOfBirth(dateOfBirth)
+                .gender(gender)
+                .phone(phone)
+                .address(address)
+                .nombreNormalizado(TextNormalizer.normalizar(lastName + " " + firstName))
+                .build(), null);
+    }
+
+    /**
+     * Recorta y colapsa espacios; las cadenas vacías se tratan como nulas
+     */
+    private static String limpiar(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        String limpio = ESPACIOS.matcher(valor.trim()).replaceAll(" ");
+        return limpio.isEmpty() ? null : limpio;
+    }
+
+    private static String normalizarFormato(String formato) {
+        String valor = formato == null ? FORMATO_CSV : formato.trim().toLowerCase(Locale.ROOT);
+        if (!FORMATO_CSV.equals(valor) && !FORMATO_NDJSON.equals(valor)) {
+            throw new ValidationException("Formato de importación no soportado: " + formato);
+        }
+        return valor;
+    }
+
+    // ========================================
+    // Lectura
+    // ========================================
+
+    /**
+     * Fila del archivo sin validar. error indica una fila ilegible.
+     */
+    private record FilaImportacion(long linea, String dni, String firstName, String lastName, String email,
+            String dateOfBirth, String gender, String phone, String address, String error) {
+
+        static FilaImportacion ilegible(long linea, String error) {
+            return new FilaImportacion(linea, null, null, null, null, null, null, null, null, error);
+        }
+    }
+
+    private record Validacion(FilaImportacion fila, Patient paciente, String motivo) {
+
+        static Validacion rechazo(FilaImportacion fila, String motivo) {
+            return new Validacion(fila, null, motivo);
+        }
+    }
+
+    private interface LectorFilas {
+
+        /**
+         * Siguiente fila no vacía, o null al terminar el archivo
+         */
+        FilaImportacion siguiente() throws IOException;
+    }
+
+    /**
+     * CSV con cabecera (nombres de COLUMNAS, en cualquier orden). Admite
+     * campos entre comillas dobles con "" como escape, sin saltos de línea.
+     */
+    private static final class LectorCsv implements LectorFilas {
+
+        private final BufferedReader reader;
+        private final int[] posiciones = new int[COLUMNAS.length];
+        private long linea = 1;
+
+        LectorCsv(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String cabecera = reader.readLine();
+            if (cabecera == null) {
+                throw new ValidationException("El archivo está vacío");
+            }
+            // Excel agrega BOM al guardar como CSV UTF-8
+            if (cabecera.startsWith("\uFEFF")) {
+                cabecera = cabecera.substring(1);
+            }
+            List<String> nombres = dividir(cabecera);
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                posiciones[i] = -1;
+                for (int j = 0; j < nombres.size(); j++) {
+                    if (COLUMNAS[i].equalsIgnoreCase(nombres.get(j).trim())) {
+                        posiciones[i] = j;
+                    }
+                }
+            }
+            if (posiciones[0] < 0 || posiciones[1] < 0 || posiciones[2] < 0) {
+                throw new ValidationException("La cabecera debe incluir las columnas dni, firstName y lastName");
+            }
+        }
+
+        @Override
+        public FilaImportacion siguiente() throws IOException {
+            String texto;
+            do {
+                texto = reader.readLine();
+                linea++;
+                if (texto == null) {
+                    return null;
+                }
+            } while (texto.isBlank());
+
+            List<String> campos = dividir(texto);
+            String[] valores = new String[COLUMNAS.length];
+            for (int i = 0; i < COLUMNAS.length; i++) {
+                valores[i] = posiciones[i] >= 0 && posiciones[i] < campos.size() ? campos.get(posiciones[i]) : null;
+            }
+            return new FilaImportacion(linea, valores[0], valores[1], valores[2], valores[3], valores[4],
+                    valores[5], valores[6], valores[7], null);
+        }
+
+        private static List<String> dividir(String texto) {
+            List<String> campos = new ArrayList<>();
+            StringBuilder actual = new StringBuilder();
+            boolean entreComillas = false;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (entreComillas) {
+                    if (c == '"' && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        entreComillas = false;
+                    } else {
+                        actual.append(c);
+                    }
+                } else if (c == '"') {
+                    entreComillas = true;
+                } else if (c == ',') {
+                    campos.add(actual.toString());
+                    actual.setLength(0);
+                } else {
+                    actual.append(c);
+                }
+            }
+            campos.add(actual.toString());
+            return campos;
+        }
+    }
+
+    /**
+     * Un objeto JSON por línea con las propiedades de COLUMNAS
+     */
+    private static final class LectorNdjson implements LectorFilas {
+
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long linea;
+
+        LectorNdjson(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public FilaImportacion siguiente() throws IOException {
+            String texto;
+            do {
+                texto = reader.readLine();
+                linea++;
+                if (texto == null) {
+                    return null;
+                }
+            } while (texto.isBlank());
+
+            JsonNode nodo;
+            try {
+                nodo = objectMapper.readTree(texto);
+            } catch (IOException e) {
+                return FilaImportacion.ilegible(linea, "JSON inválido");
+            }
+            if (!nodo.isObject()) {
+                return FilaImportacion.ilegible(linea, "Se esperaba un objeto JSON");
+            }
+            return new FilaImportacion(linea, texto(nodo, "dni"), texto(nodo, "firstName"),
+                    texto(nodo, "lastName"), texto(nodo, "email"), texto(nodo, "dateOfBirth"),
+                    texto(nodo, "gender"), texto(nodo, "phone"), texto(nodo, "address"), null);
+        }
+
+        private static String texto(JsonNode nodo, String campo) {
+            JsonNode valor = nodo.get(campo);
+            return valor == null || valor.isNull() ? null : valor.asText();
+        }
+    }
+
+    /**
+     * Totales acumulados de la importación
+     */
+    private static final class Totales {
+        private long leidas;
+        private long insertadas;
+        private long actualizadas;
+        private long rechazadas;
+
+        PatientImportEventDTO.PatientImportEventDTOBuilder evento(String tipo) {
+            return PatientImportEventDTO.builder()
+                    .tipo(tipo)
+                    .leidas(leidas)
+                    .insertadas(insertadas)
+                    .actualizadas(actualizadas)
+                    .rechazadas(rechazadas);
+        }
+    }
+}
@@ -1,22 +1,56 @@
 package com.pe.laboratorio.patients.service;
 
+import com.pe.laboratorio.patients.dto.PatientCacheStatsDTO;
 import com.pe.laboratorio.patients.dto.PatientDTO;
+import com.pe.laboratorio.patients.dto.PatientDuplicateDTO;
+import com.pe.laboratorio.patients.dto.PatientDuplicatePairDTO;
+import com.pe.laboratorio.patients.dto.PatientFilterDTO;
+import com.pe.laboratorio.patients.dto.PatientPageDTO;
+import com.pe.laboratorio.patients.dto.PatientSummaryDTO;
 import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.patients.event.PacienteActualizadoEvent;
+import com.pe.laboratorio.patients.repository.PatientJdbcRepository;
 import com.pe.laboratorio.patients.repository.PatientRepository;
+import com.pe.laboratorio.patients.util.PatientCursor;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
 import com.pe.laboratorio.exception.ValidationException;
+import com.pe.laboratorio.shared.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PatientService {
 
+    private static final int LOTE_NORMALIZACION = 1000;
+    private static final int LARGO_MINIMO_CONTIENE = 3;
+
     private final PatientRepository patientRepository;
+    private final PatientJdbcRepository patientJdbcRepository;
+    private final PatientCache patientCache;
+    private final DuplicadosPacientesIndex duplicadosIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${pacientes.pagina.tamanio-defecto:50}")
+    private int tamanioPaginaDefecto;
+
+    @Value("${pacientes.pagina.tamanio-maximo:200}")
+    private int tamanioPaginaMaximo;
+
+    @Value("${pacientes.duplicados.maximo-candidatos:10}")
+    private int maximoCandidatosDuplicados;
+
+    @Value("${pacientes.duplicados.maximo-pares:500}")
+    private int maximoParesDuplicados;
 
     private PatientDTO mapToDTO(Patient patient) {
         return PatientDTO.builder()
@@ -49,21 +83,63 @@ public class PatientService {
         if (patientRepository.findByDni(dto.getDni()).isPresent()) {
             throw new ValidationException("Ya existe un paciente con el DNI: " + dto.getDni());
         }
+        List<PatientDuplicateDTO> duplicados = checkDuplicates(dto);
         Patient newPatient = mapToEntity(dto);
         Patient savedPatient = patientRepository.save(newPatient);
-        return mapToDTO(savedPatient);
+        patientCache.actualizar(savedPatient);
+        duplicadosIndex.agregar(savedPatient.getId(), savedPatient.getDni(), savedPatient.getFirstName(),
+                savedPatient.getLastName(), savedPatient.getDateOfBirth());
+
+        PatientDTO response = mapToDTO(savedPatient);
+        if (!duplicados.isEmpty()) {
+            log.warn("Paciente {} registrado con {} posibles duplicados (mayor similitud {})",
+                    savedPatient.getId(), duplicados.size(), duplicados.get(0).getScore());
+            response.setPossibleDuplicates(duplicados);
+        }
+        return response;
+    }
+
+    /**
+     * Pacientes registrados que podrían ser la misma persona que los datos
+     * indicados (DNI faltante o mal digitado), sin registrar nada
+     */
+    public List<PatientDuplicateDTO> checkDuplicates(PatientDTO dto) {
+        return duplicadosIndex.buscarCandidatos(dto.getDni(), dto.getFirstName(), dto.getLastName(),
+                dto.getDateOfBirth(), dto.getId(), maximoCandidatosDuplicados);
     }
 
-    public List<PatientDTO> getAllPatients() {
-        return patientRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Pares de pacientes registrados que probablemente son la misma persona,
+     * del más al menos parecido
+     */
+    public List<PatientDuplicatePairDTO> findDuplicates(Integer limit) {
+        int limite = limit == null || limit <= 0 ? maximoParesDuplicados : Math.min(limit, maximoParesDuplicados);
+        return duplicadosIndex.buscarTodos(limite);
+    }
+
+    /**
+     * Búsqueda paginada por keyset sobre (nombre normalizado, id)
+     */
+    public PatientPageDTO<PatientDTO> searchPatients(PatientFilterDTO filter) {
+        return buscar(filter, false, this::mapToDTO);
+    }
+
+    /**
+     * Misma búsqueda que {@link #searchPatients} con la proyección reducida
+     * para selectores
+     */
+    public PatientPageDTO<PatientSummaryDTO> searchPatientSummaries(PatientFilterDTO filter) {
+        return buscar(filter, true, patient -> PatientSummaryDTO.builder()
+                .id(patient.getId())
+                .dni(patient.getDni())
+                .fullName(patient.getLastName() + " " + patient.getFirstName())
+                .dateOfBirth(patient.getDateOfBirth())
+                .build());
     }
 
     public PatientDTO getPatientById(Long id) {
-        Patient patient = patientRepository.findById(id)
+        return patientCache.porId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente no encontrado con ID: " + id));
-        return mapToDTO(patient);
     }
 
     public PatientDTO updatePatient(Long id, PatientDTO dto) {
@@ -84,13 +160,83 @@ public class PatientService {
         existingPatient.setAddress(dto.getAddress());
 
         Patient updatedPatient = patientRepository.save(existingPatient);
+        // El evento invalida la caché; el siguiente porId lee la versión guardada
+        eventPublisher.publishEvent(new PacienteActualizadoEvent(updatedPatient.getId()));
         return mapToDTO(updatedPatient);
     }
 
+    /**
+     * Completa el nombre normalizado de los pacientes anteriores a la columna
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void completarNombresNormalizados() {
+        int total = 0;
+        int actualizados;
+        do {
+            actualizados = patientJdbcRepository.completarNombresNormalizados(LOTE_NORMALIZACION);
+            total += actualizados;
+        } while (actualizados == LOTE_NORMALIZACION);
+        if (total > 0) {
+            log.info("Nombre normalizado calculado para {} pacientes", total);
+        }
+    }
+
+    private <T> PatientPageDTO<T> buscar(PatientFilterDTO filter, boolean resumen, Function<Patient, T> mapper) {
+        int size = resolverTamanioPagina(filter.getSize());
+        String nombre = TextNormalizer.normalizar(filter.getName());
+        boolean contiene = Boolean.TRUE.equals(filter.getNameContains());
+        if (contiene && !nombre.isEmpty() && nombre.length() < LARGO_MINIMO_CONTIENE) {
+            throw new ValidationException(
+                    "La búsqueda por contenido requiere al menos " + LARGO_MINIMO_CONTIENE + " caracteres");
+        }
+        String dni = filter.getDni() != null && !filter.getDni().isBlank() ? filter.getDni().trim() : null;
+
+        PatientJdbcRepository.Busqueda busqueda = new PatientJdbcRepository.Busqueda(
+                dni,
+                nombre.isEmpty() ? null : nombre,
+                contiene,
+                filter.getDateOfBirthFrom(),
+                filter.getDateOfBirthTo(),
+                PatientCursor.decode(filter.getCursor()));
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        List<Patient> patients = patientJdbcRepository.buscar(busqueda, size + 1, resumen);
+        boolean hasNext = patients.size() > size;
+        if (hasNext) {
+            patients = patients.subList(0, size);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Patient ultimo = patients.get(patients.size() - 1);
+            nextCursor = new PatientCursor(ultimo.getNombreNormalizado(), ultimo.getId()).encode();
+        }
+
+        return PatientPageDTO.<T>builder()
+                .content(patients.stream().map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
+    }
+
+    private int resolverTamanioPagina(Integer solicitado) {
+        if (solicitado == null || solicitado <= 0) {
+            return tamanioPaginaDefecto;
+        }
+        return Math.min(solicitado, tamanioPaginaMaximo);
+    }
+
     public void deletePatient(Long id) {
         if (!patientRepository.existsById(id)) {
             throw new ResourceNotFoundException("Paciente no encontrado con ID: " + id);
         }
         patientRepository.deleteById(id);
+        patientCache.invalidar(id);
+        duplicadosIndex.quitar(id);
+    }
+
+    public PatientCacheStatsDTO getCacheStats() {
+        return patientCache.estadisticas();
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.pe.laboratorio.patients.util;
+
+/**
+ * Código fonético de una palabra para la pronunciación del castellano, al
+ * estilo Soundex: agrupa las letras que suenan igual (b/v, c/k/q, c/s/z ante
+ * e-i, g/j ante e-i, ll/y), ignora la h y las vocales salvo la inicial y
+ * colapsa los sonidos repetidos. "Vásquez", "Basques" y "Vazquez" → "BSKS".
+ * Espera una palabra normalizada con {@link com.pe.laboratorio.shared.util.TextNormalizer}.
+ */
+public final class CodigoFonetico {
+
+    private static final int LARGO_MAXIMO = 6;
+
+    private CodigoFonetico() {
+    }
+
+    public static String codificar(String palabra) {
+        if (palabra == null || palabra.isEmpty()) {
+            return "";
+        }
+        StringBuilder codigo = new StringBuilder(LARGO_MAXIMO);
+        char anterior = 0;
+        int largo = palabra.length();
+        for (int i = 0; i < largo && codigo.length() < LARGO_MAXIMO; i++) {
+            char c = palabra.charAt(i);
+            char siguiente = i + 1 < largo ? palabra.charAt(i + 1) : 0;
+            char sonido;
+            switch (c) {
+                case 'a', 'e', 'i', 'o', 'u' -> {
+                    if (codigo.isEmpty()) {
+                        codigo.append('A');
+                    }
+                    anterior = 0;
+                    continue;
+                }
+                case 'h' -> {
+                    continue;
+                }
+                case 'y' -> {
+                    if (!esVocal(siguiente)) {
+                        // y final o ante consonante suena como i
+                        if (codigo.isEmpty()) {
+                            codigo.append('A');
+                        }
+                        anterior = 0;
+                        continue;
+                    }
+                    sonido = 'Y';
+                }
+                case 'l' -> {
+                    if (siguiente == 'l') {
+                        i++;
+                        sonido = 'Y';
+                    } else {
+                        sonido = 'L';
+                    }
+                }
+                case 'c' -> {
+                    if (siguiente == 'h') {
+                        i++;
+                        sonido = 'X';
+                    } else {
+                        sonido = siguiente == 'e' || siguiente == 'i' ? 'S' : 'K';
+                    }
+                }
+                case 'q' -> {
+                    if (siguiente == 'u') {
+                        i++;
+                    }
+                    sonido = 'K';
+                }
+                case 'g' -> {
+                    if (siguiente == 'e' || siguiente == 'i') {
+                        sonido = 'J';
+                    } else {
+                        // gue/gui: la u no suena
+                        if (siguiente == 'u' && i + 2 < largo
+                                && (palabra.charAt(i + 2) == 'e' || palabra.charAt(i + 2) == 'i')) {
+                            i++;
+                        }
+                        sonido = 'G';
+                    }
+                }
+                case 'k' -> sonido = 'K';
+                case 'j' -> sonido = 'J';
+                case 's', 'z', 'x' -> sonido = 'S';
+                case 'b', 'v', 'w' -> sonido = 'B';
+                case 'd', 'f', 'm', 'n', 'p', 'r', 't' -> sonido = Character.toUpperCase(c);
+                default -> {
+                    continue;
+                }
+            }
+            if (sonido != anterior) {
+                codigo.append(sonido);
+                anterior = sonido;
+            }
+        }
+        return codigo.toString();
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
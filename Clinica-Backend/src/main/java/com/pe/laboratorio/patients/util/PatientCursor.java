@@ -0,0 +1,45 @@
+package com.pe.laboratorio.patients.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.pe.laboratorio.exception.ValidationException;
+
+/**
+ * Token de continuación para la búsqueda paginada de pacientes. Representa la
+ * posición (nombre_normalizado, id) del último paciente entregado; el cliente
+ * lo devuelve tal cual para pedir la siguiente página.
+ */
+public record PatientCursor(String nombreNormalizado, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    /**
+     * Codifica la posición como Base64 URL-safe sin relleno
+     */
+    public String encode() {
+        String raw = nombreNormalizado + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente. Devuelve null si no se envió
+     * token (primera página).
+     */
+    public static PatientCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARADOR);
+            if (sep < 0) {
+                throw new ValidationException("Cursor de paginación inválido");
+            }
+            return new PatientCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -7,7 +7,10 @@ import org.springframework.stereotype.Service;
 
 import com.pe.laboratorio.reports.audit.entity.AuditLog;
 import com.pe.laboratorio.reports.audit.repository.AuditRepository;
+import com.pe.laboratorio.security.util.HttpUtils;
+import com.pe.laboratorio.security.util.UsuarioActual;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -15,6 +18,23 @@ import lombok.RequiredArgsConstructor;
 public class AuditService {
 
     private final AuditRepository auditRepository;
+    private final HttpServletRequest httpRequest;
+
+    /**
+     * Registra una acción de la petición en curso. El usuario se toma del
+     * principal autenticado (sin consultar la base de datos) y la IP, el
+     * agente, la URL y el método, de la petición HTTP.
+     */
+    public void logAction(String module, String action, String details, Long userId, String status) {
+        logAction(module, action, details,
+                UsuarioActual.actual().map(UsuarioActual::login).orElse("System"),
+                userId,
+                HttpUtils.getClientIpAddress(httpRequest),
+                status,
+                HttpUtils.getUserAgent(httpRequest),
+                httpRequest.getRequestURI(),
+                httpRequest.getMethod());
+    }
 
     public void logAction(String module, String action, String details,
             String username, Long userId, String ipAddress,
@@ -50,6 +50,10 @@ public class HttpUtils {
      * Obtiene el username del usuario autenticado actual
      */
     public static String getCurrentUsername() {
+        UsuarioActual usuario = UsuarioActual.actual().orElse(null);
+        if (usuario != null) {
+            return usuario.login();
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated() &&
                 !"anonymousUser".equals(authentication.getPrincipal())) {
@@ -0,0 +1,74 @@
+package com.pe.laboratorio.security.util;
+
+import java.io.Serializable;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.pe.laboratorio.users.entity.DatosPersonales;
+
+/**
+ * Usuario autenticado de la petición: id, login y nombres de rol.
+ * JwtAuthenticationFilter lo guarda como principal al validar el token, así
+ * los servicios lo consultan sin volver a leer DatosPersonales (70 columnas
+ * más roles y permisos EAGER).
+ */
+public record UsuarioActual(Long id, String login, Set<String> roles)
+        implements AuthenticatedPrincipal, Serializable {
+
+    public UsuarioActual {
+        roles = Set.copyOf(roles);
+    }
+
+    public static UsuarioActual de(DatosPersonales usuario) {
+        return new UsuarioActual(
+                usuario.getId(),
+                usuario.getLogin(),
+                usuario.getRoles().stream()
+                        .map(role -> role.getName().toUpperCase(Locale.ROOT))
+                        .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Usuario de la petición en curso
+     *
+     * @throws SecurityException si no hay un usuario autenticado
+     */
+    public static UsuarioActual obtener() {
+        return actual().orElseThrow(() -> new SecurityException("Usuario no autenticado"));
+    }
+
+    /**
+     * Usuario de la petición en curso, vacío si no hay uno autenticado
+     * (tareas programadas, endpoints públicos)
+     */
+    public static Optional<UsuarioActual> actual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return Optional.empty();
+        }
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UsuarioActual usuario) {
+            return Optional.of(usuario);
+        }
+        // Autenticaciones creadas fuera del filtro JWT (login con AuthenticationManager)
+        if (principal instanceof DatosPersonales usuario) {
+            return Optional.of(de(usuario));
+        }
+        return Optional.empty();
+    }
+
+    public boolean hasRole(String roleName) {
+        return roles.contains(roleName.toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public String getName() {
+        return login;
+    }
+}
@@ -0,0 +1,90 @@
+package com.pe.laboratorio.shared.util;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Índice en memoria que se mantiene con cambios incrementales y se
+ * reconstruye completo cada cierto tiempo.
+ *
+ * Los cambios se aplican de a uno bajo un bloqueo de escritura; las lecturas
+ * toman el índice vigente sin bloquear. Mientras se construye un índice
+ * nuevo, los cambios siguen llegando al vigente y sus claves se anotan: la
+ * lectura completa pudo ver esas filas antes de su último cambio, así que
+ * quien reconstruye debe volver a aplicarlas sobre el índice nuevo.
+ *
+ * Anotar las claves y publicar el índice nuevo ocurren bajo el mismo
+ * bloqueo, de modo que cada cambio queda anotado o se aplica sobre el
+ * índice nuevo, nunca se pierde entre ambos.
+ */
+public final class IndiceReconstruible<I> {
+
+    private final Object escritura = new Object();
+
+    private volatile I indice;
+
+    /**
+     * Claves modificadas durante la reconstrucción en curso. Null fuera de
+     * una reconstrucción.
+     */
+    private Set<Long> tocadasDuranteRecarga;
+
+    public IndiceReconstruible(I inicial) {
+        this.indice = inicial;
+    }
+
+    /**
+     * Índice vigente, para leer sin bloquear
+     */
+    public I actual() {
+        return indice;
+    }
+
+    /**
+     * Aplica un cambio sobre el índice vigente bajo el bloqueo de escritura
+     *
+     * @param claves filas que el cambio afecta, para reaplicarlas si hay una
+     *               reconstrucción en curso
+     */
+    public void modificar(Collection<Long> claves, Consumer<I> cambio) {
+        synchronized (escritura) {
+            cambio.accept(indice);
+            if (tocadasDuranteRecarga != null) {
+                tocadasDuranteRecarga.addAll(claves);
+            }
+        }
+    }
+
+    /**
+     * Construye un índice nuevo y lo publica. Si la construcción falla, el
+     * índice vigente se conserva.
+     *
+     * @return claves modificadas mientras se construía, que deben volver a
+     *         aplicarse sobre el índice nuevo
+     */
+    public synchronized Set<Long> reconstruir(Supplier<I> construir) {
+        synchronized (escritura) {
+            tocadasDuranteRecarga = new HashSet<>();
+        }
+
+        I nuevo;
+        try {
+            nuevo = construir.get();
+        } catch (RuntimeException e) {
+            synchronized (escritura) {
+                tocadasDuranteRecarga = null;
+            }
+            throw e;
+        }
+
+        synchronized (escritura) {
+            Set<Long> tocadas = tocadasDuranteRecarga;
+            tocadasDuranteRecarga = null;
+            indice = nuevo;
+            return tocadas;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pe.laboratorio.shared.util;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada y sin repetidos de ids para los índices en memoria, que se
+ * lee sin bloquear a través de vistas.
+ *
+ * Nunca se modifica una posición ya publicada: un id mayor que el último se
+ * escribe en la capacidad libre, más allá del tamaño de cualquier vista
+ * previa, y uno intermedio se inserta en una copia del arreglo. Cargar los
+ * ids en orden ascendente evita esas copias.
+ */
+public final class ListaIdsOrdenada {
+
+    private long[] ids = new long[4];
+    private int tamanio;
+
+    /**
+     * Estado de la lista en un instante: los primeros {@code tamanio}
+     * elementos de {@code ids}, en orden ascendente
+     */
+    public record Vista(long[] ids, int tamanio) {
+    }
+
+    public synchronized Vista vista() {
+        return new Vista(ids, tamanio);
+    }
+
+    public synchronized void agregar(long id) {
+        if (tamanio == 0 || ids[tamanio - 1] < id) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+            }
+            ids[tamanio++] = id;
+            return;
+        }
+        int posicion = Arrays.binarySearch(ids, 0, tamanio, id);
+        if (posicion >= 0) {
+            return;
+        }
+        int insercion = -posicion - 1;
+        long[] nuevo = new long[Math.max(ids.length, tamanio + 1)];
+        System.arraycopy(ids, 0, nuevo, 0, insercion);
+        nuevo[insercion] = id;
+        System.arraycopy(ids, insercion, nuevo, insercion + 1, tamanio - insercion);
+        ids = nuevo;
+        tamanio++;
+    }
+}
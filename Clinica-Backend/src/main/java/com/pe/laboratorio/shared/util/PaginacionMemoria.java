@@ -0,0 +1,79 @@
+package com.pe.laboratorio.shared.util;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.pe.laboratorio.exception.ValidationException;
+
+/**
+ * Paginación y ordenamiento de listas ya cargadas en memoria, con la misma
+ * forma de {@link Page} que devuelven los repositorios. Los textos se comparan
+ * con las reglas del castellano ("ÁCIDO" antes que "BILIRRUBINA") y los nulos
+ * van al final, como en PostgreSQL con orden ascendente.
+ */
+public final class PaginacionMemoria {
+
+    /**
+     * Orden alfabético en castellano. Collator sincroniza sus comparaciones,
+     * por lo que la instancia se puede compartir.
+     */
+    public static final Comparator<String> TEXTO = Collator.getInstance(Locale.forLanguageTag("es"))::compare;
+
+    private PaginacionMemoria() {
+    }
+
+    /**
+     * Página de la lista según el Pageable. Si trae orden, se aplica sobre una
+     * copia usando los campos permitidos; si no, se conserva el orden de la lista.
+     *
+     * @param campos propiedad de ordenamiento → valor comparable del elemento
+     */
+    public static <T> Page<T> paginar(List<T> elementos, Pageable pageable,
+            Map<String, Function<T, Comparable<?>>> campos) {
+        List<T> ordenados = elementos;
+        if (pageable.getSort().isSorted()) {
+            ordenados = new ArrayList<>(elementos);
+            ordenados.sort(comparador(pageable.getSort(), campos));
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(ordenados);
+        }
+        int desde = (int) Math.min(pageable.getOffset(), ordenados.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ordenados.size());
+        return new PageImpl<>(ordenados.subList(desde, hasta), pageable, ordenados.size());
+    }
+
+    private static <T> Comparator<T> comparador(Sort sort, Map<String, Function<T, Comparable<?>>> campos) {
+        Comparator<T> comparador = null;
+        for (Sort.Order orden : sort) {
+            Function<T, Comparable<?>> campo = campos.get(orden.getProperty());
+            if (campo == null) {
+                throw new ValidationException("No se puede ordenar por: " + orden.getProperty());
+            }
+            Comparator<T> porCampo = (a, b) -> comparar(campo.apply(a), campo.apply(b), orden.isAscending());
+            comparador = comparador == null ? porCampo : comparador.thenComparing(porCampo);
+        }
+        return comparador;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int comparar(Comparable a, Comparable b, boolean ascendente) {
+        if (a == null || b == null) {
+            // Nulos al final en orden ascendente y al inicio en descendente
+            int nulos = a == null ? (b == null ? 0 : 1) : -1;
+            return ascendente ? nulos : -nulos;
+        }
+        int resultado = a instanceof String texto ? TEXTO.compare(texto, (String) b) : a.compareTo(b);
+        return ascendente ? resultado : -resultado;
+    }
+}
@@ -0,0 +1,28 @@
+package com.pe.laboratorio.shared.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Respuestas GET condicionadas por ETag
+ */
+public final class RespuestaCondicional {
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * 304 sin cuerpo si el If-None-Match del cliente coincide con el ETag;
+     * si no, 200 con el cuerpo. El cuerpo solo se calcula en el segundo caso,
+     * y el ETag debe obtenerse antes que los datos que describe.
+     */
+    public static <T> ResponseEntity<T> conEtag(WebRequest request, String etag, Supplier<T> cuerpo) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(cuerpo.get());
+    }
+}
@@ -0,0 +1,27 @@
+package com.pe.laboratorio.shared.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas: minúsculas, sin tildes ni diéresis
+ * (la ñ queda como n) y solo letras y dígitos, con las palabras separadas por
+ * un único espacio. "Pérez-Núñez, José" → "perez nunez jose".
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9]+");
+
+    private TextNormalizer() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(sinMarcas.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
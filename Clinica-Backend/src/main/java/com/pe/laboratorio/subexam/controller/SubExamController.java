@@ -16,8 +16,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.shared.dto.ApiResponse;
+import com.pe.laboratorio.shared.util.RespuestaCondicional;
 import com.pe.laboratorio.subexam.dto.SubExamRequest;
 import com.pe.laboratorio.subexam.dto.SubExamResponse;
 import com.pe.laboratorio.subexam.service.SubExamService;
@@ -31,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SubExamController {
         private final SubExamService subExamService;
+        private final CatalogoExamenes catalogoExamenes;
 
         @PostMapping
         @PreAuthorize("hasAuthority('EXAM_CREATE')")
@@ -64,27 +68,31 @@ public class SubExamController {
 
         @GetMapping("/{id}")
         @PreAuthorize("hasAuthority('EXAM_READ')")
-        public ResponseEntity<ApiResponse<SubExamResponse>> getById(@PathVariable Long id) {
-                SubExamResponse response = subExamService.getById(id);
-
-                return ResponseEntity.ok(ApiResponse.<SubExamResponse>builder()
-                                .success(true)
-                                .data(response)
-                                .build());
+        public ResponseEntity<ApiResponse<SubExamResponse>> getById(@PathVariable Long id, WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        SubExamResponse response = subExamService.getById(id);
+
+                        return ApiResponse.<SubExamResponse>builder()
+                                        .success(true)
+                                        .data(response)
+                                        .build();
+                });
         }
 
         @GetMapping("/exam/{examenId}")
         @PreAuthorize("hasAuthority('EXAM_READ')")
         public ResponseEntity<ApiResponse<List<SubExamResponse>>> getByExamenId(
-                        @PathVariable Long examenId) {
-
-                List<SubExamResponse> subExams = subExamService.getByExamenId(examenId);
-
-                return ResponseEntity.ok(ApiResponse.<List<SubExamResponse>>builder()
-                                .success(true)
-                                .message("Subexámenes obtenidos exitosamente")
-                                .data(subExams)
-                                .build());
+                        @PathVariable Long examenId,
+                        WebRequest request) {
+                return RespuestaCondicional.conEtag(request, catalogoExamenes.etag(), () -> {
+                        List<SubExamResponse> subExams = subExamService.getByExamenId(examenId);
+
+                        return ApiResponse.<List<SubExamResponse>>builder()
+                                        .success(true)
+                                        .message("Subexámenes obtenidos exitosamente")
+                                        .data(subExams)
+                                        .build();
+                });
         }
 
         @DeleteMapping("/{id}")
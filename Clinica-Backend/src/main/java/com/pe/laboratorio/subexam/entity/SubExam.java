@@ -15,12 +15,19 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "lab_sub_examenes")
+@NamedEntityGraph(name = SubExam.GRAFO_EXAMEN, attributeNodes = @NamedAttributeNode("examen"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class SubExam {
 
+    /**
+     * Carga el examen padre en la misma consulta; lo usan los listados que
+     * arman SubExamResponse
+     */
+    public static final String GRAFO_EXAMEN = "SubExam.examen";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
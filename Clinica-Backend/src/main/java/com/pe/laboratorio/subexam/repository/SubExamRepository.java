@@ -3,6 +3,7 @@ package com.pe.laboratorio.subexam.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,9 +20,11 @@ public interface SubExamRepository extends JpaRepository<SubExam, Long> {
 
     boolean existsByCodigoAndIdNot(String codigo, Long id);
 
+    @EntityGraph(SubExam.GRAFO_EXAMEN)
     @Query("SELECT s FROM SubExam s WHERE s.examen.id = :examenId AND s.active = true ORDER BY s.ordenVisualizacion")
     List<SubExam> findByExamenIdOrderByOrden(@Param("examenId") Long examenId);
 
+    @EntityGraph(SubExam.GRAFO_EXAMEN)
     List<SubExam> findByExamenIdAndActiveTrue(Long examenId);
 
     @Query("SELECT COUNT(s) FROM SubExam s WHERE s.examen.id = :examenId AND s.active = true")
@@ -3,11 +3,15 @@ package com.pe.laboratorio.subexam.service.impl;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.exam.event.CatalogoCambiadoEvent;
 import com.pe.laboratorio.exam.repository.ExamRepository;
+import com.pe.laboratorio.exam.service.CatalogoExamenes;
 import com.pe.laboratorio.exception.ResourceNotFoundException;
 import com.pe.laboratorio.exception.ValidationException;
 import com.pe.laboratorio.subexam.dto.SubExamRequest;
@@ -27,6 +31,8 @@ public class SubExamServiceImpl implements SubExamService {
 
     private final SubExamRepository subExamRepository;
     private final ExamRepository examRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogoExamenes catalogoExamenes;
 
     @Override
     public SubExamResponse create(SubExamRequest request) {
@@ -61,6 +67,7 @@ public class SubExamServiceImpl implements SubExamService {
 
         SubExam saved = subExamRepository.save(subExam);
         log.info("Sub-exam created successfully with ID: {}", saved.getId());
+        publicarCambio(List.of(saved.getId()));
 
         return mapToResponse(saved);
     }
@@ -94,31 +101,32 @@ public class SubExamServiceImpl implements SubExamService {
 
         SubExam updated = subExamRepository.save(subExam);
         log.info("Sub-exam updated successfully: {}", updated.getId());
+        publicarCambio(List.of(updated.getId()));
 
         return mapToResponse(updated);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public SubExamResponse getById(Long id) {
         log.info("Getting sub-exam by ID: {}", id);
 
-        SubExam subExam = subExamRepository.findById(id)
+        return catalogoExamenes.actual().subExamen(id)
+                .map(this::mapToResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Subexamen no encontrado con ID: " + id));
-
-        return mapToResponse(subExam);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<SubExamResponse> getByExamenId(Long examenId) {
         log.info("Getting sub-exams by exam ID: {}", examenId);
 
-        if (!examRepository.existsById(examenId)) {
+        CatalogoExamenes.Catalogo catalogo = catalogoExamenes.actual();
+        if (catalogo.examen(examenId).isEmpty()) {
             throw new ResourceNotFoundException("Examen no encontrado con ID: " + examenId);
         }
 
-        return subExamRepository.findByExamenIdOrderByOrden(examenId).stream()
+        return catalogo.subExamenesActivos(examenId).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
@@ -134,6 +142,7 @@ public class SubExamServiceImpl implements SubExamService {
         subExamRepository.save(subExam);
 
         log.info("Sub-exam deleted (soft delete): {}", id);
+        publicarCambio(List.of(id));
     }
 
     @Override
@@ -147,6 +156,7 @@ public class SubExamServiceImpl implements SubExamService {
         subExamRepository.save(subExam);
 
         log.info("Sub-exam status changed: {} - active: {}", id, active);
+        publicarCambio(List.of(id));
     }
 
     @Override
@@ -168,6 +178,33 @@ public class SubExamServiceImpl implements SubExamService {
         }
 
         log.info("Sub-exams reordered successfully for exam: {}", examenId);
+        publicarCambio(subExamIds);
+    }
+
+    private void publicarCambio(List<Long> ids) {
+        eventPublisher.publishEvent(new CatalogoCambiadoEvent(CatalogoCambiadoEvent.Entidad.SUBEXAMEN, List.copyOf(ids)));
+    }
+
+    private SubExamResponse mapToResponse(CatalogoExamenes.SubExamen subExam) {
+        return SubExamResponse.builder()
+                .id(subExam.id())
+                .examenId(subExam.examen().id())
+                .examenNombre(subExam.examen().nombre())
+                .examenCodigo(subExam.examen().codigo())
+                .codigo(subExam.codigo())
+                .nombre(subExam.nombre())
+                .tipoResultado(subExam.tipoResultado())
+                .unidadMedida(subExam.unidadMedida())
+                .valorMinimo(subExam.valorMinimo())
+                .valorMaximo(subExam.valorMaximo())
+                .valorCriticoMin(subExam.valorCriticoMin())
+                .valorCriticoMax(subExam.valorCriticoMax())
+                .ordenVisualizacion(subExam.ordenVisualizacion())
+                .observaciones(subExam.observaciones())
+                .active(subExam.active())
+                .createdAt(subExam.createdAt())
+                .updatedAt(subExam.updatedAt())
+                .build();
     }
 
     private SubExamResponse mapToResponse(SubExam subExam) {
@@ -372,6 +372,15 @@ public class DatosPersonales implements UserDetails {
      * Obtiene el nombre completo del usuario
      */
     public String getFullName() {
+        return construirNombreCompleto(nombre, apepat, apemat, login, idPersonal);
+    }
+
+    /**
+     * Misma regla que {@link #getFullName()} pero a partir de columnas sueltas,
+     * para proyecciones que no cargan la entidad
+     */
+    public static String construirNombreCompleto(String nombre, String apepat, String apemat,
+            String login, Long idPersonal) {
         if (nombre != null && apepat != null && apemat != null) {
             return nombre + " " + apepat + " " + apemat;
         }
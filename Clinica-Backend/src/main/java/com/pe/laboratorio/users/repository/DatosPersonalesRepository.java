@@ -1,5 +1,7 @@
 package com.pe.laboratorio.users.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -98,6 +100,12 @@ public interface DatosPersonalesRepository extends JpaRepository<DatosPersonales
                         "WHERE d.idPersonal = :idPersonal")
         Optional<DatosPersonales> findByIdPersonalWithRoles(@Param("idPersonal") Long idPersonal);
 
+        /**
+         * Ids existentes dentro de la lista dada (sin cargar entidades ni roles)
+         */
+        @Query("SELECT d.id FROM DatosPersonales d WHERE d.id IN :ids")
+        List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
         /**
          * Buscar todos los usuarios activos
          */
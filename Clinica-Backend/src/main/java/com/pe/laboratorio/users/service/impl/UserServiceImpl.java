@@ -20,9 +20,6 @@ import com.pe.laboratorio.users.entity.DatosPersonales;
 import com.pe.laboratorio.users.repository.DatosPersonalesRepository;
 import com.pe.laboratorio.users.service.UserService;
 import com.pe.laboratorio.reports.audit.service.AuditService;
-import com.pe.laboratorio.security.util.HttpUtils;
-
-import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,7 +34,6 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditService auditService;
-    private final HttpServletRequest httpRequest;
 
     @Override
     public UserResponse createUser(CreateUserRequest request) {
@@ -85,13 +81,8 @@ public class UserServiceImpl implements UserService {
                     "USER_CREATE",
                     "Usuario creado: " + savedUser.getLogin() + " (Email: " + savedUser.getEmail() + ") - Roles: "
                             + (request.getRoleIds() != null ? request.getRoleIds().size() : 0),
-                    HttpUtils.getCurrentUsername(),
                     savedUser.getId(),
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users",
-                    "POST");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for create user", e);
         }
@@ -148,13 +139,8 @@ public class UserServiceImpl implements UserService {
                     "USUARIOS",
                     "USER_UPDATE",
                     "Usuario actualizado: " + updatedUser.getLogin() + " (ID: " + id + ")",
-                    HttpUtils.getCurrentUsername(),
                     id,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + id,
-                    "PUT");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for update user", e);
         }
@@ -229,13 +215,8 @@ public class UserServiceImpl implements UserService {
                     "USUARIOS",
                     "USER_DELETE",
                     "Usuario eliminado (soft delete): " + datosPersonales.getLogin() + " (ID: " + id + ")",
-                    HttpUtils.getCurrentUsername(),
                     id,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + id,
-                    "DELETE");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for delete user", e);
         }
@@ -265,13 +246,8 @@ public class UserServiceImpl implements UserService {
                     "USER_STATUS_CHANGE",
                     "Cambio de estado usuario: " + datosPersonales.getLogin() + " a "
                             + (active ? "ACTIVO" : "INACTIVO"),
-                    HttpUtils.getCurrentUsername(),
                     id,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + id + "/status",
-                    "PATCH");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for user status change", e);
         }
@@ -300,13 +276,8 @@ public class UserServiceImpl implements UserService {
                     "USUARIOS",
                     "USER_ROLE_ASSIGN",
                     "Roles asignados a usuario " + datosPersonales.getLogin() + ": " + roleIds,
-                    HttpUtils.getCurrentUsername(),
                     userId,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + userId + "/roles",
-                    "POST");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for assign roles", e);
         }
@@ -343,13 +314,8 @@ public class UserServiceImpl implements UserService {
                     "USUARIOS",
                     "USER_ROLE_REMOVE",
                     "Roles removidos de usuario " + datosPersonales.getLogin() + ": " + roleIds,
-                    HttpUtils.getCurrentUsername(),
                     userId,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + userId + "/roles",
-                    "DELETE");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for remove roles", e);
         }
@@ -386,13 +352,8 @@ public class UserServiceImpl implements UserService {
                     "USUARIOS",
                     "USER_PASSWORD_CHANGE",
                     "Cambio de contraseña para usuario: " + datosPersonales.getLogin(),
-                    HttpUtils.getCurrentUsername(),
                     userId,
-                    HttpUtils.getClientIpAddress(httpRequest),
-                    "Éxito",
-                    HttpUtils.getUserAgent(httpRequest),
-                    "/api/v1/users/" + userId + "/change-password",
-                    "POST");
+                    "Éxito");
         } catch (Exception e) {
             log.error("Error logging audit for password change", e);
         }
@@ -0,0 +1,36 @@
+package com.pe.laboratorio.worklist.controller;
+
+import com.pe.laboratorio.worklist.dto.WorklistItemDTO;
+import com.pe.laboratorio.worklist.service.WorklistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/worklist")
+@RequiredArgsConstructor
+public class WorklistController {
+
+    private final WorklistService worklistService;
+
+    @Value("${worklist.limite-maximo:500}")
+    private int limiteMaximo;
+
+    /**
+     * Siguientes exámenes a procesar en un área, en orden de atención
+     * (prioridad de la orden y fecha límite). Se responde desde memoria.
+     * Accesible para: ADMIN, TECNOLOGO, BIOLOGO
+     */
+    @GetMapping("/{areaId}")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'TECNOLOGO_MEDICO', 'BIOLOGO')")
+    public ResponseEntity<List<WorklistItemDTO>> obtenerWorklist(
+            @PathVariable Long areaId,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<WorklistItemDTO> items = worklistService.obtener(areaId, Math.min(limit, limiteMaximo));
+        return ResponseEntity.ok(items);
+    }
+}
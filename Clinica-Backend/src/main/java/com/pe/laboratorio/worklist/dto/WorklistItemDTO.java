@@ -0,0 +1,38 @@
+package com.pe.laboratorio.worklist.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Examen pendiente de procesar en la lista de trabajo de un área.
+ * fechaLimite = fechaOrden + tiempo de entrega del examen (horas).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorklistItemDTO {
+
+    private Long detalleId;
+    private String estado; // PENDIENTE, EN_PROCESO
+
+    // Orden
+    private Long ordenId;
+    private String numeroOrden;
+    private String prioridad; // NORMAL, URGENTE, EMERGENCIA
+    private LocalDateTime fechaOrden;
+    private LocalDateTime fechaLimite;
+
+    // Examen
+    private Long examId;
+    private String examName;
+    private Long areaId;
+
+    // Paciente
+    private Long patientId;
+    private String patientName;
+}
@@ -0,0 +1,231 @@
+package com.pe.laboratorio.worklist.service;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.orders.event.DetalleActualizadoEvent;
+import com.pe.laboratorio.orders.event.OrdenCreadaEvent;
+import com.pe.laboratorio.orders.event.OrdenEstadoCambiadoEvent;
+import com.pe.laboratorio.orders.repository.LABOrdenDetalleRepository;
+import com.pe.laboratorio.shared.util.IndiceReconstruible;
+import com.pe.laboratorio.worklist.dto.WorklistItemDTO;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Lista de trabajo en memoria por área de laboratorio.
+ * Mantiene los detalles PENDIENTE/EN_PROCESO de órdenes que aún no se
+ * procesaron, agrupados por el área del examen y ordenados por prioridad de la
+ * orden (EMERGENCIA > URGENTE > NORMAL) y luego por fecha límite.
+ *
+ * Las lecturas recorren un ConcurrentSkipListSet sin bloqueos ni consultas.
+ * Las escrituras llegan por eventos de órdenes: se vuelven a leer solo las
+ * órdenes afectadas y se reemplazan sus entradas. Una resincronización
+ * periódica reconstruye el índice completo para recoger cambios hechos por
+ * otros nodos o fuera de la aplicación.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorklistService {
+
+    private static final Set<LABOrdenDetalle.EstadoDetalle> ESTADOS_DETALLE = EnumSet.of(
+            LABOrdenDetalle.EstadoDetalle.PENDIENTE, LABOrdenDetalle.EstadoDetalle.EN_PROCESO);
+
+    private static final Set<LABOrden.EstadoOrden> ESTADOS_ORDEN = EnumSet.of(
+            LABOrden.EstadoOrden.PENDIENTE, LABOrden.EstadoOrden.EN_PROCESO);
+
+    private static final int TAMANIO_BLOQUE = 1000;
+
+    /**
+     * Mayor prioridad primero, luego la fecha límite más próxima; el id
+     * desempata para que dos detalles nunca se consideren iguales
+     */
+    private static final Comparator<Entrada> ORDEN_ATENCION = Comparator
+            .comparingInt(Entrada::rango)
+            .thenComparing(Entrada::fechaLimite)
+            .thenComparingLong(Entrada::detalleId);
+
+    private final LABOrdenDetalleRepository detalleRepository;
+
+    private final IndiceReconstruible<Indice> indice = new IndiceReconstruible<>(new Indice());
+
+    /**
+     * Primeros {@code limite} exámenes pendientes del área en orden de atención
+     */
+    public List<WorklistItemDTO> obtener(Long areaId, int limite) {
+        ConcurrentSkipListSet<Entrada> cola = indice.actual().porArea.get(areaId);
+        if (cola == null || limite <= 0) {
+            return List.of();
+        }
+
+        List<WorklistItemDTO> resultado = new ArrayList<>(Math.min(limite, 64));
+        for (Entrada entrada : cola) {
+            if (resultado.size() >= limite) {
+                break;
+            }
+            resultado.add(entrada.item());
+        }
+        return resultado;
+    }
+
+    // ========================================
+    // Mantenimiento incremental
+    // ========================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenCreada(OrdenCreadaEvent event) {
+        actualizarOrdenes(event.ordenIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdenEstadoCambiado(OrdenEstadoCambiadoEvent event) {
+        actualizarOrdenes(event.ordenIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDetalleActualizado(DetalleActualizadoEvent event) {
+        actualizarOrdenes(event.ordenIds());
+    }
+
+    /**
+     * Reemplaza las entradas de las órdenes indicadas por su estado actual en
+     * la base de datos
+     */
+    void actualizarOrdenes(Collection<Long> ordenIds) {
+        if (ordenIds.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = List.copyOf(ordenIds);
+        List<Entrada> entradas = new ArrayList<>();
+        for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE, ids.size()));
+            for (Tuple fila : detalleRepository.findWorklistByOrdenIdIn(bloque)) {
+                if (esPendiente(fila)) {
+                    entradas.add(mapear(fila));
+                }
+            }
+        }
+
+        indice.modificar(ids, actual -> {
+            ids.forEach(actual::quitarOrden);
+            entradas.forEach(actual::agregar);
+        });
+    }
+
+    // ========================================
+    // Reconstrucción completa
+    // ========================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        recargar();
+    }
+
+    @Scheduled(fixedDelayString = "${worklist.resincronizacion-ms:300000}",
+            initialDelayString = "${worklist.resincronizacion-ms:300000}")
+    public void resincronizar() {
+        recargar();
+    }
+
+    void recargar() {
+        long inicio = System.currentTimeMillis();
+        Indice nuevo = new Indice();
+        Set<Long> tocadas = indice.reconstruir(() -> {
+            for (Tuple fila : detalleRepository.findWorklistPendientes(ESTADOS_DETALLE, ESTADOS_ORDEN)) {
+                nuevo.agregar(mapear(fila));
+            }
+            return nuevo;
+        });
+        int pendientes = nuevo.porArea.values().stream().mapToInt(ConcurrentSkipListSet::size).sum();
+        // La consulta completa pudo leer estas órdenes antes de su último cambio
+        actualizarOrdenes(tocadas);
+
+        log.info("Lista de trabajo reconstruida: {} exámenes pendientes en {} áreas ({} ms)",
+                pendientes, nuevo.porArea.size(), System.currentTimeMillis() - inicio);
+    }
+
+    // ========================================
+    // Métodos auxiliares
+    // ========================================
+
+    private boolean esPendiente(Tuple fila) {
+        return ESTADOS_DETALLE.contains(fila.get("estado", LABOrdenDetalle.EstadoDetalle.class))
+                && ESTADOS_ORDEN.contains(fila.get("estadoOrden", LABOrden.EstadoOrden.class));
+    }
+
+    private Entrada mapear(Tuple fila) {
+        LABOrden.PrioridadOrden prioridad = fila.get("prioridad", LABOrden.PrioridadOrden.class);
+        LABOrdenDetalle.EstadoDetalle estado = fila.get("estado", LABOrdenDetalle.EstadoDetalle.class);
+        LocalDateTime fechaOrden = fila.get("fechaOrden", LocalDateTime.class);
+        Integer tiempoEntrega = fila.get("tiempoEntrega", Integer.class);
+        // Sin tiempo de entrega configurado el examen vence al registrarse la orden
+        LocalDateTime fechaLimite = tiempoEntrega != null ? fechaOrden.plusHours(tiempoEntrega) : fechaOrden;
+
+        WorklistItemDTO item = WorklistItemDTO.builder()
+                .detalleId(fila.get("id", Long.class))
+                .estado(estado.name())
+                .ordenId(fila.get("ordenId", Long.class))
+                .numeroOrden(fila.get("numeroOrden", String.class))
+                .prioridad(prioridad.name())
+                .fechaOrden(fechaOrden)
+                .fechaLimite(fechaLimite)
+                .examId(fila.get("examId", Long.class))
+                .examName(fila.get("examName", String.class))
+                .areaId(fila.get("areaId", Long.class))
+                .patientId(fila.get("patientId", Long.class))
+                .patientName(fila.get("patientFirstName", String.class) + " "
+                        + fila.get("patientLastName", String.class))
+                .build();
+
+        // El enum va de menor a mayor prioridad; el negativo ordena EMERGENCIA primero
+        return new Entrada(item.getDetalleId(), item.getOrdenId(), item.getAreaId(),
+                -prioridad.ordinal(), fechaLimite, item);
+    }
+
+    private record Entrada(long detalleId, long ordenId, long areaId, int rango,
+            LocalDateTime fechaLimite, WorklistItemDTO item) {
+    }
+
+    /**
+     * Colas por área más un índice por orden para poder retirar sus entradas.
+     * porOrden solo se usa bajo el bloqueo de escritura.
+     */
+    private static final class Indice {
+        private final ConcurrentHashMap<Long, ConcurrentSkipListSet<Entrada>> porArea = new ConcurrentHashMap<>();
+        private final Map<Long, List<Entrada>> porOrden = new HashMap<>();
+
+        private void agregar(Entrada entrada) {
+            porArea.computeIfAbsent(entrada.areaId(), k -> new ConcurrentSkipListSet<>(ORDEN_ATENCION))
+                    .add(entrada);
+            porOrden.computeIfAbsent(entrada.ordenId(), k -> new ArrayList<>()).add(entrada);
+        }
+
+        private void quitarOrden(Long ordenId) {
+            List<Entrada> entradas = porOrden.remove(ordenId);
+            if (entradas != null) {
+                for (Entrada entrada : entradas) {
+                    porArea.get(entrada.areaId()).remove(entrada);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+-- Particiona lab_orden y lab_orden_detalle por año de fecha_orden.
+--
+-- Se ejecuta después de que Hibernate crea o actualiza el esquema
+-- (ddl-auto=update), por lo que en una base nueva convierte las tablas vacías
+-- y en una existente las convierte con sus datos. Si lab_orden ya está
+-- particionada no hace nada.
+--
+-- PostgreSQL exige que la clave primaria, las restricciones únicas y las
+-- claves foráneas hacia una tabla particionada incluyan la clave de
+-- partición: las claves primarias pasan a ser (id, fecha_orden), el detalle
+-- guarda la fecha de su orden y numero_orden queda con un índice no único.
+DO $$
+DECLARE
+    anio_min int;
+    anio_max int;
+    anio int;
+    restriccion record;
+    siguiente_orden bigint;
+    siguiente_detalle bigint;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass('lab_orden')) = 'p' THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE lab_orden, lab_orden_detalle IN ACCESS EXCLUSIVE MODE;
+
+    ALTER TABLE lab_orden_detalle ADD COLUMN IF NOT EXISTS fecha_orden timestamp(6);
+    UPDATE lab_orden_detalle d SET fecha_orden = o.fecha_orden
+    FROM lab_orden o
+    WHERE o.id = d.orden_id AND d.fecha_orden IS DISTINCT FROM o.fecha_orden;
+
+    ALTER TABLE lab_orden RENAME TO lab_orden_heredada;
+    ALTER TABLE lab_orden_detalle RENAME TO lab_orden_detalle_heredada;
+
+    -- Mismas columnas, valores por defecto y CHECK de los enums
+    CREATE TABLE lab_orden (LIKE lab_orden_heredada INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (fecha_orden);
+    CREATE TABLE lab_orden_detalle (LIKE lab_orden_detalle_heredada INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (fecha_orden);
+    ALTER TABLE lab_orden_detalle ALTER COLUMN fecha_orden SET NOT NULL;
+
+    -- Una partición por cada año con órdenes, más el actual y el siguiente
+    SELECT COALESCE(min(extract(YEAR FROM fecha_orden)), extract(YEAR FROM now()))::int,
+           GREATEST(COALESCE(max(extract(YEAR FROM fecha_orden)), 0), extract(YEAR FROM now()) + 1)::int
+    INTO anio_min, anio_max
+    FROM lab_orden_heredada;
+
+    FOR anio IN anio_min..anio_max LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF lab_orden FOR VALUES FROM (%L) TO (%L)',
+                'lab_orden_' || anio, make_date(anio, 1, 1), make_date(anio + 1, 1, 1));
+        EXECUTE format('CREATE TABLE %I PARTITION OF lab_orden_detalle FOR VALUES FROM (%L) TO (%L)',
+                'lab_orden_detalle_' || anio, make_date(anio, 1, 1), make_date(anio + 1, 1, 1));
+    END LOOP;
+
+    INSERT INTO lab_orden SELECT * FROM lab_orden_heredada;
+    INSERT INTO lab_orden_detalle SELECT * FROM lab_orden_detalle_heredada;
+
+    -- Claves foráneas hacia pacientes, usuarios y exámenes, con sus nombres
+    -- originales para que Hibernate no las vuelva a crear
+    FOR restriccion IN
+        SELECT conrelid, conname, pg_get_constraintdef(oid) AS definicion
+        FROM pg_constraint
+        WHERE contype = 'f'
+          AND conrelid IN ('lab_orden_heredada'::regclass, 'lab_orden_detalle_heredada'::regclass)
+          AND confrelid NOT IN ('lab_orden_heredada'::regclass, 'lab_orden_detalle_heredada'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I %s',
+                CASE WHEN restriccion.conrelid = 'lab_orden_heredada'::regclass
+                     THEN 'lab_orden' ELSE 'lab_orden_detalle' END,
+                restriccion.conname, restriccion.definicion);
+    END LOOP;
+
+    -- Los ids continúan después del último reservado (LABOrdenJdbcRepository
+    -- reserva ids de la secuencia antes de insertar)
+    SELECT GREATEST(COALESCE(max(id), 0), COALESCE(pg_sequence_last_value(
+                   pg_get_serial_sequence('lab_orden_heredada', 'id')::regclass), 0)) + 1
+    INTO siguiente_orden
+    FROM lab_orden_heredada;
+    SELECT GREATEST(COALESCE(max(id), 0), COALESCE(pg_sequence_last_value(
+                   pg_get_serial_sequence('lab_orden_detalle_heredada', 'id')::regclass), 0)) + 1
+    INTO siguiente_detalle
+    FROM lab_orden_detalle_heredada;
+
+    DROP TABLE lab_orden_detalle_heredada;
+    DROP TABLE lab_orden_heredada;
+
+    EXECUTE format('CREATE SEQUENCE lab_orden_id_seq START %s OWNED BY lab_orden.id', siguiente_orden);
+    EXECUTE format('CREATE SEQUENCE lab_orden_detalle_id_seq START %s OWNED BY lab_orden_detalle.id',
+            siguiente_detalle);
+    ALTER TABLE lab_orden ALTER COLUMN id SET DEFAULT nextval('lab_orden_id_seq');
+    ALTER TABLE lab_orden_detalle ALTER COLUMN id SET DEFAULT nextval('lab_orden_detalle_id_seq');
+
+    ALTER TABLE lab_orden ADD PRIMARY KEY (id, fecha_orden);
+    ALTER TABLE lab_orden_detalle ADD PRIMARY KEY (id, fecha_orden);
+    ALTER TABLE lab_orden_detalle ADD CONSTRAINT fk_lab_orden_detalle_orden
+        FOREIGN KEY (orden_id, fecha_orden) REFERENCES lab_orden (id, fecha_orden);
+
+    -- Índices declarados en LABOrden y LABOrdenDetalle, con los mismos nombres
+    CREATE INDEX idx_lab_orden_fecha_id ON lab_orden (fecha_orden DESC, id DESC);
+    CREATE INDEX idx_lab_orden_fecha_estado ON lab_orden (fecha_orden, estado);
+    CREATE INDEX idx_lab_orden_medico_fecha ON lab_orden (medico_id, fecha_orden);
+    CREATE INDEX idx_lab_orden_patient_fecha ON lab_orden (patient_id, fecha_orden);
+    CREATE INDEX idx_lab_orden_updated_at ON lab_orden (updated_at);
+    CREATE INDEX idx_lab_orden_numero ON lab_orden (numero_orden);
+    CREATE INDEX idx_lab_orden_detalle_orden ON lab_orden_detalle (orden_id);
+END
+$$;
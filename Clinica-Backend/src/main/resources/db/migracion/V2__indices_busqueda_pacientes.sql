@@ -0,0 +1,26 @@
+-- Índices de la búsqueda de pacientes que Hibernate no puede declarar
+-- (clases de operadores). El índice (nombre_normalizado, id) se declara en
+-- Patient.
+
+-- Prefijo del DNI: LIKE '123%' necesita varchar_pattern_ops con una
+-- collation distinta de "C"
+CREATE INDEX IF NOT EXISTS idx_patients_dni_prefijo ON patients (dni varchar_pattern_ops);
+
+-- "Contiene" sobre el nombre: índice trigram si la extensión está disponible
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION WHEN OTHERS THEN
+    -- Sin permisos o sin el paquete contrib instalado: no debe impedir el arranque
+    RAISE NOTICE 'No se pudo crear pg_trgm (%): la búsqueda por contenido del nombre no tendrá índice', SQLERRM;
+END
+$$;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        CREATE INDEX IF NOT EXISTS idx_patients_nombre_trgm ON patients
+            USING gin (nombre_normalizado gin_trgm_ops);
+    END IF;
+END
+$$;
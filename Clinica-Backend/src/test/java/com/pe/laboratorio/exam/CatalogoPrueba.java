@@ -0,0 +1,79 @@
+package com.pe.laboratorio.exam;
+
+import java.util.UUID;
+
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.exam.enums.TipoResultado;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.labarea.entity.LabArea;
+import com.pe.laboratorio.subexam.entity.SubExam;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Datos de catálogo para las pruebas. Los códigos y nombres llevan un sufijo
+ * aleatorio para no chocar con datos existentes ni con otras pruebas.
+ */
+public final class CatalogoPrueba {
+
+    private CatalogoPrueba() {
+    }
+
+    /**
+     * Sufijo aleatorio de 8 caracteres en mayúsculas
+     */
+    public static String sufijo() {
+        return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    /**
+     * Área con código de hasta 10 caracteres: prefijo + 6 del sufijo
+     */
+    public static LabArea area(EntityManager entityManager, String prefijo, String sufijo) {
+        LabArea area = LabArea.builder()
+                .codigo(prefijo + sufijo.substring(0, 6))
+                .descripcion("AREA " + prefijo + " " + sufijo)
+                .active(true)
+                .build();
+        entityManager.persist(area);
+        return area;
+    }
+
+    public static ExamType tipo(EntityManager entityManager, String prefijo, String sufijo) {
+        ExamType tipo = ExamType.builder()
+                .nombre("TIPO " + prefijo + " " + sufijo)
+                .active(true)
+                .build();
+        entityManager.persist(tipo);
+        return tipo;
+    }
+
+    public static Exam examen(EntityManager entityManager, String codigo, String nombre, LabArea area,
+            ExamType tipo, boolean esPerfil) {
+        Exam exam = Exam.builder()
+                .codigo(codigo)
+                .nombre(nombre)
+                .area(area)
+                .tipoExamen(tipo)
+                .tipoResultado(TipoResultado.NUMERICO)
+                .active(true)
+                .esPerfil(esPerfil)
+                .build();
+        entityManager.persist(exam);
+        return exam;
+    }
+
+    public static SubExam subExamen(EntityManager entityManager, Exam examen, String codigo, String nombre,
+            int orden) {
+        SubExam subExam = SubExam.builder()
+                .examen(examen)
+                .codigo(codigo)
+                .nombre(nombre)
+                .tipoResultado(TipoResultado.NUMERICO)
+                .ordenVisualizacion(orden)
+                .active(true)
+                .build();
+        entityManager.persist(subExam);
+        return subExam;
+    }
+}
@@ -0,0 +1,172 @@
+package com.pe.laboratorio.exam.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pe.laboratorio.exam.CatalogoPrueba;
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.labarea.entity.LabArea;
+import com.pe.laboratorio.subexam.entity.SubExam;
+import com.pe.laboratorio.subexam.repository.SubExamRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que los listados y búsquedas del catálogo no disparan una consulta
+ * por elemento al leer sus asociaciones LAZY: una página cuesta como máximo
+ * la consulta de datos y la de conteo. Cada examen tiene su propia área y su
+ * propio tipo, así una carga perezosa no queda oculta por el contexto de
+ * persistencia.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CatalogoConsultasTest {
+
+    private static final int EXAMENES = 6;
+
+    // Menor que EXAMENES: la página necesita la consulta de conteo
+    private static final Pageable PAGINA = PageRequest.of(0, 4, Sort.by("nombre"));
+
+    @Autowired
+    private ExamRepository examRepository;
+
+    @Autowired
+    private SubExamRepository subExamRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String sufijo;
+    private List<Exam> exams;
+    private Exam perfil;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = CatalogoPrueba.sufijo();
+
+        exams = new ArrayList<>();
+        for (int i = 0; i < EXAMENES; i++) {
+            LabArea area = CatalogoPrueba.area(entityManager, String.valueOf(i), sufijo);
+            ExamType tipo = CatalogoPrueba.tipo(entityManager, String.valueOf(i), sufijo);
+            exams.add(CatalogoPrueba.examen(entityManager, "C" + i + sufijo, "EXAMEN " + i + " " + sufijo,
+                    area, tipo, i == 0));
+        }
+
+        perfil = exams.get(0);
+        for (int i = 0; i < 3; i++) {
+            CatalogoPrueba.subExamen(entityManager, perfil, "S" + i + sufijo, "SUBEXAMEN " + i + " " + sufijo, i + 1);
+        }
+    }
+
+    @Test
+    void activeExamsPageCostsDataAndCount() {
+        assertPaginaExamenes(() -> examRepository.findByActiveTrue(PAGINA));
+    }
+
+    @Test
+    void searchPageCostsDataAndCount() {
+        assertPaginaExamenes(() -> examRepository.searchByNombreOrCodigo(sufijo, PAGINA));
+    }
+
+    @Test
+    void areaAndTypePagesCostOneStatement() {
+        Exam exam = exams.get(1);
+
+        long porArea = contarSentencias(
+                () -> examRepository.findByAreaIdAndActiveTrue(exam.getArea().getId(), PAGINA), this::leerExamen);
+        long porTipo = contarSentencias(
+                () -> examRepository.findByTipoExamenId(exam.getTipoExamen().getId(), PAGINA), this::leerExamen);
+
+        // Un solo examen por área y tipo: la página completa no necesita conteo
+        assertEquals(1, porArea);
+        assertEquals(1, porTipo);
+    }
+
+    @Test
+    void examListsCostOneStatement() {
+        long porArea = contarSentencias(
+                () -> examRepository.findByAreaId(exams.get(2).getArea().getId()), this::leerExamen);
+        long perfiles = contarSentencias(examRepository::findByEsPerfilTrueAndActiveTrue, this::leerExamen);
+
+        assertEquals(1, porArea);
+        assertEquals(1, perfiles);
+    }
+
+    @Test
+    void subExamListsCostOneStatement() {
+        Long examenId = perfil.getId();
+
+        long ordenados = contarSentencias(
+                () -> subExamRepository.findByExamenIdOrderByOrden(examenId), this::leerSubExamen);
+        long activos = contarSentencias(
+                () -> subExamRepository.findByExamenIdAndActiveTrue(examenId), this::leerSubExamen);
+
+        assertEquals(1, ordenados);
+        assertEquals(1, activos);
+    }
+
+    private void assertPaginaExamenes(Supplier<Page<Exam>> consulta) {
+        long sentencias = contarSentencias(() -> {
+            Page<Exam> pagina = consulta.get();
+            assertFalse(pagina.isLast());
+            return pagina;
+        }, this::leerExamen);
+
+        assertTrue(sentencias <= 2, "Datos + conteo, se ejecutaron " + sentencias);
+    }
+
+    /**
+     * Lee los resultados de la consulta como lo hacen los mapeos a DTO y
+     * devuelve cuántas sentencias se prepararon
+     */
+    private <T> long contarSentencias(Supplier<? extends Iterable<T>> consulta, Consumer<T> leer) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        int leidos = 0;
+        for (T elemento : consulta.get()) {
+            leer.accept(elemento);
+            leidos++;
+        }
+        assertTrue(leidos > 0, "La consulta no devolvió resultados");
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void leerExamen(Exam exam) {
+        assertNotNull(exam.getArea().getDescripcion());
+        assertNotNull(exam.getTipoExamen().getNombre());
+    }
+
+    private void leerSubExamen(SubExam subExam) {
+        assertNotNull(subExam.getExamen().getNombre());
+        assertNotNull(subExam.getExamen().getCodigo());
+    }
+}
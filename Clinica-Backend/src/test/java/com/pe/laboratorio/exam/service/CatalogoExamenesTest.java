@@ -0,0 +1,138 @@
+package com.pe.laboratorio.exam.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pe.laboratorio.exam.CatalogoPrueba;
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.labarea.entity.LabArea;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * La carga de la instantánea del catálogo, que sirve los GET del catálogo,
+ * cuesta un número fijo de sentencias sin importar cuántos exámenes y
+ * subexámenes haya. La recarga corre en su propia transacción, así que los
+ * datos de la prueba se confirman y se borran al terminar.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CatalogoExamenesTest {
+
+    // Una consulta por tabla: áreas, tipos, exámenes y subexámenes
+    private static final long SENTENCIAS_CARGA = 4;
+
+    @Autowired
+    private CatalogoExamenes catalogoExamenes;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private String sufijo;
+    private final List<Object> creados = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transaccion = new TransactionTemplate(transactionManager);
+        sufijo = CatalogoPrueba.sufijo();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaccion.executeWithoutResult(status -> {
+            // Subexámenes antes que sus exámenes, exámenes antes que áreas y tipos
+            for (int i = creados.size() - 1; i >= 0; i--) {
+                entityManager.remove(entityManager.merge(creados.get(i)));
+            }
+        });
+        catalogoExamenes.recargar();
+    }
+
+    @Test
+    void snapshotLoadCostsFixedStatements() {
+        crearExamenes(1, 1);
+        long pocos = contarSentenciasRecarga();
+
+        crearExamenes(20, 5);
+        long muchos = contarSentenciasRecarga();
+
+        assertEquals(SENTENCIAS_CARGA, pocos);
+        assertEquals(pocos, muchos);
+    }
+
+    @Test
+    void snapshotResolvesAssociationsWithoutQueries() {
+        crearExamenes(3, 2);
+        CatalogoExamenes.Catalogo catalogo = catalogoExamenes.recargar();
+
+        Statistics statistics = estadisticas();
+        statistics.clear();
+        int examenes = 0;
+        for (CatalogoExamenes.Examen examen : catalogo.examenesActivos()) {
+            if (!examen.nombre().endsWith(sufijo)) {
+                continue;
+            }
+            examenes++;
+            assertTrue(examen.area() != null && examen.tipo() != null);
+            assertEquals(2, catalogo.subExamenesActivos(examen.id()).size());
+            for (CatalogoExamenes.SubExamen sub : catalogo.subExamenesActivos(examen.id())) {
+                assertEquals(examen.id(), sub.examen().id());
+            }
+        }
+
+        assertEquals(3, examenes);
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private long contarSentenciasRecarga() {
+        Statistics statistics = estadisticas();
+        statistics.clear();
+        catalogoExamenes.recargar();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Statistics estadisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void crearExamenes(int examenes, int subExamenesPorExamen) {
+        transaccion.executeWithoutResult(status -> {
+            int base = creados.size();
+            LabArea area = CatalogoPrueba.area(entityManager, String.valueOf(base % 10), sufijo);
+            ExamType tipo = CatalogoPrueba.tipo(entityManager, String.valueOf(base), sufijo);
+            creados.add(area);
+            creados.add(tipo);
+            for (int i = 0; i < examenes; i++) {
+                String id = base + "-" + i;
+                Exam exam = CatalogoPrueba.examen(entityManager, "K" + id + sufijo, "EXAMEN " + id + " " + sufijo,
+                        area, tipo, subExamenesPorExamen > 0);
+                creados.add(exam);
+                for (int j = 0; j < subExamenesPorExamen; j++) {
+                    creados.add(CatalogoPrueba.subExamen(entityManager, exam, "S" + id + "-" + j + sufijo,
+                            "SUBEXAMEN " + id + "-" + j + " " + sufijo, j + 1));
+                }
+            }
+        });
+    }
+}
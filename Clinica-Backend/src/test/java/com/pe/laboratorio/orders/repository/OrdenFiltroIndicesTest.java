@@ -0,0 +1,139 @@
+package com.pe.laboratorio.orders.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.service.ParticionesOrdenService;
+
+/**
+ * Verifica con EXPLAIN que la consulta generada por el filtro de órdenes usa
+ * los índices declarados en {@link LABOrden}. Se desactiva el seq scan para
+ * que el resultado no dependa del volumen de datos de la base de pruebas: si
+ * el predicado no es indexable, el plan sigue mostrando un Seq Scan.
+ *
+ * lab_orden está particionada por año: el plan muestra los índices de cada
+ * partición, que PostgreSQL nombra como {tabla}_{columnas}_idx.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.pe.laboratorio.orders.repository.OrdenFiltroIndicesTest$CapturaSql")
+@Transactional
+class OrdenFiltroIndicesTest {
+
+    // Año en curso: siempre tiene partición
+    private static final LocalDateTime DESDE = ParticionesOrdenService.inicioAnioActual();
+    private static final LocalDateTime HASTA = DESDE.plusMonths(1).minusSeconds(1);
+
+    @Autowired
+    private LABOrdenRepository ordenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rangoDeFechasYEstadoUsaIndice() {
+        String plan = explicar(Specification.allOf(
+                OrdenSpecifications.fechaDesde(DESDE),
+                OrdenSpecifications.fechaHasta(HASTA),
+                OrdenSpecifications.estado(LABOrden.EstadoOrden.PENDIENTE)),
+                "'" + DESDE + "'", "'" + HASTA + "'", "'PENDIENTE'", "51");
+
+        assertUsaIndice(plan);
+    }
+
+    @Test
+    void medicoYFechaUsaIndice() {
+        String plan = explicar(Specification.allOf(
+                OrdenSpecifications.fechaDesde(DESDE),
+                OrdenSpecifications.medico(1L)),
+                "'" + DESDE + "'", "1", "51");
+
+        assertUsaIndice(plan);
+        assertTrue(plan.contains("medico_id_fecha_orden_idx"), plan);
+    }
+
+    @Test
+    void pacienteUsaIndice() {
+        String plan = explicar(OrdenSpecifications.paciente(1L), "1", "51");
+
+        assertUsaIndice(plan);
+        assertTrue(plan.contains("patient_id_fecha_orden_idx"), plan);
+    }
+
+    @Test
+    void rangoDelAnioEnCursoSoloLeeSuParticion() {
+        String plan = explicar(Specification.allOf(
+                OrdenSpecifications.fechaDesde(DESDE),
+                OrdenSpecifications.fechaHasta(HASTA)),
+                "'" + DESDE + "'", "'" + HASTA + "'", "51");
+
+        assertTrue(plan.contains("lab_orden_" + DESDE.getYear()), plan);
+        assertFalse(plan.contains("lab_orden_" + (DESDE.getYear() - 1)), plan);
+        assertFalse(plan.contains("lab_orden_" + (DESDE.getYear() + 1)), plan);
+    }
+
+    /**
+     * Ejecuta el filtro para capturar el SQL emitido y devuelve su plan,
+     * preparado con los valores indicados en el orden de sus parámetros
+     */
+    private String explicar(Specification<LABOrden> especificacion, String... valores) {
+        CapturaSql.SENTENCIAS.clear();
+        ordenRepository.filtrarClaves(especificacion, 51);
+        String sql = CapturaSql.SENTENCIAS.get(CapturaSql.SENTENCIAS.size() - 1);
+
+        // Solo se emiten los predicados informados
+        assertFalse(sql.toLowerCase(Locale.ROOT).contains("is null"), sql);
+
+        StringBuilder preparada = new StringBuilder();
+        int parametro = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                preparada.append('$').append(++parametro);
+            } else {
+                preparada.append(c);
+            }
+        }
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("PREPARE filtro_ordenes AS " + preparada);
+        try {
+            List<String> plan = jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE filtro_ordenes(" + String.join(", ", valores) + ")", String.class);
+            return String.join("\n", plan);
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE filtro_ordenes");
+        }
+    }
+
+    private static void assertUsaIndice(String plan) {
+        assertTrue(plan.contains("Index Cond"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    /**
+     * Guarda las sentencias SQL que Hibernate envía al driver
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.pe.laboratorio.orders.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pe.laboratorio.exam.CatalogoPrueba;
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.labarea.entity.LabArea;
+import com.pe.laboratorio.orders.dto.OrdenResponseDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.users.entity.DatosPersonales;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class OrdenReadModelTest {
+
+    @Autowired
+    private OrdenReadModel ordenReadModel;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Patient patient;
+    private DatosPersonales medico;
+    private List<Exam> exams;
+
+    @BeforeEach
+    void setUp() {
+        String sufijo = CatalogoPrueba.sufijo();
+
+        LabArea area = CatalogoPrueba.area(entityManager, "", sufijo);
+        ExamType tipo = CatalogoPrueba.tipo(entityManager, "", sufijo);
+
+        exams = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            exams.add(CatalogoPrueba.examen(entityManager, "T" + i + sufijo, "EXAMEN " + i + " " + sufijo,
+                    area, tipo, false));
+        }
+
+        patient = Patient.builder()
+                .firstName("Paciente")
+                .lastName(sufijo)
+                .dni(sufijo)
+                .build();
+        entityManager.persist(patient);
+
+        medico = DatosPersonales.builder()
+                .login("med" + sufijo)
+                .nombre("Medico")
+                .apepat("Prueba")
+                .apemat(sufijo)
+                .active(true)
+                .build();
+        entityManager.persist(medico);
+    }
+
+    @Test
+    void statementCountDoesNotDependOnNumberOfOrders() {
+        List<Long> unaOrden = crearOrdenes(1);
+        List<Long> muchasOrdenes = crearOrdenes(25);
+
+        long sentenciasUna = contarSentencias(unaOrden);
+        long sentenciasMuchas = contarSentencias(muchasOrdenes);
+
+        assertEquals(2, sentenciasUna, "Cabeceras + detalles");
+        assertEquals(sentenciasUna, sentenciasMuchas);
+    }
+
+    @Test
+    void loadsFullGraphWithPeopleNames() {
+        List<Long> ids = crearOrdenes(2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<OrdenResponseDTO> ordenes = ordenReadModel.cargar(ids);
+
+        assertEquals(ids.size(), ordenes.size());
+        for (int i = 0; i < ids.size(); i++) {
+            OrdenResponseDTO dto = ordenes.get(i);
+            assertEquals(ids.get(i), dto.getId());
+            assertEquals(patient.getDni(), dto.getPatientDni());
+            assertEquals(medico.getFullName(), dto.getMedicoFullName());
+            assertEquals(medico.getFullName(), dto.getCreatedByName());
+            assertEquals(exams.size(), dto.getDetalles().size());
+        }
+    }
+
+    private long contarSentencias(List<Long> ids) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ordenReadModel.cargar(ids);
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> crearOrdenes(int cantidad) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            LABOrden orden = LABOrden.builder()
+                    .patient(patient)
+                    .medico(medico)
+                    .user(medico)
+                    .createdBy(medico)
+                    .prioridad(LABOrden.PrioridadOrden.NORMAL)
+                    .total(BigDecimal.ZERO)
+                    .build();
+            for (Exam exam : exams) {
+                orden.addDetalle(LABOrdenDetalle.builder()
+                        .exam(exam)
+                        .tecnologo(medico)
+                        .precio(BigDecimal.ZERO)
+                        .build());
+            }
+            entityManager.persist(orden);
+            ids.add(orden.getId());
+        }
+        return ids;
+    }
+}
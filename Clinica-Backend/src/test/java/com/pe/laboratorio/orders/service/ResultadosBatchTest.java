@@ -0,0 +1,177 @@
+package com.pe.laboratorio.orders.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pe.laboratorio.exam.CatalogoPrueba;
+import com.pe.laboratorio.exam.entity.Exam;
+import com.pe.laboratorio.examtype.entity.ExamType;
+import com.pe.laboratorio.labarea.entity.LabArea;
+import com.pe.laboratorio.orders.dto.ResultadoBatchResponseDTO;
+import com.pe.laboratorio.orders.dto.ResultadoDetalleDTO;
+import com.pe.laboratorio.orders.entity.LABOrden;
+import com.pe.laboratorio.orders.entity.LABOrdenDetalle;
+import com.pe.laboratorio.orders.repository.LABOrdenJdbcRepository;
+import com.pe.laboratorio.patients.entity.Patient;
+import com.pe.laboratorio.security.util.UsuarioActual;
+import com.pe.laboratorio.users.entity.DatosPersonales;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Un lote de resultados lee el historial de todos sus pacientes en una sola
+ * consulta para el delta check, sin importar cuántos pacientes traiga.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ResultadosBatchTest {
+
+    @Autowired
+    private ResultadoService resultadoService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoSpyBean
+    private LABOrdenJdbcRepository ordenJdbcRepository;
+
+    private String sufijo;
+    private DatosPersonales tecnologo;
+    private Exam exam;
+    private int pacientesCreados;
+
+    @BeforeEach
+    void setUp() {
+        sufijo = CatalogoPrueba.sufijo();
+
+        LabArea area = CatalogoPrueba.area(entityManager, "", sufijo);
+        ExamType tipo = CatalogoPrueba.tipo(entityManager, "", sufijo);
+        exam = CatalogoPrueba.examen(entityManager, "D" + sufijo, "EXAMEN DELTA " + sufijo, area, tipo, false);
+
+        tecnologo = DatosPersonales.builder()
+                .login("tec" + sufijo)
+                .nombre("Tecnologo")
+                .apepat("Prueba")
+                .apemat(sufijo)
+                .active(true)
+                .build();
+        entityManager.persist(tecnologo);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new UsuarioActual(tecnologo.getId(), tecnologo.getLogin(), Set.of("ADMIN")), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void historyIsLoadedOnceForAllPatientsOfTheBatch() {
+        long sentenciasUno = registrarLote(1);
+        long sentenciasMuchos = registrarLote(8);
+
+        assertEquals(sentenciasUno, sentenciasMuchos);
+    }
+
+    /**
+     * Registra un resultado por paciente, cada uno con un resultado anterior
+     * del mismo examen, y devuelve las sentencias de Hibernate del lote
+     */
+    private long registrarLote(int pacientes) {
+        List<ResultadoDetalleDTO> resultados = new ArrayList<>();
+        for (int i = 0; i < pacientes; i++) {
+            resultados.add(ResultadoDetalleDTO.builder()
+                    .detalleId(crearOrdenConAnterior())
+                    .resultado("30")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        clearInvocations(ordenJdbcRepository);
+
+        ResultadoBatchResponseDTO respuesta = resultadoService.registrarResultadosBatch(resultados);
+
+        verify(ordenJdbcRepository, times(1))
+                .recorrerUltimosResultadosPacientes(anyCollection(), anyInt(), any(RowCallbackHandler.class));
+        assertEquals(pacientes, respuesta.getRegistrados());
+        for (ResultadoBatchResponseDTO.ItemDTO item : respuesta.getItems()) {
+            assertTrue(item.getDeltaCheck());
+            assertEquals(10.0, item.getValorAnterior());
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Paciente nuevo con una orden de dos detalles del examen: uno procesado
+     * ayer con 10 y otro pendiente
+     *
+     * @return id del detalle pendiente
+     */
+    private Long crearOrdenConAnterior() {
+        String dni = sufijo.substring(0, 6) + String.format("%02d", pacientesCreados++);
+        Patient patient = Patient.builder()
+                .firstName("Paciente")
+                .lastName(sufijo)
+                .dni(dni)
+                .build();
+        entityManager.persist(patient);
+
+        LABOrden orden = LABOrden.builder()
+                .patient(patient)
+                .medico(tecnologo)
+                .user(tecnologo)
+                .createdBy(tecnologo)
+                .prioridad(LABOrden.PrioridadOrden.NORMAL)
+                .total(BigDecimal.ZERO)
+                .build();
+        orden.addDetalle(LABOrdenDetalle.builder()
+                .exam(exam)
+                .tecnologo(tecnologo)
+                .precio(BigDecimal.ZERO)
+                .resultado("10")
+                .estado(LABOrdenDetalle.EstadoDetalle.PROCESADO)
+                .fechaProcesamiento(LocalDateTime.now().minusDays(1))
+                .build());
+        LABOrdenDetalle pendiente = LABOrdenDetalle.builder()
+                .exam(exam)
+                .tecnologo(tecnologo)
+                .precio(BigDecimal.ZERO)
+                .build();
+        orden.addDetalle(pendiente);
+        entityManager.persist(orden);
+        return pendiente.getId();
+    }
+}
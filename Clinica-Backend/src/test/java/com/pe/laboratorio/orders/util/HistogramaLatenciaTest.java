@@ -0,0 +1,113 @@
+package com.pe.laboratorio.orders.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HistogramaLatenciaTest {
+
+    /**
+     * Error relativo máximo documentado: una cubeta cubre 1/32 de su potencia
+     * de dos
+     */
+    private static final double ERROR_RELATIVO = 1.0 / 32;
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long v = 0; v < 64; v++) {
+            assertEquals(v, HistogramaLatencia.indice(v));
+            assertEquals(v, HistogramaLatencia.valorRepresentativo((int) v));
+        }
+    }
+
+    @Test
+    void bucketBoundaries() {
+        assertEquals(63, HistogramaLatencia.indice(63));
+        assertEquals(64, HistogramaLatencia.indice(64));
+        assertEquals(64, HistogramaLatencia.indice(65));
+        assertEquals(65, HistogramaLatencia.indice(66));
+        assertEquals(95, HistogramaLatencia.indice(127));
+        assertEquals(96, HistogramaLatencia.indice(128));
+        assertEquals(0, HistogramaLatencia.indice(-5));
+        assertEquals(HistogramaLatencia.CANTIDAD_CUBETAS - 1,
+                HistogramaLatencia.indice(HistogramaLatencia.VALOR_MAXIMO));
+        assertEquals(HistogramaLatencia.CANTIDAD_CUBETAS - 1,
+                HistogramaLatencia.indice(HistogramaLatencia.VALOR_MAXIMO * 10));
+    }
+
+    @Test
+    void bucketsAreContiguousAndBoundRelativeError() {
+        int anterior = 0;
+        for (long v = 1; v <= HistogramaLatencia.VALOR_MAXIMO; v++) {
+            int indice = HistogramaLatencia.indice(v);
+            assertTrue(indice == anterior || indice == anterior + 1, "Cubeta saltada en " + v);
+            anterior = indice;
+
+            long representativo = HistogramaLatencia.valorRepresentativo(indice);
+            assertTrue(Math.abs(representativo - v) <= v * ERROR_RELATIVO, "Error excesivo en " + v);
+        }
+        assertEquals(HistogramaLatencia.CANTIDAD_CUBETAS - 1, anterior);
+    }
+
+    /**
+     * Lo que se guarda es el índice de cubeta; el valor representativo debe
+     * volver a la misma cubeta
+     */
+    @Test
+    void bucketIndexRoundTrip() {
+        for (int i = 0; i < HistogramaLatencia.CANTIDAD_CUBETAS; i++) {
+            assertEquals(i, HistogramaLatencia.indice(HistogramaLatencia.valorRepresentativo(i)));
+        }
+    }
+
+    @Test
+    void histogramRebuiltFromStoredBucketsKeepsPercentiles() {
+        HistogramaLatencia original = new HistogramaLatencia();
+        long[] conteos = new long[HistogramaLatencia.CANTIDAD_CUBETAS];
+        for (long v = 1; v <= 10_000; v++) {
+            int cubeta = HistogramaLatencia.indice(v);
+            original.sumarCubeta(cubeta, 1);
+            conteos[cubeta]++;
+        }
+
+        // Como en la lectura de lab_tat_histograma_diario: una fila por cubeta
+        HistogramaLatencia leido = new HistogramaLatencia();
+        for (int i = 0; i < conteos.length; i++) {
+            if (conteos[i] != 0) {
+                leido.sumarCubeta(i, conteos[i]);
+            }
+        }
+
+        assertEquals(original.total(), leido.total());
+        for (double p : new double[] { 50, 90, 95, 99, 100 }) {
+            assertEquals(original.percentil(p), leido.percentil(p));
+        }
+        assertEquals(original.promedio(), leido.promedio());
+    }
+
+    @Test
+    void percentilesStayWithinErrorBound() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        for (long v = 1; v <= 10_000; v++) {
+            histograma.sumarCubeta(HistogramaLatencia.indice(v), 1);
+        }
+
+        for (double p : new double[] { 1, 50, 90, 99, 100 }) {
+            double exacto = Math.ceil(10_000 * p / 100);
+            assertTrue(Math.abs(histograma.percentil(p) - exacto) <= exacto * ERROR_RELATIVO,
+                    "Percentil " + p);
+        }
+        assertTrue(Math.abs(histograma.promedio() - 5000.5) <= 5000.5 * ERROR_RELATIVO);
+    }
+
+    @Test
+    void emptyHistogramHasNoStatistics() {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+
+        assertEquals(0, histograma.total());
+        assertNull(histograma.percentil(50));
+        assertNull(histograma.promedio());
+    }
+}
@@ -0,0 +1,87 @@
+package com.pe.laboratorio.patients.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.pe.laboratorio.patients.dto.PatientDuplicateDTO;
+
+/**
+ * Claves de bloque, distancia de edición y umbral del índice de duplicados,
+ * sin base de datos: el índice se llena con {@code agregar}.
+ */
+class DuplicadosPacientesIndexTest {
+
+    private static final LocalDate NACIMIENTO = LocalDate.of(1980, 5, 10);
+
+    private final DuplicadosPacientesIndex index = new DuplicadosPacientesIndex(null, null, 0.85);
+
+    @Test
+    void blockingKeysUsePhoneticCodesAndPrefixes() {
+        assertEquals(List.of("A:KRS:1980", "N:JN:1980", "P:cru:ju"),
+                DuplicadosPacientesIndex.claves("Juan Carlos", "De la Cruz Quispe", NACIMIENTO));
+    }
+
+    @Test
+    void blockingKeysWithoutBirthDateKeepOnlyPrefixes() {
+        assertEquals(List.of("P:cru:ju"), DuplicadosPacientesIndex.claves("Juan", "Cruz", null));
+    }
+
+    @Test
+    void spellingVariantsShareBlocks() {
+        assertEquals(DuplicadosPacientesIndex.claves("Juan", "Vásquez", NACIMIENTO).get(0),
+                DuplicadosPacientesIndex.claves("Juan", "Basques", NACIMIENTO).get(0));
+    }
+
+    @Test
+    void distanceIsCappedAtThreshold() {
+        assertEquals(0, DuplicadosPacientesIndex.distancia("quispe", "quispe", 2));
+        assertEquals(1, DuplicadosPacientesIndex.distancia("quispe", "qispe", 2));
+        assertEquals(3, DuplicadosPacientesIndex.distancia("kitten", "sitting", 5));
+        assertEquals(3, DuplicadosPacientesIndex.distancia("kitten", "sitting", 2));
+        assertEquals(3, DuplicadosPacientesIndex.distancia("ab", "abcdef", 2));
+    }
+
+    @Test
+    void typoAboveThresholdIsCandidate() {
+        index.agregar(1L, null, "Juan", "Quispe", NACIMIENTO);
+
+        List<PatientDuplicateDTO> candidatos = index.buscarCandidatos(null, "Juan", "Qispe", NACIMIENTO, null, 10);
+
+        assertEquals(1, candidatos.size());
+        assertEquals(1L, candidatos.get(0).getPatient().getId());
+        assertTrue(candidatos.get(0).getScore() >= 0.85);
+    }
+
+    @Test
+    void differentFirstNameIsBelowThreshold() {
+        index.agregar(1L, null, "Juan", "Quispe", NACIMIENTO);
+
+        assertTrue(index.buscarCandidatos(null, "Pedro", "Quispe", NACIMIENTO, null, 10).isEmpty());
+    }
+
+    @Test
+    void differentDniRulesOutSameName() {
+        index.agregar(1L, "12345678", "Juan", "Quispe", NACIMIENTO);
+
+        assertEquals(1, index.buscarCandidatos("12345679", "Juan", "Quispe", NACIMIENTO, null, 10).size());
+        assertTrue(index.buscarCandidatos("12345699", "Juan", "Quispe", NACIMIENTO, null, 10).isEmpty());
+    }
+
+    @Test
+    void pairsAreReportedOnce() {
+        index.agregar(1L, null, "Juan", "Quispe", NACIMIENTO);
+        index.agregar(2L, null, "Juan", "Qispe", NACIMIENTO);
+        index.agregar(3L, null, "Pedro", "Mamani", NACIMIENTO);
+
+        var pares = index.buscarTodos(10);
+
+        assertEquals(1, pares.size());
+        assertEquals(1L, pares.get(0).getFirst().getId());
+        assertEquals(2L, pares.get(0).getSecond().getId());
+    }
+}
@@ -0,0 +1,47 @@
+package com.pe.laboratorio.patients.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.pe.laboratorio.shared.util.TextNormalizer;
+
+class CodigoFoneticoTest {
+
+    @Test
+    void groupsLettersThatSoundAlike() {
+        assertEquals("BSKS", codificar("Vásquez"));
+        assertEquals("BSKS", codificar("Basques"));
+        assertEquals("BSKS", codificar("Vazquez"));
+        assertEquals(codificar("Giménez"), codificar("Jiménez"));
+        assertEquals(codificar("García"), codificar("Garsia"));
+        assertEquals(codificar("Llamas"), codificar("Yamas"));
+    }
+
+    @Test
+    void ignoresSilentH() {
+        assertEquals(codificar("Hernández"), codificar("Ernandes"));
+    }
+
+    @Test
+    void keepsDifferentSoundsApart() {
+        assertNotEquals(codificar("Guerra"), codificar("Gerra"));
+        assertNotEquals(codificar("Quispe"), codificar("Mamani"));
+    }
+
+    @Test
+    void truncatesLongWords() {
+        assertEquals("SNTSTB", codificar("Santisteban"));
+    }
+
+    @Test
+    void emptyInputHasEmptyCode() {
+        assertEquals("", CodigoFonetico.codificar(null));
+        assertEquals("", CodigoFonetico.codificar(""));
+    }
+
+    private static String codificar(String palabra) {
+        return CodigoFonetico.codificar(TextNormalizer.normalizar(palabra));
+    }
+}
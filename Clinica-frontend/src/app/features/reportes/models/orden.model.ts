@@ -5,6 +5,41 @@ export interface OrdenFilter {
   medicoId?: number;
   estado?: string;
   prioridad?: string;
+  archivo?: boolean;
+  cursor?: string;
+  size?: number;
+}
+
+export interface OrdenPage {
+  content: Orden[];
+  nextCursor?: string;
+  hasNext: boolean;
+  size: number;
+}
+
+export interface OrdenCambios {
+  ordenes: Orden[];
+  token: string;
+}
+
+export interface OrdenResumenItem {
+  valor: string;
+  cantidad: number;
+  monto: number;
+}
+
+export interface OrdenResumenDia {
+  fecha: string;
+  cantidad: number;
+  monto: number;
+}
+
+export interface OrdenResumen {
+  cantidad: number;
+  montoTotal: number;
+  porEstado: OrdenResumenItem[];
+  porPrioridad: OrdenResumenItem[];
+  porDia: OrdenResumenDia[];
 }
 
 export interface OrdenDetalle {
@@ -20,6 +55,7 @@ export interface OrdenDetalle {
   precio: number;
   valorCritico: boolean;
   fueraRango: boolean;
+  deltaCheck?: boolean;
   validadoPrimario: boolean;
   validadoFinal: boolean;
   tecnologoName?: string;
@@ -29,10 +65,47 @@ export interface OrdenDetalle {
   fechaProcesamiento?: string;
   fechaValidacionPrimaria?: string;
   fechaValidacionFinal?: string;
+  version?: number;
   createdAt: string;
   updatedAt: string;
 }
 
+export interface OrdenDetallePatch {
+  version: number;
+  estado?: string;
+  resultado?: string;
+  unidad?: string;
+  observaciones?: string;
+  equipoId?: number;
+}
+
+export interface OrdenDetallePatchResponse {
+  detalleId: number;
+  version: number;
+  estado: string;
+  fueraRango?: boolean;
+  valorCritico?: boolean;
+  deltaCheck?: boolean;
+  valorAnterior?: number;
+  valorReferencia?: string;
+  ordenId: number;
+  estadoOrden: string;
+  estadoOrdenCambiado: boolean;
+}
+
+export interface TendenciaPunto {
+  detalleId: number;
+  fecha: string;
+  valor: number;
+}
+
+export interface TendenciaResultado {
+  examId: number;
+  examName?: string;
+  unidad?: string;
+  puntos: TendenciaPunto[];
+}
+
 export interface Orden {
   id: number;
   numeroOrden: string;
@@ -48,6 +121,7 @@ export interface Orden {
   fechaProcesamiento?: string;
   fechaValidacion?: string;
   fechaEntrega?: string;
+  version?: number;
   patientId: number;
   patientFirstName: string;
   patientLastName: string;
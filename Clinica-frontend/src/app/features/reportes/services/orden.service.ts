@@ -1,7 +1,10 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Orden, OrdenFilter } from '../models/orden.model';
+import {
+    Orden, OrdenCambios, OrdenDetallePatch, OrdenDetallePatchResponse, OrdenFilter, OrdenPage, OrdenResumen,
+    TendenciaResultado
+} from '../models/orden.model';
 
 @Injectable({
     providedIn: 'root'
@@ -23,14 +26,59 @@ export class OrdenService {
     }
 
     /**
-     * Filtra órdenes según criterios
+     * Filtra órdenes según criterios (paginado por cursor: reenviar
+     * el filtro con cursor = nextCursor para la siguiente página)
      */
-    filtrarOrdenes(filtro: OrdenFilter): Observable<Orden[]> {
-        return this.http.post<Orden[]>(`${this.apiUrl}/filtrar`, filtro, {
+    filtrarOrdenes(filtro: OrdenFilter): Observable<OrdenPage> {
+        return this.http.post<OrdenPage>(`${this.apiUrl}/filtrar`, filtro, {
             headers: this.getHeaders()
         });
     }
 
+    /**
+     * Totales de las órdenes filtradas (cantidad y monto por estado,
+     * prioridad y día) calculados en el servidor, sin descargar las órdenes
+     */
+    resumirOrdenes(filtro: OrdenFilter): Observable<OrdenResumen> {
+        return this.http.post<OrdenResumen>(`${this.apiUrl}/resumen`, filtro, {
+            headers: this.getHeaders()
+        });
+    }
+
+    /**
+     * Descarga las órdenes filtradas generadas en el servidor (CSV o NDJSON),
+     * sin paginar en el navegador
+     */
+    exportarOrdenes(filtro: OrdenFilter, formato: 'csv' | 'ndjson' = 'csv'): Observable<Blob> {
+        let params = new HttpParams().set('formato', formato);
+        for (const campo of ['fechaInicio', 'fechaFin', 'patientId', 'medicoId', 'estado', 'prioridad'] as const) {
+            const valor = filtro[campo];
+            if (valor !== undefined && valor !== null && valor !== '') {
+                params = params.set(campo, String(valor));
+            }
+        }
+        return this.http.get(`${this.apiUrl}/export`, {
+            headers: this.getHeaders(),
+            params,
+            responseType: 'blob'
+        });
+    }
+
+    /**
+     * Órdenes modificadas desde el token de la consulta anterior (sin token,
+     * todas). Reemplazar por id las recibidas y guardar el nuevo token.
+     */
+    obtenerCambios(since?: string): Observable<OrdenCambios> {
+        let params = new HttpParams();
+        if (since) {
+            params = params.set('since', since);
+        }
+        return this.http.get<OrdenCambios>(`${this.apiUrl}/changes`, {
+            headers: this.getHeaders(),
+            params
+        });
+    }
+
     /**
      * Obtiene todas las órdenes (según rol del usuario)
      */
@@ -50,11 +98,37 @@ export class OrdenService {
     }
 
     /**
-     * Actualiza el estado de una orden
+     * Avanza el estado de una orden. Si se envía la versión y la orden
+     * cambió en el servidor, la petición falla con 409.
      */
-    actualizarEstado(id: number, estado: string): Observable<Orden> {
-        return this.http.put<Orden>(`${this.apiUrl}/${id}/estado`, { estado }, {
+    actualizarEstado(id: number, estado: string, version?: number): Observable<Orden> {
+        return this.http.put<Orden>(`${this.apiUrl}/${id}/estado`, { estado, version }, {
             headers: this.getHeaders()
         });
     }
+
+    /**
+     * Modifica un detalle de la orden (resultado, estado, observaciones o
+     * equipo). Si el detalle cambió en el servidor, la petición falla con 409.
+     */
+    actualizarDetalle(ordenId: number, detalleId: number, cambio: OrdenDetallePatch): Observable<OrdenDetallePatchResponse> {
+        return this.http.patch<OrdenDetallePatchResponse>(`${this.apiUrl}/${ordenId}/detalles/${detalleId}`, cambio, {
+            headers: this.getHeaders()
+        });
+    }
+
+    /**
+     * Últimos resultados numéricos del paciente por examen, para comparar
+     * al validar (todos los exámenes, o solo examId)
+     */
+    obtenerTendencias(patientId: number, examId?: number): Observable<TendenciaResultado[]> {
+        let params = new HttpParams();
+        if (examId != null) {
+            params = params.set('examId', examId);
+        }
+        return this.http.get<TendenciaResultado[]>(`http://localhost:8080/api/patients/${patientId}/trends`, {
+            headers: this.getHeaders(),
+            params
+        });
+    }
 }
@@ -44,6 +44,18 @@ export interface Exam {
   updatedAt: string;
 }
 
+// Sugerencia del autocompletado; subExamenNombre indica el subexamen que
+// coincidió cuando se sugiere su perfil
+export interface ExamSuggestion {
+  id: number;
+  codigo: string;
+  nombre: string;
+  areaNombre: string;
+  precio?: number;
+  esPerfil: boolean;
+  subExamenNombre?: string;
+}
+
 export interface ExamRequest {
   codigo: string;
   nombre: string;
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Exam, ExamRequest, SubExam, SubExamRequest, ExamType, PageResponse } from '../models/exam.model';
+import { Exam, ExamRequest, ExamSuggestion, SubExam, SubExamRequest, ExamType, PageResponse } from '../models/exam.model';
 import { ApiResponse } from '../features/auth/services/auth.service';
 
 
@@ -55,6 +55,14 @@ export class ExamService {
         return this.http.get<ApiResponse<PageResponse<Exam>>>(`${this.apiUrl}/search`, { params });
     }
 
+    suggestExams(query: string, limit: number = 10): Observable<ApiResponse<ExamSuggestion[]>> {
+        const params = new HttpParams()
+            .set('q', query)
+            .set('limit', limit.toString());
+
+        return this.http.get<ApiResponse<ExamSuggestion[]>>(`${this.apiUrl}/suggest`, { params });
+    }
+
     getExamsByTipo(tipoExamenId: number, page: number = 0, size: number = 10): Observable<ApiResponse<PageResponse<Exam>>> {
         const params = new HttpParams()
             .set('page', page.toString())